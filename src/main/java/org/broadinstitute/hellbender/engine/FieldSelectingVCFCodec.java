@@ -0,0 +1,206 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.tribble.readers.LineIterator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFConstants;
+import htsjdk.variant.vcf.VCFHeader;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A VCF codec that only decodes the INFO fields, FORMAT fields, and samples in a {@link VariantFieldSelection}.
+ *
+ * Each record is trimmed down to the selected columns and fields before it is handed to {@link VCFCodec}, so
+ * unselected sample columns are never split out of the line or parsed, and for sites-only selections no lazy
+ * genotype data is retained at all.  The header returned by {@link #readActualHeader} contains only the selected
+ * samples, so that records and header agree.
+ *
+ * Only used for VCF 4.x inputs, and never discovered automatically as the codec for a file.
+ */
+public final class FieldSelectingVCFCodec extends VCFCodec {
+    private static final char FIELD_SEPARATOR = VCFConstants.FIELD_SEPARATOR_CHAR;
+    private static final char INFO_SEPARATOR = VCFConstants.INFO_FIELD_SEPARATOR_CHAR;
+    private static final char GENOTYPE_SEPARATOR = VCFConstants.GENOTYPE_FIELD_SEPARATOR_CHAR;
+    private static final int INFO_COLUMN = 7;
+
+    private final VariantFieldSelection selection;
+
+    /**
+     * For each sample column in the input, whether it is selected.  Set when the header is read.
+     */
+    private boolean[] sampleColumnIsSelected;
+
+    /**
+     * Reused for building trimmed records.
+     */
+    private final StringBuilder builder = new StringBuilder();
+
+    /**
+     * FORMAT column for which {@link #formatFieldIsSelected} was computed.  Consecutive records usually share it.
+     */
+    private String lastFormat;
+    private boolean[] formatFieldIsSelected;
+
+    public FieldSelectingVCFCodec(final VariantFieldSelection selection) {
+        this.selection = Utils.nonNull(selection);
+    }
+
+    public VariantFieldSelection getSelection() {
+        return selection;
+    }
+
+    @Override
+    public Object readActualHeader(final LineIterator lineIterator) {
+        final VCFHeader fullHeader = (VCFHeader) super.readActualHeader(lineIterator);
+        final List<String> allSamples = fullHeader.getGenotypeSamples();
+        final List<String> selectedSamples = new ArrayList<>();
+        sampleColumnIsSelected = new boolean[allSamples.size()];
+        for (int i = 0; i < allSamples.size(); i++) {
+            sampleColumnIsSelected[i] = selection.selectsSample(allSamples.get(i));
+            if (sampleColumnIsSelected[i]) {
+                selectedSamples.add(allSamples.get(i));
+            }
+        }
+        if (selection.selectsAllSamples()) {
+            return fullHeader;
+        }
+        final VCFHeader selectedHeader = new VCFHeader(fullHeader.getMetaDataInInputOrder(), selectedSamples);
+        setVCFHeader(selectedHeader, version);
+        return selectedHeader;
+    }
+
+    @Override
+    public VariantContext decode(final String line) {
+        return super.decode(selectFields(line));
+    }
+
+    /**
+     * @return {@code line} with unselected INFO fields, FORMAT fields, and sample columns removed
+     */
+    String selectFields(final String line) {
+        if (selection.selectsAll() || line.isEmpty() || line.charAt(0) == '#') {
+            return line;
+        }
+        // the first seven columns are kept as they are
+        int columnStart = 0;
+        for (int column = 0; column < INFO_COLUMN; column++) {
+            columnStart = line.indexOf(FIELD_SEPARATOR, columnStart) + 1;
+            if (columnStart == 0) {
+                // too few columns; let the codec report it
+                return line;
+            }
+        }
+        int columnEnd = getColumnEnd(line, columnStart);
+        builder.setLength(0);
+        builder.append(line, 0, columnStart);
+        appendInfo(line, columnStart, columnEnd);
+        if (columnEnd == line.length() || selection.isSitesOnly()) {
+            return builder.toString();
+        }
+
+        columnStart = columnEnd + 1;
+        columnEnd = getColumnEnd(line, columnStart);
+        final String format = line.substring(columnStart, columnEnd);
+        final boolean[] formatFieldIsSelected = getSelectedFormatFields(format);
+        builder.append(FIELD_SEPARATOR);
+        appendSelectedSubfields(format, 0, format.length(), GENOTYPE_SEPARATOR, formatFieldIsSelected);
+
+        for (int sampleColumn = 0; columnEnd < line.length(); sampleColumn++) {
+            columnStart = columnEnd + 1;
+            columnEnd = getColumnEnd(line, columnStart);
+            if (sampleColumn >= sampleColumnIsSelected.length || sampleColumnIsSelected[sampleColumn]) {
+                builder.append(FIELD_SEPARATOR);
+                if (formatFieldIsSelected == null) {
+                    builder.append(line, columnStart, columnEnd);
+                } else if (!appendSelectedSubfields(line, columnStart, columnEnd, GENOTYPE_SEPARATOR, formatFieldIsSelected)) {
+                    builder.append(VCFConstants.MISSING_VALUE_v4);
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int getColumnEnd(final String line, final int columnStart) {
+        final int end = line.indexOf(FIELD_SEPARATOR, columnStart);
+        return end < 0 ? line.length() : end;
+    }
+
+    private void appendInfo(final String line, final int start, final int end) {
+        if (selection.selectsAllInfoFields()) {
+            builder.append(line, start, end);
+            return;
+        }
+        final int infoStart = builder.length();
+        int fieldStart = start;
+        while (fieldStart < end) {
+            int fieldEnd = line.indexOf(INFO_SEPARATOR, fieldStart);
+            if (fieldEnd < 0 || fieldEnd > end) {
+                fieldEnd = end;
+            }
+            int keyEnd = line.indexOf('=', fieldStart);
+            if (keyEnd < 0 || keyEnd > fieldEnd) {
+                keyEnd = fieldEnd;
+            }
+            if (selection.selectsInfoField(line.substring(fieldStart, keyEnd))) {
+                if (builder.length() > infoStart) {
+                    builder.append(INFO_SEPARATOR);
+                }
+                builder.append(line, fieldStart, fieldEnd);
+            }
+            fieldStart = fieldEnd + 1;
+        }
+        if (builder.length() == infoStart) {
+            builder.append(VCFConstants.EMPTY_INFO_FIELD);
+        }
+    }
+
+    /**
+     * @return whether each field in a FORMAT column is selected, or {@code null} if all of them are
+     */
+    private boolean[] getSelectedFormatFields(final String format) {
+        if (selection.selectsAllFormatFields()) {
+            return null;
+        }
+        if (!format.equals(lastFormat)) {
+            final String[] keys = format.split(String.valueOf(GENOTYPE_SEPARATOR), -1);
+            formatFieldIsSelected = new boolean[keys.length];
+            boolean anySelected = false;
+            for (int i = 0; i < keys.length; i++) {
+                formatFieldIsSelected[i] = selection.selectsFormatField(keys[i]);
+                anySelected |= formatFieldIsSelected[i];
+            }
+            // a FORMAT column must contain at least one field
+            formatFieldIsSelected[0] |= !anySelected;
+            lastFormat = format;
+        }
+        return formatFieldIsSelected;
+    }
+
+    /**
+     * Appends the selected subfields of {@code line.substring(start, end)}, which are separated by {@code separator}.
+     * Subfields beyond the end of {@code isSelected} are dropped.
+     *
+     * @return true if anything was appended
+     */
+    private boolean appendSelectedSubfields(final String line, final int start, final int end, final char separator, final boolean[] isSelected) {
+        final int initialLength = builder.length();
+        int subfieldStart = start;
+        for (int subfield = 0; subfield < isSelected.length && subfieldStart <= end; subfield++) {
+            int subfieldEnd = line.indexOf(separator, subfieldStart);
+            if (subfieldEnd < 0 || subfieldEnd > end) {
+                subfieldEnd = end;
+            }
+            if (isSelected[subfield]) {
+                if (builder.length() > initialLength) {
+                    builder.append(separator);
+                }
+                builder.append(line, subfieldStart, subfieldEnd);
+            }
+            subfieldStart = subfieldEnd + 1;
+        }
+        return builder.length() > initialLength;
+    }
+}
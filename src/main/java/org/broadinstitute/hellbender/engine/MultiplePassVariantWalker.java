@@ -1,20 +1,43 @@
 package org.broadinstitute.hellbender.engine;
 
 import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.CountingVariantFilter;
 import org.broadinstitute.hellbender.engine.filters.VariantFilter;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * A VariantWalker that makes multiple passes through the variants.
  * This allows the user to store internal states during early passes, which the user can then
  * process and access during later passes
+ *
+ * If the variants passing filters number no more than {@link #maxVariantsCachedBetweenPasses}, the variants decoded
+ * during the first pass are held in memory and replayed during later passes, rather than being read and decoded from
+ * the input again.  Reads, reference and feature contexts are cheap views over their data sources and are recreated
+ * for each pass, so only the variants themselves are cached.
  **/
 public abstract class MultiplePassVariantWalker extends VariantWalker {
 
+    public static final String MAX_VARIANTS_CACHED_BETWEEN_PASSES_LONG_NAME = "max-variants-cached-between-passes";
+
+    @Argument(fullName = MAX_VARIANTS_CACHED_BETWEEN_PASSES_LONG_NAME, doc = "Maximum number of variants passing filters to hold in memory after the first pass. " +
+            "If all such variants fit, later passes replay them from memory instead of re-reading and re-decoding the input. Set to 0 to disable.", optional = true, minValue = 0)
+    protected int maxVariantsCachedBetweenPasses = defaultMaxVariantsCachedBetweenPasses();
+
+    /**
+     * Returns default value for the {@link #maxVariantsCachedBetweenPasses} parameter, if none is provided on the command line.
+     * Default implementation returns 0 (no caching).
+     */
+    protected int defaultMaxVariantsCachedBetweenPasses() {
+        return 0;
+    }
+
     protected abstract int numberOfPasses();
 
     /**
@@ -34,10 +57,32 @@ public abstract class MultiplePassVariantWalker extends VariantWalker {
         final CountingVariantFilter countingVariantFilter = makeVariantFilter();
         final CountingReadFilter readFilter = makeReadFilter();
 
+        // variants passing filters during the first pass, or null if they were not cached
+        List<VariantContext> cachedVariants = null;
         for (int n = 0; n < numberOfPasses(); n++) {
             logger.info("Starting pass " + n + " through the variants");
             final int nCopyInLambda = n;
-            traverseVariants(countingVariantFilter, readFilter, (vc, rc, ref, fc) -> nthPassApply(vc, rc, ref, fc, nCopyInLambda));
+            final VariantConsumer passConsumer = (vc, rc, ref, fc) -> nthPassApply(vc, rc, ref, fc, nCopyInLambda);
+            if (cachedVariants != null) {
+                traverseVariants(cachedVariants.stream(), readFilter, passConsumer);
+            } else if (n == 0 && numberOfPasses() > 1 && maxVariantsCachedBetweenPasses > 0) {
+                // keep at most one variant more than the budget, so that we can tell whether the budget was exceeded
+                final List<VariantContext> firstPassVariants = new ArrayList<>();
+                final Stream<VariantContext> variants = getFilteredDrivingVariants(countingVariantFilter)
+                        .peek(vc -> {
+                            if (firstPassVariants.size() <= maxVariantsCachedBetweenPasses) {
+                                firstPassVariants.add(vc);
+                            }
+                        });
+                traverseVariants(variants, readFilter, passConsumer);
+                if (firstPassVariants.size() <= maxVariantsCachedBetweenPasses) {
+                    cachedVariants = firstPassVariants;
+                } else {
+                    logger.info(String.format("More than %d variants passed filters, so later passes will re-read the variants", maxVariantsCachedBetweenPasses));
+                }
+            } else {
+                traverseVariants(getFilteredDrivingVariants(countingVariantFilter), readFilter, passConsumer);
+            }
             logger.info("Finished pass " + n + " through the variants");
 
             // Process the data accumulated during the nth pass
@@ -69,17 +114,20 @@ public abstract class MultiplePassVariantWalker extends VariantWalker {
      */
     protected abstract void afterNthPass(final int n);
 
-    private void traverseVariants(final VariantFilter variantFilter, final CountingReadFilter readFilter, final VariantConsumer variantConsumer){
-        StreamSupport.stream(getSpliteratorForDrivingVariants(), false)
-                .filter(variantFilter)
-                .forEach(variant -> {
-                    final SimpleInterval variantInterval = new SimpleInterval(variant);
-                    variantConsumer.consume(variant,
-                            new ReadsContext(reads, variantInterval, readFilter),
-                            new ReferenceContext(reference, variantInterval),
-                            new FeatureContext(features, variantInterval));
-                    progressMeter.update(variantInterval);
-                });
+    private Stream<VariantContext> getFilteredDrivingVariants(final VariantFilter variantFilter) {
+        return StreamSupport.stream(getSpliteratorForDrivingVariants(), false)
+                .filter(variantFilter);
+    }
+
+    private void traverseVariants(final Stream<VariantContext> variants, final CountingReadFilter readFilter, final VariantConsumer variantConsumer){
+        variants.forEach(variant -> {
+            final SimpleInterval variantInterval = new SimpleInterval(variant);
+            variantConsumer.consume(variant,
+                    new ReadsContext(reads, variantInterval, readFilter),
+                    new ReferenceContext(reference, variantInterval),
+                    new FeatureContext(features, variantInterval));
+            progressMeter.update(variantInterval);
+        });
     }
 
     @FunctionalInterface
@@ -212,13 +212,37 @@ public final class ProgressMeter {
         Utils.validate( !stopped, "the progress meter has been stopped already");
         ++numRecordsProcessed;
         if ( numRecordsProcessed % recordsBetweenTimeChecks == 0 ) {
-            currentTimeMs = timeFunction.getAsLong();
-            this.currentLocus = currentLocus;
+            checkTime(currentLocus);
+        }
+    }
+
+    /**
+     * Signal to the progress meter that a batch of records has been processed, for traversals that process records
+     * in batches rather than one at a time. Will output statistics to the logger roughly every
+     * {@link #secondsBetweenUpdates} seconds.
+     *
+     * @param currentLocus the genomic location of the last record in the batch or null if it had no location.
+     * @param numRecords the number of records in the batch. Must be non-negative.
+     * @throws IllegalStateException if the meter has not been started yet or has been stopped already
+     */
+    public void update( final Locatable currentLocus, final long numRecords ) {
+        Utils.validate(started, "the progress meter has not been started yet");
+        Utils.validate( !stopped, "the progress meter has been stopped already");
+        Utils.validateArg(numRecords >= 0, "the number of records must be non-negative");
+        final long previousTimeChecks = numRecordsProcessed / recordsBetweenTimeChecks;
+        numRecordsProcessed += numRecords;
+        if ( numRecordsProcessed / recordsBetweenTimeChecks != previousTimeChecks ) {
+            checkTime(currentLocus);
+        }
+    }
+
+    private void checkTime( final Locatable currentLocus ) {
+        currentTimeMs = timeFunction.getAsLong();
+        this.currentLocus = currentLocus;
 
-            if ( secondsSinceLastPrint() >= secondsBetweenUpdates ) {
-                printProgress();
-                lastPrintTimeMs = currentTimeMs;
-            }
+        if ( secondsSinceLastPrint() >= secondsBetweenUpdates ) {
+            printProgress();
+            lastPrintTimeMs = currentTimeMs;
         }
     }
 
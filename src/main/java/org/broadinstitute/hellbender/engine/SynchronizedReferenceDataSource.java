@@ -0,0 +1,58 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.reference.ReferenceSequence;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.iterators.ByteArrayIterator;
+
+import java.util.Iterator;
+
+/**
+ * A {@link ReferenceDataSource} that serializes all queries to an underlying data source, so that it can be shared
+ * by several threads (for example, by {@link ReferenceContext}s handed to worker threads).
+ *
+ * Queries return fully prefetched bases, so the results may be used concurrently once they have been returned.
+ * Iteration over the entire reference is delegated as-is and is not thread-safe.
+ */
+public final class SynchronizedReferenceDataSource implements ReferenceDataSource {
+
+    private final ReferenceDataSource dataSource;
+
+    /**
+     * @param dataSource the data source to wrap.  Must not be used directly by any other thread after wrapping.
+     */
+    public SynchronizedReferenceDataSource(final ReferenceDataSource dataSource) {
+        this.dataSource = Utils.nonNull(dataSource);
+    }
+
+    @Override
+    public synchronized Iterator<Byte> iterator() {
+        return dataSource.iterator();
+    }
+
+    @Override
+    public Iterator<Byte> query(final SimpleInterval interval) {
+        return new ByteArrayIterator(queryAndPrefetch(interval).getBases());
+    }
+
+    @Override
+    public synchronized ReferenceSequence queryAndPrefetch(final SimpleInterval interval) {
+        return dataSource.queryAndPrefetch(interval);
+    }
+
+    @Override
+    public synchronized ReferenceSequence queryAndPrefetch(final String contig, final long start, final long stop) {
+        return dataSource.queryAndPrefetch(contig, start, stop);
+    }
+
+    @Override
+    public synchronized SAMSequenceDictionary getSequenceDictionary() {
+        return dataSource.getSequenceDictionary();
+    }
+
+    @Override
+    public synchronized void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,102 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.variant.vcf.VCFConstants;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Declares which INFO fields, FORMAT fields, and samples of a source of variants a tool will access, so that
+ * the rest of each VCF record can be skipped when it is decoded (see {@link FeatureDataSource}).
+ *
+ * Each of the three may be {@code null}, meaning that all of them are accessed.  Records and headers decoded with a
+ * selection look as if the VCF only contained the selected fields and samples: unselected INFO and FORMAT
+ * fields are absent, and unselected samples are absent from both the records and the header.
+ *
+ * The GT field is always decoded when it is present, so that genotypes keep their ploidy and alleles.
+ */
+public final class VariantFieldSelection {
+    /**
+     * Decode everything.  This is the default for all tools.
+     */
+    public static final VariantFieldSelection ALL = new VariantFieldSelection(null, null, null);
+
+    /**
+     * Decode all INFO fields but no samples, for tools that only look at sites.
+     */
+    public static final VariantFieldSelection SITES_ONLY = new VariantFieldSelection(null, null, Collections.emptySet());
+
+    private final Set<String> infoFields;
+    private final Set<String> formatFields;
+    private final Set<String> samples;
+
+    /**
+     * @param infoFields   INFO fields to decode, or {@code null} to decode all of them
+     * @param formatFields FORMAT fields to decode, or {@code null} to decode all of them.  GT is always decoded.
+     * @param samples      samples to decode, or {@code null} to decode all of them.  Samples not present in the
+     *                     VCF are ignored.
+     */
+    public VariantFieldSelection(final Collection<String> infoFields, final Collection<String> formatFields, final Collection<String> samples) {
+        this.infoFields = copyOrNull(infoFields);
+        this.formatFields = copyOrNull(formatFields);
+        this.samples = copyOrNull(samples);
+    }
+
+    private static Set<String> copyOrNull(final Collection<String> values) {
+        if (values == null) {
+            return null;
+        }
+        Utils.containsNoNull(values, "Selected fields and samples must not be null.");
+        return Collections.unmodifiableSet(new LinkedHashSet<>(values));
+    }
+
+    /**
+     * @return true if nothing is skipped
+     */
+    public boolean selectsAll() {
+        return infoFields == null && formatFields == null && samples == null;
+    }
+
+    public boolean selectsAllInfoFields() {
+        return infoFields == null;
+    }
+
+    public boolean selectsAllFormatFields() {
+        return formatFields == null;
+    }
+
+    public boolean selectsAllSamples() {
+        return samples == null;
+    }
+
+    /**
+     * @return true if no samples are decoded
+     */
+    public boolean isSitesOnly() {
+        return samples != null && samples.isEmpty();
+    }
+
+    public boolean selectsInfoField(final String key) {
+        return infoFields == null || infoFields.contains(key);
+    }
+
+    public boolean selectsFormatField(final String key) {
+        return formatFields == null || formatFields.contains(key) || VCFConstants.GENOTYPE_KEY.equals(key);
+    }
+
+    public boolean selectsSample(final String sample) {
+        return samples == null || samples.contains(sample);
+    }
+
+    @Override
+    public String toString() {
+        return "VariantFieldSelection{" +
+                "infoFields=" + (infoFields == null ? "all" : infoFields) +
+                ", formatFields=" + (formatFields == null ? "all" : formatFields) +
+                ", samples=" + (samples == null ? "all" : samples) +
+                '}';
+    }
+}
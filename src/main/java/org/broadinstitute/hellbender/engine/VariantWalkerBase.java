@@ -128,6 +128,21 @@ public abstract class VariantWalkerBase extends WalkerBase {
         return DEFAULT_DRIVING_VARIANTS_LOOKAHEAD_BASES;
     }
 
+    /**
+     * Returns the INFO fields, FORMAT fields, and samples of the driving variants that this tool accesses. For VCF
+     * inputs, everything else is skipped while decoding, and the header returned by {@link #getHeaderForVariants}
+     * only contains the selected samples. Tools that don't look at genotypes, or only at a few fields, can read wide
+     * VCFs much faster by overriding this.
+     *
+     * Called once, when the driving variants are initialized (after argument parsing and before
+     * {@link #onTraversalStart}). Queries on the driving variants through a {@link FeatureContext} are not affected.
+     *
+     * Defaults to {@link VariantFieldSelection#ALL}.
+     */
+    protected VariantFieldSelection getDrivingVariantFieldSelection() {
+        return VariantFieldSelection.ALL;
+    }
+
     /**
      * Returns the pre-filter variant transformer (simple or composite) that will be applied to the variants before filtering.
      * The default implementation uses the {@link VariantTransformer#identity()}.
@@ -76,6 +76,19 @@ public class CountingReadFilter extends ReadFilter {
         filteredCount = 0;
     }
 
+    /**
+     * Adds the counts of another filter with the same structure to the counts of this filter, at every level. Tools
+     * that filter reads on several threads give each thread its own copy of the filter (made the same way, e.g. by
+     * {@link org.broadinstitute.hellbender.engine.GATKTool#makeReadFilter}) and use this to report the total counts.
+     * @param other filter whose counts are added; it is not modified
+     */
+    public void mergeFilteredCounts(final CountingReadFilter other) {
+        Utils.nonNull(other);
+        Utils.validateArg(getClass() == other.getClass() && getName().equals(other.getName()),
+                () -> "Cannot merge the counts of filter " + other.getName() + " into filter " + getName());
+        filteredCount += other.filteredCount;
+    }
+
     public String getName() {return delegateFilter.getClass().getSimpleName();}
 
     // Returns a summary line with filter counts organized by level
@@ -144,6 +157,12 @@ public class CountingReadFilter extends ReadFilter {
             return accept;
         }
 
+        @Override
+        public void mergeFilteredCounts(final CountingReadFilter other) {
+            super.mergeFilteredCounts(other);
+            delegateCountingFilter.mergeFilteredCounts(((CountingNegateReadFilter) other).delegateCountingFilter);
+        }
+
         @Override
         public String getName() {
             return "NOT " + delegateCountingFilter.getName();
@@ -190,6 +209,13 @@ public class CountingReadFilter extends ReadFilter {
             this.rhs.resetFilteredCount();
         }
 
+        @Override
+        public void mergeFilteredCounts(final CountingReadFilter other) {
+            super.mergeFilteredCounts(other);
+            lhs.mergeFilteredCounts(((CountingBinopReadFilter) other).lhs);
+            rhs.mergeFilteredCounts(((CountingBinopReadFilter) other).rhs);
+        }
+
         @Override
         public abstract String getName();
     }
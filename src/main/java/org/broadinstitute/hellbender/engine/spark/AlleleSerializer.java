@@ -0,0 +1,37 @@
+package org.broadinstitute.hellbender.engine.spark;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import htsjdk.variant.variantcontext.Allele;
+
+/**
+ * Compact serializer for {@link Allele}s: the reference flag followed by the allele's bases (or its symbolic, breakend,
+ * no-call or spanning deletion representation). Alleles are recreated with {@link Allele#create(byte[], boolean)},
+ * so the common single-base alleles are shared rather than allocated on each read.
+ */
+public final class AlleleSerializer extends Serializer<Allele> {
+
+    private static final byte[] NO_CALL_BASES = Allele.NO_CALL_STRING.getBytes();
+
+    public AlleleSerializer() {
+        setImmutable(true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, Allele allele) {
+        // the no-call allele has no bases of its own
+        final byte[] bases = allele.isNoCall() ? NO_CALL_BASES : allele.getDisplayBases();
+        output.writeBoolean(allele.isReference());
+        output.writeInt(bases.length, true);
+        output.writeBytes(bases);
+    }
+
+    @Override
+    public Allele read(Kryo kryo, Input input, Class<Allele> type) {
+        final boolean isReference = input.readBoolean();
+        final byte[] bases = input.readBytes(input.readInt(true));
+        return Allele.create(bases, isReference);
+    }
+}
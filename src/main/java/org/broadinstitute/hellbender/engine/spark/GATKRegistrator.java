@@ -9,14 +9,23 @@ import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
 import de.javakaffee.kryoserializers.guava.ImmutableMapSerializer;
 import htsjdk.samtools.*;
 import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.CommonInfo;
+import htsjdk.variant.variantcontext.FastGenotype;
+import htsjdk.variant.variantcontext.GenotypeType;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeaderLineType;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
 import org.apache.spark.serializer.KryoRegistrator;
 import org.bdgenomics.adam.serialization.ADAMKryoRegistrator;
+import org.broadinstitute.hellbender.engine.AssemblyRegion;
 import org.broadinstitute.hellbender.tools.funcotator.FuncotationMap;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.TableFuncotation;
 import org.broadinstitute.hellbender.tools.funcotator.metadata.VcfFuncotationMetadata;
+import org.broadinstitute.hellbender.tools.spark.sv.discovery.alignment.AlignmentInterval;
 import org.broadinstitute.hellbender.tools.spark.transforms.markduplicates.MarkDuplicatesSparkUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.SAMRecordToGATKReadAdapter;
 import org.broadinstitute.hellbender.utils.read.markduplicates.ReadsKey;
@@ -144,5 +153,21 @@ public class GATKRegistrator implements KryoRegistrator {
         kryo.register(ReadsKey.class, new FieldSerializer(kryo, ReadsKey.class));
         kryo.register(ReadsKey.KeyForFragment.class, new FieldSerializer(kryo, ReadsKey.KeyForFragment.class));
         kryo.register(ReadsKey.KeyForPair.class, new FieldSerializer(kryo, ReadsKey.KeyForPair.class));
+
+        // types that are commonly shuffled, collected or broadcast by the variant calling and SV tools: registering
+        // them means that a small integer id is written for each object instead of its fully qualified class name
+        kryo.register(SimpleInterval.class, new SimpleIntervalSerializer());
+        kryo.register(Allele.class, new AlleleSerializer());
+        kryo.register(AlignmentInterval.class, new AlignmentInterval.Serializer());
+        kryo.register(VariantContext.class);
+        kryo.register(VariantContext.Type.class);
+        kryo.register(CommonInfo.class);
+        // variants decoded from a VCF carry a LazyGenotypesContext; it is written as a plain GenotypesContext so that
+        // its codec and header are not serialized along with every variant
+        kryo.register(GenotypesContext.class, new GenotypesContextSerializer());
+        kryo.register(LazyGenotypesContext.class, new GenotypesContextSerializer());
+        kryo.register(FastGenotype.class);
+        kryo.register(GenotypeType.class);
+        kryo.register(AssemblyRegion.class);
     }
 }
@@ -80,6 +80,7 @@ public abstract class GATKSparkTool extends SparkCommandLineProgram {
     public static final String OUTPUT_SHARD_DIR_LONG_NAME = "output-shard-tmp-dir";
     public static final String CREATE_OUTPUT_BAM_SPLITTING_INDEX_LONG_NAME = "create-output-bam-splitting-index";
     public static final String USE_NIO = "use-nio";
+    public static final String MEMORY_MAP_TWO_BIT_REFERENCE_LONG_NAME = "memory-map-two-bit-reference";
 
     @ArgumentCollection
     public final ReferenceInputArgumentCollection referenceArguments = requiresReference() ? new RequiredReferenceInputArgumentCollection() :  new OptionalReferenceInputArgumentCollection();
@@ -103,6 +104,13 @@ public abstract class GATKSparkTool extends SparkCommandLineProgram {
             optional = true)
     protected boolean useNio = false;
 
+    @Argument(doc = "If true and the reference is a .2bit file, memory-map it once per executor instead of shipping " +
+            "the full reference with each task. The .2bit file must be available at the same local path on the driver " +
+            "and on every executor.",
+            fullName = MEMORY_MAP_TWO_BIT_REFERENCE_LONG_NAME,
+            optional = true)
+    protected boolean memoryMapTwoBitReference = false;
+
     @ArgumentCollection
     protected SequenceDictionaryValidationArgumentCollection sequenceDictionaryValidationArguments = getSequenceDictionaryValidationArgumentCollection();
 
@@ -588,7 +596,7 @@ public abstract class GATKSparkTool extends SparkCommandLineProgram {
     private void initializeReference() {
         final String referenceURL = referenceArguments.getReferenceFileName();
         if ( referenceURL != null ) {
-            referenceSource = new ReferenceMultiSparkSource(referenceURL, getReferenceWindowFunction());
+            referenceSource = new ReferenceMultiSparkSource(referenceURL, getReferenceWindowFunction(), memoryMapTwoBitReference);
             referenceDictionary = referenceSource.getReferenceSequenceDictionary(readsHeader != null ? readsHeader.getSequenceDictionary() : null);
             if (referenceDictionary == null) {
                 throw new UserException.MissingReferenceDictFile(referenceURL);
@@ -0,0 +1,41 @@
+package org.broadinstitute.hellbender.engine.spark;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+
+import java.util.ArrayList;
+
+/**
+ * Serializer for {@link GenotypesContext}s, including the {@link LazyGenotypesContext}s of variants decoded from a
+ * VCF: writes the mutability flag followed by the genotypes, which are decoded first if necessary.  Both are read
+ * back as a plain {@link GenotypesContext}, so the codec and header that a lazy context refers to are never
+ * serialized, and the sample name lookups, which are derived from the genotypes, are rebuilt when first needed.
+ */
+public final class GenotypesContextSerializer extends Serializer<GenotypesContext> {
+
+    @Override
+    public void write(Kryo kryo, Output output, GenotypesContext genotypes) {
+        output.writeBoolean(genotypes.isMutable());
+        output.writeInt(genotypes.size(), true);
+        for (final Genotype genotype : genotypes) {
+            kryo.writeClassAndObject(output, genotype);
+        }
+    }
+
+    @Override
+    public GenotypesContext read(Kryo kryo, Input input, Class<GenotypesContext> type) {
+        final boolean isMutable = input.readBoolean();
+        final int size = input.readInt(true);
+        final ArrayList<Genotype> genotypes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            genotypes.add((Genotype) kryo.readClassAndObject(input));
+        }
+        final GenotypesContext context = GenotypesContext.create(genotypes);
+        return isMutable ? context : context.immutable();
+    }
+}
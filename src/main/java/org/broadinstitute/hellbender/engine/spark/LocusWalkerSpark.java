@@ -1,11 +1,14 @@
 package org.broadinstitute.hellbender.engine.spark;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMSequenceDictionary;
 import org.apache.spark.SparkFiles;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.api.java.function.FlatMapFunction2;
 import org.apache.spark.broadcast.Broadcast;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineException;
@@ -14,6 +17,7 @@ import org.broadinstitute.hellbender.engine.spark.datasources.ReferenceMultiSpar
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.iterators.IntervalOverlappingIterator;
 import org.broadinstitute.hellbender.utils.locusiterator.AlignmentContextIteratorBuilder;
 import org.broadinstitute.hellbender.utils.locusiterator.LIBSDownsamplingInfo;
 import org.broadinstitute.hellbender.utils.locusiterator.LocusIteratorByState;
@@ -26,6 +30,11 @@ import java.util.stream.StreamSupport;
 /**
  * A Spark version of {@link LocusWalker}. Subclasses should implement {@link #processAlignments(JavaRDD, JavaSparkContext)}
  * and operate on the passed in RDD.
+ *
+ * By default the reads in each partition are streamed through a single {@link LocusIteratorByState} that covers all of
+ * the read shards assigned to that partition, so reads are neither grouped per shard nor duplicated for shards that
+ * they span. Reads that are needed from subsequent partitions are fetched by coalescing those partitions, rather than
+ * by a shuffle.
  */
 public abstract class LocusWalkerSpark extends GATKSparkTool {
     private static final long serialVersionUID = 1L;
@@ -44,7 +53,7 @@ public abstract class LocusWalkerSpark extends GATKSparkTool {
     @Argument(fullName="read-shard-size", shortName="read-shard-size", doc = "Maximum size of each read shard, in bases.", optional = true)
     public int readShardSize = 10000;
 
-    @Argument(doc = "whether to use the shuffle implementation or overlaps partitioning (the default)", shortName = "shuffle", fullName = "shuffle", optional = true)
+    @Argument(doc = "whether to use the shuffle implementation (which groups the reads for each shard) or streaming overlaps partitioning (the default)", shortName = "shuffle", fullName = "shuffle", optional = true)
     public boolean shuffle = false;
 
     private String referenceFileName;
@@ -90,9 +99,40 @@ public abstract class LocusWalkerSpark extends GATKSparkTool {
         final List<ShardBoundary> intervalShards = intervals.stream()
                 .flatMap(interval -> Shard.divideIntervalIntoShards(interval, readShardSize, 0, sequenceDictionary).stream())
                 .collect(Collectors.toList());
-        JavaRDD<Shard<GATKRead>> shardedReads = SparkSharder.shard(ctx, getReads(), GATKRead.class, sequenceDictionary, intervalShards, readShardSize, shuffle);
         Broadcast<FeatureManager> bFeatureManager = features == null ? null : ctx.broadcast(features);
-        return shardedReads.flatMap(getAlignmentsFunction(referenceFileName, bFeatureManager, sequenceDictionary, getHeaderForReads(), getDownsamplingInfo(), emitEmptyLoci()));
+        if (shuffle) {
+            JavaRDD<Shard<GATKRead>> shardedReads = SparkSharder.shard(ctx, getReads(), GATKRead.class, sequenceDictionary, intervalShards, readShardSize, true);
+            return shardedReads.flatMap(getAlignmentsFunction(referenceFileName, bFeatureManager, sequenceDictionary, getHeaderForReads(), getDownsamplingInfo(), emitEmptyLoci()));
+        }
+        final List<SimpleInterval> shardIntervals = intervalShards.stream().map(ShardBoundary::getInterval).collect(Collectors.toList());
+        return SparkSharder.mapPartitionsWithIntervals(ctx, getReads(), GATKRead.class, sequenceDictionary, shardIntervals, readShardSize,
+                getPartitionAlignmentsFunction(referenceFileName, bFeatureManager, sequenceDictionary, getHeaderForReads(), getDownsamplingInfo(), emitEmptyLoci()));
+    }
+
+    /**
+     * Return a function that maps the reads in a partition, and the (sorted) intervals assigned to that partition, into a
+     * tuple of alignments and their corresponding reference and features. The reads are streamed through a single
+     * {@link LocusIteratorByState} for the whole partition.
+     * @param referenceFileName the name of the reference file added via {@code SparkContext#addFile()}
+     * @param bFeatureManager the feature manager broadcast
+     * @param sequenceDictionary the sequence dictionary for the reads
+     * @param header the reads header
+     * @param downsamplingInfo the downsampling method for the reads
+     * @return a function that maps the reads and intervals of a partition into a tuple of alignments and their corresponding reference and features.
+     */
+    private static FlatMapFunction2<Iterator<GATKRead>, Iterator<SimpleInterval>, LocusWalkerContext> getPartitionAlignmentsFunction(
+            String referenceFileName, Broadcast<FeatureManager> bFeatureManager,
+            SAMSequenceDictionary sequenceDictionary, SAMFileHeader header, LIBSDownsamplingInfo downsamplingInfo, boolean isEmitEmptyLoci) {
+        return (FlatMapFunction2<Iterator<GATKRead>, Iterator<SimpleInterval>, LocusWalkerContext>) (readIterator, intervalIterator) -> {
+            final List<SimpleInterval> intervals = Lists.newArrayList(intervalIterator);
+            if (intervals.isEmpty()) {
+                return Collections.emptyIterator();
+            }
+            // only pass on the reads that overlap this partition's intervals, so no pileups are built between them
+            final Iterator<GATKRead> overlappingReads = new IntervalOverlappingIterator<>(
+                    Iterators.filter(readIterator, read -> read.getContig() != null), intervals, sequenceDictionary);
+            return getAlignmentContexts(overlappingReads, intervals, referenceFileName, bFeatureManager, sequenceDictionary, header, downsamplingInfo, isEmitEmptyLoci);
+        };
     }
 
     /**
@@ -107,27 +147,31 @@ public abstract class LocusWalkerSpark extends GATKSparkTool {
     private static FlatMapFunction<Shard<GATKRead>, LocusWalkerContext> getAlignmentsFunction(
             String referenceFileName, Broadcast<FeatureManager> bFeatureManager,
             SAMSequenceDictionary sequenceDictionary, SAMFileHeader header, LIBSDownsamplingInfo downsamplingInfo, boolean isEmitEmptyLoci) {
-        return (FlatMapFunction<Shard<GATKRead>, LocusWalkerContext>) shardedRead -> {
-            SimpleInterval interval = shardedRead.getInterval();
-            Iterator<GATKRead> readIterator = shardedRead.iterator();
-            ReferenceDataSource reference = referenceFileName == null ? null : new ReferenceFileSource(IOUtils.getPath(SparkFiles.get(referenceFileName)));
-            FeatureManager fm = bFeatureManager == null ? null : bFeatureManager.getValue();
-
-            final AlignmentContextIteratorBuilder alignmentContextIteratorBuilder = new AlignmentContextIteratorBuilder();
-            alignmentContextIteratorBuilder.setDownsamplingInfo(downsamplingInfo);
-            alignmentContextIteratorBuilder.setEmitEmptyLoci(isEmitEmptyLoci);
-            alignmentContextIteratorBuilder.setIncludeDeletions(true);
-            alignmentContextIteratorBuilder.setKeepUniqueReadListInLibs(false);
-            alignmentContextIteratorBuilder.setIncludeNs(false);
-
-            final Iterator<AlignmentContext> alignmentContextIterator = alignmentContextIteratorBuilder.build(
-                    readIterator, header, Collections.singletonList(interval), sequenceDictionary, true);
-
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(alignmentContextIterator, 0), false).map(alignmentContext -> {
-                final SimpleInterval alignmentInterval = new SimpleInterval(alignmentContext);
-                return new LocusWalkerContext(alignmentContext, new ReferenceContext(reference, alignmentInterval), new FeatureContext(fm, alignmentInterval));
-            }).iterator();
-        };
+        return (FlatMapFunction<Shard<GATKRead>, LocusWalkerContext>) shardedRead ->
+                getAlignmentContexts(shardedRead.iterator(), Collections.singletonList(shardedRead.getInterval()),
+                        referenceFileName, bFeatureManager, sequenceDictionary, header, downsamplingInfo, isEmitEmptyLoci);
+    }
+
+    private static Iterator<LocusWalkerContext> getAlignmentContexts(
+            Iterator<GATKRead> readIterator, List<SimpleInterval> intervals, String referenceFileName, Broadcast<FeatureManager> bFeatureManager,
+            SAMSequenceDictionary sequenceDictionary, SAMFileHeader header, LIBSDownsamplingInfo downsamplingInfo, boolean isEmitEmptyLoci) {
+        ReferenceDataSource reference = referenceFileName == null ? null : new ReferenceFileSource(IOUtils.getPath(SparkFiles.get(referenceFileName)));
+        FeatureManager fm = bFeatureManager == null ? null : bFeatureManager.getValue();
+
+        final AlignmentContextIteratorBuilder alignmentContextIteratorBuilder = new AlignmentContextIteratorBuilder();
+        alignmentContextIteratorBuilder.setDownsamplingInfo(downsamplingInfo);
+        alignmentContextIteratorBuilder.setEmitEmptyLoci(isEmitEmptyLoci);
+        alignmentContextIteratorBuilder.setIncludeDeletions(true);
+        alignmentContextIteratorBuilder.setKeepUniqueReadListInLibs(false);
+        alignmentContextIteratorBuilder.setIncludeNs(false);
+
+        final Iterator<AlignmentContext> alignmentContextIterator = alignmentContextIteratorBuilder.build(
+                readIterator, header, intervals, sequenceDictionary, true);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(alignmentContextIterator, 0), false).map(alignmentContext -> {
+            final SimpleInterval alignmentInterval = new SimpleInterval(alignmentContext);
+            return new LocusWalkerContext(alignmentContext, new ReferenceContext(reference, alignmentInterval), new FeatureContext(fm, alignmentInterval));
+        }).iterator();
     }
 
     @Override
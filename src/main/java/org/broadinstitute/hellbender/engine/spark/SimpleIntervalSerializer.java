@@ -0,0 +1,33 @@
+package org.broadinstitute.hellbender.engine.spark;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+
+/**
+ * Compact serializer for {@link SimpleInterval}s: the contig name followed by the start and end as variable-length ints.
+ */
+public final class SimpleIntervalSerializer extends Serializer<SimpleInterval> {
+
+    public SimpleIntervalSerializer() {
+        // intervals are immutable, so copies can share the same instance
+        setImmutable(true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, SimpleInterval interval) {
+        output.writeString(interval.getContig());
+        output.writeInt(interval.getStart(), true);
+        output.writeInt(interval.getEnd(), true);
+    }
+
+    @Override
+    public SimpleInterval read(Kryo kryo, Input input, Class<SimpleInterval> type) {
+        final String contig = input.readString();
+        final int start = input.readInt(true);
+        final int end = input.readInt(true);
+        return new SimpleInterval(contig, start, end);
+    }
+}
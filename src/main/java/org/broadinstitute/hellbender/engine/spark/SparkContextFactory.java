@@ -22,6 +22,8 @@ public final class SparkContextFactory {
 
     public static final String DEFAULT_SPARK_MASTER = determineDefaultSparkMaster();
     private static final boolean SPARK_DEBUG_ENABLED = Boolean.getBoolean("gatk.spark.debug");
+    // set to make tests fail if an object of a class that is not registered with Kryo is serialized
+    private static final boolean SPARK_KRYO_REGISTRATION_REQUIRED = Boolean.getBoolean("gatk.spark.kryo.registrationRequired");
     private static final String SPARK_CORES_ENV_VARIABLE = "GATK_TEST_SPARK_CORES";
     private static final String TEST_PROJECT_ENV_VARIABLE = "HELLBENDER_TEST_PROJECT";
     private static final String TEST_JSON_KEYFILE_ENV_VARIABLE = "HELLBENDER_JSON_SERVICE_ACCOUNT_KEY";
@@ -61,6 +63,7 @@ public final class SparkContextFactory {
         return ImmutableMap.<String, String>builder()
                 .put("spark.ui.enabled", Boolean.toString(SPARK_DEBUG_ENABLED))
                 .put("spark.kryoserializer.buffer.max", "256m")
+                .put("spark.kryo.registrationRequired", Boolean.toString(SPARK_KRYO_REGISTRATION_REQUIRED))
                 .put("spark.hadoop.fs.file.impl.disable.cache", "true") // so NonChecksumLocalFileSystem is not cached between tests
                 .putAll(getGcsHadoopAdapterTestProperties())
                 .build();
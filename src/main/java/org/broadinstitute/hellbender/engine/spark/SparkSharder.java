@@ -133,6 +133,40 @@ public class SparkSharder {
                 });
     }
 
+    /**
+     * Apply a function to each partition of an RDD of coordinate sorted {@link Locatable} objects, together with the
+     * intervals that are assigned to that partition, <i>without using a shuffle</i>.
+     *
+     * Unlike {@link #shard}, the locatables are not collected into a separate (and, for overlapping intervals, duplicated)
+     * group per interval. Instead the function is given one iterator over every locatable in the partition, followed by
+     * those from any subsequent partitions that are needed to cover the partition's intervals, so it can stream over
+     * them. Each interval is assigned to exactly one partition.
+     *
+     * @param ctx the Spark Context
+     * @param locatables the RDD of {@link Locatable}, must be coordinate sorted
+     * @param locatableClass the class of the {@link Locatable} objects in the RDD
+     * @param sequenceDictionary the sequence dictionary to use to find contig lengths
+     * @param intervals the intervals to assign to partitions, must be coordinate sorted
+     * @param maxLocatableLength the maximum length of a {@link Locatable}, if any is larger than this size then an exception will be thrown
+     * @param f the function to apply to the locatables and the (coordinate sorted) intervals of each partition
+     * @param <L> the {@link Locatable} type
+     * @param <I> the interval type
+     * @param <T> the return type of <code>f</code>
+     * @return the concatenation of the results of applying <code>f</code> to each partition
+     */
+    public static <L extends Locatable, I extends Locatable, T> JavaRDD<T> mapPartitionsWithIntervals(JavaSparkContext ctx, JavaRDD<L> locatables, Class<L> locatableClass,
+                                                                                                      SAMSequenceDictionary sequenceDictionary, List<I> intervals,
+                                                                                                      int maxLocatableLength, FlatMapFunction2<Iterator<L>, Iterator<I>, T> f) {
+        return joinOverlapping(ctx, locatables, locatableClass, sequenceDictionary, intervals, maxLocatableLength,
+                (FlatMapFunction2<Iterator<L>, Iterator<I>, T>) (locatablesIterator, intervalsIterator) -> {
+                    final Iterator<L> checkedLocatables = Iterators.transform(locatablesIterator, locatable -> {
+                        checkLocatableLength(locatable, maxLocatableLength);
+                        return locatable;
+                    });
+                    return f.call(checkedLocatables, intervalsIterator);
+                });
+    }
+
     /**
      * Join an RDD of locatables with a set of intervals, and apply a function to process the locatables that overlap each interval.
      * @param ctx the Spark Context
@@ -287,12 +321,7 @@ public class SparkSharder {
 
                 while (locatables.hasNext() && nextShard == null) {
                     L locatable = locatables.next();
-                    if (locatable.getContig() != null) {
-                        int size = locatable.getEnd() - locatable.getStart() + 1;
-                        if (size > maxLocatableLength) {
-                            throw new UserException(String.format("Max size of locatable exceeded. Max size is %s, but locatable size is %s. Try increasing shard size and/or padding. Locatable: %s", maxLocatableLength, size, locatable));
-                        }
-                    }
+                    checkLocatableLength(locatable, maxLocatableLength);
 
                     // Add any new shards that start before the end of the read to the queue
                     while (peekingShards.hasNext() && !IntervalUtils.isAfter(peekingShards.peek(), locatable, sequenceDictionary)) {
@@ -335,6 +364,15 @@ public class SparkSharder {
         return iterator;
     }
 
+    private static void checkLocatableLength(Locatable locatable, int maxLocatableLength) {
+        if (locatable.getContig() != null) {
+            int size = locatable.getEnd() - locatable.getStart() + 1;
+            if (size > maxLocatableLength) {
+                throw new UserException(String.format("Max size of locatable exceeded. Max size is %s, but locatable size is %s. Try increasing shard size and/or padding. Locatable: %s", maxLocatableLength, size, locatable));
+            }
+        }
+    }
+
     private static class PendingShard<L extends Locatable, I extends Locatable> implements Locatable {
         private I interval;
         private List<L> locatables = new ArrayList<>();
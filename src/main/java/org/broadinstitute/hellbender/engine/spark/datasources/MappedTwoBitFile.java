@@ -0,0 +1,230 @@
+package org.broadinstitute.hellbender.engine.spark.datasources;
+
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only view of a .2bit file that is memory-mapped rather than loaded onto the heap.
+ *
+ * Only the file index and the N-block tables of each sequence are read eagerly; the packed bases stay in the
+ * page cache and are decoded on demand for each query, so many concurrent tasks in the same JVM can share a
+ * single mapping. Soft-mask blocks are ignored, matching the upper-case output of {@link ReferenceTwoBitSparkSource}.
+ *
+ * Instances are immutable after construction and safe to query from multiple threads.
+ */
+final class MappedTwoBitFile {
+    private static final int MAGIC_NUMBER = 0x1A412743;
+    private static final int HEADER_SIZE = 16;
+    private static final byte[] BASES = {'T', 'C', 'A', 'G'};
+
+    private final Map<String, TwoBitSequence> sequences;
+
+    /**
+     * Maps the given .2bit file. The path must be on a filesystem that supports {@link FileChannel#map}.
+     */
+    MappedTwoBitFile(final Path path) throws IOException {
+        Utils.nonNull(path);
+        try ( final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) ) {
+            final ByteBuffer header = readFully(channel, 0, HEADER_SIZE, ByteOrder.LITTLE_ENDIAN);
+            final ByteOrder order;
+            if ( header.getInt(0) == MAGIC_NUMBER ) {
+                order = ByteOrder.LITTLE_ENDIAN;
+            } else if ( header.order(ByteOrder.BIG_ENDIAN).getInt(0) == MAGIC_NUMBER ) {
+                order = ByteOrder.BIG_ENDIAN;
+            } else {
+                throw new UserException.MalformedFile(path, "not a .2bit file (bad magic number)");
+            }
+            header.order(order);
+            final int version = header.getInt(4);
+            if ( version != 0 && version != 1 ) {
+                throw new UserException.MalformedFile(path, "unsupported .2bit version " + version);
+            }
+            final int sequenceCount = header.getInt(8);
+
+            // version 1 files use 64-bit record offsets in the index
+            final List<String> names = new ArrayList<>(sequenceCount);
+            final long[] recordOffsets = new long[sequenceCount];
+            long position = HEADER_SIZE;
+            for ( int i = 0; i < sequenceCount; i++ ) {
+                final int nameSize = Byte.toUnsignedInt(readFully(channel, position, 1, order).get(0));
+                final ByteBuffer entry = readFully(channel, position + 1, nameSize + (version == 0 ? 4 : 8), order);
+                final byte[] name = new byte[nameSize];
+                entry.get(name);
+                names.add(new String(name, StandardCharsets.US_ASCII));
+                recordOffsets[i] = version == 0 ? Integer.toUnsignedLong(entry.getInt()) : entry.getLong();
+                position += 1 + entry.capacity();
+            }
+
+            final List<PendingSequence> pending = new ArrayList<>(sequenceCount);
+            for ( int i = 0; i < sequenceCount; i++ ) {
+                pending.add(readSequenceHeader(channel, names.get(i), recordOffsets[i], order));
+            }
+            this.sequences = mapSequences(channel, pending);
+        }
+    }
+
+    /**
+     * @return the sequence names in file order, mapped to their lengths
+     */
+    Map<String, Integer> getSequenceLengths() {
+        final Map<String, Integer> lengths = new LinkedHashMap<>(sequences.size());
+        sequences.forEach((name, sequence) -> lengths.put(name, sequence.length));
+        return lengths;
+    }
+
+    /**
+     * @return the length of the named sequence, or -1 if it is not present
+     */
+    int getSequenceLength(final String name) {
+        final TwoBitSequence sequence = sequences.get(name);
+        return sequence == null ? -1 : sequence.length;
+    }
+
+    /**
+     * Decodes the bases in the zero-based, half-open range [start, end) of the named sequence.
+     */
+    byte[] getBases(final String name, final int start, final int end) {
+        final TwoBitSequence sequence = sequences.get(name);
+        Utils.nonNull(sequence, () -> "Contig " + name + " not found in reference dictionary");
+        Utils.validateArg(start >= 0 && start <= end && end <= sequence.length,
+                () -> "invalid range [" + start + ", " + end + ") for contig " + name + " of length " + sequence.length);
+        final byte[] bases = new byte[end - start];
+        final ByteBuffer packed = sequence.packedBases;
+        final int base = sequence.packedOffset;
+        for ( int i = start; i < end; i++ ) {
+            final int packedByte = packed.get(base + (i >>> 2));
+            bases[i - start] = BASES[(packedByte >>> (6 - 2 * (i & 3))) & 3];
+        }
+        sequence.applyNBlocks(bases, start, end);
+        return bases;
+    }
+
+    private static PendingSequence readSequenceHeader(final FileChannel channel, final String name, final long offset, final ByteOrder order) throws IOException {
+        final ByteBuffer counts = readFully(channel, offset, 8, order);
+        final int length = counts.getInt();
+        final int nBlockCount = counts.getInt();
+        final ByteBuffer nBlocks = readFully(channel, offset + 8, 8 * nBlockCount + 4, order);
+        final int[] nBlockStarts = new int[nBlockCount];
+        final int[] nBlockSizes = new int[nBlockCount];
+        nBlocks.asIntBuffer().get(nBlockStarts);
+        nBlocks.position(4 * nBlockCount);
+        nBlocks.asIntBuffer().get(nBlockSizes);
+        final int maskBlockCount = nBlocks.getInt(8 * nBlockCount);
+        // skip the mask block tables and the reserved word
+        final long packedStart = offset + 8 + 8L * nBlockCount + 4 + 8L * maskBlockCount + 4;
+        return new PendingSequence(name, length, nBlockStarts, nBlockSizes, packedStart);
+    }
+
+    /**
+     * Groups consecutive sequences into as few mappings as possible, since each mapping is limited to
+     * {@link Integer#MAX_VALUE} bytes and the number of mappings per process is limited by the OS.
+     */
+    private static Map<String, TwoBitSequence> mapSequences(final FileChannel channel, final List<PendingSequence> pending) throws IOException {
+        final List<PendingSequence> byOffset = new ArrayList<>(pending);
+        byOffset.sort(Comparator.comparingLong(p -> p.packedStart));
+
+        final Map<PendingSequence, TwoBitSequence> mapped = new LinkedHashMap<>(pending.size());
+        int groupStart = 0;
+        while ( groupStart < byOffset.size() ) {
+            final long regionStart = byOffset.get(groupStart).packedStart;
+            long regionEnd = byOffset.get(groupStart).packedEnd();
+            int groupEnd = groupStart + 1;
+            while ( groupEnd < byOffset.size() && byOffset.get(groupEnd).packedEnd() - regionStart <= Integer.MAX_VALUE ) {
+                regionEnd = Math.max(regionEnd, byOffset.get(groupEnd).packedEnd());
+                groupEnd++;
+            }
+            Utils.validate(regionEnd - regionStart <= Integer.MAX_VALUE, "a single .2bit sequence is too large to memory-map");
+            final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionEnd - regionStart);
+            for ( final PendingSequence sequence : byOffset.subList(groupStart, groupEnd) ) {
+                mapped.put(sequence, new TwoBitSequence(sequence, region, (int) (sequence.packedStart - regionStart)));
+            }
+            groupStart = groupEnd;
+        }
+
+        final Map<String, TwoBitSequence> sequences = new LinkedHashMap<>(pending.size());
+        for ( final PendingSequence sequence : pending ) {
+            sequences.put(sequence.name, mapped.get(sequence));
+        }
+        return Collections.unmodifiableMap(sequences);
+    }
+
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int size, final ByteOrder order) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(order);
+        while ( buffer.hasRemaining() ) {
+            if ( channel.read(buffer, position + buffer.position()) < 0 ) {
+                throw new EOFException("unexpected end of .2bit file at offset " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class PendingSequence {
+        private final String name;
+        private final int length;
+        private final int[] nBlockStarts;
+        private final int[] nBlockSizes;
+        private final long packedStart;
+
+        private PendingSequence(final String name, final int length, final int[] nBlockStarts, final int[] nBlockSizes, final long packedStart) {
+            this.name = name;
+            this.length = length;
+            this.nBlockStarts = nBlockStarts;
+            this.nBlockSizes = nBlockSizes;
+            this.packedStart = packedStart;
+        }
+
+        private long packedEnd() {
+            return packedStart + (length + 3L) / 4;
+        }
+    }
+
+    private static final class TwoBitSequence {
+        private final int length;
+        private final int[] nBlockStarts;
+        private final int[] nBlockSizes;
+        private final ByteBuffer packedBases;
+        private final int packedOffset;
+
+        private TwoBitSequence(final PendingSequence pending, final ByteBuffer packedBases, final int packedOffset) {
+            this.length = pending.length;
+            this.nBlockStarts = pending.nBlockStarts;
+            this.nBlockSizes = pending.nBlockSizes;
+            this.packedBases = packedBases;
+            this.packedOffset = packedOffset;
+        }
+
+        /**
+         * Overwrites the bases in [start, end) that fall within an N block. N blocks are sorted by start
+         * and non-overlapping, so we only need to look from the last block starting at or before start.
+         */
+        private void applyNBlocks(final byte[] bases, final int start, final int end) {
+            final int searchResult = Arrays.binarySearch(nBlockStarts, start);
+            int block = searchResult >= 0 ? searchResult : Math.max(0, -searchResult - 2);
+            for ( ; block < nBlockStarts.length && nBlockStarts[block] < end; block++ ) {
+                final int from = Math.max(start, nBlockStarts[block]);
+                final int to = Math.min(end, nBlockStarts[block] + nBlockSizes[block]);
+                if ( from < to ) {
+                    Arrays.fill(bases, from - start, to - start, (byte) 'N');
+                }
+            }
+        }
+    }
+}
@@ -74,6 +74,12 @@ public final class ReadsSparkSink {
 
     /**
      * writeReads writes rddReads to outputFile with header as the file header.
+     *
+     * For {@link ReadsWriteFormat#SINGLE} BAM output, the BAI and SBI are not built by a separate pass over the merged file:
+     * each partition computes the index for its own part while writing it, and the driver merges the part indexes
+     * (adjusting their virtual offsets) when it concatenates the parts. Indexes are not written for
+     * {@link ReadsWriteFormat#SHARDED} output.
+     *
      * @param ctx the JavaSparkContext to write.
      * @param outputFile path to the output bam.
      * @param referenceFile path to the reference. required for cram output, otherwise may be null.
@@ -0,0 +1,108 @@
+package org.broadinstitute.hellbender.engine.spark.datasources;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.reference.ReferenceBases;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A ReferenceSource impl that memory-maps a .2bit file once per JVM instead of loading it into a byte array.
+ *
+ * Unlike {@link ReferenceTwoBitSparkSource}, serializing this object only ships the path of the reference, so
+ * it is cheap to capture in task closures. The reference must be present at the same local path on the driver
+ * and on every executor (e.g., on a shared filesystem, or distributed to the nodes before the job is run).
+ * All sources that refer to the same file within a JVM share a single mapping, which is opened on first use
+ * and kept for the lifetime of the JVM.
+ */
+public class ReferenceMappedTwoBitSparkSource implements ReferenceSparkSource, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // one mapping per file per JVM, shared by all tasks running in that JVM
+    private static final Map<String, MappedTwoBitFile> MAPPED_FILES = new ConcurrentHashMap<>();
+
+    private final String referencePath;
+    private transient MappedTwoBitFile twoBitFile;
+
+    /**
+     * @param referenceURL path to a .2bit file on a local (or locally mounted) filesystem
+     */
+    public ReferenceMappedTwoBitSparkSource(final String referenceURL) {
+        Utils.nonNull(referenceURL);
+        Utils.validateArg(ReferenceTwoBitSparkSource.isTwoBit(referenceURL), "ReferenceMappedTwoBitSparkSource can only take .2bit files");
+        if ( BucketUtils.isRemoteStorageUrl(referenceURL) ) {
+            throw new UserException.CouldNotReadInputFile(referenceURL,
+                    "a .2bit reference can only be memory-mapped from a local filesystem path");
+        }
+        final Path path = IOUtils.getPath(referenceURL).toAbsolutePath().normalize();
+        if ( !Files.exists(path) ) {
+            throw new UserException.MissingReference("The specified .2bit file (" + path.toUri() + ") does not exist.");
+        }
+        this.referencePath = path.toString();
+        // map eagerly on the driver so that a malformed file fails fast
+        getTwoBitFile();
+    }
+
+    /**
+     * Returns whether this reference source can be used with Spark broadcast. Broadcasting this source is
+     * cheap, since only the path is serialized.
+     */
+    @Override
+    public boolean isCompatibleWithSparkBroadcast() {
+        return true;
+    }
+
+    /**
+     * Gets the reference bases spanning the requested interval. If the interval ends beyond the end of its
+     * contig according to our reference source's dictionary, it will be truncated at the contig end.
+     *
+     * @param interval query interval
+     * @return A ReferenceBases containing the reference bases spanning the requested interval, cropped at the
+     *         contig end if necessary
+     */
+    @Override
+    public ReferenceBases getReferenceBases(final SimpleInterval interval) throws IOException {
+        final MappedTwoBitFile file = getTwoBitFile();
+        final int contigLength = file.getSequenceLength(interval.getContig());
+        Utils.validateArg(contigLength >= 0, () -> "Contig " + interval.getContig() + " not found in reference dictionary");
+        final SimpleInterval queryInterval = new SimpleInterval(interval.getContig(), interval.getStart(), Math.min(interval.getEnd(), contigLength));
+        final byte[] bases = file.getBases(queryInterval.getContig(), queryInterval.getStart() - 1, queryInterval.getEnd());
+        return new ReferenceBases(bases, queryInterval);
+    }
+
+    @Override
+    public SAMSequenceDictionary getReferenceSequenceDictionary(final SAMSequenceDictionary optReadSequenceDictionaryToMatch) throws IOException {
+        final List<SAMSequenceRecord> records = getTwoBitFile().getSequenceLengths().entrySet().stream()
+                .map(entry -> new SAMSequenceRecord(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return new SAMSequenceDictionary(records);
+    }
+
+    private MappedTwoBitFile getTwoBitFile() {
+        if ( twoBitFile == null ) {
+            twoBitFile = MAPPED_FILES.computeIfAbsent(referencePath, ReferenceMappedTwoBitSparkSource::mapFile);
+        }
+        return twoBitFile;
+    }
+
+    private static MappedTwoBitFile mapFile(final String path) {
+        final Path twoBitPath = IOUtils.getPath(path);
+        try {
+            return new MappedTwoBitFile(twoBitPath);
+        } catch ( final IOException e ) {
+            throw new UserException.CouldNotReadInputFile(twoBitPath, "could not memory-map .2bit reference", e);
+        }
+    }
+}
@@ -35,8 +35,23 @@ public class ReferenceMultiSparkSource implements ReferenceSparkSource, Serializ
      */
     public ReferenceMultiSparkSource( final String referenceURL,
                                       final SerializableFunction<GATKRead, SimpleInterval> referenceWindowFunction) {
+        this(referenceURL, referenceWindowFunction, false);
+    }
+
+    /**
+     * @param referenceURL the name of the reference (if using the Google Genomics API), or a path to the reference file
+     * @param referenceWindowFunction the custom reference window function used to map reads to desired reference bases
+     * @param memoryMapTwoBit if true and the reference is a .2bit file, memory-map it once per JVM rather than loading
+     *                        it into memory (see {@link ReferenceMappedTwoBitSparkSource}). The file must then be
+     *                        available at the same local path on every executor.
+     */
+    public ReferenceMultiSparkSource( final String referenceURL,
+                                      final SerializableFunction<GATKRead, SimpleInterval> referenceWindowFunction,
+                                      final boolean memoryMapTwoBit) {
         Utils.nonNull(referenceWindowFunction);
-        if ( ReferenceTwoBitSparkSource.isTwoBit(referenceURL)) {
+        if ( memoryMapTwoBit && ReferenceTwoBitSparkSource.isTwoBit(referenceURL) ) {
+            referenceSource = new ReferenceMappedTwoBitSparkSource(referenceURL);
+        } else if ( ReferenceTwoBitSparkSource.isTwoBit(referenceURL)) {
             try {
                 referenceSource = new ReferenceTwoBitSparkSource(referenceURL);
             } catch (IOException e) {
@@ -1,7 +1,9 @@
 package org.broadinstitute.hellbender.tools.copynumber;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SamReaderFactory;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.barclay.help.DocumentedFeature;
@@ -10,21 +12,39 @@ import org.broadinstitute.hellbender.cmdline.programgroups.CoverageAnalysisProgr
 import org.broadinstitute.hellbender.engine.AlignmentContext;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.LocusWalker;
+import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.tools.copynumber.arguments.CopyNumberArgumentValidationUtils;
+import org.broadinstitute.hellbender.tools.copynumber.datacollection.AllelicCountAccumulator;
 import org.broadinstitute.hellbender.tools.copynumber.datacollection.AllelicCountCollector;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.AllelicCountCollection;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.Metadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.MetadataUtils;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.Nucleotide;
+import org.broadinstitute.hellbender.utils.OrderedResultQueue;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.IntStream;
 
 /**
  * Collects reference and alternate allele counts at specified sites. The alt count is defined as the
@@ -32,6 +52,16 @@ import java.util.List;
  * with ties broken by the order of the bases in {@link AllelicCountCollector#BASES}. Only reads that pass the
  * specified read filters and bases that exceed the specified {@code minimum-base-quality} will be counted.
  *
+ * <p>
+ *     By default, counts are collected from a pileup at each site.  If {@code read-centric-traversal} is specified,
+ *     sites are instead split into contiguous shards that are traversed concurrently, with each read matched against
+ *     the sorted site positions in its shard and base counts accumulated in primitive arrays; shards are then
+ *     combined in order.  This is considerably faster when collecting counts at many sites (e.g., at common SNPs
+ *     across a whole genome) and yields identical output, but does not support downsampling via
+ *     {@code max-depth-per-sample}.  Note that a position is stored for every site, so intervals should
+ *     be restricted to the sites of interest.
+ * </p>
+ *
  * <h3>Inputs</h3>
  *
  * <ul>
@@ -68,6 +98,16 @@ import java.util.List;
  *          -O sample.allelicCounts.tsv
  * </pre>
  *
+ * <pre>
+ *     gatk CollectAllelicCounts \
+ *          -I sample.bam \
+ *          -R reference.fa \
+ *          -L sites.interval_list \
+ *          --read-centric-traversal \
+ *          --number-of-threads 8 \
+ *          -O sample.allelicCounts.tsv
+ * </pre>
+ *
  * @author Lee Lichtenstein &lt;lichtens@broadinstitute.org&gt;
  * @author Samuel Lee &lt;slee@broadinstitute.org&gt;
  */
@@ -87,7 +127,19 @@ public final class CollectAllelicCounts extends LocusWalker {
             ReadFilterLibrary.NOT_DUPLICATE,
             new MappingQualityReadFilter(DEFAULT_MINIMUM_MAPPING_QUALITY));
 
+    /**
+     * Maximum number of sites traversed by a single thread in read-centric mode.
+     */
+    private static final int MAXIMUM_NUMBER_OF_SITES_PER_SHARD = 10000;
+
+    /**
+     * Maximum number of shards per thread that may be traversed before earlier shards are collected in read-centric mode.
+     */
+    private static final int MAXIMUM_NUMBER_OF_PENDING_SHARDS_PER_THREAD = 4;
+
     public static final String MINIMUM_BASE_QUALITY_LONG_NAME = "minimum-base-quality";
+    public static final String READ_CENTRIC_TRAVERSAL_LONG_NAME = "read-centric-traversal";
+    public static final String NUMBER_OF_THREADS_LONG_NAME = "number-of-threads";
 
     @Argument(
             doc = "Output file for allelic counts.",
@@ -104,6 +156,22 @@ public final class CollectAllelicCounts extends LocusWalker {
     )
     private int minimumBaseQuality = DEFAULT_MINIMUM_BASE_QUALITY;
 
+    @Argument(
+            doc = "If true, collect counts by matching reads against sites rather than by constructing pileups, " +
+                    "traversing shards of sites concurrently.  Downsampling is not supported in this mode.",
+            fullName = READ_CENTRIC_TRAVERSAL_LONG_NAME,
+            optional = true
+    )
+    private boolean useReadCentricTraversal = false;
+
+    @Argument(
+            doc = "Number of threads used to traverse shards of sites.  Only used if " + READ_CENTRIC_TRAVERSAL_LONG_NAME + " is specified.",
+            fullName = NUMBER_OF_THREADS_LONG_NAME,
+            minValue = 1,
+            optional = true
+    )
+    private int numThreads = 4;
+
     private AllelicCountCollector allelicCountCollector;
 
     @Override
@@ -145,6 +213,150 @@ public final class CollectAllelicCounts extends LocusWalker {
 
     private void validateArguments() {
         CopyNumberArgumentValidationUtils.validateOutputFiles(outputAllelicCountsFile);
+        ParamUtils.isPositive(numThreads, "Number of threads must be positive.");
+        Utils.validateArg(!useReadCentricTraversal || maxDepthPerSample == 0,
+                String.format("Downsampling is not supported if %s is specified.", READ_CENTRIC_TRAVERSAL_LONG_NAME));
+    }
+
+    /**
+     * If {@link #useReadCentricTraversal} is specified, replaces the pileup-based traversal with one
+     * that matches reads against shards of sites.  Otherwise, the default {@link LocusWalker} traversal is used.
+     */
+    @Override
+    public void traverse() {
+        if (!useReadCentricTraversal) {
+            super.traverse();
+            return;
+        }
+
+        final List<AllelicCountAccumulator> shards = createShards();
+        final int numThreadsUsed = Math.min(numThreads, Math.max(shards.size(), 1));
+        logger.info(String.format("Collecting allelic counts from %d shards of sites on %d threads...", shards.size(), numThreadsUsed));
+
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("collect-allelic-counts-thread-%d").setDaemon(true).build();
+        final List<ShardWorker> workers = new ArrayList<>(numThreadsUsed);
+        try {
+            for (int i = 0; i < numThreadsUsed; i++) {
+                workers.add(new ShardWorker(threadFactory));
+            }
+            //shards are in traversal order, so combining them in order yields the same ordering as the pileup-based traversal
+            final OrderedResultQueue<AllelicCountAccumulator> pendingShards = new OrderedResultQueue<>();
+            final int maxPendingShards = MAXIMUM_NUMBER_OF_PENDING_SHARDS_PER_THREAD * numThreadsUsed;
+            String previousContig = null;
+            int previousLastPosition = 0;
+            for (int shardIndex = 0; shardIndex < shards.size(); shardIndex++) {
+                final AllelicCountAccumulator shard = shards.get(shardIndex);
+                final List<SimpleInterval> siteIntervals = shard.getSiteIntervals();
+                //a read overlapping the last site of the previous shard is also traversed by that shard,
+                //so only reads starting after that site are counted by the read filter in this one
+                final int firstCountedReadStart = shard.getContig().equals(previousContig) ? previousLastPosition + 1 : 0;
+                previousContig = shard.getContig();
+                previousLastPosition = siteIntervals.get(siteIntervals.size() - 1).getEnd();
+                pendingShards.add(workers.get(shardIndex % numThreadsUsed).submit(shard, siteIntervals, firstCountedReadStart),
+                        () -> "collecting allelic counts at sites starting at " + siteIntervals.get(0).getContig() + ":" + siteIntervals.get(0).getStart());
+                pendingShards.consume(maxPendingShards, this::collectFromShard);
+            }
+            pendingShards.consume(0, this::collectFromShard);
+
+            final CountingReadFilter countedFilter = makeReadFilter();
+            workers.forEach(worker -> countedFilter.mergeFilteredCounts(worker.countedFilter));
+            logger.info(countedFilter.getSummaryLine());
+        } finally {
+            workers.forEach(ShardWorker::close);
+        }
+    }
+
+    private void collectFromShard(final AllelicCountAccumulator shard) {
+        allelicCountCollector.collectFromAccumulator(shard);
+        final List<SimpleInterval> siteIntervals = shard.getSiteIntervals();
+        progressMeter.update(siteIntervals.get(siteIntervals.size() - 1), shard.getNumSites());
+    }
+
+    /**
+     * Splits every position in the traversal intervals into contiguous shards of sites on a single contig,
+     * fetching the reference base at each site.
+     */
+    private List<AllelicCountAccumulator> createShards() {
+        final Map<String, List<SimpleInterval>> contigToIntervals = new LinkedHashMap<>();
+        for (final SimpleInterval interval : getTraversalIntervals()) {
+            contigToIntervals.computeIfAbsent(interval.getContig(), c -> new ArrayList<>()).add(interval);
+        }
+
+        final List<AllelicCountAccumulator> shards = new ArrayList<>();
+        try (final ReferenceDataSource referenceDataSource = ReferenceDataSource.of(referenceArguments.getReferencePath())) {
+            for (final Map.Entry<String, List<SimpleInterval>> entry : contigToIntervals.entrySet()) {
+                final String contig = entry.getKey();
+                final int[] positions = entry.getValue().stream()
+                        .flatMapToInt(i -> IntStream.rangeClosed(i.getStart(), i.getEnd()))
+                        .toArray();
+                final Nucleotide[] refBases = new Nucleotide[positions.length];
+                int siteIndex = 0;
+                for (final SimpleInterval interval : entry.getValue()) {
+                    for (final byte refBase : referenceDataSource.queryAndPrefetch(interval).getBases()) {
+                        refBases[siteIndex++] = Nucleotide.decode(refBase);
+                    }
+                }
+                for (int start = 0; start < positions.length; start += MAXIMUM_NUMBER_OF_SITES_PER_SHARD) {
+                    final int end = Math.min(start + MAXIMUM_NUMBER_OF_SITES_PER_SHARD, positions.length);
+                    shards.add(new AllelicCountAccumulator(contig,
+                            Arrays.copyOfRange(positions, start, end), Arrays.copyOfRange(refBases, start, end), minimumBaseQuality));
+                }
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Traverses shards of sites on its own thread, reusing a single reader for all of them.  Each worker has its own
+     * read filters and transformers, so that shards can be traversed concurrently.
+     */
+    private final class ShardWorker implements AutoCloseable {
+        private final ExecutorService executor;
+        private final ReadsDataSource readsDataSource;
+        //counts reads that are not also traversed by the previous shard, so that each read is counted once
+        private final CountingReadFilter countedFilter;
+        private final CountingReadFilter uncountedFilter;
+        private final ReadTransformer preReadFilterTransformer;
+        private final ReadTransformer postReadFilterTransformer;
+
+        private ShardWorker(final ThreadFactory threadFactory) {
+            executor = Executors.newSingleThreadExecutor(threadFactory);
+            final SamReaderFactory factory = SamReaderFactory.makeDefault()
+                    .validationStringency(readArguments.getReadValidationStringency())
+                    .referenceSequence(referenceArguments.getReferencePath());
+            readsDataSource = new ReadsDataSource(readArguments.getReadPaths(), readArguments.getReadIndexPaths(),
+                    factory, cloudPrefetchBuffer, cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer);
+            countedFilter = makeReadFilter();
+            uncountedFilter = makeReadFilter();
+            preReadFilterTransformer = makePreReadFilterTransformer();
+            postReadFilterTransformer = makePostReadFilterTransformer();
+        }
+
+        /**
+         * Traverses the reads overlapping the sites in a single shard.
+         * @param firstCountedReadStart reads starting before this position are not counted by the read filter
+         */
+        private Future<AllelicCountAccumulator> submit(final AllelicCountAccumulator shard,
+                                                       final List<SimpleInterval> siteIntervals,
+                                                       final int firstCountedReadStart) {
+            return executor.submit(() -> {
+                readsDataSource.setTraversalBounds(siteIntervals);
+                for (final GATKRead read : readsDataSource) {
+                    final GATKRead transformedRead = preReadFilterTransformer.apply(read);
+                    final CountingReadFilter filter = read.getStart() >= firstCountedReadStart ? countedFilter : uncountedFilter;
+                    if (filter.test(transformedRead)) {
+                        shard.add(postReadFilterTransformer.apply(transformedRead));
+                    }
+                }
+                return shard;
+            });
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            readsDataSource.close();
+        }
     }
 
     @Override
@@ -0,0 +1,254 @@
+package org.broadinstitute.hellbender.tools.copynumber;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SamReaderFactory;
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
+import org.broadinstitute.barclay.help.DocumentedFeature;
+import org.broadinstitute.hellbender.cmdline.GATKPlugin.GATKReadFilterPluginDescriptor;
+import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.cmdline.programgroups.CoverageAnalysisProgramGroup;
+import org.broadinstitute.hellbender.engine.GATKTool;
+import org.broadinstitute.hellbender.engine.ReadsDataSource;
+import org.broadinstitute.hellbender.engine.filters.ReadFilter;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.tools.copynumber.arguments.CopyNumberArgumentValidationUtils;
+import org.broadinstitute.hellbender.tools.copynumber.formats.collections.HDF5CohortCountCollection;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.Metadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.MetadataUtils;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
+import org.broadinstitute.hellbender.utils.IntervalMergingRule;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Collects read counts at specified intervals for a cohort of samples in a single run, writing a single
+ * HDF5 count matrix.  As in {@link CollectReadCounts}, the count for each interval is calculated by counting
+ * the number of read starts that lie in the interval, and the same read filters are applied by default.
+ *
+ * <p>
+ *     Intervals are parsed and indexed once for the whole cohort, after which the input files are traversed
+ *     concurrently, one file per thread.  Each input file must contain reads from a single sample,
+ *     and sample names must be unique across input files.
+ * </p>
+ *
+ * <h3>Inputs</h3>
+ *
+ * <ul>
+ *     <li>
+ *         SAM format read data, one file per sample.  Each file must be indexed.
+ *     </li>
+ *     <li>
+ *         Intervals at which counts will be collected.
+ *         The argument {@code interval-merging-rule} must be set to {@link IntervalMergingRule#OVERLAPPING_ONLY}
+ *         and all other common arguments for interval padding or merging must be set to their defaults.
+ *     </li>
+ * </ul>
+ *
+ * <h3>Output</h3>
+ *
+ * <ul>
+ *     <li>
+ *         Counts file.
+ *         The HDF5 format contains a samples x intervals count matrix in the paths defined in
+ *         {@link HDF5CohortCountCollection}, with samples in the order of the inputs.
+ *     </li>
+ * </ul>
+ *
+ * <h3>Usage example</h3>
+ *
+ * <pre>
+ *     gatk CollectCohortReadCounts \
+ *          -I sample_1.bam \
+ *          -I sample_2.bam \
+ *          -I sample_3.bam \
+ *          -L intervals.interval_list \
+ *          --interval-merging-rule OVERLAPPING_ONLY \
+ *          --number-of-threads 3 \
+ *          -O cohort.counts.hdf5
+ * </pre>
+ */
+@CommandLineProgramProperties(
+        summary = "Collects read counts at specified intervals for multiple samples in a single run",
+        oneLineSummary = "Collects read counts at specified intervals for multiple samples in a single run",
+        programGroup = CoverageAnalysisProgramGroup.class
+)
+@DocumentedFeature
+public final class CollectCohortReadCounts extends GATKTool {
+    public static final String NUMBER_OF_THREADS_LONG_NAME = "number-of-threads";
+
+    @Argument(
+            doc = "Output file for read counts.",
+            fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
+            shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME
+    )
+    private File outputCountsFile = null;
+
+    @Argument(
+            doc = "Number of threads used to traverse input files.  At most one thread is used per input file.",
+            fullName = NUMBER_OF_THREADS_LONG_NAME,
+            minValue = 1,
+            optional = true
+    )
+    private int numThreads = 4;
+
+    private List<SimpleInterval> intervals;
+
+    /**
+     * Index used to determine when read starts overlap with input intervals, shared by all threads.
+     */
+    private ReadStartIntervalIndex intervalIndex;
+
+    private List<String> sampleNames;
+
+    /**
+     * Samples x intervals counts, with rows in the same order as the inputs.
+     */
+    private List<int[]> counts;
+
+    @Override
+    public boolean requiresReads() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresIntervals() {
+        return true;
+    }
+
+    @Override
+    public List<ReadFilter> getDefaultReadFilters() {
+        final List<ReadFilter> readFilters = new ArrayList<>(super.getDefaultReadFilters());
+        readFilters.addAll(CollectReadCounts.getReadCountFilters());
+        return readFilters;
+    }
+
+    @Override
+    public void onTraversalStart() {
+        CopyNumberArgumentValidationUtils.validateIntervalArgumentCollection(intervalArgumentCollection);
+        CopyNumberArgumentValidationUtils.validateOutputFiles(outputCountsFile);
+        ParamUtils.isPositive(numThreads, "Number of threads must be positive.");
+        final List<Path> readPaths = readArguments.getReadPaths();
+        Utils.validateArg(new HashSet<>(readPaths).size() == readPaths.size(), "List of input read files cannot contain duplicates.");
+
+        intervals = intervalArgumentCollection.getIntervals(getBestAvailableSequenceDictionary());
+        intervalIndex = new ReadStartIntervalIndex(intervals);
+    }
+
+    @Override
+    public void traverse() {
+        //filters are initialized with the merged header and are not modified during traversal, so they can be shared
+        final ReadFilter readFilter = getCommandLineParser().getPluginDescriptor(GATKReadFilterPluginDescriptor.class)
+                .getMergedReadFilter(getHeaderForReads());
+        final List<Path> readPaths = readArguments.getReadPaths();
+        final List<Path> readIndexPaths = readArguments.getReadIndexPaths();
+        final int numSamples = readPaths.size();
+        final int numThreadsUsed = Math.min(numThreads, numSamples);
+
+        logger.info(String.format("Collecting read counts for %d samples on %d threads...", numSamples, numThreadsUsed));
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreadsUsed);
+        try {
+            final List<Future<SampleCounts>> futures = new ArrayList<>(numSamples);
+            for (int sampleIndex = 0; sampleIndex < numSamples; sampleIndex++) {
+                final Path readPath = readPaths.get(sampleIndex);
+                final Path readIndexPath = readIndexPaths == null ? null : readIndexPaths.get(sampleIndex);
+                futures.add(executor.submit(() -> collectSampleCounts(readPath, readIndexPath, readFilter)));
+            }
+            sampleNames = new ArrayList<>(numSamples);
+            counts = new ArrayList<>(numSamples);
+            for (int sampleIndex = 0; sampleIndex < numSamples; sampleIndex++) {
+                final SampleCounts sampleCounts = Utils.getResult(futures.get(sampleIndex), "collecting read counts from " + readPaths.get(sampleIndex));
+                sampleNames.add(sampleCounts.sampleName);
+                counts.add(sampleCounts.counts);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Set<String> duplicateSampleNames = sampleNames.stream()
+                .filter(s -> Collections.frequency(sampleNames, s) > 1)
+                .collect(Collectors.toSet());
+        if (!duplicateSampleNames.isEmpty()) {
+            throw new UserException.BadInput(String.format("Each sample must be contained in a single input file; " +
+                    "found multiple input files for samples: %s", duplicateSampleNames));
+        }
+    }
+
+    @Override
+    public Object onTraversalSuccess() {
+        logger.info(String.format("Writing read counts to %s...", outputCountsFile.getAbsolutePath()));
+        final double[][] countMatrix = counts.stream()
+                .map(c -> Arrays.stream(c).asDoubleStream().toArray())
+                .toArray(double[][]::new);
+        counts = null;  //allow the primitive counts to be garbage collected while writing
+        HDF5CohortCountCollection.write(outputCountsFile, sampleNames, getBestAvailableSequenceDictionary(), intervals, countMatrix);
+
+        logger.info(String.format("%s complete.", getClass().getSimpleName()));
+
+        return null;
+    }
+
+    private static final class SampleCounts {
+        private final String sampleName;
+        private final int[] counts;
+
+        private SampleCounts(final String sampleName, final int[] counts) {
+            this.sampleName = sampleName;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Traverses the reads in a single input file that overlap the intervals.  Each call uses its own reader,
+     * so that input files can be traversed concurrently.
+     */
+    private SampleCounts collectSampleCounts(final Path readPath,
+                                             final Path readIndexPath,
+                                             final ReadFilter readFilter) {
+        SamReaderFactory factory = SamReaderFactory.makeDefault().validationStringency(readArguments.getReadValidationStringency());
+        if (hasReference()) {   //pass in reference if available, because CRAM files need it
+            factory = factory.referenceSequence(referenceArguments.getReferencePath());
+        }
+        try (final ReadsDataSource readsDataSource = new ReadsDataSource(
+                Collections.singletonList(readPath),
+                readIndexPath == null ? null : Collections.singletonList(readIndexPath),
+                factory, cloudPrefetchBuffer, cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer)) {
+            final SAMFileHeader header = readsDataSource.getHeader();
+            final SampleLocatableMetadata metadata = MetadataUtils.fromHeader(header, Metadata.Type.SAMPLE_LOCATABLE);
+            final SAMSequenceDictionary sequenceDictionary = getBestAvailableSequenceDictionary();
+            if (!CopyNumberArgumentValidationUtils.isSameDictionary(metadata.getSequenceDictionary(), sequenceDictionary)) {
+                logger.warn(String.format("Sequence dictionary in %s does not match the master sequence dictionary.", readPath));
+            }
+
+            final int[] sampleCounts = new int[intervalIndex.getNumIntervals()];
+            readsDataSource.setTraversalBounds(intervals);
+            for (final GATKRead read : readsDataSource) {
+                if (!readFilter.test(read)) {
+                    continue;
+                }
+                final int overlappingIntervalIndex = intervalIndex.getIntervalIndex(read.getContig(), read.getStart());
+                if (overlappingIntervalIndex != ReadStartIntervalIndex.NO_INTERVAL) {
+                    sampleCounts[overlappingIntervalIndex]++;
+                }
+            }
+            logger.info(String.format("Collected read counts for sample %s.", metadata.getSampleName()));
+            return new SampleCounts(metadata.getSampleName(), sampleCounts);
+        }
+    }
+}
@@ -1,11 +1,7 @@
 package org.broadinstitute.hellbender.tools.copynumber;
 
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multiset;
 import htsjdk.samtools.SAMSequenceDictionary;
-import htsjdk.samtools.util.Locatable;
-import htsjdk.samtools.util.OverlapDetector;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.barclay.help.DocumentedFeature;
@@ -17,7 +13,6 @@ import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
-import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.tools.copynumber.arguments.CopyNumberArgumentValidationUtils;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.HDF5SimpleCountCollection;
 import org.broadinstitute.hellbender.tools.copynumber.formats.collections.SimpleCountCollection;
@@ -26,16 +21,14 @@ import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.MetadataU
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.records.SimpleCount;
 import org.broadinstitute.hellbender.utils.IntervalMergingRule;
-import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
-import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Collects read counts at specified intervals.  The count for each interval is calculated by counting
@@ -73,6 +66,10 @@ import java.util.stream.Collectors;
  *     </li>
  * </ul>
  *
+ * <p>
+ *     To collect counts for many samples in a single run, see {@link CollectCohortReadCounts}.
+ * </p>
+ *
  * <h3>Usage example</h3>
  *
  * <pre>
@@ -122,14 +119,15 @@ public final class CollectReadCounts extends ReadWalker {
 
     private List<SimpleInterval> intervals;
 
-    private String currentContig = null;
-
     /**
-     * Overlap detector used to determine when read starts overlap with input intervals.
+     * Index used to determine when read starts overlap with input intervals.
      */
-    private CachedOverlapDetector<SimpleInterval> intervalCachedOverlapDetector;
+    private ReadStartIntervalIndex intervalIndex;
 
-    private Multiset<SimpleInterval> intervalMultiset;
+    /**
+     * Counts for each interval, in the same order as {@link #intervals}.
+     */
+    private int[] counts;
 
     @Override
     public boolean requiresIntervals() {
@@ -139,13 +137,22 @@ public final class CollectReadCounts extends ReadWalker {
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
         final List<ReadFilter> readFilters = new ArrayList<>(super.getDefaultReadFilters());
-        readFilters.add(ReadFilterLibrary.MAPPED);
-        readFilters.add(ReadFilterLibrary.NON_ZERO_REFERENCE_LENGTH_ALIGNMENT);
-        readFilters.add(ReadFilterLibrary.NOT_DUPLICATE);
-        readFilters.add(new MappingQualityReadFilter(DEFAULT_MINIMUM_MAPPING_QUALITY));
+        readFilters.addAll(getReadCountFilters());
         return readFilters;
     }
 
+    /**
+     * @return filters (in addition to the engine defaults) applied to reads before counting,
+     *         shared with {@link CollectCohortReadCounts}
+     */
+    static List<ReadFilter> getReadCountFilters() {
+        return Arrays.asList(
+                ReadFilterLibrary.MAPPED,
+                ReadFilterLibrary.NON_ZERO_REFERENCE_LENGTH_ALIGNMENT,
+                ReadFilterLibrary.NOT_DUPLICATE,
+                new MappingQualityReadFilter(DEFAULT_MINIMUM_MAPPING_QUALITY));
+    }
+
     @Override
     public void onTraversalStart() {
         validateArguments();
@@ -159,7 +166,8 @@ public final class CollectReadCounts extends ReadWalker {
         }
 
         intervals = intervalArgumentCollection.getIntervals(sequenceDictionary);
-        intervalMultiset = HashMultiset.create(intervals.size());
+        intervalIndex = new ReadStartIntervalIndex(intervals);
+        counts = new int[intervals.size()];
 
         logger.info("Collecting read counts...");
     }
@@ -171,22 +179,13 @@ public final class CollectReadCounts extends ReadWalker {
 
     @Override
     public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext) {
-        if (currentContig == null || !read.getContig().equals(currentContig)) {
-            //if we are on a new contig, create an OverlapDetector covering the contig
-            currentContig = read.getContig();
-            final List<SimpleInterval> intervalsOnCurrentContig = intervals.stream()
-                    .filter(i -> i.getContig().equals(currentContig))
-                    .collect(Collectors.toList());
-            intervalCachedOverlapDetector = new CachedOverlapDetector<>(intervalsOnCurrentContig);
-        }
-        final SimpleInterval overlappingInterval = intervalCachedOverlapDetector.getOverlap(
-                new SimpleInterval(read.getContig(), read.getStart(), read.getStart()));
+        final int overlappingIntervalIndex = intervalIndex.getIntervalIndex(read.getContig(), read.getStart());
 
         //if read doesn't overlap any of the provided intervals, do nothing
-        if (overlappingInterval == null) {
+        if (overlappingIntervalIndex == ReadStartIntervalIndex.NO_INTERVAL) {
             return;
         }
-        intervalMultiset.add(overlappingInterval);
+        counts[overlappingIntervalIndex]++;
     }
 
     @Override
@@ -194,8 +193,8 @@ public final class CollectReadCounts extends ReadWalker {
         logger.info(String.format("Writing read counts to %s...", outputCountsFile.getAbsolutePath()));
         final SimpleCountCollection readCounts = new SimpleCountCollection(
                 metadata,
-                ImmutableList.copyOf(intervals.stream()     //making this an ImmutableList avoids a defensive copy in SimpleCountCollection
-                        .map(i -> new SimpleCount(i, intervalMultiset.count(i)))
+                ImmutableList.copyOf(IntStream.range(0, intervals.size())     //making this an ImmutableList avoids a defensive copy in SimpleCountCollection
+                        .mapToObj(i -> new SimpleCount(intervals.get(i), counts[i]))
                         .iterator()));
 
         if (format == Format.HDF5) {
@@ -208,45 +207,4 @@ public final class CollectReadCounts extends ReadWalker {
 
         return null;
     }
-
-    /**
-     * A simple wrapper around {@link OverlapDetector} to provide naive caching and ensure that overlap sets
-     * only contain a single interval.
-     */
-    private final class CachedOverlapDetector<T extends Locatable> {
-        private final OverlapDetector<T> overlapDetector;
-        private T cachedResult;
-
-        CachedOverlapDetector(final List<T> intervals) {
-            Utils.nonEmpty(intervals);
-            this.overlapDetector = OverlapDetector.create(intervals);
-            //double check that intervals do not overlap
-            Utils.validateArg(intervals.stream().noneMatch(i -> overlapDetector.getOverlaps(i).size() > 1),
-                    "Input intervals may not be overlapping.");
-            cachedResult = intervals.get(0);
-        }
-
-        /**
-         * We check the previously cached result first.  Assuming that queries will be made in sorted order,
-         * this may slightly save on lookup time.
-         * @return {@code null} if no interval overlaps {@code locatable}
-         */
-        T getOverlap(final Locatable locatable) {
-            if (IntervalUtils.overlaps(cachedResult, locatable)) {
-                return cachedResult;
-            }
-            final Set<T> overlaps = overlapDetector.getOverlaps(locatable);
-            if (overlaps.size() > 1) {
-                //should not reach here since intervals are checked for overlaps;
-                //performing a redundant check to protect against future code changes
-                throw new GATKException.ShouldNeverReachHereException("Intervals should be non-overlapping, " +
-                        "so at most one interval should intersect with the start of a read.");
-            }
-            final T firstOverlap = overlaps.stream().findFirst().orElse(null);
-            if (firstOverlap != null) {
-                cachedResult = firstOverlap;
-            }
-            return firstOverlap;
-        }
-    }
 }
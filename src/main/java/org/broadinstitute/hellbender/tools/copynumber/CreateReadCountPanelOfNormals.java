@@ -44,7 +44,9 @@ import java.util.stream.Collectors;
  *     denoising case samples with {@link DenoiseReadCounts}; it is assumed that the principal components used
  *     represent systematic sequencing biases (rather than statistical noise).  Examining the singular values,
  *     which are also stored in the PoN, may be useful in determining the appropriate number
- *     of principal components to use for denoising.
+ *     of principal components to use for denoising.  For large panels, {@code do-randomized-svd} can be specified
+ *     to compute only the requested principal components locally using a randomized algorithm,
+ *     which requires much less memory than the default Spark SVD.
  * </p>
  *
  * <p>
@@ -138,6 +140,7 @@ public final class CreateReadCountPanelOfNormals extends SparkCommandLineProgram
     public static final String EXTREME_SAMPLE_MEDIAN_PERCENTILE_LONG_NAME = "extreme-sample-median-percentile";
     public static final String IMPUTE_ZEROS_LONG_NAME = "do-impute-zeros";
     public static final String EXTREME_OUTLIER_TRUNCATION_PERCENTILE_LONG_NAME = "extreme-outlier-truncation-percentile";
+    public static final String DO_RANDOMIZED_SVD_LONG_NAME = "do-randomized-svd";
     public static final String MAXIMUM_CHUNK_SIZE = "maximum-chunk-size";
 
     @Argument(
@@ -235,6 +238,16 @@ public final class CreateReadCountPanelOfNormals extends SparkCommandLineProgram
     )
     private int numEigensamplesRequested = DEFAULT_NUMBER_OF_EIGENSAMPLES;
 
+    @Argument(
+            doc = "If true, compute the truncated SVD locally using randomized subspace iteration on the standardized counts " +
+                    "in place, rather than using Spark on a transposed copy.  This computes only the requested number of " +
+                    "eigensamples and substantially reduces memory usage for large panels; results agree with the exact SVD " +
+                    "up to the sign of each eigensample and small numerical differences.",
+            fullName = DO_RANDOMIZED_SVD_LONG_NAME,
+            optional = true
+    )
+    private boolean doRandomizedSVD = false;
+
     @Advanced
     @Argument(
             doc = "Maximum HDF5 matrix chunk size.  Large matrices written to HDF5 are chunked into equally sized " +
@@ -291,7 +304,7 @@ public final class CreateReadCountPanelOfNormals extends SparkCommandLineProgram
                 sequenceDictionary, readCountMatrix, sampleFilenames, intervals, intervalGCContent,
                 minimumIntervalMedianPercentile, maximumZerosInSamplePercentage, maximumZerosInIntervalPercentage,
                 extremeSampleMedianPercentile, doImputeZeros, extremeOutlierTruncationPercentile, numEigensamplesRequested,
-                maximumChunkSize, ctx);
+                maximumChunkSize, doRandomizedSVD, ctx);
 
         logger.info(String.format("%s complete.", getClass().getSimpleName()));
     }
@@ -248,6 +248,7 @@ public final class ModelSegments extends CommandLineProgram {
     public static final String NUMBER_OF_BURN_IN_SAMPLES_COPY_RATIO_LONG_NAME = "number-of-burn-in-samples-copy-ratio";
     public static final String NUMBER_OF_SAMPLES_ALLELE_FRACTION_LONG_NAME = "number-of-samples-allele-fraction";
     public static final String NUMBER_OF_BURN_IN_SAMPLES_ALLELE_FRACTION_LONG_NAME = "number-of-burn-in-samples-allele-fraction";
+    public static final String NUMBER_OF_CHAINS_LONG_NAME = "number-of-chains";
 
     //smoothing argument names
     public static final String SMOOTHING_CREDIBLE_INTERVAL_THRESHOLD_COPY_RATIO_LONG_NAME = "smoothing-credible-interval-threshold-copy-ratio";
@@ -438,6 +439,15 @@ public final class ModelSegments extends CommandLineProgram {
     )
     private int numBurnInAlleleFraction = 50;
 
+    @Argument(
+            doc = "Number of MCMC chains to run concurrently for each model.  " +
+                    "Samples (after burn-in) from all chains are pooled to estimate posteriors.",
+            fullName = NUMBER_OF_CHAINS_LONG_NAME,
+            optional = true,
+            minValue = 1
+    )
+    private int numChains = 1;
+
     @Argument(
             doc = "Number of 10% equal-tailed credible-interval widths to use for copy-ratio segmentation smoothing.",
             fullName = SMOOTHING_CREDIBLE_INTERVAL_THRESHOLD_COPY_RATIO_LONG_NAME,
@@ -522,7 +532,8 @@ public final class ModelSegments extends CommandLineProgram {
         final MultidimensionalModeller modeller = new MultidimensionalModeller(
                 multidimensionalSegments, denoisedCopyRatios, hetAllelicCounts, alleleFractionPrior,
                 numSamplesCopyRatio, numBurnInCopyRatio,
-                numSamplesAlleleFraction, numBurnInAlleleFraction);
+                numSamplesAlleleFraction, numBurnInAlleleFraction,
+                numChains);
 
         //write initial segments and parameters to file
         writeModeledSegmentsAndParameterFiles(modeller, BEGIN_FIT_FILE_TAG);
@@ -0,0 +1,79 @@
+package org.broadinstitute.hellbender.tools.copynumber;
+
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the interval (if any) containing a read start, using sorted primitive arrays of interval starts and ends
+ * on each contig and a binary search.  Intervals are identified by their index in the list used to construct this
+ * index, so that callers can accumulate counts in a primitive array.
+ *
+ * Instances are immutable and may be shared by multiple threads.
+ */
+final class ReadStartIntervalIndex {
+    static final int NO_INTERVAL = -1;
+
+    private static final class ContigIntervals {
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] intervalIndices;
+
+        private ContigIntervals(final int[] starts, final int[] ends, final int[] intervalIndices) {
+            this.starts = starts;
+            this.ends = ends;
+            this.intervalIndices = intervalIndices;
+        }
+    }
+
+    private final int numIntervals;
+    private final Map<String, ContigIntervals> contigToIntervalsMap = new HashMap<>();
+
+    /**
+     * @param intervals non-overlapping intervals; no particular sort order is assumed
+     */
+    ReadStartIntervalIndex(final List<SimpleInterval> intervals) {
+        Utils.nonEmpty(intervals);
+        numIntervals = intervals.size();
+        final Map<String, List<Integer>> contigToIndicesMap = new HashMap<>();
+        for (int i = 0; i < intervals.size(); i++) {
+            contigToIndicesMap.computeIfAbsent(intervals.get(i).getContig(), c -> new ArrayList<>()).add(i);
+        }
+        for (final Map.Entry<String, List<Integer>> entry : contigToIndicesMap.entrySet()) {
+            final int[] intervalIndices = entry.getValue().stream()
+                    .sorted(Comparator.comparingInt(i -> intervals.get(i).getStart()))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            final int[] starts = Arrays.stream(intervalIndices).map(i -> intervals.get(i).getStart()).toArray();
+            final int[] ends = Arrays.stream(intervalIndices).map(i -> intervals.get(i).getEnd()).toArray();
+            Utils.validateArg(IntStream.range(1, starts.length).allMatch(k -> starts[k] > ends[k - 1]),
+                    "Input intervals may not be overlapping.");
+            contigToIntervalsMap.put(entry.getKey(), new ContigIntervals(starts, ends, intervalIndices));
+        }
+    }
+
+    int getNumIntervals() {
+        return numIntervals;
+    }
+
+    /**
+     * @return index of the interval containing {@code contig:position}, or {@link #NO_INTERVAL} if there is none
+     */
+    int getIntervalIndex(final String contig, final int position) {
+        final ContigIntervals contigIntervals = contigToIntervalsMap.get(contig);
+        if (contigIntervals == null) {
+            return NO_INTERVAL;
+        }
+        final int searchResult = Arrays.binarySearch(contigIntervals.starts, position);
+        //if position is not a start, take the last interval starting before it
+        final int k = searchResult >= 0 ? searchResult : -searchResult - 2;
+        return k >= 0 && position <= contigIntervals.ends[k] ? contigIntervals.intervalIndices[k] : NO_INTERVAL;
+    }
+}
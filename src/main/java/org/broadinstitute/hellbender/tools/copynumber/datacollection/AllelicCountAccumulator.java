@@ -0,0 +1,160 @@
+package org.broadinstitute.hellbender.tools.copynumber.datacollection;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import org.broadinstitute.hellbender.utils.Nucleotide;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Accumulates base counts at a sorted set of sites on a single contig by iterating over reads, rather than over
+ * pileups.  Each read is matched against the sites using binary search over its aligned blocks, and counts are held
+ * in a primitive array, so no per-site objects are created during traversal.  Bases are counted at a site under the
+ * same conditions as in {@link AllelicCountCollector#collectAtLocus}: the read must have an aligned (i.e., not deleted,
+ * skipped, inserted, or clipped) base at the site that is not inside the adaptor and that has at least the minimum
+ * base quality.
+ *
+ * <p>
+ *     Instances are not thread-safe, but instances covering disjoint sites can be filled concurrently
+ *     and then combined using {@link AllelicCountCollector#collectFromAccumulator}.
+ * </p>
+ */
+public final class AllelicCountAccumulator {
+    private static final int NUM_BASES = AllelicCountCollector.BASES.size();
+
+    /**
+     * Index in {@link AllelicCountCollector#BASES} of each byte encoding, or -1 for bases not in that list.
+     */
+    private static final int[] BASE_INDICES = new int[256];
+    static {
+        for (int b = 0; b < BASE_INDICES.length; b++) {
+            BASE_INDICES[b] = AllelicCountCollector.BASES.indexOf(Nucleotide.decode((byte) b));
+        }
+    }
+
+    private final String contig;
+    private final int[] positions;
+    private final Nucleotide[] refBases;
+    private final int minBaseQuality;
+
+    /**
+     * Sites x {@link AllelicCountCollector#BASES} counts, flattened in row-major order.
+     */
+    private final int[] baseCounts;
+
+    /**
+     * @param contig            contig containing all sites.  Not {@code null}
+     * @param positions         strictly increasing positions of the sites.  Not {@code null}
+     * @param refBases          reference bases at the sites, in the same order as {@code positions}.  Not {@code null}
+     * @param minBaseQuality    minimum base quality in the read for that read to count at a site.  Must be greater than or equal to 0.
+     */
+    public AllelicCountAccumulator(final String contig,
+                                   final int[] positions,
+                                   final Nucleotide[] refBases,
+                                   final int minBaseQuality) {
+        Utils.nonNull(contig);
+        Utils.nonNull(positions);
+        Utils.nonNull(refBases);
+        Utils.validateArg(positions.length == refBases.length, "Number of positions and reference bases must be equal.");
+        for (int i = 0; i < positions.length; i++) {
+            ParamUtils.isPositive(positions[i], "Positions must be positive.");
+            Utils.validateArg(i == 0 || positions[i - 1] < positions[i], "Positions must be strictly increasing.");
+            Utils.nonNull(refBases[i]);
+        }
+        ParamUtils.isPositiveOrZero(minBaseQuality, "Minimum base quality must be zero or higher.");
+        this.contig = contig;
+        this.positions = positions.clone();
+        this.refBases = refBases.clone();
+        this.minBaseQuality = minBaseQuality;
+        baseCounts = new int[positions.length * NUM_BASES];
+    }
+
+    public String getContig() {
+        return contig;
+    }
+
+    public int getNumSites() {
+        return positions.length;
+    }
+
+    /**
+     * @return intervals covering all sites, with adjacent sites merged; suitable for use as traversal bounds
+     */
+    public List<SimpleInterval> getSiteIntervals() {
+        final List<SimpleInterval> intervals = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= positions.length; i++) {
+            if (i == positions.length || positions[i] != positions[i - 1] + 1) {
+                intervals.add(new SimpleInterval(contig, positions[start], positions[i - 1]));
+                start = i;
+            }
+        }
+        return intervals;
+    }
+
+    /**
+     * Adds the bases of a read at all sites it covers.  Reads on other contigs are ignored.
+     * It is up to the caller to apply any read filters.
+     */
+    public void add(final GATKRead read) {
+        Utils.nonNull(read);
+        if (read.isUnmapped() || !contig.equals(read.getContig())) {
+            return;
+        }
+        final byte[] bases = read.getBasesNoCopy();
+        final byte[] quals = read.getBaseQualitiesNoCopy();
+        int refPosition = read.getStart();
+        int readOffset = 0;
+        for (final CigarElement element : read.getCigarElements()) {
+            final CigarOperator operator = element.getOperator();
+            final int length = element.getLength();
+            if (operator.isAlignment()) {
+                final int blockEnd = refPosition + length - 1;
+                for (int siteIndex = getFirstSiteIndexAtOrAfter(refPosition);
+                     siteIndex < positions.length && positions[siteIndex] <= blockEnd; siteIndex++) {
+                    final int offset = readOffset + positions[siteIndex] - refPosition;
+                    if (quals[offset] < minBaseQuality || ReadUtils.isBaseInsideAdaptor(read, positions[siteIndex])) {
+                        continue;
+                    }
+                    final int baseIndex = BASE_INDICES[bases[offset] & 0xFF];
+                    if (baseIndex >= 0) {
+                        baseCounts[siteIndex * NUM_BASES + baseIndex]++;
+                    }
+                }
+            }
+            if (operator.consumesReferenceBases()) {
+                refPosition += length;
+            }
+            if (operator.consumesReadBases()) {
+                readOffset += length;
+            }
+        }
+    }
+
+    private int getFirstSiteIndexAtOrAfter(final int position) {
+        final int searchResult = Arrays.binarySearch(positions, position);
+        return searchResult >= 0 ? searchResult : -searchResult - 1;
+    }
+
+    int getPosition(final int siteIndex) {
+        return positions[siteIndex];
+    }
+
+    Nucleotide getRefBase(final int siteIndex) {
+        return refBases[siteIndex];
+    }
+
+    /**
+     * @return a copy of the counts at a site, indexed by the order of the bases in {@link AllelicCountCollector#BASES}
+     */
+    int[] getBaseCounts(final int siteIndex) {
+        return Arrays.copyOfRange(baseCounts, siteIndex * NUM_BASES, (siteIndex + 1) * NUM_BASES);
+    }
+}
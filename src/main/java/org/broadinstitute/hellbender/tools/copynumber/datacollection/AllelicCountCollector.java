@@ -51,9 +51,7 @@ public final class AllelicCountCollector {
         Utils.nonNull(locus);
         ParamUtils.isPositiveOrZero(minBaseQuality, "Minimum base quality must be zero or higher.");
 
-        if (!BASES.contains(refBase)) {
-            logger.warn(String.format("The reference position at %s has an unknown base call (value: %s). Skipping...",
-                    locus, refBase.toString()));
+        if (!isValidRefBase(refBase, locus)) {
             return;
         }
 
@@ -64,14 +62,51 @@ public final class AllelicCountCollector {
                 .filter(r -> r.getQual() >= minBaseQuality)
                 .forEach(r -> nucleotideCounter.add(r.getBase()));
 
-        final int totalBaseCount = BASES.stream().mapToInt(b -> (int) nucleotideCounter.get(b)).sum();  //only include total ACGT counts (exclude N, etc.)
-        final int refReadCount = (int) nucleotideCounter.get(refBase);
+        final int[] baseCounts = BASES.stream().mapToInt(b -> (int) nucleotideCounter.get(b)).toArray();     //only include ACGT counts (exclude N, etc.)
+        allelicCounts.add(createAllelicCount(locus, refBase, baseCounts));
+    }
+
+    /**
+     * Add counts for all sites in an accumulator, in order.  Sites with reference bases that are not in
+     * {@link AllelicCountCollector#BASES} are skipped, as in {@link #collectAtLocus}.
+     *
+     * @param accumulator accumulator of base counts at sites.  Not {@code null}
+     */
+    public void collectFromAccumulator(final AllelicCountAccumulator accumulator) {
+        Utils.nonNull(accumulator);
+        for (int siteIndex = 0; siteIndex < accumulator.getNumSites(); siteIndex++) {
+            final int position = accumulator.getPosition(siteIndex);
+            final SimpleInterval locus = new SimpleInterval(accumulator.getContig(), position, position);
+            final Nucleotide refBase = accumulator.getRefBase(siteIndex);
+            if (isValidRefBase(refBase, locus)) {
+                allelicCounts.add(createAllelicCount(locus, refBase, accumulator.getBaseCounts(siteIndex)));
+            }
+        }
+    }
+
+    private static boolean isValidRefBase(final Nucleotide refBase, final Locatable locus) {
+        if (!BASES.contains(refBase)) {
+            logger.warn(String.format("The reference position at %s has an unknown base call (value: %s). Skipping...",
+                    locus, refBase.toString()));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param baseCounts counts indexed by the order of the bases in {@link AllelicCountCollector#BASES}
+     */
+    private static AllelicCount createAllelicCount(final Locatable locus,
+                                                   final Nucleotide refBase,
+                                                   final int[] baseCounts) {
+        final int totalBaseCount = Arrays.stream(baseCounts).sum();
+        final int refReadCount = baseCounts[BASES.indexOf(refBase)];
         final int altReadCount = totalBaseCount - refReadCount;                                         //we take alt = total - ref instead of the actual alt count
-        final Nucleotide altBase = altReadCount == 0 ? Nucleotide.N : inferAltFromPileupBaseCounts(nucleotideCounter, refBase);
+        final Nucleotide altBase = altReadCount == 0 ? Nucleotide.N : inferAltFromBaseCounts(baseCounts, refBase);
 
-        allelicCounts.add(new AllelicCount(
+        return new AllelicCount(
                 new SimpleInterval(locus.getContig(), locus.getStart(), locus.getEnd()),
-                refReadCount, altReadCount, refBase, altBase));
+                refReadCount, altReadCount, refBase, altBase);
     }
 
     /**
@@ -87,12 +122,17 @@ public final class AllelicCountCollector {
      * Returns the non-ref base with highest count (if there is a tie, the first base in the order given in
      * {@link AllelicCountCollector#BASES} will be returned).
      */
-    private static Nucleotide inferAltFromPileupBaseCounts(final Nucleotide.Counter baseCounts,
-                                                           final Nucleotide refNucleotide) {
-        return BASES.stream()
-                .filter(b -> b != refNucleotide)
-                .sorted((b1, b2) -> Long.compare(baseCounts.get(b2), baseCounts.get(b1)))
-                .findFirst().get();
+    private static Nucleotide inferAltFromBaseCounts(final int[] baseCounts,
+                                                     final Nucleotide refNucleotide) {
+        Nucleotide altBase = null;
+        int altBaseCount = -1;
+        for (int i = 0; i < BASES.size(); i++) {
+            if (BASES.get(i) != refNucleotide && baseCounts[i] > altBaseCount) {
+                altBase = BASES.get(i);
+                altBaseCount = baseCounts[i];
+            }
+        }
+        return altBase;
     }
 
     /**
@@ -236,6 +236,8 @@ public final class HDF5SVDReadCountPanelOfNormals implements SVDReadCountPanelOf
      * The dimensions of {@code originalReadCounts} should be samples x intervals.
      * To reduce memory footprint, {@code originalReadCounts} is modified in place.
      * If {@code intervalGCContent} is null, GC-bias correction will not be performed.
+     * If {@code doRandomizedSVD} is true, the SVD is computed locally by {@link RandomizedTruncatedSVD}
+     * on the standardized counts in place, rather than by Spark on a transposed copy; {@code ctx} may then be null.
      */
     public static void create(final File outFile,
                               final String commandLine,
@@ -252,6 +254,7 @@ public final class HDF5SVDReadCountPanelOfNormals implements SVDReadCountPanelOf
                               final double extremeOutlierTruncationPercentile,
                               final int numEigensamplesRequested,
                               final int maximumChunkSize,
+                              final boolean doRandomizedSVD,
                               final JavaSparkContext ctx) {
         try (final HDF5File file = new HDF5File(outFile, HDF5File.OpenMode.CREATE)) {
             logger.info(String.format("Creating read-count panel of normals at %s...", outFile.getAbsolutePath()));
@@ -321,10 +324,22 @@ public final class HDF5SVDReadCountPanelOfNormals implements SVDReadCountPanelOf
             logger.info(String.format("Performing SVD (truncated at %d eigensamples) of standardized counts (transposed to %d x %d)...",
                     numEigensamples, numPanelIntervals, numPanelSamples));
             if (numPanelSamples > 1 && numEigensamples > 0) {
-                final SingularValueDecomposition<RowMatrix, Matrix> svd = SparkConverter.convertRealMatrixToSparkRowMatrix(
-                        ctx, preprocessedStandardizedResult.preprocessedStandardizedValues.transpose(), NUM_SLICES_FOR_SPARK_MATRIX_CONVERSION)
-                        .computeSVD(numEigensamples, true, EPSILON);
-                final double[] singularValues = svd.s().toArray();    //should be in decreasing order (with corresponding matrices below)
+                final double[] singularValues;
+                final double[][] transposedEigensampleVectors;
+                if (doRandomizedSVD) {
+                    final RandomizedTruncatedSVD svd = RandomizedTruncatedSVD.compute(
+                            SVDDenoisingUtils.getDataRef(preprocessedStandardizedResult.preprocessedStandardizedValues), numEigensamples, EPSILON);
+                    singularValues = svd.singularValues;
+                    transposedEigensampleVectors = svd.transposedEigensampleVectors;
+                } else {
+                    final SingularValueDecomposition<RowMatrix, Matrix> svd = SparkConverter.convertRealMatrixToSparkRowMatrix(
+                            ctx, preprocessedStandardizedResult.preprocessedStandardizedValues.transpose(), NUM_SLICES_FOR_SPARK_MATRIX_CONVERSION)
+                            .computeSVD(numEigensamples, true, EPSILON);
+                    singularValues = svd.s().toArray();    //should be in decreasing order (with corresponding matrices below)
+                    transposedEigensampleVectors = singularValues.length == 0
+                            ? new double[0][]
+                            : SparkConverter.convertSparkRowMatrixToRealMatrix(svd.U(), numPanelIntervals).transpose().getData();
+                }
                 if (singularValues.length == 0 || Arrays.stream(singularValues).noneMatch(s -> s > EPSILON)) {
                     //if the panel contains more than one sample, we require that at least one non-negligible singular value is found
                     throw new UserException(String.format("No non-zero singular values were found.  It may be necessary to use stricter parameters for filtering.  " +
@@ -334,13 +349,12 @@ public final class HDF5SVDReadCountPanelOfNormals implements SVDReadCountPanelOf
                     logger.warn(String.format("Attempted to truncate at %d eigensamples, but only %d non-zero singular values were found...",
                             numEigensamples, singularValues.length));
                 }
-                final double[][] eigensampleVectors = SparkConverter.convertSparkRowMatrixToRealMatrix(svd.U(), numPanelIntervals).getData();
 
                 logger.info(String.format("Writing singular values (%d)...", singularValues.length));
                 pon.writeSingularValues(singularValues);
 
-                logger.info(String.format("Writing eigensample vectors (transposed to %d x %d)...", eigensampleVectors[0].length, eigensampleVectors.length));
-                pon.writeEigensampleVectors(eigensampleVectors, maximumChunkSize);
+                logger.info(String.format("Writing eigensample vectors (transposed to %d x %d)...", transposedEigensampleVectors.length, transposedEigensampleVectors[0].length));
+                pon.writeTransposedEigensampleVectors(transposedEigensampleVectors, maximumChunkSize);
             } else {
                 //if the panel only contains a single sample or zero eigensamples were requested,
                 //we do not store singular values or eigenvectors in the panel
@@ -407,9 +421,8 @@ public final class HDF5SVDReadCountPanelOfNormals implements SVDReadCountPanelOf
         file.makeDoubleArray(PANEL_SINGULAR_VALUES_PATH, singularValues);
     }
 
-    private void writeEigensampleVectors(final double[][] eigensampleVectors,
-                                         final int maximumChunkSize) {
-        HDF5Utils.writeChunkedDoubleMatrix(file, PANEL_EIGENSAMPLE_VECTORS_PATH,
-                new Array2DRowRealMatrix(eigensampleVectors, false).transpose().getData(), maximumChunkSize);
+    private void writeTransposedEigensampleVectors(final double[][] transposedEigensampleVectors,
+                                                   final int maximumChunkSize) {
+        HDF5Utils.writeChunkedDoubleMatrix(file, PANEL_EIGENSAMPLE_VECTORS_PATH, transposedEigensampleVectors, maximumChunkSize);
     }
 }
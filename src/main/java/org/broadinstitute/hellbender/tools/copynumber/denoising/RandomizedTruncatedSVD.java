@@ -0,0 +1,253 @@
+package org.broadinstitute.hellbender.tools.copynumber.denoising;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Computes a truncated singular value decomposition of the transpose of a (samples x intervals) matrix of
+ * standardized read counts using randomized subspace iteration (Halko, Martinsson &amp; Tropp, SIAM Review 53, 2011;
+ * Algorithm 4.4), without requiring Spark.
+ *
+ * <p>
+ *     The input matrix is used in place and is never copied or transposed; all products with it are computed in
+ *     blocks of intervals on primitive arrays and are parallelized over blocks (or over samples) on the common
+ *     fork-join pool.  Apart from the input, memory usage is dominated by a small number of
+ *     (number of eigensamples + oversampling) x intervals arrays, so the size of the panel is no longer bounded
+ *     by a dense copy of the transposed matrix.  Results are deterministic for a given input.
+ * </p>
+ *
+ * <p>
+ *     Only the left singular vectors of the transposed matrix (i.e., the eigensample vectors) are computed.
+ *     These are returned transposed (eigensamples x intervals), which is the layout in which they are stored
+ *     in the panel of normals.
+ * </p>
+ */
+final class RandomizedTruncatedSVD {
+    private static final Logger logger = LogManager.getLogger(RandomizedTruncatedSVD.class);
+
+    private static final int RANDOM_SEED = 1337;
+    static final int DEFAULT_OVERSAMPLING = 10;
+    static final int DEFAULT_NUM_POWER_ITERATIONS = 2;
+
+    private static final int INTERVAL_BLOCK_SIZE = 1024;
+    private static final int SAMPLE_BLOCK_SIZE = 16;
+
+    final double[] singularValues;
+    final double[][] transposedEigensampleVectors;
+
+    private RandomizedTruncatedSVD(final double[] singularValues,
+                                   final double[][] transposedEigensampleVectors) {
+        this.singularValues = singularValues;
+        this.transposedEigensampleVectors = transposedEigensampleVectors;
+    }
+
+    /**
+     * Computes the truncated SVD using the default oversampling and number of power iterations.
+     * @param samplesByIntervals    standardized values with dimensions samples x intervals; not modified
+     * @param numEigensamples       number of eigensamples to compute; must be positive and no greater than the number of samples
+     * @param relativeThreshold     singular values smaller than this multiple of the largest singular value are treated as zero
+     *                              and are discarded along with their eigensample vectors
+     */
+    static RandomizedTruncatedSVD compute(final double[][] samplesByIntervals,
+                                          final int numEigensamples,
+                                          final double relativeThreshold) {
+        return compute(samplesByIntervals, numEigensamples, relativeThreshold, DEFAULT_OVERSAMPLING, DEFAULT_NUM_POWER_ITERATIONS);
+    }
+
+    static RandomizedTruncatedSVD compute(final double[][] samplesByIntervals,
+                                          final int numEigensamples,
+                                          final double relativeThreshold,
+                                          final int oversampling,
+                                          final int numPowerIterations) {
+        Utils.nonNull(samplesByIntervals);
+        Utils.validateArg(samplesByIntervals.length > 0 && samplesByIntervals[0].length > 0, "Matrix must be non-empty.");
+        final int numSamples = samplesByIntervals.length;
+        final int numIntervals = samplesByIntervals[0].length;
+        Utils.validateArg(Arrays.stream(samplesByIntervals).allMatch(row -> row.length == numIntervals), "Matrix must not be ragged.");
+        ParamUtils.isPositive(numEigensamples, "Number of eigensamples must be positive.");
+        Utils.validateArg(numEigensamples <= numSamples, "Number of eigensamples cannot exceed number of samples.");
+        ParamUtils.isPositiveOrZero(relativeThreshold, "Relative threshold must be non-negative.");
+        ParamUtils.isPositiveOrZero(oversampling, "Oversampling must be non-negative.");
+        ParamUtils.isPositiveOrZero(numPowerIterations, "Number of power iterations must be non-negative.");
+
+        //we find an orthonormal basis Q (intervals x l) for the range of A = samplesByIntervals^T,
+        //where l is the number of eigensamples plus oversampling; Q and other tall matrices are stored transposed,
+        //so that each of their columns is a contiguous array
+        final int numBasisVectors = Math.min(numEigensamples + oversampling, numSamples);
+        final RandomGenerator rng = RandomGeneratorFactory.createRandomGenerator(new Random(RANDOM_SEED));
+        final double[][] transposedOmega = new double[numBasisVectors][numSamples];
+        for (final double[] column : transposedOmega) {
+            for (int sampleIndex = 0; sampleIndex < numSamples; sampleIndex++) {
+                column[sampleIndex] = rng.nextGaussian();
+            }
+        }
+
+        logger.info(String.format("Finding randomized basis (%d vectors, %d power iterations)...", numBasisVectors, numPowerIterations));
+        double[][] transposedQ = multiplyTransposed(samplesByIntervals, transposedOmega);   //Q = A * Omega
+        orthonormalizeRows(transposedQ);
+        for (int iteration = 0; iteration < numPowerIterations; iteration++) {
+            final double[][] transposedW = transpose(multiply(samplesByIntervals, transposedQ));    //W = A^T * Q
+            orthonormalizeRows(transposedW);
+            transposedQ = multiplyTransposed(samplesByIntervals, transposedW);                     //Q = A * W
+            orthonormalizeRows(transposedQ);
+        }
+
+        //project onto the basis and decompose the small matrix B = Q^T * A = (A^T * Q)^T
+        logger.info("Decomposing projected matrix...");
+        final RealMatrix b = new Array2DRowRealMatrix(transpose(multiply(samplesByIntervals, transposedQ)), false);
+        final SingularValueDecomposition svd = new SingularValueDecomposition(b);
+        final double[] allSingularValues = svd.getSingularValues();     //in decreasing order
+        final double threshold = allSingularValues.length == 0 ? 0. : relativeThreshold * allSingularValues[0];
+        final int numRetained = (int) Arrays.stream(allSingularValues)
+                .limit(numEigensamples)
+                .filter(s -> s > threshold)
+                .count();
+        final double[] singularValues = Arrays.copyOf(allSingularValues, numRetained);
+
+        //eigensample vectors are given by Q * U_B
+        final double[][] uB = svd.getU().getData();
+        final double[][] transposedEigensampleVectors = new double[numRetained][numIntervals];
+        final double[][] finalTransposedQ = transposedQ;
+        IntStream.range(0, numIntervalBlocks(numIntervals)).parallel().forEach(block -> {
+            final int start = block * INTERVAL_BLOCK_SIZE;
+            final int end = Math.min(start + INTERVAL_BLOCK_SIZE, numIntervals);
+            for (int basisIndex = 0; basisIndex < numBasisVectors; basisIndex++) {
+                final double[] qColumn = finalTransposedQ[basisIndex];
+                for (int eigensampleIndex = 0; eigensampleIndex < numRetained; eigensampleIndex++) {
+                    final double weight = uB[basisIndex][eigensampleIndex];
+                    final double[] eigensampleVector = transposedEigensampleVectors[eigensampleIndex];
+                    for (int intervalIndex = start; intervalIndex < end; intervalIndex++) {
+                        eigensampleVector[intervalIndex] += weight * qColumn[intervalIndex];
+                    }
+                }
+            }
+        });
+        return new RandomizedTruncatedSVD(singularValues, transposedEigensampleVectors);
+    }
+
+    private static int numIntervalBlocks(final int numIntervals) {
+        return (numIntervals + INTERVAL_BLOCK_SIZE - 1) / INTERVAL_BLOCK_SIZE;
+    }
+
+    /**
+     * Returns (X^T * W)^T, where X is samples x intervals and W is samples x l (given transposed),
+     * so that the result is l x intervals.  Parallelized over blocks of intervals.
+     */
+    private static double[][] multiplyTransposed(final double[][] samplesByIntervals,
+                                                 final double[][] transposedW) {
+        final int numSamples = samplesByIntervals.length;
+        final int numIntervals = samplesByIntervals[0].length;
+        final int numColumns = transposedW.length;
+        final double[][] result = new double[numColumns][numIntervals];
+        IntStream.range(0, numIntervalBlocks(numIntervals)).parallel().forEach(block -> {
+            final int start = block * INTERVAL_BLOCK_SIZE;
+            final int end = Math.min(start + INTERVAL_BLOCK_SIZE, numIntervals);
+            for (int sampleIndex = 0; sampleIndex < numSamples; sampleIndex++) {
+                final double[] row = samplesByIntervals[sampleIndex];
+                for (int columnIndex = 0; columnIndex < numColumns; columnIndex++) {
+                    final double weight = transposedW[columnIndex][sampleIndex];
+                    final double[] resultRow = result[columnIndex];
+                    for (int intervalIndex = start; intervalIndex < end; intervalIndex++) {
+                        resultRow[intervalIndex] += weight * row[intervalIndex];
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns X * Q, where X is samples x intervals and Q is intervals x l (given transposed),
+     * so that the result is samples x l.  Parallelized over blocks of samples; each entry is accumulated
+     * block by block along the intervals by a single thread, so the floating-point sums are reproducible.
+     */
+    private static double[][] multiply(final double[][] samplesByIntervals,
+                                       final double[][] transposedQ) {
+        final int numSamples = samplesByIntervals.length;
+        final int numIntervals = samplesByIntervals[0].length;
+        final int numColumns = transposedQ.length;
+        final double[][] result = new double[numSamples][numColumns];
+        final int numSampleBlocks = (numSamples + SAMPLE_BLOCK_SIZE - 1) / SAMPLE_BLOCK_SIZE;
+        IntStream.range(0, numSampleBlocks).parallel().forEach(sampleBlock -> {
+            final int sampleStart = sampleBlock * SAMPLE_BLOCK_SIZE;
+            final int sampleEnd = Math.min(sampleStart + SAMPLE_BLOCK_SIZE, numSamples);
+            for (int start = 0; start < numIntervals; start += INTERVAL_BLOCK_SIZE) {
+                final int end = Math.min(start + INTERVAL_BLOCK_SIZE, numIntervals);
+                for (int sampleIndex = sampleStart; sampleIndex < sampleEnd; sampleIndex++) {
+                    final double[] row = samplesByIntervals[sampleIndex];
+                    for (int columnIndex = 0; columnIndex < numColumns; columnIndex++) {
+                        final double[] qColumn = transposedQ[columnIndex];
+                        double dot = 0.;
+                        for (int intervalIndex = start; intervalIndex < end; intervalIndex++) {
+                            dot += row[intervalIndex] * qColumn[intervalIndex];
+                        }
+                        result[sampleIndex][columnIndex] += dot;
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    private static double[][] transpose(final double[][] matrix) {
+        final double[][] result = new double[matrix[0].length][matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[0].length; j++) {
+                result[j][i] = matrix[i][j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Orthonormalizes the rows of {@code matrix} in place using modified Gram-Schmidt with reorthogonalization.
+     * Rows that are (numerically) linearly dependent on previous rows are set to zero.
+     */
+    private static void orthonormalizeRows(final double[][] matrix) {
+        for (int i = 0; i < matrix.length; i++) {
+            final double[] row = matrix[i];
+            final double originalNorm = norm(row);
+            //two passes of Gram-Schmidt are sufficient for orthogonality to working precision
+            for (int pass = 0; pass < 2; pass++) {
+                for (int j = 0; j < i; j++) {
+                    final double[] previousRow = matrix[j];
+                    final double projection = dot(row, previousRow);
+                    for (int k = 0; k < row.length; k++) {
+                        row[k] -= projection * previousRow[k];
+                    }
+                }
+            }
+            final double norm = norm(row);
+            if (norm <= 1E-12 * originalNorm || norm == 0.) {
+                Arrays.fill(row, 0.);
+            } else {
+                for (int k = 0; k < row.length; k++) {
+                    row[k] /= norm;
+                }
+            }
+        }
+    }
+
+    private static double dot(final double[] x, final double[] y) {
+        double result = 0.;
+        for (int k = 0; k < x.length; k++) {
+            result += x[k] * y[k];
+        }
+        return result;
+    }
+
+    private static double norm(final double[] x) {
+        return Math.sqrt(dot(x, x));
+    }
+}
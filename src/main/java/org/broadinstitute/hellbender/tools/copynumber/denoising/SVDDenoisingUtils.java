@@ -334,7 +334,7 @@ public final class SVDDenoisingUtils {
         } else if ((long) preprocessedReadCounts.getRowDimension() * preprocessedReadCounts.getColumnDimension() > Integer.MAX_VALUE) {
             logger.warn("The number of matrix elements exceeds Integer.MAX_VALUE, so outlier truncation will be skipped...");
         } else {
-            final double[] values = Doubles.concat(preprocessedReadCounts.getData());
+            final double[] values = Doubles.concat(getDataRef(preprocessedReadCounts));
             final double minimumOutlierTruncationThreshold = new Percentile(extremeOutlierTruncationPercentile).evaluate(values);
             final double maximumOutlierTruncationThreshold = new Percentile(100. - extremeOutlierTruncationPercentile).evaluate(values);
             final int[] numTruncated = {0};  //needs to be effectively final to be used inside visitor
@@ -359,6 +359,17 @@ public final class SVDDenoisingUtils {
                 preprocessedReadCounts, panelIntervalFractionalMedians, filterSamples, filterIntervals);
     }
 
+    /**
+     * Returns the array backing {@code matrix} if it is an {@link Array2DRowRealMatrix}, so that large matrices
+     * need not be copied; otherwise, returns a copy of its data.  The returned array should not be modified
+     * unless modifying {@code matrix} in place is intended.
+     */
+    static double[][] getDataRef(final RealMatrix matrix) {
+        return matrix instanceof Array2DRowRealMatrix
+                ? ((Array2DRowRealMatrix) matrix).getDataRef()
+                : matrix.getData();
+    }
+
     private static void logHeapUsage() {
         final int mb = 1024 * 1024;
         final Runtime runtime = Runtime.getRuntime();
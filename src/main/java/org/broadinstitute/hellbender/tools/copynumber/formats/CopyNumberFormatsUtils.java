@@ -14,6 +14,7 @@ import java.util.List;
 public final class CopyNumberFormatsUtils {
     public static final String COMMENT_PREFIX = "@";    //SAMTextHeaderCodec.HEADER_LINE_START; we need TableReader to treat SAM header as comment lines
     public static final String DOUBLE_FORMAT = "%.6f";
+    public static final String COLUMNAR_BINARY_EXTENSION = ".bin";
 
     private CopyNumberFormatsUtils() {}
 
@@ -15,6 +15,7 @@ import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.tsv.*;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.function.BiConsumer;
@@ -62,7 +63,8 @@ public abstract class AbstractRecordCollection<METADATA extends Metadata, RECORD
      * Constructor given an input file, the mandatory column headers, and the lambdas for reading and writing records.
      * The list of records is read using the column headers and the appropriate lambda.
      *
-     * @param inputFile                     TSV file; must contain a {@link SAMFileHeader} and mandatory column headers, but can contain no records
+     * @param inputFile                     TSV file or file in the columnar binary format written by {@link #writeBinary};
+     *                                      must contain a {@link SAMFileHeader} and mandatory column headers, but can contain no records
      * @param mandatoryColumns              mandatory columns required to construct collection from a TSV file; cannot be empty
      * @param recordFromDataLineDecoder     lambda for decoding a record from a {@link DataLine} when reading from a TSV file
      * @param recordToDataLineEncoder       lambda for encoding a record to a {@link DataLine} when writing to a TSV file
@@ -77,10 +79,24 @@ public abstract class AbstractRecordCollection<METADATA extends Metadata, RECORD
         this.recordToDataLineEncoder = Utils.nonNull(recordToDataLineEncoder);
         Utils.nonEmpty(mandatoryColumns.names());
 
-        try (final RecordCollectionReader reader = new RecordCollectionReader(IOUtils.fileToPath(inputFile))) {
-            metadata = MetadataUtils.fromHeader(reader.getHeader(), getMetadataType());
-            TableUtils.checkMandatoryColumns(reader.columns(), mandatoryColumns, UserException.BadInput::new);
-            records = ImmutableList.copyOf(reader.stream().iterator());     //avoid creation of an intermediate list
+        final Path inputPath = IOUtils.fileToPath(inputFile);
+        try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(inputPath))) {
+            if (ColumnarRecordCollectionCodec.isColumnar(inputStream)) {
+                final ColumnarRecordCollectionCodec.Table table = ColumnarRecordCollectionCodec.read(inputStream, inputFile);
+                metadata = MetadataUtils.fromHeader(table.getHeader(), getMetadataType());
+                TableUtils.checkMandatoryColumns(table.getColumns(), mandatoryColumns, UserException.BadInput::new);
+                final Function<ColumnarRecordCollectionCodec.Row, RECORD> recordFromRowDecoder = getRecordFromColumnarRowDecoder();
+                records = ImmutableList.copyOf(recordFromRowDecoder != null
+                        ? table.decodeRecordsFromRows(recordFromRowDecoder)
+                        : table.decodeRecords(recordFromDataLineDecoder));
+                return;
+            }
+            try (final RecordCollectionReader reader = new RecordCollectionReader(inputPath,
+                    IOUtils.makeReaderMaybeGzipped(inputStream, inputPath.toString().endsWith(".gz")))) {
+                metadata = MetadataUtils.fromHeader(reader.getHeader(), getMetadataType());
+                TableUtils.checkMandatoryColumns(reader.columns(), mandatoryColumns, UserException.BadInput::new);
+                records = ImmutableList.copyOf(reader.stream().iterator());     //avoid creation of an intermediate list
+            }
         } catch (final IOException | UncheckedIOException e) {
             throw new UserException.CouldNotReadInputFile(inputFile, e);
         }
@@ -96,6 +112,16 @@ public abstract class AbstractRecordCollection<METADATA extends Metadata, RECORD
      */
     abstract Metadata.Type getMetadataType();
 
+    /**
+     * Subclasses may override this to decode records read from files in the columnar binary format directly from
+     * the typed values of the columns, rather than with the {@link DataLine} decoder.  The result must be identical.
+     *
+     * @return {@code null} if the {@link DataLine} decoder should be used
+     */
+    Function<ColumnarRecordCollectionCodec.Row, RECORD> getRecordFromColumnarRowDecoder() {
+        return null;
+    }
+
     public METADATA getMetadata() {
         return metadata;
     }
@@ -108,10 +134,15 @@ public abstract class AbstractRecordCollection<METADATA extends Metadata, RECORD
     }
 
     /**
-     * Writes the records to file.
+     * Writes the records to file.  Files with the extension {@link CopyNumberFormatsUtils#COLUMNAR_BINARY_EXTENSION}
+     * are written in the columnar binary format (see {@link #writeBinary}); all other files are written as TSV.
      */
     public void write(final File outputFile) {
         Utils.nonNull(outputFile);
+        if (outputFile.getName().endsWith(CopyNumberFormatsUtils.COLUMNAR_BINARY_EXTENSION)) {
+            writeBinary(outputFile);
+            return;
+        }
         try (final FileWriter writer = new FileWriter(outputFile)) {
             writer.write(metadata.toHeader().getSAMString());
         } catch (final IOException e) {
@@ -124,6 +155,16 @@ public abstract class AbstractRecordCollection<METADATA extends Metadata, RECORD
         }
     }
 
+    /**
+     * Writes the records to file in a compact, columnar binary format, which stores the values of each column
+     * in a primitive array.  Such files can be read by the same constructors used to read TSV files and
+     * yield identical collections.
+     */
+    public void writeBinary(final File outputFile) {
+        Utils.nonNull(outputFile);
+        ColumnarRecordCollectionCodec.write(outputFile, metadata.toHeader(), mandatoryColumns, records, recordToDataLineEncoder);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -168,8 +209,9 @@ public abstract class AbstractRecordCollection<METADATA extends Metadata, RECORD
         private static final String COMMENT_PREFIX = CopyNumberFormatsUtils.COMMENT_PREFIX;   //SAMTextHeaderCodec.HEADER_LINE_START; we need TableReader to treat SAM header as comment lines
         private final Path path;
 
-        RecordCollectionReader(final Path path) throws IOException {
-            super(path);
+        RecordCollectionReader(final Path path,
+                               final Reader reader) throws IOException {
+            super(path.toString(), reader);
             this.path = path;
         }
 
@@ -46,6 +46,17 @@ public final class AllelicCountCollection extends AbstractSampleLocatableCollect
         return new AllelicCount(interval, refReadCount, altReadCount, refNucleotide, altNucleotide);
     };
 
+    private static final Function<ColumnarRecordCollectionCodec.Row, AllelicCount> ALLELIC_COUNT_RECORD_FROM_COLUMNAR_ROW_DECODER = row -> {
+        final String contig = row.get(AllelicCountTableColumn.CONTIG);
+        final int position = row.getInt(AllelicCountTableColumn.POSITION);
+        final int refReadCount = row.getInt(AllelicCountTableColumn.REF_COUNT);
+        final int altReadCount = row.getInt(AllelicCountTableColumn.ALT_COUNT);
+        final Nucleotide refNucleotide = Nucleotide.decode(row.get(AllelicCountTableColumn.REF_NUCLEOTIDE).charAt(0));
+        final Nucleotide altNucleotide = Nucleotide.decode(row.get(AllelicCountTableColumn.ALT_NUCLEOTIDE).charAt(0));
+        final SimpleInterval interval = new SimpleInterval(contig, position, position);
+        return new AllelicCount(interval, refReadCount, altReadCount, refNucleotide, altNucleotide);
+    };
+
     private static final BiConsumer<AllelicCount, DataLine> ALLELIC_COUNT_RECORD_TO_DATA_LINE_ENCODER = (allelicCount, dataLine) ->
             dataLine.append(allelicCount.getInterval().getContig())
                     .append(allelicCount.getInterval().getEnd())
@@ -62,4 +73,9 @@ public final class AllelicCountCollection extends AbstractSampleLocatableCollect
                                   final List<AllelicCount> AllelicCounts) {
         super(metadata, AllelicCounts, AllelicCountCollection.AllelicCountTableColumn.COLUMNS, ALLELIC_COUNT_RECORD_FROM_DATA_LINE_DECODER, ALLELIC_COUNT_RECORD_TO_DATA_LINE_ENCODER);
     }
+
+    @Override
+    Function<ColumnarRecordCollectionCodec.Row, AllelicCount> getRecordFromColumnarRowDecoder() {
+        return ALLELIC_COUNT_RECORD_FROM_COLUMNAR_ROW_DECODER;
+    }
 }
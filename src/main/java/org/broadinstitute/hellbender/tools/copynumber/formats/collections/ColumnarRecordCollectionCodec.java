@@ -0,0 +1,541 @@
+package org.broadinstitute.hellbender.tools.copynumber.formats.collections;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMTextHeaderCodec;
+import htsjdk.samtools.util.BufferedLineReader;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.tsv.DataLine;
+import org.broadinstitute.hellbender.utils.tsv.TableColumnCollection;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reads and writes the contents of an {@link AbstractRecordCollection} in a compact, columnar binary format.
+ *
+ * <p>
+ *     Records are encoded to and decoded from {@link DataLine}s using the same lambdas used for TSV files,
+ *     so any collection can be written in this format and files are read back into collections that are
+ *     identical to those read from the corresponding TSV files.  However, instead of writing one line per record,
+ *     the values of each column are stored together in a primitive array, using the most compact of the following
+ *     representations that can reproduce the TSV values exactly:
+ * </p>
+ * <ul>
+ *     <li>
+ *         integers (e.g., interval starts and ends, counts): an {@code int} per record
+ *     </li>
+ *     <li>
+ *         doubles formatted with {@link org.broadinstitute.hellbender.tools.copynumber.formats.CopyNumberFormatsUtils#DOUBLE_FORMAT}:
+ *         a fixed-point {@code long} per record
+ *     </li>
+ *     <li>
+ *         all other values (e.g., contigs, calls): a dictionary of distinct values and an {@code int} index per record
+ *     </li>
+ * </ul>
+ * <p>
+ *     Collections that are read often and in bulk (e.g., counts and copy ratios) may instead decode records directly
+ *     from these arrays via {@link Row}, which yields the same values without converting them to and from strings.
+ * </p>
+ * <p>
+ *     Files start with {@link #MAGIC}, followed by a format version, the SAM-style header of the collection,
+ *     the column names, the number of records, and the columns.
+ * </p>
+ */
+final class ColumnarRecordCollectionCodec {
+    private static final byte[] MAGIC = "GATKCNVC".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    private static final int FIXED_POINT_NUM_DECIMALS = 6;      //matches CopyNumberFormatsUtils.DOUBLE_FORMAT
+    private static final long FIXED_POINT_SCALE = 1_000_000L;
+    private static final int FIXED_POINT_MAX_INTEGER_DIGITS = 12;
+    //fixed-point values up to this magnitude are exactly representable as doubles, so dividing by the scale
+    //rounds them to the same double as parsing their formatted values
+    private static final long FIXED_POINT_MAX_EXACT_DOUBLE = 1L << 53;
+
+    private enum ColumnType {
+        INT, FIXED_POINT, STRING
+    }
+
+    private ColumnarRecordCollectionCodec() {}
+
+    /**
+     * Checks whether a stream starts with the magic bytes of this format, leaving the stream at the same position
+     * so that it can then be read as either this format or TSV.
+     * @param inputStream must support {@link InputStream#mark}
+     */
+    static boolean isColumnar(final InputStream inputStream) throws IOException {
+        Utils.nonNull(inputStream);
+        Utils.validateArg(inputStream.markSupported(), "The input stream must support mark and reset.");
+        inputStream.mark(MAGIC.length);
+        try {
+            final byte[] candidateMagic = new byte[MAGIC.length];
+            int numRead = 0;
+            while (numRead < MAGIC.length) {
+                final int n = inputStream.read(candidateMagic, numRead, MAGIC.length - numRead);
+                if (n < 0) {
+                    return false;
+                }
+                numRead += n;
+            }
+            return Arrays.equals(candidateMagic, MAGIC);
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    static <RECORD> void write(final File outputFile,
+                               final SAMFileHeader header,
+                               final TableColumnCollection columns,
+                               final List<RECORD> records,
+                               final BiConsumer<RECORD, DataLine> recordToDataLineEncoder) {
+        Utils.nonNull(outputFile);
+        Utils.nonNull(header);
+        Utils.nonNull(columns);
+        Utils.nonNull(records);
+        Utils.nonNull(recordToDataLineEncoder);
+
+        final int numColumns = columns.columnCount();
+        final ColumnBuilder[] columnBuilders = new ColumnBuilder[numColumns];
+        for (int c = 0; c < numColumns; c++) {
+            columnBuilders[c] = new ColumnBuilder(records.size());
+        }
+        for (final RECORD record : records) {
+            final DataLine dataLine = new DataLine(columns, IllegalArgumentException::new);
+            recordToDataLineEncoder.accept(record, dataLine);
+            for (int c = 0; c < numColumns; c++) {
+                columnBuilders[c].add(dataLine.get(c));
+            }
+        }
+
+        try (final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)))) {
+            outputStream.write(MAGIC);
+            outputStream.writeInt(VERSION);
+            writeString(outputStream, header.getSAMString());
+            outputStream.writeInt(numColumns);
+            for (final String name : columns.names()) {
+                writeString(outputStream, name);
+            }
+            outputStream.writeInt(records.size());
+            for (final ColumnBuilder columnBuilder : columnBuilders) {
+                columnBuilder.write(outputStream);
+            }
+        } catch (final IOException e) {
+            throw new UserException.CouldNotCreateOutputFile(outputFile, e);
+        }
+    }
+
+    /**
+     * Contents of a file in this format, with records not yet decoded.
+     */
+    static final class Table {
+        private final SAMFileHeader header;
+        private final TableColumnCollection columns;
+        private final int numRecords;
+        private final Column[] columnValues;
+
+        private Table(final SAMFileHeader header,
+                      final TableColumnCollection columns,
+                      final int numRecords,
+                      final Column[] columnValues) {
+            this.header = header;
+            this.columns = columns;
+            this.numRecords = numRecords;
+            this.columnValues = columnValues;
+        }
+
+        SAMFileHeader getHeader() {
+            return header;
+        }
+
+        TableColumnCollection getColumns() {
+            return columns;
+        }
+
+        <RECORD> List<RECORD> decodeRecords(final Function<DataLine, RECORD> recordFromDataLineDecoder) {
+            Utils.nonNull(recordFromDataLineDecoder);
+            final List<RECORD> records = new ArrayList<>(numRecords);
+            final String[] values = new String[columnValues.length];
+            for (int i = 0; i < numRecords; i++) {
+                for (int c = 0; c < columnValues.length; c++) {
+                    values[c] = columnValues[c].get(i);
+                }
+                records.add(recordFromDataLineDecoder.apply(
+                        new DataLine(columns, UserException.BadInput::new).setAll(values)));
+            }
+            return records;
+        }
+
+        /**
+         * Decodes records directly from the typed values of the columns, which avoids formatting each value
+         * as a string and parsing it again.
+         */
+        <RECORD> List<RECORD> decodeRecordsFromRows(final Function<Row, RECORD> recordFromRowDecoder) {
+            Utils.nonNull(recordFromRowDecoder);
+            final List<RECORD> records = new ArrayList<>(numRecords);
+            final Row row = new Row(this);
+            for (int i = 0; i < numRecords; i++) {
+                row.index = i;
+                records.add(recordFromRowDecoder.apply(row));
+            }
+            return records;
+        }
+    }
+
+    /**
+     * A record of a {@link Table}, with accessors that return the same values as the corresponding methods
+     * of a {@link DataLine} holding the values of the record.  The same instance is passed to the decoder for
+     * every record, so it must not be retained.
+     */
+    static final class Row {
+        private final Table table;
+        private int index;
+
+        private Row(final Table table) {
+            this.table = table;
+        }
+
+        String get(final Enum<?> column) {
+            return getColumn(column).get(index);
+        }
+
+        int getInt(final Enum<?> column) {
+            return getColumn(column).getInt(index, column.name());
+        }
+
+        double getDouble(final Enum<?> column) {
+            return getColumn(column).getDouble(index, column.name());
+        }
+
+        private Column getColumn(final Enum<?> column) {
+            final int columnIndex = table.columns.indexOf(Utils.nonNull(column).name());
+            Utils.validateArg(columnIndex >= 0, () -> String.format("Unknown column: %s.", column.name()));
+            return table.columnValues[columnIndex];
+        }
+    }
+
+    /**
+     * Reads a table from a stream positioned at the start of a file in this format; the stream is not closed.
+     * @param inputFile file from which the stream was opened, used in error messages
+     */
+    static Table read(final InputStream fileStream,
+                      final File inputFile) {
+        Utils.nonNull(fileStream);
+        Utils.nonNull(inputFile);
+        try {
+            final DataInputStream inputStream = new DataInputStream(fileStream);
+            final byte[] magic = new byte[MAGIC.length];
+            inputStream.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new UserException.BadInput(String.format("File %s is not in the columnar binary format.", inputFile.getAbsolutePath()));
+            }
+            final int version = inputStream.readInt();
+            if (version != VERSION) {
+                throw new UserException.BadInput(String.format("File %s has unsupported columnar binary format version %d.",
+                        inputFile.getAbsolutePath(), version));
+            }
+            final SAMFileHeader header = new SAMTextHeaderCodec()
+                    .decode(BufferedLineReader.fromString(readString(inputStream)), inputFile.getAbsolutePath());
+            final int numColumns = inputStream.readInt();
+            final List<String> names = new ArrayList<>(numColumns);
+            for (int c = 0; c < numColumns; c++) {
+                names.add(readString(inputStream));
+            }
+            if (names.stream().distinct().count() != names.size()) {
+                throw new UserException.BadInput("Column headers must all be unique.");
+            }
+            final int numRecords = inputStream.readInt();
+            final Column[] columnValues = new Column[numColumns];
+            for (int c = 0; c < numColumns; c++) {
+                columnValues[c] = Column.read(inputStream, numRecords);
+            }
+            return new Table(header, new TableColumnCollection(names), numRecords, columnValues);
+        } catch (final EOFException e) {
+            throw new UserException.BadInput(String.format("File %s is truncated.", inputFile.getAbsolutePath()));
+        } catch (final IOException e) {
+            throw new UserException.CouldNotReadInputFile(inputFile, e);
+        }
+    }
+
+    /**
+     * Values of a column, stored in the representation given by {@link #type}.
+     */
+    private static final class Column {
+        private final ColumnType type;
+        private final int[] ints;           //values for INT, dictionary indices for STRING
+        private final long[] longs;         //values for FIXED_POINT
+        private final String[] dictionary;  //distinct values for STRING
+
+        private Column(final ColumnType type, final int[] ints, final long[] longs, final String[] dictionary) {
+            this.type = type;
+            this.ints = ints;
+            this.longs = longs;
+            this.dictionary = dictionary;
+        }
+
+        String get(final int index) {
+            switch (type) {
+                case INT:
+                    return Integer.toString(ints[index]);
+                case FIXED_POINT:
+                    return formatFixedPoint(longs[index]);
+                default:
+                    return dictionary[ints[index]];
+            }
+        }
+
+        int getInt(final int index,
+                   final String name) {
+            if (type == ColumnType.INT) {
+                return ints[index];
+            }
+            final String value = get(index);
+            try {
+                return Integer.parseInt(value);
+            } catch (final NumberFormatException e) {
+                throw new UserException.BadInput(String.format("expected int value for column %s but found %s", name, value));
+            }
+        }
+
+        double getDouble(final int index,
+                         final String name) {
+            if (type == ColumnType.INT) {
+                return ints[index];
+            }
+            if (type == ColumnType.FIXED_POINT && Math.abs(longs[index]) <= FIXED_POINT_MAX_EXACT_DOUBLE) {
+                return longs[index] / (double) FIXED_POINT_SCALE;
+            }
+            final String value = get(index);
+            try {
+                return Double.parseDouble(value);
+            } catch (final NumberFormatException e) {
+                throw new UserException.BadInput(String.format("expected double value for column %s but found %s", name, value));
+            }
+        }
+
+        private static Column read(final DataInputStream inputStream,
+                                   final int numRecords) throws IOException {
+            final int typeIndex = inputStream.readByte();
+            if (typeIndex < 0 || typeIndex >= ColumnType.values().length) {
+                throw new UserException.BadInput(String.format("Unknown column type: %d.", typeIndex));
+            }
+            final ColumnType type = ColumnType.values()[typeIndex];
+            switch (type) {
+                case INT:
+                    return new Column(type, readInts(inputStream, numRecords), null, null);
+                case FIXED_POINT:
+                    final long[] longs = new long[numRecords];
+                    for (int i = 0; i < numRecords; i++) {
+                        longs[i] = inputStream.readLong();
+                    }
+                    return new Column(type, null, longs, null);
+                default:
+                    final String[] dictionary = new String[inputStream.readInt()];
+                    for (int k = 0; k < dictionary.length; k++) {
+                        dictionary[k] = readString(inputStream);
+                    }
+                    final int[] indices = readInts(inputStream, numRecords);
+                    if (Arrays.stream(indices).anyMatch(k -> k < 0 || k >= dictionary.length)) {
+                        throw new UserException.BadInput("Column contains an invalid dictionary index.");
+                    }
+                    return new Column(type, indices, null, dictionary);
+            }
+        }
+    }
+
+    /**
+     * Accumulates the values of a column, starting with the most compact representation that can hold the first value
+     * and falling back to a dictionary of strings if a later value cannot be represented.
+     */
+    private static final class ColumnBuilder {
+        private ColumnType type = null;
+        private int size = 0;
+        private int[] ints;
+        private long[] longs;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> dictionaryValues = new ArrayList<>();
+
+        ColumnBuilder(final int capacity) {
+            ints = new int[capacity];
+        }
+
+        void add(final String value) {
+            if (type == null) {
+                type = isCanonicalInt(value) ? ColumnType.INT
+                        : parseFixedPoint(value) != null ? ColumnType.FIXED_POINT
+                        : ColumnType.STRING;
+                if (type == ColumnType.FIXED_POINT) {
+                    longs = new long[ints.length];
+                }
+            }
+            if (type == ColumnType.INT) {
+                if (isCanonicalInt(value)) {
+                    ints[size++] = Integer.parseInt(value);
+                    return;
+                }
+                convertToStrings();
+            } else if (type == ColumnType.FIXED_POINT) {
+                final Long fixedPoint = parseFixedPoint(value);
+                if (fixedPoint != null) {
+                    longs[size++] = fixedPoint;
+                    return;
+                }
+                convertToStrings();
+            }
+            ints[size++] = getDictionaryIndex(value);
+        }
+
+        private void convertToStrings() {
+            for (int i = 0; i < size; i++) {
+                final String value = type == ColumnType.INT ? Integer.toString(ints[i]) : formatFixedPoint(longs[i]);
+                ints[i] = getDictionaryIndex(value);
+            }
+            longs = null;
+            type = ColumnType.STRING;
+        }
+
+        private int getDictionaryIndex(final String value) {
+            return dictionary.computeIfAbsent(value, v -> {
+                dictionaryValues.add(v);
+                return dictionaryValues.size() - 1;
+            });
+        }
+
+        void write(final DataOutputStream outputStream) throws IOException {
+            final ColumnType writtenType = type == null ? ColumnType.INT : type;   //columns of empty collections
+            outputStream.writeByte(writtenType.ordinal());
+            switch (writtenType) {
+                case INT:
+                    writeInts(outputStream, ints, size);
+                    break;
+                case FIXED_POINT:
+                    for (int i = 0; i < size; i++) {
+                        outputStream.writeLong(longs[i]);
+                    }
+                    break;
+                default:
+                    outputStream.writeInt(dictionaryValues.size());
+                    for (final String value : dictionaryValues) {
+                        writeString(outputStream, value);
+                    }
+                    writeInts(outputStream, ints, size);
+            }
+        }
+    }
+
+    private static boolean isCanonicalInt(final String value) {
+        final int length = value.length();
+        if (length == 0 || length > 11) {
+            return false;
+        }
+        final int firstDigit = value.charAt(0) == '-' ? 1 : 0;
+        if (firstDigit == length || (value.charAt(firstDigit) == '0' && (length > firstDigit + 1 || firstDigit == 1))) {
+            return false;   //no digits, leading zeros, or negative zero
+        }
+        long result = 0;
+        for (int i = firstDigit; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            result = 10 * result + (c - '0');
+        }
+        result = firstDigit == 1 ? -result : result;
+        return result >= Integer.MIN_VALUE && result <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the value scaled by {@link #FIXED_POINT_SCALE} if {@code value} has exactly the form produced by
+     *         formatting a double with {@link #FIXED_POINT_NUM_DECIMALS} decimals and can be reproduced by
+     *         {@link #formatFixedPoint}, {@code null} otherwise
+     */
+    private static Long parseFixedPoint(final String value) {
+        final int length = value.length();
+        final boolean isNegative = length > 0 && value.charAt(0) == '-';
+        final int firstDigit = isNegative ? 1 : 0;
+        final int pointIndex = length - FIXED_POINT_NUM_DECIMALS - 1;
+        final int numIntegerDigits = pointIndex - firstDigit;
+        if (numIntegerDigits < 1 || numIntegerDigits > FIXED_POINT_MAX_INTEGER_DIGITS || value.charAt(pointIndex) != '.' ||
+                (numIntegerDigits > 1 && value.charAt(firstDigit) == '0')) {
+            return null;
+        }
+        long result = 0;
+        for (int i = firstDigit; i < length; i++) {
+            if (i == pointIndex) {
+                continue;
+            }
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            result = 10 * result + (c - '0');
+        }
+        if (isNegative && result == 0) {
+            return null;    //negative zero cannot be reproduced
+        }
+        return isNegative ? -result : result;
+    }
+
+    private static String formatFixedPoint(final long value) {
+        final long absoluteValue = Math.abs(value);
+        final String fraction = Long.toString(absoluteValue % FIXED_POINT_SCALE);
+        final StringBuilder builder = new StringBuilder(FIXED_POINT_MAX_INTEGER_DIGITS + FIXED_POINT_NUM_DECIMALS + 2);
+        if (value < 0) {
+            builder.append('-');
+        }
+        builder.append(absoluteValue / FIXED_POINT_SCALE).append('.');
+        for (int i = fraction.length(); i < FIXED_POINT_NUM_DECIMALS; i++) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+
+    private static void writeInts(final DataOutputStream outputStream,
+                                  final int[] values,
+                                  final int size) throws IOException {
+        for (int i = 0; i < size; i++) {
+            outputStream.writeInt(values[i]);
+        }
+    }
+
+    private static int[] readInts(final DataInputStream inputStream,
+                                  final int size) throws IOException {
+        final int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = inputStream.readInt();
+        }
+        return values;
+    }
+
+    //DataOutputStream.writeUTF is limited to 64 KB, which may be exceeded by large sequence dictionaries
+    private static void writeString(final DataOutputStream outputStream,
+                                    final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private static String readString(final DataInputStream inputStream) throws IOException {
+        final int length = inputStream.readInt();
+        if (length < 0) {
+            throw new UserException.BadInput("Invalid string length.");
+        }
+        final byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
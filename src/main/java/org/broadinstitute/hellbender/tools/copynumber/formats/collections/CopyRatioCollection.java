@@ -39,6 +39,15 @@ public final class CopyRatioCollection extends AbstractSampleLocatableCollection
         return new CopyRatio(interval, copyRatio);
     };
 
+    private static final Function<ColumnarRecordCollectionCodec.Row, CopyRatio> COPY_RATIO_RECORD_FROM_COLUMNAR_ROW_DECODER = row -> {
+        final String contig = row.get(CopyRatioTableColumn.CONTIG);
+        final int start = row.getInt(CopyRatioTableColumn.START);
+        final int end = row.getInt(CopyRatioTableColumn.END);
+        final double copyRatio = row.getDouble(CopyRatioTableColumn.LOG2_COPY_RATIO);
+        final SimpleInterval interval = new SimpleInterval(contig, start, end);
+        return new CopyRatio(interval, copyRatio);
+    };
+
     private static final BiConsumer<CopyRatio, DataLine> COPY_RATIO_RECORD_TO_DATA_LINE_ENCODER = (copyRatio, dataLine) ->
         dataLine.append(copyRatio.getInterval().getContig())
                 .append(copyRatio.getInterval().getStart())
@@ -54,6 +63,11 @@ public final class CopyRatioCollection extends AbstractSampleLocatableCollection
         super(metadata, copyRatios, CopyRatioTableColumn.COLUMNS, COPY_RATIO_RECORD_FROM_DATA_LINE_DECODER, COPY_RATIO_RECORD_TO_DATA_LINE_ENCODER);
     }
 
+    @Override
+    Function<ColumnarRecordCollectionCodec.Row, CopyRatio> getRecordFromColumnarRowDecoder() {
+        return COPY_RATIO_RECORD_FROM_COLUMNAR_ROW_DECODER;
+    }
+
     public List<Double> getLog2CopyRatioValues() {
         return getRecords().stream().map(CopyRatio::getLog2CopyRatioValue).collect(Collectors.toList());
     }
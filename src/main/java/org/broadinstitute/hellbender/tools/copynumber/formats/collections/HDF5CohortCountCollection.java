@@ -0,0 +1,118 @@
+package org.broadinstitute.hellbender.tools.copynumber.formats.collections;
+
+import com.google.common.collect.ImmutableList;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMTextHeaderCodec;
+import htsjdk.samtools.util.BufferedLineReader;
+import org.broadinstitute.hdf5.HDF5File;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SimpleSampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.SimpleCount;
+import org.broadinstitute.hellbender.tools.copynumber.utils.HDF5Utils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads/writes the read counts of a cohort of samples, collected at the same intervals, as a single HDF5 count matrix.
+ *
+ * <p>
+ *     Data is stored in the following HDF5 paths:
+ * </p>
+ * <ul>
+ *     <li>
+ *         sample names: /sample_metadata/sample_names
+ *     </li>
+ *     <li>
+ *         sequence dictionary: /locatable_metadata/sequence_dictionary
+ *     </li>
+ *     <li>
+ *         intervals: /intervals
+ *     </li>
+ *     <li>
+ *         counts (samples x intervals): /counts/values
+ *     </li>
+ * </ul>
+ * <p>
+ *     See {@link HDF5Utils#writeIntervals} for details on the representation of intervals
+ *     and {@link HDF5Utils#writeChunkedDoubleMatrix} for details on the representation of the count matrix.
+ * </p>
+ */
+public final class HDF5CohortCountCollection {
+    private static final String SAMPLE_NAMES_PATH = "/sample_metadata/sample_names";
+    private static final String SEQUENCE_DICTIONARY_PATH = "/locatable_metadata/sequence_dictionary";
+    private static final String INTERVALS_GROUP_NAME = "/intervals";
+    private static final String COUNTS_PATH = "/counts/values";
+
+    private static final int CHUNK_DIVISOR = 16;    //limits number of intervals to 16777215
+    private static final int MAXIMUM_CHUNK_SIZE = HDF5Utils.MAX_NUMBER_OF_VALUES_PER_HDF5_MATRIX / CHUNK_DIVISOR;
+
+    private HDF5CohortCountCollection() {}
+
+    /**
+     * @param counts    samples x intervals matrix of counts, with rows in the same order as {@code sampleNames}
+     *                  and columns in the same order as {@code intervals}
+     */
+    public static void write(final File outFile,
+                             final List<String> sampleNames,
+                             final SAMSequenceDictionary sequenceDictionary,
+                             final List<SimpleInterval> intervals,
+                             final double[][] counts) {
+        Utils.nonNull(outFile);
+        Utils.nonEmpty(sampleNames);
+        Utils.nonNull(sequenceDictionary);
+        Utils.nonEmpty(intervals);
+        Utils.nonNull(counts);
+
+        Utils.validateArg(sampleNames.stream().distinct().count() == sampleNames.size(), "Sample names must all be unique.");
+        Utils.validateArg(intervals.stream().distinct().count() == intervals.size(), "Intervals must all be unique.");
+        Utils.validateArg(sampleNames.size() == counts.length, "Number of samples and rows of counts must match.");
+        Utils.validateArg(Arrays.stream(counts).allMatch(c -> c.length == intervals.size()),
+                "Number of intervals and columns of counts must match.");
+        Utils.validateArg(Arrays.stream(counts).flatMapToDouble(Arrays::stream).noneMatch(c -> c < 0),
+                "Counts must all be non-negative integers.");
+
+        try (final HDF5File file = new HDF5File(outFile, HDF5File.OpenMode.CREATE)) {
+            file.makeStringArray(SAMPLE_NAMES_PATH, sampleNames.toArray(new String[0]));
+            final StringWriter stringWriter = new StringWriter();
+            new SAMTextHeaderCodec().encode(stringWriter, new SAMFileHeader(sequenceDictionary));
+            file.makeStringArray(SEQUENCE_DICTIONARY_PATH, stringWriter.toString());
+            HDF5Utils.writeIntervals(file, INTERVALS_GROUP_NAME, intervals);
+            HDF5Utils.writeChunkedDoubleMatrix(file, COUNTS_PATH, counts, MAXIMUM_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * @return a {@link SimpleCountCollection} for each sample, in the order in which samples were written
+     */
+    public static List<SimpleCountCollection> read(final File file) {
+        IOUtils.canReadFile(file);
+        try (final HDF5File hdf5File = new HDF5File(file, HDF5File.OpenMode.READ_ONLY)) {
+            final String[] sampleNames = hdf5File.readStringArray(SAMPLE_NAMES_PATH);
+            final String sequenceDictionaryString = hdf5File.readStringArray(SEQUENCE_DICTIONARY_PATH)[0];
+            final SAMSequenceDictionary sequenceDictionary = new SAMTextHeaderCodec()
+                    .decode(BufferedLineReader.fromString(sequenceDictionaryString), file.getAbsolutePath())
+                    .getSequenceDictionary();
+            final List<SimpleInterval> intervals = HDF5Utils.readIntervals(hdf5File, INTERVALS_GROUP_NAME);
+            final double[][] counts = HDF5Utils.readChunkedDoubleMatrix(hdf5File, COUNTS_PATH);
+            if (counts.length != sampleNames.length) {
+                throw new UserException.BadInput("Number of samples and rows of counts do not match.");
+            }
+            return IntStream.range(0, sampleNames.length)
+                    .mapToObj(sampleIndex -> new SimpleCountCollection(
+                            new SimpleSampleLocatableMetadata(sampleNames[sampleIndex], sequenceDictionary),
+                            ImmutableList.copyOf(IntStream.range(0, intervals.size())  //making this an ImmutableList avoids a defensive copy in SimpleCountCollection
+                                    .mapToObj(i -> new SimpleCount(intervals.get(i), (int) counts[sampleIndex][i]))
+                                    .iterator())))
+                    .collect(Collectors.toList());
+        }
+    }
+}
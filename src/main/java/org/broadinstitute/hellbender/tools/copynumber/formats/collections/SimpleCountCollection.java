@@ -59,6 +59,15 @@ public final class SimpleCountCollection extends AbstractSampleLocatableCollecti
         return new SimpleCount(interval, count);
     };
 
+    private static final Function<ColumnarRecordCollectionCodec.Row, SimpleCount> SIMPLE_COUNT_RECORD_FROM_COLUMNAR_ROW_DECODER = row -> {
+        final String contig = row.get(SimpleCountTableColumn.CONTIG);
+        final int start = row.getInt(SimpleCountTableColumn.START);
+        final int end = row.getInt(SimpleCountTableColumn.END);
+        final int count = row.getInt(SimpleCountTableColumn.COUNT);
+        final SimpleInterval interval = new SimpleInterval(contig, start, end);
+        return new SimpleCount(interval, count);
+    };
+
     private static final BiConsumer<SimpleCount, DataLine> SIMPLE_COUNT_RECORD_TO_DATA_LINE_ENCODER = (simpleCount, dataLine) ->
             dataLine.append(simpleCount.getInterval().getContig())
                     .append(simpleCount.getInterval().getStart())
@@ -74,6 +83,11 @@ public final class SimpleCountCollection extends AbstractSampleLocatableCollecti
         super(metadata, simpleCounts, SimpleCountCollection.SimpleCountTableColumn.COLUMNS, SIMPLE_COUNT_RECORD_FROM_DATA_LINE_DECODER, SIMPLE_COUNT_RECORD_TO_DATA_LINE_ENCODER);
     }
 
+    @Override
+    Function<ColumnarRecordCollectionCodec.Row, SimpleCount> getRecordFromColumnarRowDecoder() {
+        return SIMPLE_COUNT_RECORD_FROM_COLUMNAR_ROW_DECODER;
+    }
+
     /**
      * Read all counts from a file (HDF5 or TSV).
      */
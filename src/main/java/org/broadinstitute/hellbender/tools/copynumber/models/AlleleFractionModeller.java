@@ -11,9 +11,11 @@ import org.broadinstitute.hellbender.utils.mcmc.DecileCollection;
 import org.broadinstitute.hellbender.utils.mcmc.GibbsSampler;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterSampler;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterizedModel;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -60,6 +62,7 @@ public final class AlleleFractionModeller {
     private static final double MIN_MINOR_FRACTION_SAMPLING_WIDTH = 1E-3;
 
     private final SampleLocatableMetadata metadata;
+    private final Supplier<ParameterizedModel<AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData>> modelFactory;
     private final ParameterizedModel<AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData> model;
 
     private final List<Double> meanBiasSamples = new ArrayList<>();
@@ -111,12 +114,17 @@ public final class AlleleFractionModeller {
         final ParameterSampler<AlleleFractionState.MinorFractions, AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData> minorFractionsSampler =
                 new AlleleFractionSamplers.MinorFractionsSampler(prior, minorFractionsSliceSamplingWidths);
 
-        model = new ParameterizedModel.GibbsBuilder<>(initialState, data)
+        //the samplers are stateless, so they can be shared by the models for all chains
+        modelFactory = () -> new ParameterizedModel.GibbsBuilder<>(
+                new AlleleFractionState(initialParameters.getMeanBias(), initialParameters.getBiasVariance(),
+                        initialParameters.getOutlierProbability(), initialMinorFractions),
+                data)
                 .addParameterSampler(AlleleFractionParameter.MEAN_BIAS, meanBiasSampler, Double.class)
                 .addParameterSampler(AlleleFractionParameter.BIAS_VARIANCE, biasVarianceSampler, Double.class)
                 .addParameterSampler(AlleleFractionParameter.OUTLIER_PROBABILITY, outlierProbabilitySampler, Double.class)
                 .addParameterSampler(AlleleFractionParameter.MINOR_ALLELE_FRACTIONS, minorFractionsSampler, AlleleFractionState.MinorFractions.class)
                 .build();
+        model = modelFactory.get();
     }
 
     /**
@@ -127,15 +135,35 @@ public final class AlleleFractionModeller {
      * @param numBurnIn     number of burn-in samples to discard
      */
     void fitMCMC(final int numSamples, final int numBurnIn) {
+        fitMCMC(numSamples, numBurnIn, 1);
+    }
+
+    /**
+     * Adds {@code numChains * (numSamples - numBurnIn)} Markov-Chain Monte-Carlo samples of the parameter posteriors
+     * (generated using Gibbs sampling) to the collections held internally.  The chains are run concurrently, each with
+     * its own random seed, and their samples are added in chain order.  The current {@link AlleleFractionState} held
+     * internally is used to initialize the first chain; additional chains are initialized with the state found by
+     * {@link AlleleFractionInitializer} at construction.
+     * @param numSamples    total number of samples per posterior per chain
+     * @param numBurnIn     number of burn-in samples to discard from each chain
+     * @param numChains     number of chains to run
+     */
+    void fitMCMC(final int numSamples, final int numBurnIn, final int numChains) {
+        ParamUtils.isPositive(numChains, "Number of chains must be positive.");
+
         //run MCMC
-        final GibbsSampler<AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData> gibbsSampler = new GibbsSampler<>(numSamples, model);
-        gibbsSampler.runMCMC();
+        final List<GibbsSampler<AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData>> gibbsSamplers = IntStream.range(0, numChains)
+                .mapToObj(chainIndex -> new GibbsSampler<>(numSamples, chainIndex == 0 ? model : modelFactory.get(), GibbsSampler.DEFAULT_RANDOM_SEED + chainIndex))
+                .collect(Collectors.toList());
+        gibbsSamplers.parallelStream().forEach(GibbsSampler::runMCMC);
 
         //update posterior samples
-        meanBiasSamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.MEAN_BIAS, Double.class, numBurnIn));
-        biasVarianceSamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.BIAS_VARIANCE, Double.class, numBurnIn));
-        outlierProbabilitySamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.OUTLIER_PROBABILITY, Double.class, numBurnIn));
-        minorFractionsSamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.MINOR_ALLELE_FRACTIONS, AlleleFractionState.MinorFractions.class, numBurnIn));
+        for (final GibbsSampler<AlleleFractionParameter, AlleleFractionState, AlleleFractionSegmentedData> gibbsSampler : gibbsSamplers) {
+            meanBiasSamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.MEAN_BIAS, Double.class, numBurnIn));
+            biasVarianceSamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.BIAS_VARIANCE, Double.class, numBurnIn));
+            outlierProbabilitySamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.OUTLIER_PROBABILITY, Double.class, numBurnIn));
+            minorFractionsSamples.addAll(gibbsSampler.getSamples(AlleleFractionParameter.MINOR_ALLELE_FRACTIONS, AlleleFractionState.MinorFractions.class, numBurnIn));
+        }
     }
 
     List<Double> getMeanBiasSamples() {
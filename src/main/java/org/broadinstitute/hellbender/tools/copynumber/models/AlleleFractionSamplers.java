@@ -7,10 +7,11 @@ import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.utils.mcmc.MinibatchSliceSampler;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterSampler;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Sampler classes for the allele-fraction model.
@@ -132,24 +133,26 @@ final class AlleleFractionSamplers {
 
         @Override
         public AlleleFractionState.MinorFractions sample(final RandomGenerator rng, final AlleleFractionState state, final AlleleFractionSegmentedData data) {
-            final List<Double> minorFractions = new ArrayList<>(data.getNumSegments());
             final BiFunction<AlleleFractionSegmentedData.IndexedAllelicCount, Double, Double> logConditionalPDF = (iac, newMinorFraction) ->
                     AlleleFractionLikelihoods.hetLogLikelihood(state.globalParameters(), newMinorFraction, iac);
-            for (int segmentIndex = 0; segmentIndex < data.getNumSegments(); segmentIndex++) {
-                logger.debug(String.format("Sampling minor fraction for segment %d...", segmentIndex));
-                final List<AlleleFractionSegmentedData.IndexedAllelicCount> allelicCountsInSegment =
-                        data.getIndexedAllelicCountsInSegment(segmentIndex);
-                if (allelicCountsInSegment.isEmpty()){
-                    minorFractions.add(Double.NaN);
-                } else {
-                    final MinibatchSliceSampler<AlleleFractionSegmentedData.IndexedAllelicCount> sampler =
-                            new MinibatchSliceSampler<>(
-                                    rng, allelicCountsInSegment, logPrior, logConditionalPDF,
-                                    MIN_MINOR_FRACTION, MAX_MINOR_FRACTION, sliceSamplingWidths.get(segmentIndex),
-                                    SEGMENT_MINIBATCH_SIZE, APPROX_THRESHOLD);
-                    minorFractions.add(sampler.sample(state.segmentMinorFraction(segmentIndex)));
-                }
-            }
+            //minor fractions are conditionally independent given the global parameters, so we sample them in parallel
+            final List<RandomGenerator> segmentRngs = SegmentSamplingUtils.createSegmentRandomGenerators(rng, data.getNumSegments());
+            final List<Double> minorFractions = IntStream.range(0, data.getNumSegments()).parallel()
+                    .mapToObj(segmentIndex -> {
+                        logger.debug(String.format("Sampling minor fraction for segment %d...", segmentIndex));
+                        final List<AlleleFractionSegmentedData.IndexedAllelicCount> allelicCountsInSegment =
+                                data.getIndexedAllelicCountsInSegment(segmentIndex);
+                        if (allelicCountsInSegment.isEmpty()) {
+                            return Double.NaN;
+                        }
+                        final MinibatchSliceSampler<AlleleFractionSegmentedData.IndexedAllelicCount> sampler =
+                                new MinibatchSliceSampler<>(
+                                        segmentRngs.get(segmentIndex), allelicCountsInSegment, logPrior, logConditionalPDF,
+                                        MIN_MINOR_FRACTION, MAX_MINOR_FRACTION, sliceSamplingWidths.get(segmentIndex),
+                                        SEGMENT_MINIBATCH_SIZE, APPROX_THRESHOLD);
+                        return sampler.sample(state.segmentMinorFraction(segmentIndex));
+                    })
+                    .collect(Collectors.toList());
             return new AlleleFractionState.MinorFractions(minorFractions);
         }
     }
@@ -14,7 +14,9 @@ import org.broadinstitute.hellbender.utils.mcmc.ParameterizedModel;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Represents a segmented model for copy ratio fit to denoised log2 copy-ratio data.
@@ -39,6 +41,7 @@ public final class CopyRatioModeller {
     private static final double OUTLIER_PROBABILITY_PRIOR_BETA = 95.;
 
     private final SampleLocatableMetadata metadata;
+    private final Supplier<ParameterizedModel<CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData>> modelFactory;
     private final ParameterizedModel<CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> model;
 
     private final List<Double> varianceSamples = new ArrayList<>();
@@ -79,10 +82,6 @@ public final class CopyRatioModeller {
         //the outlier-probability parameter should be interpreted accordingly
         final double outlierUniformLogLikelihood = -Math.log(dataRange);
 
-        //use empirical segment means and empirical average variance across segments to initialize CopyRatioState
-        final CopyRatioState initialState = new CopyRatioState(varianceEstimate, CopyRatioModeller.OUTLIER_PROBABILITY_INITIAL,
-                new CopyRatioState.SegmentMeans(segmentMeans), new CopyRatioState.OutlierIndicators(Collections.nCopies(data.getNumPoints(), false)));
-
         //define ParameterSamplers
         final ParameterSampler<Double, CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> varianceSampler =
                 new CopyRatioSamplers.VarianceSampler(VARIANCE_MIN, varianceMax, varianceSliceSamplingWidth);
@@ -93,12 +92,18 @@ public final class CopyRatioModeller {
         final ParameterSampler<CopyRatioState.OutlierIndicators, CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> outlierIndicatorsSampler =
                 new CopyRatioSamplers.OutlierIndicatorsSampler(outlierUniformLogLikelihood);
 
-        model = new ParameterizedModel.GibbsBuilder<>(initialState, data)
+        //use empirical segment means and empirical average variance across segments to initialize CopyRatioState;
+        //the samplers are stateless, so they can be shared by the models for all chains
+        modelFactory = () -> new ParameterizedModel.GibbsBuilder<>(
+                new CopyRatioState(varianceEstimate, CopyRatioModeller.OUTLIER_PROBABILITY_INITIAL,
+                        new CopyRatioState.SegmentMeans(segmentMeans), new CopyRatioState.OutlierIndicators(Collections.nCopies(data.getNumPoints(), false))),
+                data)
                 .addParameterSampler(CopyRatioParameter.VARIANCE, varianceSampler, Double.class)
                 .addParameterSampler(CopyRatioParameter.OUTLIER_PROBABILITY, outlierProbabilitySampler, Double.class)
                 .addParameterSampler(CopyRatioParameter.SEGMENT_MEANS, segmentMeansSampler, CopyRatioState.SegmentMeans.class)
                 .addParameterSampler(CopyRatioParameter.OUTLIER_INDICATORS, outlierIndicatorsSampler, CopyRatioState.OutlierIndicators.class)
                 .build();
+        model = modelFactory.get();
     }
 
     /**
@@ -109,18 +114,39 @@ public final class CopyRatioModeller {
      * @param numBurnIn     number of burn-in samples to discard
      */
     void fitMCMC(final int numSamples,
-                        final int numBurnIn) {
+                 final int numBurnIn) {
+        fitMCMC(numSamples, numBurnIn, 1);
+    }
+
+    /**
+     * Adds {@code numChains * (numSamples - numBurnIn)} Markov-Chain Monte-Carlo samples of the parameter posteriors
+     * (generated using Gibbs sampling) to the collections held internally.  The chains are run concurrently, each with
+     * its own random seed, and their samples are added in chain order.  The current {@link CopyRatioState} held
+     * internally is used to initialize the first chain; additional chains are initialized with the initial state
+     * determined at construction.
+     * @param numSamples    total number of samples per posterior per chain
+     * @param numBurnIn     number of burn-in samples to discard from each chain
+     * @param numChains     number of chains to run
+     */
+    void fitMCMC(final int numSamples,
+                 final int numBurnIn,
+                 final int numChains) {
         ParamUtils.isPositiveOrZero(numBurnIn, "Number of burn-in samples must be non-negative.");
         Utils.validateArg(numBurnIn < numSamples, "Number of samples must be greater than number of burn-in samples.");
+        ParamUtils.isPositive(numChains, "Number of chains must be positive.");
 
         //run MCMC
-        final GibbsSampler<CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> gibbsSampler = new GibbsSampler<>(numSamples, model);
-        gibbsSampler.runMCMC();
+        final List<GibbsSampler<CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData>> gibbsSamplers = IntStream.range(0, numChains)
+                .mapToObj(chainIndex -> new GibbsSampler<>(numSamples, chainIndex == 0 ? model : modelFactory.get(), GibbsSampler.DEFAULT_RANDOM_SEED + chainIndex))
+                .collect(Collectors.toList());
+        gibbsSamplers.parallelStream().forEach(GibbsSampler::runMCMC);
 
         //update posterior samples
-        varianceSamples.addAll(gibbsSampler.getSamples(CopyRatioParameter.VARIANCE, Double.class, numBurnIn));
-        outlierProbabilitySamples.addAll(gibbsSampler.getSamples(CopyRatioParameter.OUTLIER_PROBABILITY, Double.class, numBurnIn));
-        segmentMeansSamples.addAll(gibbsSampler.getSamples(CopyRatioParameter.SEGMENT_MEANS, CopyRatioState.SegmentMeans.class, numBurnIn));
+        for (final GibbsSampler<CopyRatioParameter, CopyRatioState, CopyRatioSegmentedData> gibbsSampler : gibbsSamplers) {
+            varianceSamples.addAll(gibbsSampler.getSamples(CopyRatioParameter.VARIANCE, Double.class, numBurnIn));
+            outlierProbabilitySamples.addAll(gibbsSampler.getSamples(CopyRatioParameter.OUTLIER_PROBABILITY, Double.class, numBurnIn));
+            segmentMeansSamples.addAll(gibbsSampler.getSamples(CopyRatioParameter.SEGMENT_MEANS, CopyRatioState.SegmentMeans.class, numBurnIn));
+        }
     }
 
     List<Double> getVarianceSamples() {
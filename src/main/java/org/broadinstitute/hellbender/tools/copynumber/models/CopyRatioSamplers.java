@@ -119,24 +119,26 @@ final class CopyRatioSamplers {
         public CopyRatioState.SegmentMeans sample(final RandomGenerator rng,
                                                   final CopyRatioState state,
                                                   final CopyRatioSegmentedData data) {
-            final List<Double> means = new ArrayList<>(data.getNumSegments());
             final BiFunction<CopyRatioSegmentedData.IndexedCopyRatio, Double, Double> logConditionalPDF = (icr, newMean) ->
                     state.outlierIndicator(icr.getIndex())
                             ? 0.
                             : -normalTerm(icr.getLog2CopyRatioValue(), newMean, state.variance());
-            for (int segmentIndex = 0; segmentIndex < data.getNumSegments(); segmentIndex++) {
-                final List<CopyRatioSegmentedData.IndexedCopyRatio> indexedCopyRatiosInSegment = data.getIndexedCopyRatiosInSegment(segmentIndex);
-                if (indexedCopyRatiosInSegment.isEmpty()) {
-                    means.add(Double.NaN);
-                } else {
-                    logger.debug(String.format("Sampling mean for segment %d...", segmentIndex));
-                    final MinibatchSliceSampler<CopyRatioSegmentedData.IndexedCopyRatio> sampler = new MinibatchSliceSampler<>(
-                            rng, indexedCopyRatiosInSegment, UNIFORM_LOG_PRIOR, logConditionalPDF,
-                            meanMin, meanMax, meanSliceSamplingWidth,
-                            SEGMENT_MINIBATCH_SIZE, APPROX_THRESHOLD);
-                    means.add(sampler.sample(state.segmentMean(segmentIndex)));
-                }
-            }
+            //segment means are conditionally independent given the global parameters, so we sample them in parallel
+            final List<RandomGenerator> segmentRngs = SegmentSamplingUtils.createSegmentRandomGenerators(rng, data.getNumSegments());
+            final List<Double> means = IntStream.range(0, data.getNumSegments()).parallel()
+                    .mapToObj(segmentIndex -> {
+                        final List<CopyRatioSegmentedData.IndexedCopyRatio> indexedCopyRatiosInSegment = data.getIndexedCopyRatiosInSegment(segmentIndex);
+                        if (indexedCopyRatiosInSegment.isEmpty()) {
+                            return Double.NaN;
+                        }
+                        logger.debug(String.format("Sampling mean for segment %d...", segmentIndex));
+                        final MinibatchSliceSampler<CopyRatioSegmentedData.IndexedCopyRatio> sampler = new MinibatchSliceSampler<>(
+                                segmentRngs.get(segmentIndex), indexedCopyRatiosInSegment, UNIFORM_LOG_PRIOR, logConditionalPDF,
+                                meanMin, meanMax, meanSliceSamplingWidth,
+                                SEGMENT_MINIBATCH_SIZE, APPROX_THRESHOLD);
+                        return sampler.sample(state.segmentMean(segmentIndex));
+                    })
+                    .collect(Collectors.toList());
             return new CopyRatioState.SegmentMeans(means);
         }
     }
@@ -48,10 +48,12 @@ public final class MultidimensionalModeller {
     private final int numBurnInCopyRatio;
     private final int numSamplesAlleleFraction;
     private final int numBurnInAlleleFraction;
+    private final int numChains;
 
     /**
-     * Constructs a copy-ratio and allele-fraction modeller, specifying number of total samples
-     * and number of burn-in samples for Markov-Chain Monte Carlo model fitting.
+     * Constructs a copy-ratio and allele-fraction modeller, specifying number of total samples,
+     * number of burn-in samples, and number of chains (which are run concurrently and whose samples are pooled)
+     * for Markov-Chain Monte Carlo model fitting.
      * An initial model fit is performed.
      */
     public MultidimensionalModeller(final MultidimensionalSegmentCollection multidimensionalSegments,
@@ -61,7 +63,8 @@ public final class MultidimensionalModeller {
                                     final int numSamplesCopyRatio,
                                     final int numBurnInCopyRatio,
                                     final int numSamplesAlleleFraction,
-                                    final int numBurnInAlleleFraction) {
+                                    final int numBurnInAlleleFraction,
+                                    final int numChains) {
         Utils.validateArg(Stream.of(
                 Utils.nonNull(multidimensionalSegments).getMetadata(),
                 Utils.nonNull(denoisedCopyRatios).getMetadata(),
@@ -81,6 +84,7 @@ public final class MultidimensionalModeller {
         this.numBurnInCopyRatio = numBurnInCopyRatio;
         this.numSamplesAlleleFraction = numSamplesAlleleFraction;
         this.numBurnInAlleleFraction = numBurnInAlleleFraction;
+        this.numChains = ParamUtils.isPositive(numChains, "Number of chains must be positive.");
         logger.info("Fitting initial model...");
         fitModel();
     }
@@ -91,16 +95,16 @@ public final class MultidimensionalModeller {
 
     /**
      * Performs Markov-Chain Monte Carlo model fitting using the
-     * number of total samples and number of burn-in samples specified at construction.
+     * number of total samples, number of burn-in samples, and number of chains specified at construction.
      */
     private void fitModel() {
         //perform MCMC to generate posterior samples
         logger.info("Fitting copy-ratio model...");
         copyRatioModeller = new CopyRatioModeller(denoisedCopyRatios, currentSegments);
-        copyRatioModeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio);
+        copyRatioModeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio, numChains);
         logger.info("Fitting allele-fraction model...");
         alleleFractionModeller = new AlleleFractionModeller(allelicCounts, currentSegments, alleleFractionPrior);
-        alleleFractionModeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction);
+        alleleFractionModeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction, numChains);
 
         //update list of ModeledSegment with new PosteriorSummaries
         modeledSegments.clear();
@@ -0,0 +1,32 @@
+package org.broadinstitute.hellbender.tools.copynumber.models;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilities shared by the samplers of the copy-ratio and allele-fraction models.
+ */
+final class SegmentSamplingUtils {
+    private SegmentSamplingUtils() {}
+
+    /**
+     * Creates one random number generator per segment, for samplers that sample segment-level parameters in parallel.
+     * The generators are seeded in segment order from {@code rng}, so that each segment always draws from the same
+     * sequence regardless of how the segments are scheduled across threads, and samples are reproducible.
+     */
+    static List<RandomGenerator> createSegmentRandomGenerators(final RandomGenerator rng,
+                                                               final int numSegments) {
+        Utils.nonNull(rng);
+        ParamUtils.isPositiveOrZero(numSegments, "Number of segments must be non-negative.");
+        final List<RandomGenerator> segmentRngs = new ArrayList<>(numSegments);
+        for (int segmentIndex = 0; segmentIndex < numSegments; segmentIndex++) {
+            segmentRngs.add(new Well19937c(rng.nextLong()));
+        }
+        return segmentRngs;
+    }
+}
@@ -69,46 +69,62 @@ public final class AlleleFractionKernelSegmenter {
         logger.info(String.format("Finding changepoints in %d data points and %d chromosomes...",
                 allelicCounts.size(), allelicCountsPerChromosome.size()));
 
-        //loop over chromosomes, find changepoints, and create allele-fraction segments
+        final BiFunction<Double, Double, Double> kernel = KERNEL.apply(kernelVariance);
+        //find changepoints and create allele-fraction segments for each chromosome in parallel;
+        //segments are collected in the original order of the chromosomes
+        final List<AlleleFractionSegment> segments = new ArrayList<>(allelicCountsPerChromosome.keySet()).parallelStream()
+                .map(chromosome -> findSegmentationInChromosome(chromosome, maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
+                        windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        logger.info(String.format("Found %d segments in %d chromosomes.", segments.size(), allelicCountsPerChromosome.keySet().size()));
+        return new AlleleFractionSegmentCollection(allelicCounts.getMetadata(), segments);
+    }
+
+    //finds changepoints and creates allele-fraction segments in a single chromosome
+    private List<AlleleFractionSegment> findSegmentationInChromosome(final String chromosome,
+                                                                     final int maxNumChangepointsPerChromosome,
+                                                                     final BiFunction<Double, Double, Double> kernel,
+                                                                     final int kernelApproximationDimension,
+                                                                     final List<Integer> windowSizes,
+                                                                     final double numChangepointsPenaltyLinearFactor,
+                                                                     final double numChangepointsPenaltyLogLinearFactor) {
         final List<AlleleFractionSegment> segments = new ArrayList<>();
-        for (final String chromosome : allelicCountsPerChromosome.keySet()) {
-            final List<AllelicCount> allelicCountsInChromosome = allelicCountsPerChromosome.get(chromosome);
-            final int numAllelicCountsInChromosome = allelicCountsInChromosome.size();
-            logger.info(String.format("Finding changepoints in %d data points in chromosome %s...",
-                    numAllelicCountsInChromosome, chromosome));
+        final List<AllelicCount> allelicCountsInChromosome = allelicCountsPerChromosome.get(chromosome);
+        final int numAllelicCountsInChromosome = allelicCountsInChromosome.size();
+        logger.info(String.format("Finding changepoints in %d data points in chromosome %s...",
+                numAllelicCountsInChromosome, chromosome));
 
-            if (numAllelicCountsInChromosome < MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME) {
-                logger.warn(String.format("Number of points in chromosome %s (%d) is less than that required (%d), skipping segmentation...",
-                        chromosome, numAllelicCountsInChromosome, MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME));
-                final int start = allelicCountsInChromosome.get(0).getStart();
-                final int end = allelicCountsInChromosome.get(numAllelicCountsInChromosome - 1).getEnd();
-                segments.add(new AlleleFractionSegment(
-                        new SimpleInterval(chromosome, start, end), numAllelicCountsInChromosome));
-                continue;
-            }
+        if (numAllelicCountsInChromosome < MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME) {
+            logger.warn(String.format("Number of points in chromosome %s (%d) is less than that required (%d), skipping segmentation...",
+                    chromosome, numAllelicCountsInChromosome, MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME));
+            final int start = allelicCountsInChromosome.get(0).getStart();
+            final int end = allelicCountsInChromosome.get(numAllelicCountsInChromosome - 1).getEnd();
+            segments.add(new AlleleFractionSegment(
+                    new SimpleInterval(chromosome, start, end), numAllelicCountsInChromosome));
+            return segments;
+        }
 
-            final List<Double> alternateAlleleFractionsInChromosome = allelicCountsPerChromosome.get(chromosome).stream()
-                    .map(AllelicCount::getAlternateAlleleFraction)
-                    .collect(Collectors.toList());
-            final List<Integer> changepoints = new ArrayList<>(new KernelSegmenter<>(alternateAlleleFractionsInChromosome)
-                .findChangepoints(maxNumChangepointsPerChromosome, KERNEL.apply(kernelVariance), kernelApproximationDimension,
-                        windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, KernelSegmenter.ChangepointSortOrder.INDEX));
+        final List<Double> alternateAlleleFractionsInChromosome = allelicCountsPerChromosome.get(chromosome).stream()
+                .map(AllelicCount::getAlternateAlleleFraction)
+                .collect(Collectors.toList());
+        final List<Integer> changepoints = new ArrayList<>(new KernelSegmenter<>(alternateAlleleFractionsInChromosome)
+            .findChangepoints(maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
+                    windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, KernelSegmenter.ChangepointSortOrder.INDEX));
 
-            if (!changepoints.contains(numAllelicCountsInChromosome)) {
-                changepoints.add(numAllelicCountsInChromosome - 1);
-            }
-            int previousChangepoint = -1;
-            for (final int changepoint : changepoints) {
-                final int start = allelicCountsPerChromosome.get(chromosome).get(previousChangepoint + 1).getStart();
-                final int end = allelicCountsPerChromosome.get(chromosome).get(changepoint).getEnd();
-                final List<AllelicCount> allelicCountsInSegment = allelicCountsInChromosome.subList(
-                        previousChangepoint + 1, changepoint + 1);
-                segments.add(new AlleleFractionSegment(
-                        new SimpleInterval(chromosome, start, end), allelicCountsInSegment));
-                previousChangepoint = changepoint;
-            }
+        if (!changepoints.contains(numAllelicCountsInChromosome)) {
+            changepoints.add(numAllelicCountsInChromosome - 1);
         }
-        logger.info(String.format("Found %d segments in %d chromosomes.", segments.size(), allelicCountsPerChromosome.keySet().size()));
-        return new AlleleFractionSegmentCollection(allelicCounts.getMetadata(), segments);
+        int previousChangepoint = -1;
+        for (final int changepoint : changepoints) {
+            final int start = allelicCountsPerChromosome.get(chromosome).get(previousChangepoint + 1).getStart();
+            final int end = allelicCountsPerChromosome.get(chromosome).get(changepoint).getEnd();
+            final List<AllelicCount> allelicCountsInSegment = allelicCountsInChromosome.subList(
+                    previousChangepoint + 1, changepoint + 1);
+            segments.add(new AlleleFractionSegment(
+                    new SimpleInterval(chromosome, start, end), allelicCountsInSegment));
+            previousChangepoint = changepoint;
+        }
+        return segments;
     }
 }
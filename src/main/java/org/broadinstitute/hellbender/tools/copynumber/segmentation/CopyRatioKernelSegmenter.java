@@ -72,47 +72,63 @@ public final class CopyRatioKernelSegmenter {
         logger.info(String.format("Finding changepoints in %d data points and %d chromosomes...",
                 denoisedCopyRatios.size(), denoisedCopyRatiosPerChromosome.size()));
 
-        //loop over chromosomes, find changepoints, and create copy-ratio segments
+        final BiFunction<Double, Double, Double> kernel = KERNEL.apply(kernelVariance);
+        //find changepoints and create copy-ratio segments for each chromosome in parallel;
+        //segments are collected in the original order of the chromosomes
+        final List<CopyRatioSegment> segments = new ArrayList<>(denoisedCopyRatiosPerChromosome.keySet()).parallelStream()
+                .map(chromosome -> findSegmentationInChromosome(chromosome, maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
+                        windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        logger.info(String.format("Found %d segments in %d chromosomes.", segments.size(), denoisedCopyRatiosPerChromosome.keySet().size()));
+        return new CopyRatioSegmentCollection(denoisedCopyRatios.getMetadata(), segments);
+    }
+
+    //finds changepoints and creates copy-ratio segments in a single chromosome
+    private List<CopyRatioSegment> findSegmentationInChromosome(final String chromosome,
+                                                                final int maxNumChangepointsPerChromosome,
+                                                                final BiFunction<Double, Double, Double> kernel,
+                                                                final int kernelApproximationDimension,
+                                                                final List<Integer> windowSizes,
+                                                                final double numChangepointsPenaltyLinearFactor,
+                                                                final double numChangepointsPenaltyLogLinearFactor) {
         final List<CopyRatioSegment> segments = new ArrayList<>();
-        for (final String chromosome : denoisedCopyRatiosPerChromosome.keySet()) {
-            final List<CopyRatio> denoisedCopyRatiosInChromosome = denoisedCopyRatiosPerChromosome.get(chromosome);
-            final int numDenoisedCopyRatiosInChromosome = denoisedCopyRatiosInChromosome.size();
-            logger.info(String.format("Finding changepoints in %d data points in chromosome %s...",
-                    numDenoisedCopyRatiosInChromosome, chromosome));
+        final List<CopyRatio> denoisedCopyRatiosInChromosome = denoisedCopyRatiosPerChromosome.get(chromosome);
+        final int numDenoisedCopyRatiosInChromosome = denoisedCopyRatiosInChromosome.size();
+        logger.info(String.format("Finding changepoints in %d data points in chromosome %s...",
+                numDenoisedCopyRatiosInChromosome, chromosome));
 
-            if (numDenoisedCopyRatiosInChromosome < MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME) {
-                logger.warn(String.format("Number of points in chromosome %s (%d) is less than that required (%d), skipping segmentation...",
-                        chromosome, numDenoisedCopyRatiosInChromosome, MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME));
-                final int start = denoisedCopyRatiosPerChromosome.get(chromosome).get(0).getStart();
-                final int end = denoisedCopyRatiosPerChromosome.get(chromosome).get(numDenoisedCopyRatiosInChromosome - 1).getEnd();
-                segments.add(new CopyRatioSegment(
-                        new SimpleInterval(chromosome, start, end), denoisedCopyRatiosInChromosome));
-                continue;
-            }
+        if (numDenoisedCopyRatiosInChromosome < MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME) {
+            logger.warn(String.format("Number of points in chromosome %s (%d) is less than that required (%d), skipping segmentation...",
+                    chromosome, numDenoisedCopyRatiosInChromosome, MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME));
+            final int start = denoisedCopyRatiosPerChromosome.get(chromosome).get(0).getStart();
+            final int end = denoisedCopyRatiosPerChromosome.get(chromosome).get(numDenoisedCopyRatiosInChromosome - 1).getEnd();
+            segments.add(new CopyRatioSegment(
+                    new SimpleInterval(chromosome, start, end), denoisedCopyRatiosInChromosome));
+            return segments;
+        }
 
-            final List<Double> denoisedLog2CopyRatioValuesInChromosome = denoisedCopyRatiosInChromosome.stream()
-                    .map(CopyRatio::getLog2CopyRatioValue)
-                    .collect(Collectors.toList());
-            final List<Integer> changepoints = new ArrayList<>(new KernelSegmenter<>(denoisedLog2CopyRatioValuesInChromosome)
-                .findChangepoints(maxNumChangepointsPerChromosome, KERNEL.apply(kernelVariance), kernelApproximationDimension,
-                        windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, KernelSegmenter.ChangepointSortOrder.INDEX));
+        final List<Double> denoisedLog2CopyRatioValuesInChromosome = denoisedCopyRatiosInChromosome.stream()
+                .map(CopyRatio::getLog2CopyRatioValue)
+                .collect(Collectors.toList());
+        final List<Integer> changepoints = new ArrayList<>(new KernelSegmenter<>(denoisedLog2CopyRatioValuesInChromosome)
+            .findChangepoints(maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
+                    windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, KernelSegmenter.ChangepointSortOrder.INDEX));
 
-            if (!changepoints.contains(numDenoisedCopyRatiosInChromosome)) {
-                changepoints.add(numDenoisedCopyRatiosInChromosome - 1);
-            }
-            int previousChangepoint = -1;
-            for (final int changepoint : changepoints) {
-                final int start = denoisedCopyRatiosPerChromosome.get(chromosome).get(previousChangepoint + 1).getStart();
-                final int end = denoisedCopyRatiosPerChromosome.get(chromosome).get(changepoint).getEnd();
-                final List<CopyRatio> denoisedCopyRatiosInSegment = denoisedCopyRatiosInChromosome.subList(
-                        previousChangepoint + 1, changepoint + 1);
-                segments.add(new CopyRatioSegment(
-                        new SimpleInterval(chromosome, start, end),
-                        denoisedCopyRatiosInSegment));
-                previousChangepoint = changepoint;
-            }
+        if (!changepoints.contains(numDenoisedCopyRatiosInChromosome)) {
+            changepoints.add(numDenoisedCopyRatiosInChromosome - 1);
         }
-        logger.info(String.format("Found %d segments in %d chromosomes.", segments.size(), denoisedCopyRatiosPerChromosome.keySet().size()));
-        return new CopyRatioSegmentCollection(denoisedCopyRatios.getMetadata(), segments);
+        int previousChangepoint = -1;
+        for (final int changepoint : changepoints) {
+            final int start = denoisedCopyRatiosPerChromosome.get(chromosome).get(previousChangepoint + 1).getStart();
+            final int end = denoisedCopyRatiosPerChromosome.get(chromosome).get(changepoint).getEnd();
+            final List<CopyRatio> denoisedCopyRatiosInSegment = denoisedCopyRatiosInChromosome.subList(
+                    previousChangepoint + 1, changepoint + 1);
+            segments.add(new CopyRatioSegment(
+                    new SimpleInterval(chromosome, start, end),
+                    denoisedCopyRatiosInSegment));
+            previousChangepoint = changepoint;
+        }
+        return segments;
     }
 }
@@ -145,50 +145,65 @@ public final class MultidimensionalKernelSegmenter {
         logger.info(String.format("Finding changepoints in (%d, %d) data points and %d chromosomes...",
                 denoisedCopyRatios.size(), allelicCounts.size(), multidimensionalPointsPerChromosome.size()));
 
-        //loop over chromosomes, find changepoints, and create allele-fraction segments
-        final List<MultidimensionalSegment> segments = new ArrayList<>();
-        for (final String chromosome : multidimensionalPointsPerChromosome.keySet()) {
-            final List<MultidimensionalPoint> multidimensionalPointsInChromosome = multidimensionalPointsPerChromosome.get(chromosome);
-            final int numMultidimensionalPointsInChromosome = multidimensionalPointsInChromosome.size();
-            logger.info(String.format("Finding changepoints in %d data points in chromosome %s...",
-                    numMultidimensionalPointsInChromosome, chromosome));
-
-            if (numMultidimensionalPointsInChromosome < MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME) {
-                logger.warn(String.format("Number of points in chromosome %s (%d) is less than that required (%d), skipping segmentation...",
-                        chromosome, numMultidimensionalPointsInChromosome, MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME));
-                final int start = multidimensionalPointsInChromosome.get(0).getStart();
-                final int end = multidimensionalPointsInChromosome.get(numMultidimensionalPointsInChromosome - 1).getEnd();
-                segments.add(new MultidimensionalSegment(
-                        new SimpleInterval(chromosome, start, end),
-                        comparator,
-                        copyRatioMidpointOverlapDetector,
-                        allelicCountOverlapDetector));
-                continue;
-            }
-
-            final List<Integer> changepoints = new ArrayList<>(new KernelSegmenter<>(multidimensionalPointsInChromosome)
-                .findChangepoints(maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
-                        windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, KernelSegmenter.ChangepointSortOrder.INDEX));
-
-            if (!changepoints.contains(numMultidimensionalPointsInChromosome)) {
-                changepoints.add(numMultidimensionalPointsInChromosome - 1);
-            }
-            int previousChangepoint = -1;
-            for (final int changepoint : changepoints) {
-                final int start = multidimensionalPointsPerChromosome.get(chromosome).get(previousChangepoint + 1).getStart();
-                final int end = multidimensionalPointsPerChromosome.get(chromosome).get(changepoint).getEnd();
-                segments.add(new MultidimensionalSegment(
-                        new SimpleInterval(chromosome, start, end),
-                        comparator,
-                        copyRatioMidpointOverlapDetector,
-                        allelicCountOverlapDetector));
-                previousChangepoint = changepoint;
-            }
-        }
+        //find changepoints and create multidimensional segments for each chromosome in parallel;
+        //segments are collected in the original order of the chromosomes
+        final List<MultidimensionalSegment> segments = new ArrayList<>(multidimensionalPointsPerChromosome.keySet()).parallelStream()
+                .map(chromosome -> findSegmentationInChromosome(chromosome, maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
+                        windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
         logger.info(String.format("Found %d segments in %d chromosomes.", segments.size(), multidimensionalPointsPerChromosome.keySet().size()));
         return new MultidimensionalSegmentCollection(allelicCounts.getMetadata(), segments);
     }
 
+    //finds changepoints and creates multidimensional segments in a single chromosome
+    private List<MultidimensionalSegment> findSegmentationInChromosome(final String chromosome,
+                                                                       final int maxNumChangepointsPerChromosome,
+                                                                       final BiFunction<MultidimensionalPoint, MultidimensionalPoint, Double> kernel,
+                                                                       final int kernelApproximationDimension,
+                                                                       final List<Integer> windowSizes,
+                                                                       final double numChangepointsPenaltyLinearFactor,
+                                                                       final double numChangepointsPenaltyLogLinearFactor) {
+        final List<MultidimensionalSegment> segments = new ArrayList<>();
+        final List<MultidimensionalPoint> multidimensionalPointsInChromosome = multidimensionalPointsPerChromosome.get(chromosome);
+        final int numMultidimensionalPointsInChromosome = multidimensionalPointsInChromosome.size();
+        logger.info(String.format("Finding changepoints in %d data points in chromosome %s...",
+                numMultidimensionalPointsInChromosome, chromosome));
+
+        if (numMultidimensionalPointsInChromosome < MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME) {
+            logger.warn(String.format("Number of points in chromosome %s (%d) is less than that required (%d), skipping segmentation...",
+                    chromosome, numMultidimensionalPointsInChromosome, MIN_NUM_POINTS_REQUIRED_PER_CHROMOSOME));
+            final int start = multidimensionalPointsInChromosome.get(0).getStart();
+            final int end = multidimensionalPointsInChromosome.get(numMultidimensionalPointsInChromosome - 1).getEnd();
+            segments.add(new MultidimensionalSegment(
+                    new SimpleInterval(chromosome, start, end),
+                    comparator,
+                    copyRatioMidpointOverlapDetector,
+                    allelicCountOverlapDetector));
+            return segments;
+        }
+
+        final List<Integer> changepoints = new ArrayList<>(new KernelSegmenter<>(multidimensionalPointsInChromosome)
+            .findChangepoints(maxNumChangepointsPerChromosome, kernel, kernelApproximationDimension,
+                    windowSizes, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, KernelSegmenter.ChangepointSortOrder.INDEX));
+
+        if (!changepoints.contains(numMultidimensionalPointsInChromosome)) {
+            changepoints.add(numMultidimensionalPointsInChromosome - 1);
+        }
+        int previousChangepoint = -1;
+        for (final int changepoint : changepoints) {
+            final int start = multidimensionalPointsPerChromosome.get(chromosome).get(previousChangepoint + 1).getStart();
+            final int end = multidimensionalPointsPerChromosome.get(chromosome).get(changepoint).getEnd();
+            segments.add(new MultidimensionalSegment(
+                    new SimpleInterval(chromosome, start, end),
+                    comparator,
+                    copyRatioMidpointOverlapDetector,
+                    allelicCountOverlapDetector));
+            previousChangepoint = changepoint;
+        }
+        return segments;
+    }
+
     private BiFunction<MultidimensionalPoint, MultidimensionalPoint, Double> constructKernel(final double kernelVarianceCopyRatio,
                                                                                              final double kernelVarianceAlleleFraction,
                                                                                              final double kernelScalingAlleleFraction) {
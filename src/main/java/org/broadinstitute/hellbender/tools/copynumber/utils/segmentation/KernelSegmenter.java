@@ -1,7 +1,7 @@
 package org.broadinstitute.hellbender.tools.copynumber.utils.segmentation;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.DefaultRealMatrixChangingVisitor;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.SingularValueDecomposition;
 import org.apache.commons.math3.random.RandomGenerator;
@@ -10,7 +10,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.tools.copynumber.utils.optimization.PersistenceOptimizer;
 import org.broadinstitute.hellbender.utils.IndexRange;
-import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
@@ -94,7 +93,8 @@ public final class KernelSegmenter<DATA> {
      * Returns a list of the indices of the changepoints, either sorted by decreasing change to the global segmentation cost
      * or by increasing index order.
      * @param maxNumChangepoints                    maximum number of changepoints to return (first and last points do not count towards this number)
-     * @param kernel                                kernel function used to calculate segment costs
+     * @param kernel                                kernel function used to calculate segment costs;
+     *                                              must be safe to call from multiple threads
      * @param kernelApproximationDimension          dimension of low-rank approximation to the kernel
      * @param windowSizes                           list of sizes to use for the flanking segments used to calculate local changepoint costs
      * @param numChangepointsPenaltyLinearFactor    factor A for penalty of the form A * C, where C is the number of changepoints
@@ -132,7 +132,7 @@ public final class KernelSegmenter<DATA> {
         final RandomGenerator rng = RandomGeneratorFactory.createRandomGenerator(new Random(RANDOM_SEED));
 
         logger.debug("Calculating low-rank approximation to kernel matrix...");
-        final RealMatrix reducedObservationMatrix = calculateReducedObservationMatrix(rng, data, kernel, kernelApproximationDimension);
+        final double[][] reducedObservationMatrix = calculateReducedObservationMatrix(rng, data, kernel, kernelApproximationDimension);
         final double[] kernelApproximationDiagonal = calculateKernelApproximationDiagonal(reducedObservationMatrix);
 
         logger.debug(String.format("Finding changepoint candidates for all window sizes %s...", windowSizes.toString()));
@@ -162,7 +162,7 @@ public final class KernelSegmenter<DATA> {
 
         private Segment(final int start,
                         final int end,
-                        final RealMatrix reducedObservationMatrix,
+                        final double[][] reducedObservationMatrix,
                         final double[] kernelApproximationDiagonal) {
             this(start, end, calculateSegmentCost(start, end, reducedObservationMatrix, kernelApproximationDiagonal).C);
         }
@@ -186,8 +186,9 @@ public final class KernelSegmenter<DATA> {
         }
     }
 
-    //calculates the N x p reduced observation matrix, defined as Z in equation preceding Eq. 14 in https://hal.inria.fr/hal-01413230/document
-    private static <DATA> RealMatrix calculateReducedObservationMatrix(final RandomGenerator rng,
+    //calculates the N x p reduced observation matrix, defined as Z in equation preceding Eq. 14 in https://hal.inria.fr/hal-01413230/document;
+    //rows are calculated in parallel and returned as primitive arrays, so that costs can be calculated with tight loops over them
+    private static <DATA> double[][] calculateReducedObservationMatrix(final RandomGenerator rng,
                                                                        final List<DATA> data,
                                                                        final BiFunction<DATA, DATA, Double> kernel,
                                                                        final int kernelApproximationDimension) {
@@ -219,60 +220,67 @@ public final class KernelSegmenter<DATA> {
         logger.debug(String.format("Performing SVD of kernel matrix of subsampled data (%d x %d)...", numSubsample, numSubsample));
         final SingularValueDecomposition svd = new SingularValueDecomposition(subKernelMatrix);
 
-        //calculate reduced observation matrix
+        //calculate reduced observation matrix; we store the columns of the scaled U matrix so that each entry of the
+        //product is a dot product of contiguous arrays
         logger.debug(String.format("Calculating reduced observation matrix (%d x %d)...", data.size(), numSubsample));
         final double[] invSqrtSingularValues = Arrays.stream(svd.getSingularValues()).map(Math::sqrt).map(x -> 1. / (x + EPSILON)).toArray();
-        final RealMatrix subKernelUMatrix = new Array2DRowRealMatrix(numSubsample, numSubsample);
-        subKernelUMatrix.walkInOptimizedOrder(new DefaultRealMatrixChangingVisitor() {
-            @Override
-            public double visit(int i, int j, double value) {
-                return svd.getU().getEntry(i, j) * invSqrtSingularValues[j];
+        final RealMatrix subKernelU = svd.getU();
+        final double[][] subKernelUMatrixColumns = new double[numSubsample][numSubsample];
+        for (int i = 0; i < numSubsample; i++) {
+            for (int j = 0; j < numSubsample; j++) {
+                subKernelUMatrixColumns[j][i] = subKernelU.getEntry(i, j) * invSqrtSingularValues[j];
             }
-        });
-        final RealMatrix reducedKernelMatrix = new Array2DRowRealMatrix(data.size(), numSubsample);
-        reducedKernelMatrix.walkInOptimizedOrder(new DefaultRealMatrixChangingVisitor() {
-            @Override
-            public double visit(int i, int j, double value) {
-                return kernel.apply(data.get(i), dataSubsample.get(j));
+        }
+        final double[][] reducedObservationMatrix = new double[data.size()][];
+        IntStream.range(0, data.size()).parallel().forEach(i -> {
+            final DATA point = data.get(i);
+            final double[] reducedKernelRow = new double[numSubsample];
+            for (int k = 0; k < numSubsample; k++) {
+                reducedKernelRow[k] = kernel.apply(point, dataSubsample.get(k));
+            }
+            final double[] reducedObservationRow = new double[numSubsample];
+            for (int j = 0; j < numSubsample; j++) {
+                final double[] subKernelUMatrixColumn = subKernelUMatrixColumns[j];
+                double sum = 0.;
+                for (int k = 0; k < numSubsample; k++) {
+                    sum += reducedKernelRow[k] * subKernelUMatrixColumn[k];
+                }
+                reducedObservationRow[j] = sum;
             }
+            reducedObservationMatrix[i] = reducedObservationRow;
         });
-        return reducedKernelMatrix.multiply(subKernelUMatrix);
+        return reducedObservationMatrix;
     }
 
     //for N x p matrix Z_ij, returns the N-dimensional vector sum(Z_ij * Z_ij, j = 0,..., p - 1),
     //which are the diagonal elements K_ii of the approximate kernel matrix
-    private static double[] calculateKernelApproximationDiagonal(final RealMatrix reducedObservationMatrix) {
-        return new IndexRange(0, reducedObservationMatrix.getRowDimension())
-                .mapToDouble(i -> MathUtils.square(reducedObservationMatrix.getRowVector(i).getNorm()));
+    @VisibleForTesting
+    static double[] calculateKernelApproximationDiagonal(final double[][] reducedObservationMatrix) {
+        return new IndexRange(0, reducedObservationMatrix.length)
+                .mapToDouble(i -> {
+                    double sumOfSquares = 0.;
+                    for (final double z : reducedObservationMatrix[i]) {
+                        sumOfSquares += z * z;
+                    }
+                    return sumOfSquares;
+                });
     }
 
-    //finds indices of changepoint candidates from all window sizes
+    //finds indices of changepoint candidates from all window sizes; window sizes are processed in parallel,
+    //but candidates are returned in the order of the window sizes
     private static <DATA> List<Integer> findChangepointCandidates(final List<DATA> data,
-                                                                  final RealMatrix reducedObservationMatrix,
+                                                                  final double[][] reducedObservationMatrix,
                                                                   final double[] kernelApproximationDiagonal,
                                                                   final int maxNumChangepoints,
                                                                   final List<Integer> windowSizes) {
-        final List<Integer> changepointCandidates = new ArrayList<>(windowSizes.size() * maxNumChangepoints);
-
         //for each window size, calculate local changepoint costs at each point and add maxNumChangepoints candidates
         //(this is overkill, but we cannot guarantee that the most significant maxNumChangepoints changepoints
         //do not all appear at only a single window size)
-        for (final int windowSize : windowSizes) {
-            logger.debug(String.format("Calculating local changepoints costs for window size %d...", windowSize));
-            if (windowSize > data.size()) {
-                logger.warn(String.format("Number of points needed to calculate local changepoint costs (2 * window size = %d) " +
-                        "exceeds number of data points (%d).  Local changepoint costs will not be calculated for this window size.",
-                        2 * windowSize, data.size()));
-                continue;
-            }
-            final double[] windowCosts = calculateWindowCosts(reducedObservationMatrix, kernelApproximationDiagonal, windowSize);
-
-            logger.debug(String.format("Finding local minima of local changepoint costs for window size %d...", windowSize));
-            final List<Integer> windowCostLocalMinima = new ArrayList<>(new PersistenceOptimizer(windowCosts).getMinimaIndices());
-            windowCostLocalMinima.remove(Integer.valueOf(0));                //remove first data point if present
-            windowCostLocalMinima.remove(Integer.valueOf(data.size() - 1));  //remove last data point if present
-            changepointCandidates.addAll(windowCostLocalMinima.subList(0, Math.min(maxNumChangepoints, windowCostLocalMinima.size())));
-        }
+        final List<Integer> changepointCandidates = windowSizes.parallelStream()
+                .map(windowSize -> findChangepointCandidatesForWindowSize(
+                        data.size(), reducedObservationMatrix, kernelApproximationDiagonal, maxNumChangepoints, windowSize))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
 
         if (changepointCandidates.isEmpty()) {
             logger.warn("No changepoint candidates were found.  The specified window sizes may be inappropriate, or there may be insufficient data points.");
@@ -281,18 +289,39 @@ public final class KernelSegmenter<DATA> {
         return changepointCandidates;
     }
 
+    private static List<Integer> findChangepointCandidatesForWindowSize(final int numData,
+                                                                        final double[][] reducedObservationMatrix,
+                                                                        final double[] kernelApproximationDiagonal,
+                                                                        final int maxNumChangepoints,
+                                                                        final int windowSize) {
+        logger.debug(String.format("Calculating local changepoints costs for window size %d...", windowSize));
+        if (windowSize > numData) {
+            logger.warn(String.format("Number of points needed to calculate local changepoint costs (2 * window size = %d) " +
+                    "exceeds number of data points (%d).  Local changepoint costs will not be calculated for this window size.",
+                    2 * windowSize, numData));
+            return Collections.emptyList();
+        }
+        final double[] windowCosts = calculateWindowCosts(reducedObservationMatrix, kernelApproximationDiagonal, windowSize);
+
+        logger.debug(String.format("Finding local minima of local changepoint costs for window size %d...", windowSize));
+        final List<Integer> windowCostLocalMinima = new ArrayList<>(new PersistenceOptimizer(windowCosts).getMinimaIndices());
+        windowCostLocalMinima.remove(Integer.valueOf(0));              //remove first data point if present
+        windowCostLocalMinima.remove(Integer.valueOf(numData - 1));    //remove last data point if present
+        return windowCostLocalMinima.subList(0, Math.min(maxNumChangepoints, windowCostLocalMinima.size()));
+    }
+
     //performs backward model selection to order changepoints by increasing change to the global segmentation cost
     //and returns the requested number
     private static List<Integer> selectChangepoints(final List<Integer> changepointCandidates,
                                                     final int maxNumChangepoints,
                                                     final double numChangepointsPenaltyLinearFactor,
                                                     final double numChangepointsPenaltyLogLinearFactor,
-                                                    final RealMatrix reducedObservationMatrix,
+                                                    final double[][] reducedObservationMatrix,
                                                     final double[] kernelApproximationDiagonal) {
         final List<Integer> changepoints = new ArrayList<>(changepointCandidates.size());
 
         //calculate penalties as a function of the number of changepoints
-        final int numData = reducedObservationMatrix.getRowDimension();
+        final int numData = reducedObservationMatrix.length;
         final List<Double> changepointPenalties = IntStream.range(0, maxNumChangepoints + 1)
                 .mapToObj(numChangepoints -> calculateChangepointPenalty(
                         numChangepoints, numChangepointsPenaltyLinearFactor, numChangepointsPenaltyLogLinearFactor, numData))
@@ -305,14 +334,14 @@ public final class KernelSegmenter<DATA> {
         final List<Integer> candidateEnds = changepointCandidates.stream().sorted().distinct().collect(Collectors.toList());
         candidateEnds.add(numData - 1);
         final int numSegments = candidateStarts.size();
-        final List<Segment> segments = IntStream.range(0, numSegments)
+        final List<Segment> segments = IntStream.range(0, numSegments).parallel()
                 .mapToObj(i -> new Segment(candidateStarts.get(i), candidateEnds.get(i), reducedObservationMatrix, kernelApproximationDiagonal))
                 .collect(Collectors.toList());
         final List<Double> totalSegmentationCosts = new ArrayList<>(Collections.singletonList(segments.stream().mapToDouble(s -> s.cost).sum()));
         final List<Double> costsForSegmentPairs = IntStream.range(0, numSegments - 1)
                 .mapToObj(i -> segments.get(i).cost + segments.get(i + 1).cost)
                 .collect(Collectors.toList());  //sum of the costs for the segments in each adjacent pair
-        final List<Double> costsForMergedSegmentPairs = IntStream.range(0, numSegments - 1)
+        final List<Double> costsForMergedSegmentPairs = IntStream.range(0, numSegments - 1).parallel()
                 .mapToObj(i -> new Segment(candidateStarts.get(i), candidateEnds.get(i + 1), reducedObservationMatrix, kernelApproximationDiagonal).cost)
                 .collect(Collectors.toList());  //cost of each adjacent pair when considered as a single segment
         final List<Double> costsForMergingSegmentPairs = IntStream.range(0, numSegments - 1)
@@ -386,36 +415,48 @@ public final class KernelSegmenter<DATA> {
      */
     private static Cost calculateSegmentCost(final int start,
                                              final int end,
-                                             final RealMatrix reducedObservationMatrix,
+                                             final double[][] reducedObservationMatrix,
                                              final double[] kernelApproximationDiagonal) {
-        final int N = reducedObservationMatrix.getRowDimension();
-        final int p = reducedObservationMatrix.getColumnDimension();
+        final int N = reducedObservationMatrix.length;
 
         //initialize quantities for recurrence
         double D = kernelApproximationDiagonal[start];
-        final double[] W = Arrays.copyOf(reducedObservationMatrix.getRow(start), p);
+        final double[] W = Arrays.copyOf(reducedObservationMatrix[start], reducedObservationMatrix[start].length);
         double V = Arrays.stream(W).map(w -> w * w).sum();
 
-        //generate indices for iteration; we need to wrap around to beginning of data if start > end
-        final List<Integer> indices = start <= end 
-                ? IntStream.range(start + 1, end + 1).boxed().collect(Collectors.toList()) 
-                : IntStream.concat(IntStream.range(start + 1, N), IntStream.range(0, end + 1)).boxed().collect(Collectors.toList());
-
-        //use recurrence relations to iteratively calculate cost
-        for (final int tauPrime : indices) {
+        //use recurrence relations to iteratively calculate cost; we need to wrap around to beginning of data if start > end
+        final int numPoints = start <= end ? end - start + 1 : N - start + end + 1;
+        for (int tauPrime = (start + 1) % N, i = 1; i < numPoints; tauPrime = (tauPrime + 1) % N, i++) {
             D += kernelApproximationDiagonal[tauPrime];
-            double ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(tauPrime, j) * W[j];
-                W[j] += reducedObservationMatrix.getEntry(tauPrime, j);
-            }
-            V += 2. * ZdotW + kernelApproximationDiagonal[tauPrime];
+            V += 2. * dotProductThenAdd(reducedObservationMatrix[tauPrime], W) + kernelApproximationDiagonal[tauPrime];
         }
-        final double C = D - V / (indices.size() + 1);
+        final double C = D - V / numPoints;
 
         return new Cost(D, W, V, C);
     }
 
+    //returns the dot product of z and w, then adds z to w in place
+    private static double dotProductThenAdd(final double[] z,
+                                            final double[] w) {
+        double zDotW = 0.;
+        for (int j = 0; j < z.length; j++) {
+            zDotW += z[j] * w[j];
+            w[j] += z[j];
+        }
+        return zDotW;
+    }
+
+    //returns the dot product of z and w, then subtracts z from w in place
+    private static double dotProductThenSubtract(final double[] z,
+                                                 final double[] w) {
+        double zDotW = 0.;
+        for (int j = 0; j < z.length; j++) {
+            zDotW += z[j] * w[j];
+            w[j] -= z[j];
+        }
+        return zDotW;
+    }
+
     /**
      * Calculates the local costs at each point for a given window size <i>w</i>.  Using Eq. 11 of
      * <a href="https://hal.inria.fr/hal-01413230/document">https://hal.inria.fr/hal-01413230/document</a>
@@ -430,11 +471,11 @@ public final class KernelSegmenter<DATA> {
      * @param kernelApproximationDiagonal   N diagonal terms of the low-rank approximation to the kernel matrix
      * @param windowSize                    number of points to include in either flanking segment when calculating cost
      */
-    private static double[] calculateWindowCosts(final RealMatrix reducedObservationMatrix,
+    private static double[] calculateWindowCosts(final double[][] reducedObservationMatrix,
                                                  final double[] kernelApproximationDiagonal,
                                                  final int windowSize) {
-        final int N = reducedObservationMatrix.getRowDimension();
-        final int p = reducedObservationMatrix.getColumnDimension();
+        final int N = reducedObservationMatrix.length;
+        final int p = reducedObservationMatrix[0].length;
 
         //initialize indices of the boundaries of the two flanking segments, wrapping around to beginning of data if necessary
         int center = 0;
@@ -465,68 +506,40 @@ public final class KernelSegmenter<DATA> {
         final double[] windowCosts = new double[N];
         windowCosts[center] = leftC + rightC - totalC;
 
-        double ZdotW;
         final double windowSizeReciprocal = 1. / windowSize;
 
         //slide segments along data and use recurrence relations to iteratively update costs
         for (center = 0; center < N; center++) {
             final int centerNext = (center + 1) % N;
             final int endNext = (end + 1) % N;
+            final double[] zStart = reducedObservationMatrix[start];
+            final double[] zCenterNext = reducedObservationMatrix[centerNext];
+            final double[] zEndNext = reducedObservationMatrix[endNext];
 
             //update quantities in left segment
             leftD -= kernelApproximationDiagonal[start];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(start, j) * leftW[j];
-                leftW[j] -= reducedObservationMatrix.getEntry(start, j);
-            }
-            leftV += -2. * ZdotW + kernelApproximationDiagonal[start];
+            leftV += -2. * dotProductThenSubtract(zStart, leftW) + kernelApproximationDiagonal[start];
 
             leftD += kernelApproximationDiagonal[centerNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(centerNext, j) * leftW[j];
-                leftW[j] += reducedObservationMatrix.getEntry(centerNext, j);
-            }
-            leftV += 2. * ZdotW + kernelApproximationDiagonal[centerNext];
+            leftV += 2. * dotProductThenAdd(zCenterNext, leftW) + kernelApproximationDiagonal[centerNext];
 
             leftC = leftD - leftV * windowSizeReciprocal;
 
             //update quantities in right segment
             rightD -= kernelApproximationDiagonal[centerNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(centerNext, j) * rightW[j];
-                rightW[j] -= reducedObservationMatrix.getEntry(centerNext, j);
-            }
-            rightV += -2. * ZdotW + kernelApproximationDiagonal[centerNext];
+            rightV += -2. * dotProductThenSubtract(zCenterNext, rightW) + kernelApproximationDiagonal[centerNext];
 
             rightD += kernelApproximationDiagonal[endNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(endNext, j) * rightW[j];
-                rightW[j] += reducedObservationMatrix.getEntry(endNext, j);
-            }
-            rightV += 2. * ZdotW + kernelApproximationDiagonal[endNext];
+            rightV += 2. * dotProductThenAdd(zEndNext, rightW) + kernelApproximationDiagonal[endNext];
 
             rightC = rightD - rightV * windowSizeReciprocal;
 
             //update quantities in total segment
             totalD -= kernelApproximationDiagonal[start];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(start, j) * totalW[j];
-                totalW[j] -= reducedObservationMatrix.getEntry(start, j);
-            }
-            totalV += -2. * ZdotW + kernelApproximationDiagonal[start];
+            totalV += -2. * dotProductThenSubtract(zStart, totalW) + kernelApproximationDiagonal[start];
 
             totalD += kernelApproximationDiagonal[endNext];
-            ZdotW = 0.;
-            for (int j = 0; j < p; j++) {
-                ZdotW += reducedObservationMatrix.getEntry(endNext, j) * totalW[j];
-                totalW[j] += reducedObservationMatrix.getEntry(endNext, j);
-            }
-            totalV += 2. * ZdotW + kernelApproximationDiagonal[endNext];
+            totalV += 2. * dotProductThenAdd(zEndNext, totalW) + kernelApproximationDiagonal[endNext];
 
             totalC = totalD - 0.5 * totalV * windowSizeReciprocal;
 
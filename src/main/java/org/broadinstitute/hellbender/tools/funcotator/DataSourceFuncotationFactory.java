@@ -67,6 +67,11 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
         return mainSourceFileAsFeatureInput;
     }
 
+    /**
+     * Cache of the funcotations created for recently annotated sites.  Only used if {@link #isCacheable()}.
+     */
+    private final FuncotationCache funcotationCache = new FuncotationCache();
+
     /**
      * Constructor to initialize final fields in this class with defaults.
      */
@@ -148,6 +153,30 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
     @VisibleForTesting
     public boolean requiresFeatures() { return true; }
 
+    /**
+     * Whether this {@link DataSourceFuncotationFactory} may create funcotations for several variants concurrently
+     * once their features have been retrieved (see {@link Funcotator}'s multi-threaded mode).  Factories that are not
+     * thread-safe are only ever used by one thread at a time.
+     * @return {@code true} if this factory's annotation methods may be called concurrently.  Defaults to {@code false}.
+     */
+    public boolean isThreadSafe() { return false; }
+
+    /**
+     * Whether the funcotations this {@link DataSourceFuncotationFactory} creates for a (non-symbolic) variant depend
+     * only on the position and alleles of that variant, and so may be reused for later variants at the same site.
+     * In particular, they must not depend on the given {@link GencodeFuncotation}s or on any other field of the variant.
+     * Funcotations for such factories are cached by {@link #createFuncotations}.
+     * @return {@code true} if funcotations from this factory may be cached.  Defaults to {@code false}.
+     */
+    public boolean isCacheable() { return false; }
+
+    /**
+     * @return The {@link FuncotationCache} used by this factory if it {@link #isCacheable()}.
+     */
+    FuncotationCache getFuncotationCache() {
+        return funcotationCache;
+    }
+
     /**
      * @return An ordered {@link LinkedHashSet} of the names of annotations that this Data Source supports.
      */
@@ -189,13 +218,46 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
         Utils.nonNull(referenceContext);
         Utils.nonNull(featureContext);
 
-        final List<Funcotation> outputFuncotations;
-
         // Query this funcotation factory to get the list of overlapping features.
         // NOTE: This will only get features that are LOCATABLE!
         //       This corresponds to requiresFeatures() returning `True`.
         final List<Feature> featureList = getFeaturesFromFeatureContext(featureContext);
 
+        return createFuncotationsFromFeatures(variant, referenceContext, featureList, gencodeFuncotations);
+    }
+
+    /**
+     * Creates a {@link List} of {@link Funcotation} for the given {@code variant}, {@code referenceContext}, and
+     * {@code featureList} that has already been retrieved with {@link #getFeaturesFromFeatureContext(FeatureContext)}.
+     * This allows features to be queried on the engine thread and the funcotations to be created on another.
+     * @param variant {@link VariantContext} to annotate.  Never {@code null}.
+     * @param referenceContext {@link ReferenceContext} corresponding to the given {@code variant}.  Never {@code null}.
+     * @param featureList {@link List} of {@link Feature} for this data source overlapping the variant.  Never {@code null}.
+     * @param gencodeFuncotations {@link List} of {@link GencodeFuncotation} that have already been created for the given {@code variant}.
+     *   {@code null} is acceptable if there are no corresponding gencode funcotations.
+     * @return {@link List} of {@link Funcotation} given the {@code variant}, {@code referenceContext}, and {@code featureList}.  This should never be empty.
+     */
+    List<Funcotation> createFuncotationsFromFeatures(final VariantContext variant, final ReferenceContext referenceContext, final List<Feature> featureList, final List<GencodeFuncotation> gencodeFuncotations) {
+
+        Utils.nonNull(variant);
+        Utils.nonNull(referenceContext);
+        Utils.nonNull(featureList);
+
+        if ( !isCacheable() || variant.hasSymbolicAlleles() ) {
+            return createUncachedFuncotationsFromFeatures(variant, referenceContext, featureList, gencodeFuncotations);
+        }
+
+        final List<Funcotation> cachedFuncotations = funcotationCache.get(variant);
+        if ( cachedFuncotations != null ) {
+            return cachedFuncotations;
+        }
+        return funcotationCache.put(variant, createUncachedFuncotationsFromFeatures(variant, referenceContext, featureList, gencodeFuncotations));
+    }
+
+    private List<Funcotation> createUncachedFuncotationsFromFeatures(final VariantContext variant, final ReferenceContext referenceContext, final List<Feature> featureList, final List<GencodeFuncotation> gencodeFuncotations) {
+
+        final List<Funcotation> outputFuncotations;
+
         // If our featureList is compatible with this DataSourceFuncotationFactory, then we make our funcotations:
         if ( isFeatureListCompatible(featureList) ) {
             outputFuncotations = determineFuncotations(variant, referenceContext, featureList, gencodeFuncotations);
@@ -214,7 +276,12 @@ public abstract class DataSourceFuncotationFactory implements Closeable {
         }
     }
 
-    private List<Feature> getFeaturesFromFeatureContext(final FeatureContext featureContext) {
+    /**
+     * @param featureContext the FeatureContext to query
+     * @return the Features from this data source that overlap the given {@code featureContext}, or an empty list
+     * if this data source does not require features.
+     */
+    List<Feature> getFeaturesFromFeatureContext(final FeatureContext featureContext) {
         return requiresFeatures() ?
                     queryFeaturesFromFeatureContext(featureContext) :
                     Collections.emptyList();
@@ -0,0 +1,200 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of the {@link Funcotation}s created by a single {@link DataSourceFuncotationFactory}, keyed on the
+ * position and alleles of the annotated variant.
+ *
+ * Keys hold only the contig, start, end, and alleles of a variant (not the variant itself, its contexts, or its
+ * features), so a cached entry is found again for any later variant at the same site with the same alleles, e.g. the
+ * recurrent sites of a cohort VCF or the per-transcript calls {@link FuncotatorEngine} makes for each variant.
+ *
+ * Since variants are annotated in coordinate order, entries are evicted as soon as the traversal has moved past them
+ * (in addition to the bounds on the number of entries and on their total weight, i.e. the number of funcotation
+ * fields they hold).  Entries for variants that arrive out of order are still correct, they are just evicted sooner.
+ *
+ * All methods are synchronized so that a cache may be shared by the threads of a multi-threaded {@link Funcotator}.
+ */
+final class FuncotationCache {
+
+    /** Default maximum number of variants held in a cache. */
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /** Default maximum total weight (number of funcotation fields) held in a cache. */
+    static final long DEFAULT_MAX_WEIGHT = 1_000_000L;
+
+    private static final class Key {
+        private final String contig;
+        private final int start;
+        private final int end;
+        private final List<Allele> alleles;
+        private final int hashCode;
+
+        private Key(final VariantContext variant) {
+            contig = variant.getContig();
+            start = variant.getStart();
+            end = variant.getEnd();
+            alleles = variant.getAlleles();
+            hashCode = 31 * (31 * (31 * contig.hashCode() + start) + end) + alleles.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof Key) ) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return hashCode == that.hashCode && start == that.start && end == that.end &&
+                    contig.equals(that.contig) && alleles.equals(that.alleles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        private final List<Funcotation> funcotations;
+        private final long weight;
+
+        private Entry(final List<Funcotation> funcotations, final long weight) {
+            this.funcotations = funcotations;
+            this.weight = weight;
+        }
+    }
+
+    /** Entries in insertion order, which is (nearly) coordinate order. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>();
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    private long totalWeight = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    FuncotationCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * @param maxEntries Maximum number of variants to keep funcotations for.  Must be positive.
+     * @param maxWeight Maximum total number of funcotation fields to keep.  Must be positive.
+     */
+    FuncotationCache(final int maxEntries, final long maxWeight) {
+        Utils.validateArg(maxEntries > 0, "maxEntries must be positive");
+        Utils.validateArg(maxWeight > 0, "maxWeight must be positive");
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Get the cached funcotations for a variant at the same site and with the same alleles as the given variant.
+     * Entries for sites that end before the given variant are evicted.
+     * @param variant The variant to look up.  Must not be {@code null}.
+     * @return The cached (unmodifiable) funcotations, or {@code null} if there are none.
+     */
+    synchronized List<Funcotation> get(final VariantContext variant) {
+        Utils.nonNull(variant);
+        evictPassedEntries(variant);
+        final Entry entry = entries.get(new Key(variant));
+        if ( entry == null ) {
+            ++misses;
+            return null;
+        }
+        ++hits;
+        return entry.funcotations;
+    }
+
+    /**
+     * Cache the given funcotations for the site and alleles of the given variant.
+     * @param variant The annotated variant.  Must not be {@code null}.
+     * @param funcotations The funcotations created for {@code variant}.  Must not be {@code null}.
+     * @return An unmodifiable view of {@code funcotations}, as it will be returned by later calls to {@link #get}.
+     */
+    synchronized List<Funcotation> put(final VariantContext variant, final List<Funcotation> funcotations) {
+        Utils.nonNull(variant);
+        Utils.nonNull(funcotations);
+
+        long weight = 1;
+        for ( final Funcotation funcotation : funcotations ) {
+            weight += funcotation.getFieldNames().size();
+        }
+
+        final List<Funcotation> cachedFuncotations = Collections.unmodifiableList(funcotations);
+        final Entry previous = entries.put(new Key(variant), new Entry(cachedFuncotations, weight));
+        totalWeight += weight - (previous == null ? 0 : previous.weight);
+
+        // Evict the oldest entries until we are back within our bounds:
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while ( (entries.size() > maxEntries || totalWeight > maxWeight) && iterator.hasNext() ) {
+            totalWeight -= iterator.next().weight;
+            iterator.remove();
+        }
+        return cachedFuncotations;
+    }
+
+    /**
+     * Remove the oldest entries as long as they are on a different contig than, or end before, the given variant.
+     */
+    private void evictPassedEntries(final VariantContext variant) {
+        final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ( iterator.hasNext() ) {
+            final Map.Entry<Key, Entry> oldest = iterator.next();
+            if ( oldest.getKey().contig.equals(variant.getContig()) && oldest.getKey().end >= variant.getStart() ) {
+                break;
+            }
+            totalWeight -= oldest.getValue().weight;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @return The number of variants currently in this cache.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The total weight of the entries currently in this cache.
+     */
+    synchronized long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return The number of lookups that found an entry.
+     */
+    synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups that did not find an entry.
+     */
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return A summary of the hit rate of this cache, for logging.
+     */
+    synchronized String getStatisticsString() {
+        final long total = hits + misses;
+        return String.format("cache hits/total: %d/%d (%.1f%%)", hits, total, total == 0 ? 0.0 : 100.0 * hits / total);
+    }
+}
@@ -1,8 +1,11 @@
 package org.broadinstitute.hellbender.tools.funcotator;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.tribble.Feature;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
@@ -15,12 +18,15 @@ import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.funcotator.dataSources.DataSourceUtils;
 import org.broadinstitute.hellbender.tools.funcotator.metadata.VcfFuncotationMetadata;
 import org.broadinstitute.hellbender.transformers.VariantTransformer;
+import org.broadinstitute.hellbender.utils.OrderedResultQueue;
 import org.broadinstitute.hellbender.utils.SequenceDictionaryUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import picard.cmdline.programgroups.VariantEvaluationProgramGroup;
 
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Funcotator (FUNCtional annOTATOR) analyzes given variants for their function (as retrieved from a set of data sources) and produces the analysis in a specified output file.
@@ -728,6 +734,21 @@ public class Funcotator extends VariantWalker {
 
     private FuncotatorEngine funcotatorEngine;
 
+    /**
+     * Worker threads for annotation, or {@code null} if variants are annotated on the engine thread.
+     */
+    private ExecutorService annotationExecutor;
+
+    /**
+     * Reference shared by the {@link ReferenceContext}s handed to {@link #annotationExecutor}.
+     */
+    private ReferenceDataSource annotationReference;
+
+    /**
+     * Variants submitted to {@link #annotationExecutor} that have not yet been written, in input order.
+     */
+    private final OrderedResultQueue<Pair<VariantContext, FuncotationMap>> pendingFuncotationMaps = new OrderedResultQueue<>();
+
     //==================================================================================================================
 
     /**
@@ -798,6 +819,14 @@ public class Funcotator extends VariantWalker {
                 dataSourceFuncotationFactories
         );
 
+        if ( funcotatorArgs.annotationThreads > 1 ) {
+            logger.info("Annotating variants on " + funcotatorArgs.annotationThreads + " threads...");
+            // The engine's reference data source is not thread-safe, so the workers share their own copy:
+            annotationReference = new SynchronizedReferenceDataSource(ReferenceDataSource.of(referenceArguments.getReferencePath()));
+            annotationExecutor = Executors.newFixedThreadPool(funcotatorArgs.annotationThreads,
+                    new ThreadFactoryBuilder().setNameFormat("funcotator-thread-%d").setDaemon(true).build());
+        }
+
         // Create our output renderer:
         logger.info("Creating a " + funcotatorArgs.outputFormatType + " file for output: " + funcotatorArgs.outputFile.toURI());
         outputRenderer = funcotatorEngine.createOutputRenderer(
@@ -849,9 +878,13 @@ public class Funcotator extends VariantWalker {
     @Override
     public void apply(final VariantContext variant, final ReadsContext readsContext, final ReferenceContext referenceContext, final FeatureContext featureContext) {
 
+        // Reference bases will be queried from the worker threads, so they must come from a thread-safe source:
+        final ReferenceContext sharedReferenceContext = (annotationExecutor == null) ? referenceContext :
+                new ReferenceContext(annotationReference, referenceContext.getInterval(), referenceContext.getWindow());
+
         // Get the correct reference for B37/HG19 compliance:
         // This is necessary because of the variant transformation that gets applied in VariantWalkerBase::apply.
-        final ReferenceContext correctReferenceContext = funcotatorEngine.getCorrectReferenceContext(variant, referenceContext);
+        final ReferenceContext correctReferenceContext = funcotatorEngine.getCorrectReferenceContext(variant, sharedReferenceContext);
 
         // Place the variant on our queue to be funcotated:
         enqueueAndHandleVariant(variant, correctReferenceContext, featureContext);
@@ -860,6 +893,9 @@ public class Funcotator extends VariantWalker {
     @Override
     public Object onTraversalSuccess() {
 
+        // Write out any variants that are still being annotated:
+        writePendingFuncotationMaps(0);
+
         // If we only saw IGRs, we most likely have a configuration issue.
         // Make sure the user knows this by making a HUGE stink about it.
         if ( funcotatorEngine.onlyProducedIGRs() ) {
@@ -881,6 +917,14 @@ public class Funcotator extends VariantWalker {
 
     @Override
     public void closeTool() {
+        if ( annotationExecutor != null ) {
+            annotationExecutor.shutdownNow();
+        }
+
+        if ( annotationReference != null ) {
+            annotationReference.close();
+        }
+
         if ( funcotatorEngine != null) {
             funcotatorEngine.close();
         }
@@ -900,9 +944,29 @@ public class Funcotator extends VariantWalker {
      */
     private void enqueueAndHandleVariant(final VariantContext variant, final ReferenceContext referenceContext, final FeatureContext featureContext) {
 
-        final FuncotationMap funcotationMap = funcotatorEngine.createFuncotationMapForVariant(variant, referenceContext, featureContext);
+        if ( annotationExecutor == null ) {
+            final FuncotationMap funcotationMap = funcotatorEngine.createFuncotationMapForVariant(variant, referenceContext, featureContext);
+
+            // At this point there is only one transcript ID in the funcotation map if canonical or best effect are selected
+            outputRenderer.write(variant, funcotationMap);
+            return;
+        }
+
+        // Features must be retrieved on this thread, but the annotations themselves can be created on any thread:
+        final Map<DataSourceFuncotationFactory, List<Feature>> featuresByFactory = funcotatorEngine.getFeaturesForVariant(featureContext);
+        pendingFuncotationMaps.add(annotationExecutor.submit(
+                () -> Pair.of(variant, funcotatorEngine.createFuncotationMapForVariant(variant, referenceContext, featuresByFactory))),
+                () -> "annotating variant at " + variant.getContig() + ":" + variant.getStart());
+
+        writePendingFuncotationMaps(funcotatorArgs.annotationBatchSize - 1);
+    }
 
-        // At this point there is only one transcript ID in the funcotation map if canonical or best effect are selected
-        outputRenderer.write(variant, funcotationMap);
+    /**
+     * Writes the pending variants in input order, waiting for their annotations as necessary, until no more than
+     * {@code maxPending} variants remain.  Variants whose annotations are already done are also written.
+     * @param maxPending The maximum number of variants that may still be pending when this method returns.
+     */
+    private void writePendingFuncotationMaps(final int maxPending) {
+        pendingFuncotationMaps.consume(maxPending, annotated -> outputRenderer.write(annotated.getLeft(), annotated.getRight()));
     }
 }
@@ -2,6 +2,7 @@ package org.broadinstitute.hellbender.tools.funcotator;
 
 import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.tribble.Feature;
 import htsjdk.tribble.util.ParsingUtils;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
@@ -82,8 +83,9 @@ public final class FuncotatorEngine implements AutoCloseable {
     /**
      * Whether this {@link FuncotatorEngine} has only produced annotations on variants that have been labeled by the
      * {@link org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotationFactory} as {@link org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotation.VariantClassification#IGR}.
+     * Volatile since variants may be annotated on several threads at once.
      */
-    private boolean onlyProducedIGRs = true;
+    private volatile boolean onlyProducedIGRs = true;
 
     /**
      * Create a {@link FuncotatorEngine} using the given {@code metadata} and {@code funcotationFactories} representing
@@ -136,6 +138,46 @@ public final class FuncotatorEngine implements AutoCloseable {
         Utils.nonNull(referenceContext);
         Utils.nonNull(featureContext);
 
+        return createFuncotationMapForVariant(variantContext, referenceContext, getFeaturesForVariant(featureContext));
+    }
+
+    /**
+     * Queries the features overlapping a variant from every data source used by this engine.
+     * Feature queries are not thread-safe, so this must be called on the engine thread.
+     *
+     * @param featureContext {@link FeatureContext} corresponding to the variant to annotate.  Never {@code null}.
+     * @return a map from each {@link DataSourceFuncotationFactory} of this engine to its features overlapping the variant.
+     */
+    public Map<DataSourceFuncotationFactory, List<Feature>> getFeaturesForVariant(final FeatureContext featureContext) {
+        Utils.nonNull(featureContext);
+        final Map<DataSourceFuncotationFactory, List<Feature>> featuresByFactory = new IdentityHashMap<>(dataSourceFactories.size());
+        for (final DataSourceFuncotationFactory funcotationFactory : dataSourceFactories) {
+            featuresByFactory.put(funcotationFactory, funcotationFactory.getFeaturesFromFeatureContext(featureContext));
+        }
+        return featuresByFactory;
+    }
+
+    /**
+     * Creates a {@link FuncotationMap} for the given {@code variantContext} from features that have already been
+     * retrieved with {@link #getFeaturesForVariant(FeatureContext)}.
+     *
+     * This method may be called for several variants concurrently.  Data sources that are not
+     * {@link DataSourceFuncotationFactory#isThreadSafe() thread-safe} are used by only one thread at a time.
+     *
+     * @param variantContext   {@link VariantContext} to annotate.  Never {@code null}.
+     * @param referenceContext {@link ReferenceContext} corresponding to the given {@code variantContext}.  Never {@code null}.
+     *                         If called concurrently, its backing data source must be thread-safe.
+     * @param featuresByFactory features for each data source of this engine, as returned by {@link #getFeaturesForVariant(FeatureContext)}.  Never {@code null}.
+     * @return an instance of FuncotationMap that maps transcript IDs to lists of funcotations for the given variantContext context.
+     */
+    public FuncotationMap createFuncotationMapForVariant(final VariantContext variantContext,
+                                                         final ReferenceContext referenceContext,
+                                                         final Map<DataSourceFuncotationFactory, List<Feature>> featuresByFactory) {
+
+        Utils.nonNull(variantContext);
+        Utils.nonNull(referenceContext);
+        Utils.nonNull(featuresByFactory);
+
         //==============================================================================================================
         // First create only the transcript (Gencode) funcotations:
 
@@ -144,7 +186,7 @@ public final class FuncotatorEngine implements AutoCloseable {
         }
 
         final List<GencodeFuncotation> transcriptFuncotations = retrieveGencodeFuncotationFactoryStream()
-                .map(gf -> gf.createFuncotations(variantContext, referenceContext, featureContext))
+                .map(gf -> createFuncotations(gf, variantContext, referenceContext, featuresByFactory.get(gf), null))
                 .flatMap(List::stream)
                 .map(f -> {
                         final GencodeFuncotation gf = (GencodeFuncotation) f;
@@ -170,8 +212,8 @@ public final class FuncotatorEngine implements AutoCloseable {
                 final List<String> txIds = funcotationMap.getTranscriptList();
 
                 for (final String txId: txIds) {
-                    funcotationMap.add(txId, funcotationFactory.createFuncotations(variantContext, referenceContext,
-                            featureContext, funcotationMap.getGencodeFuncotations(txId)));
+                    funcotationMap.add(txId, createFuncotations(funcotationFactory, variantContext, referenceContext,
+                            featuresByFactory.get(funcotationFactory), funcotationMap.getGencodeFuncotations(txId)));
                 }
             }
         }
@@ -188,6 +230,22 @@ public final class FuncotatorEngine implements AutoCloseable {
         return funcotationMap;
     }
 
+    /**
+     * Creates funcotations from the given {@code funcotationFactory}, holding its lock if it is not thread-safe.
+     */
+    private static List<Funcotation> createFuncotations(final DataSourceFuncotationFactory funcotationFactory,
+                                                        final VariantContext variantContext,
+                                                        final ReferenceContext referenceContext,
+                                                        final List<Feature> featureList,
+                                                        final List<GencodeFuncotation> gencodeFuncotations) {
+        if (funcotationFactory.isThreadSafe()) {
+            return funcotationFactory.createFuncotationsFromFeatures(variantContext, referenceContext, featureList, gencodeFuncotations);
+        }
+        synchronized (funcotationFactory) {
+            return funcotationFactory.createFuncotationsFromFeatures(variantContext, referenceContext, featureList, gencodeFuncotations);
+        }
+    }
+
     /**
      * Creates a {@link FuncotationMap} for the given {@code variantContext} using the datasources initialized with this
      *  engine.
@@ -335,6 +393,9 @@ public final class FuncotatorEngine implements AutoCloseable {
     public void close() {
         for ( final DataSourceFuncotationFactory factory : dataSourceFactories ) {
             if ( factory != null ) {
+                if ( factory.isCacheable() ) {
+                    logger.info(factory.getName() + " " + factory.getVersion() + " " + factory.getFuncotationCache().getStatisticsString());
+                }
                 factory.close();
             }
         }
@@ -40,4 +40,20 @@ public class FuncotatorVariantArgumentCollection extends BaseFuncotatorArgumentC
     )
     public int threePrimeFlankSize = FuncotatorArgumentDefinitions.THREE_PRIME_FLANK_SIZE_DEFAULT_VALUE;
 
+    @Argument(
+            fullName = FuncotatorArgumentDefinitions.ANNOTATION_THREADS_NAME,
+            optional = true,
+            minValue = 1,
+            doc = "Number of threads used to create annotations.  Features are still retrieved on the main thread, and data sources that are not thread-safe are used by only one thread at a time.  Output order is unchanged."
+    )
+    public int annotationThreads = FuncotatorArgumentDefinitions.ANNOTATION_THREADS_DEFAULT_VALUE;
+
+    @Argument(
+            fullName = FuncotatorArgumentDefinitions.ANNOTATION_BATCH_SIZE_NAME,
+            optional = true,
+            minValue = 1,
+            doc = "Maximum number of variants being annotated at once when using more than one annotation thread.  Larger batches keep more threads busy at the cost of memory."
+    )
+    public int annotationBatchSize = FuncotatorArgumentDefinitions.ANNOTATION_BATCH_SIZE_DEFAULT_VALUE;
+
 }
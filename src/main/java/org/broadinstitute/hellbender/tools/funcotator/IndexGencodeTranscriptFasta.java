@@ -0,0 +1,70 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
+import org.broadinstitute.barclay.help.DocumentedFeature;
+import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
+import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.GATKPathSpecifier;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptIndex;
+import picard.cmdline.programgroups.VariantEvaluationProgramGroup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compiles the transcript FASTA file of a GENCODE data source for <b><i>{@link Funcotator}</i></b> into a binary
+ * index that can be memory-mapped instead of being read and parsed every time the data source is loaded.
+ *
+ * <p>
+ * When the index is written next to the transcript FASTA file (the default), {@link Funcotator} will find and use it
+ * automatically.  The index only needs to be created once per data source, and again whenever its transcript FASTA
+ * file is replaced; an index that no longer matches its FASTA file is ignored with a warning.
+ * </p>
+ *
+ * <h3>Usage example</h3>
+ * <pre>
+ * gatk IndexGencodeTranscriptFasta \
+ *     -I dataSourcesFolder/gencode/hg38/gencode.v28.pc_transcripts.fa
+ * </pre>
+ * This produces the corresponding index, gencode.v28.pc_transcripts.fa.gti.
+ */
+@CommandLineProgramProperties(
+        summary = "Creates a binary index of a GENCODE transcript FASTA file for faster loading of Funcotator data sources.",
+        oneLineSummary = "Creates a binary index of a GENCODE transcript FASTA file for Funcotator.",
+        programGroup = VariantEvaluationProgramGroup.class
+)
+@DocumentedFeature
+public final class IndexGencodeTranscriptFasta extends CommandLineProgram {
+    private static final Logger logger = LogManager.getLogger(IndexGencodeTranscriptFasta.class);
+
+    @Argument(shortName = StandardArgumentDefinitions.INPUT_SHORT_NAME,
+              fullName = StandardArgumentDefinitions.INPUT_LONG_NAME,
+              doc = "GENCODE transcript FASTA file to index.  Must have a FASTA index and a sequence dictionary.")
+    public GATKPathSpecifier transcriptFastaPath;
+
+    @Argument(shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME,
+              fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
+              doc = "The output index file. If missing, the tool will create an index file in the same directory " +
+                      "as the input file.",
+              optional = true)
+    public GATKPathSpecifier outputPath;
+
+    @Override
+    protected Object doWork() {
+        final Path fastaPath = transcriptFastaPath.toPath();
+        if ( !Files.isReadable(fastaPath) ) {
+            throw new UserException.CouldNotReadInputFile(fastaPath);
+        }
+
+        final Path indexPath = (outputPath != null) ? outputPath.toPath() : GencodeTranscriptIndex.getIndexPath(fastaPath);
+
+        GencodeTranscriptIndex.write(fastaPath, indexPath);
+
+        logger.info("Successfully wrote index to " + indexPath.toUri());
+        return indexPath.toAbsolutePath().toString();
+    }
+}
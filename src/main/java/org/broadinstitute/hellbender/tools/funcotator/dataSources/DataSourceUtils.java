@@ -96,6 +96,7 @@ final public class DataSourceUtils {
     // Optional config options:
     public static final String CONFIG_FILE_FIELD_NAME_IS_B37_DATA_SOURCE   = "isB37DataSource";
     public static final String CONFIG_FILE_FIELD_NAME_LOOKAHEAD_CACHE_BP   = "lookAheadCacheBp";
+    public static final String CONFIG_FILE_FIELD_NAME_USE_IN_MEMORY_INDEX  = "useInMemoryIndex";
 
     //==================================================================================================================
     // Public Static Methods:
@@ -397,6 +398,19 @@ final public class DataSourceUtils {
         return -1;
     }
 
+    /**
+     * Get if the properties has specified the `useInMemoryIndex` field {@link #CONFIG_FILE_FIELD_NAME_USE_IN_MEMORY_INDEX} as true.
+     * If it is absent, it will default to {@code true}.
+     * @param dataSourceProperties {@link Properties} object from which to read the setting.
+     * @return The value of the {@link #CONFIG_FILE_FIELD_NAME_USE_IN_MEMORY_INDEX} property.  If absent, {@code true}.
+     */
+    private static boolean getUseInMemoryIndexPropertyValue(final Properties dataSourceProperties) {
+        if ( dataSourceProperties.containsKey( CONFIG_FILE_FIELD_NAME_USE_IN_MEMORY_INDEX ) ) {
+            return Boolean.valueOf(dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_USE_IN_MEMORY_INDEX).replace(" ", ""));
+        }
+        return true;
+    }
+
     /**
      * Create a path indicated by the given {@code dirPathString} that resolves to a directory even on Google Cloud.
      * This assumes that the given {@code dirPathString}  already points to a directory and must simply be reformatted for the cloud, if
@@ -465,11 +479,15 @@ final public class DataSourceUtils {
         final String version   = dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_VERSION);
         final boolean isB37    = getIsB37PropertyValue(dataSourceProperties);
 
+        // The COSMIC database is read into memory unless the config file turns this off (e.g. for low-memory hosts):
+        final boolean useInMemoryIndex = getUseInMemoryIndexPropertyValue(dataSourceProperties);
+
         return new CosmicFuncotationFactory(
                         resolveFilePathStringFromKnownPath(dataSourceProperties.getProperty(CONFIG_FILE_FIELD_NAME_SRC_FILE), dataSourceFile),
                         annotationOverridesMap,
                         version,
-                        isB37
+                        isB37,
+                        useInMemoryIndex
                 );
     }
 
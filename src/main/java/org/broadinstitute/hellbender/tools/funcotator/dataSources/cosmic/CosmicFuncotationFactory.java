@@ -35,6 +35,9 @@ import java.util.stream.Collectors;
  * The raw datasource (http://cancer.sanger.ac.uk/cosmic/download - CosmicCompleteTargetedScreensMutantExport.tsv.gz)
  * must be unzipped and preprocessed with the script `createSqliteCosmicDb.sh`.
  *
+ * By default the database is read once into a {@link CosmicMutationIndex} when this factory is created, so that each
+ * variant is annotated without querying the database.  On hosts with too little memory to hold the index, the
+ * database can instead be queried for each gene with a single prepared statement.
  *
  * This is a high-level object that interfaces with the internals of {@link org.broadinstitute.hellbender.tools.funcotator.Funcotator}.
  * Created by jonn on 12/16/17.
@@ -95,10 +98,10 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
     private static final String FIELD_NAME_QUERY = "SELECT * FROM " + TABLE_NAME + " LIMIT 1;";
 
     /**
-     * Template for results query for matching genes in the database.
+     * Query for the records of a single gene in the database, used when there is no in-memory index.
      */
-    private static final String RESULT_QUERY_TEMPLATE = "SELECT * FROM " + TABLE_NAME + " WHERE \""
-            + GENE_NAME_COLUMN + "\" == ";
+    private static final String GENE_QUERY = "SELECT \"" + GENOME_POSITION_COLUMN_NAME + "\", \"" + PROTEIN_POSITION_COLUMN_NAME
+            + "\" FROM " + TABLE_NAME + " WHERE \"" + GENE_NAME_COLUMN + "\" == ?;";
 
     //==================================================================================================================
     // Private Members:
@@ -118,9 +121,22 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
 
     /**
      * The connection to the SQLite database for this {@link CosmicFuncotationFactory}.
+     * {@code null} if the database has been read into {@link #mutationIndex}.
      */
     private final Connection dbConnection;
 
+    /**
+     * The prepared query for the records of a gene in the database.
+     * {@code null} if the database has been read into {@link #mutationIndex}.
+     */
+    private final PreparedStatement geneQuery;
+
+    /**
+     * In-memory index of all records in the database.
+     * {@code null} if this {@link CosmicFuncotationFactory} queries the database for each gene instead.
+     */
+    private final CosmicMutationIndex mutationIndex;
+
     /**
      * The ordered set of fields that this {@link CosmicFuncotationFactory} supports.
      */
@@ -143,12 +159,25 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
                                     final LinkedHashMap<String, String> annotationOverridesMap,
                                     final String version,
                                     final boolean isDataSourceB37) {
+        this(pathToCosmicDb, annotationOverridesMap, version, isDataSourceB37, true);
+    }
+
+    /**
+     * @param useInMemoryIndex If {@code true}, read the entire database into memory up front.  Otherwise, query the
+     *                         database for each gene to annotate, which is slower but requires little memory.
+     */
+    public CosmicFuncotationFactory(final Path pathToCosmicDb,
+                                    final LinkedHashMap<String, String> annotationOverridesMap,
+                                    final String version,
+                                    final boolean isDataSourceB37,
+                                    final boolean useInMemoryIndex) {
 
         this.pathToCosmicDb = localizeCosmicDbFileIfRemote(pathToCosmicDb);
         this.version = version;
         this.dataSourceIsB37 = isDataSourceB37;
 
         // Connect to the DB:
+        final Connection connection;
         try {
             Class.forName("org.sqlite.JDBC");
 
@@ -158,7 +187,7 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
             config.setReadOnly(true);
 
             logger.debug("Connecting to SQLite database at: " + this.pathToCosmicDb.toUri().toString());
-            dbConnection = DriverManager.getConnection("jdbc:sqlite:" + this.pathToCosmicDb.toUri().toString(), config.toProperties());
+            connection = DriverManager.getConnection("jdbc:sqlite:" + this.pathToCosmicDb.toUri().toString(), config.toProperties());
             logger.debug("Connected to SQLite database!");
         }
         catch (final SQLException ex) {
@@ -168,6 +197,30 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
             throw new UserException("Cannot load SQLite Java Package!", ex);
         }
 
+        if ( useInMemoryIndex ) {
+            logger.info("Reading COSMIC database into memory: " + this.pathToCosmicDb.toUri().toString());
+            try {
+                mutationIndex = CosmicMutationIndex.create(connection, TABLE_NAME, GENE_NAME_COLUMN, GENOME_POSITION_COLUMN_NAME, PROTEIN_POSITION_COLUMN_NAME);
+            }
+            finally {
+                closeConnection(connection);
+            }
+            logger.info("Read " + mutationIndex.getNumMutations() + " COSMIC records in " + mutationIndex.getNumGenes() + " genes.");
+            dbConnection = null;
+            geneQuery = null;
+        }
+        else {
+            mutationIndex = null;
+            dbConnection = connection;
+            try {
+                geneQuery = dbConnection.prepareStatement(GENE_QUERY);
+            }
+            catch (final SQLException ex) {
+                closeConnection(dbConnection);
+                throw new UserException("Unable to query SQLite DB for COSMIC at: " + this.pathToCosmicDb.toUri().toString(), ex);
+            }
+        }
+
         // Get the supported fields:
         supportedFields = new LinkedHashSet<>(1);
         supportedFields.add(name + "_overlapping_mutations");
@@ -187,14 +240,26 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
 
     @Override
     public void close() {
-        if (dbConnection != null) {
+        if (geneQuery != null) {
             try {
-                dbConnection.close();
+                geneQuery.close();
             }
             catch (final SQLException ex) {
-                throw new GATKException("Unable to close the connection to DB: " + pathToCosmicDb.toUri().toString(), ex);
+                throw new GATKException("Unable to close the query on DB: " + pathToCosmicDb.toUri().toString(), ex);
             }
         }
+        if (dbConnection != null) {
+            closeConnection(dbConnection);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A {@link CosmicFuncotationFactory} is thread-safe only when it does not need to query the database.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return mutationIndex != null;
     }
 
     @Override
@@ -272,41 +337,23 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
                 proteinPosition = null;
             }
 
-            try {
-                try ( final Statement statement = dbConnection.createStatement() ) {
-                    try ( final ResultSet resultSet = statement.executeQuery(RESULT_QUERY_TEMPLATE + "\"" + geneName + "\";") ) {
-                        // iterate through our results:
-                        while ( resultSet.next() ) {
-
-                            // Get the genome position:
-                            final SimpleInterval cosmicGenomePosition = getGenomePositionFromResults(resultSet);
-
-                            // Try to match on genome position first:
-                            if ( cosmicGenomePosition != null ) {
-                                if ( genomePosition.overlaps(cosmicGenomePosition) ) {
-                                    // If we overlap the records, we get the protein change and add it to the map:
-                                    updateProteinChangeCountMap(proteinChangeCounts, resultSet);
-                                    continue;
-                                }
-                            }
-
-                            // Get the protein position:
-                            final SimpleInterval cosmicProteinPosition = getProteinPositionFromResults(resultSet);
-
-                            // Now try to match on protein position:
-                            if ( proteinPosition != null ) {
-                                // If we overlap the records, we update the counter:
-                                if ( proteinPosition.overlaps(cosmicProteinPosition) ) {
-                                    updateProteinChangeCountMap(proteinChangeCounts, resultSet);
-                                }
-                            }
-                            // NOTE: We can't annotate if the protein position is null.
-                        }
+            for ( final CosmicMutationIndex.Mutation mutation : getMutationsForGene(geneName) ) {
+
+                // Try to match on genome position first:
+                if ( genomePosition.overlaps(mutation.genomePosition) ) {
+                    // If we overlap the records, we get the protein change and add it to the map:
+                    updateProteinChangeCountMap(proteinChangeCounts, mutation.proteinChange);
+                    continue;
+                }
+
+                // Now try to match on protein position:
+                if ( proteinPosition != null ) {
+                    // If we overlap the records, we update the counter:
+                    if ( proteinPosition.overlaps(mutation.proteinPosition) ) {
+                        updateProteinChangeCountMap(proteinChangeCounts, mutation.proteinChange);
                     }
                 }
-            }
-            catch (final SQLException ex) {
-                throw new GATKException("Unable to query the database for geneName: " + geneName, ex);
+                // NOTE: We can't annotate if the protein position is null.
             }
         }
 
@@ -327,8 +374,7 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
         return outputFuncotations;
     }
 
-    private void updateProteinChangeCountMap(final Map<String, Integer> proteinChangeCounts, final ResultSet resultSet) {
-        final String proteinChange = getProteinChangeStringFromResults(resultSet);
+    private static void updateProteinChangeCountMap(final Map<String, Integer> proteinChangeCounts, final String proteinChange) {
         if ( !proteinChange.isEmpty() ) {
             final int count = proteinChangeCounts.getOrDefault(proteinChange, 0);
             proteinChangeCounts.put(proteinChange, count + 1);
@@ -375,71 +421,73 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
     }
 
     /**
-     * Get the genome position of the current record in the given {@link ResultSet}.
-     * @param resultSet The results of a query on the database with a current row (must not be {@code null}).
-     * @return A {@link SimpleInterval} represnting the genome position of the current record in the given {@link ResultSet}; or {@code null}.
+     * Get the records in the database for the given gene, from the in-memory index if there is one.
+     * @param geneName The name of the gene for which to get records.
+     * @return The records for the given gene, in database order.  Never {@code null}.
      */
-    private final SimpleInterval getGenomePositionFromResults(final ResultSet resultSet) {
-        Utils.nonNull(resultSet);
+    private List<CosmicMutationIndex.Mutation> getMutationsForGene(final String geneName) {
+        if ( mutationIndex != null ) {
+            return mutationIndex.getMutations(geneName);
+        }
 
+        final List<CosmicMutationIndex.Mutation> mutations = new ArrayList<>();
         try {
-            final String rawPosition = resultSet.getString(GENOME_POSITION_COLUMN_NAME);
-            final Matcher matcher = GENOME_POSITION_REGEX.matcher(rawPosition);
-            if ( matcher.matches() ) {
-                // We have a position, so we should parse it:
-                final String rawContig =  matcher.group(1);
-                final String contig;
-                if ( rawContig.startsWith("chr") ) {
-                    contig = rawContig;
-                }
-                else {
-                    contig = "chr" + rawContig;
-                }
-                final int start = Integer.valueOf(matcher.group(2));
-                final int end = Integer.valueOf(matcher.group(3));
-
-                try {
-                    return new SimpleInterval(contig, start, end);
-                }
-                catch (final IllegalArgumentException ex) {
-                    // If we have poorly bounded genomic positions, we need to warn the user and move on.
-                    // These may occur occasionally in the data.
-                    logger.warn("Warning - unable to parse genome position string due to invalid position information.  Ignoring potential COSMIC match with genome position: " + rawPosition);
-                    return null;
+            geneQuery.setString(1, geneName);
+            try ( final ResultSet resultSet = geneQuery.executeQuery() ) {
+                while ( resultSet.next() ) {
+                    mutations.add(CosmicMutationIndex.createMutation(resultSet.getString(1), resultSet.getString(2)));
                 }
             }
         }
         catch (final SQLException ex) {
-            throw new GATKException("Cannot get Genome Position from column: " + GENOME_POSITION_COLUMN_NAME, ex);
+            throw new GATKException("Unable to query the database for geneName: " + geneName, ex);
         }
-
-        return null;
+        return mutations;
     }
 
-    /**
-     * Pulls a protein change / protein position out of the current record in the given {@link ResultSet}.
-     * @param resultSet The results of a query on the database with a current row (must not be {@code null}).
-     * @return A {@link SimpleInterval} representing the extents of the protein position in the current record in the given {@link ResultSet} or {@code null}.
-     */
-    private SimpleInterval getProteinPositionFromResults(final ResultSet resultSet) {
-        return parseProteinString( getProteinChangeStringFromResults(resultSet) );
+    private void closeConnection(final Connection connection) {
+        try {
+            connection.close();
+        }
+        catch (final SQLException ex) {
+            throw new GATKException("Unable to close the connection to DB: " + pathToCosmicDb.toUri().toString(), ex);
+        }
     }
 
     /**
-     * Pulls a protein change string out of the current record in the given {@link ResultSet}.
-     * @param resultSet The results of a query on the database with a current row (must not be {@code null}).
-     * @return A {@link String} representing the protein change as found in the current record of the given {@link ResultSet}.  Will not be {@code null}.
+     * Parse a genome position from a Cosmic record.
+     * @param rawPosition A {@link String} representing a genome position in the database (must not be {@code null}).
+     * @return A {@link SimpleInterval} representing the genome position; or {@code null}.
      */
-    private String getProteinChangeStringFromResults(final ResultSet resultSet) {
-        Utils.nonNull(resultSet);
+    static SimpleInterval parseGenomePosition(final String rawPosition) {
+        Utils.nonNull(rawPosition);
 
-        try {
-            final String proteinChangeString = resultSet.getString(PROTEIN_POSITION_COLUMN_NAME);
-            return proteinChangeString == null ? "" : proteinChangeString;
-        }
-        catch (final SQLException ex) {
-            throw new GATKException("Cannot get protein change from column: " + GENOME_POSITION_COLUMN_NAME, ex);
+        final Matcher matcher = GENOME_POSITION_REGEX.matcher(rawPosition);
+        if ( matcher.matches() ) {
+            // We have a position, so we should parse it:
+            final String rawContig =  matcher.group(1);
+            final String contig;
+            if ( rawContig.startsWith("chr") ) {
+                contig = rawContig;
+            }
+            else {
+                contig = "chr" + rawContig;
+            }
+            final int start = Integer.valueOf(matcher.group(2));
+            final int end = Integer.valueOf(matcher.group(3));
+
+            try {
+                return new SimpleInterval(contig, start, end);
+            }
+            catch (final IllegalArgumentException ex) {
+                // If we have poorly bounded genomic positions, we need to warn the user and move on.
+                // These may occur occasionally in the data.
+                logger.warn("Warning - unable to parse genome position string due to invalid position information.  Ignoring potential COSMIC match with genome position: " + rawPosition);
+                return null;
+            }
         }
+
+        return null;
     }
 
     /**
@@ -447,7 +495,7 @@ public class CosmicFuncotationFactory extends DataSourceFuncotationFactory {
      * @param proteinPositionString A {@link String} representing a protein position / protein change.
      * @return A {@link SimpleInterval} representing the extents of the given {@code proteinPositionString} or {@code null}.
      */
-    private SimpleInterval parseProteinString(final String proteinPositionString) {
+    static SimpleInterval parseProteinString(final String proteinPositionString) {
         Utils.nonNull(proteinPositionString);
 
         final Matcher matcher = PROTEIN_POSITION_REGEX.matcher(proteinPositionString);
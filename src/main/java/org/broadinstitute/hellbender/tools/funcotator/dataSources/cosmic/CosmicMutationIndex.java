@@ -0,0 +1,160 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.cosmic;
+
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * An in-memory index of the mutations in a COSMIC SQLite database, keyed by gene name.
+ *
+ * The COSMIC table is streamed once when the index is created, and only the columns needed for annotation are kept.
+ * Genome and protein positions are parsed once per record rather than once per lookup, and repeated strings (gene
+ * names, contigs, and protein changes) are shared between records.  Lookups are a single hash probe.
+ *
+ * Instances are immutable and may be shared between threads.
+ */
+final class CosmicMutationIndex {
+
+    /**
+     * A single record in the COSMIC database, reduced to the fields used for annotation.
+     */
+    static final class Mutation {
+        /** Genome position of this mutation, or {@code null} if it has none or it could not be parsed. */
+        final SimpleInterval genomePosition;
+
+        /** Protein position of this mutation, or {@code null} if it has none or it could not be parsed. */
+        final SimpleInterval proteinPosition;
+
+        /** Protein change of this mutation.  Never {@code null}, but may be empty. */
+        final String proteinChange;
+
+        Mutation(final SimpleInterval genomePosition, final SimpleInterval proteinPosition, final String proteinChange) {
+            this.genomePosition = genomePosition;
+            this.proteinPosition = proteinPosition;
+            this.proteinChange = Utils.nonNull(proteinChange);
+        }
+    }
+
+    private static final Mutation[] NO_MUTATIONS = new Mutation[0];
+
+    private final Map<String, Mutation[]> mutationsByGene;
+
+    private final int numMutations;
+
+    private CosmicMutationIndex(final Map<String, Mutation[]> mutationsByGene, final int numMutations) {
+        this.mutationsByGene = mutationsByGene;
+        this.numMutations = numMutations;
+    }
+
+    /**
+     * Reads every record of the COSMIC table in the given database into a new index.
+     * @param dbConnection An open connection to a COSMIC SQLite database.  Must not be {@code null}.
+     * @param tableName The name of the COSMIC table in the database.
+     * @param geneNameColumn The name of the column containing the gene name.
+     * @param genomePositionColumn The name of the column containing the genome position.
+     * @param proteinChangeColumn The name of the column containing the protein change.
+     * @return A new {@link CosmicMutationIndex} containing all records in the given table.
+     */
+    static CosmicMutationIndex create(final Connection dbConnection,
+                                      final String tableName,
+                                      final String geneNameColumn,
+                                      final String genomePositionColumn,
+                                      final String proteinChangeColumn) {
+        Utils.nonNull(dbConnection);
+
+        final String query = "SELECT \"" + geneNameColumn + "\", \"" + genomePositionColumn + "\", \"" + proteinChangeColumn + "\" FROM " + tableName + ";";
+
+        final Map<String, List<Mutation>> mutationLists = new HashMap<>();
+        final Map<String, String> canonicalStrings = new HashMap<>();
+        final Map<String, SimpleInterval> genomePositionCache = new HashMap<>();
+        int numMutations = 0;
+
+        try ( final Statement statement = dbConnection.createStatement();
+              final ResultSet resultSet = statement.executeQuery(query) ) {
+            while ( resultSet.next() ) {
+                final String geneName = resultSet.getString(1);
+                if ( geneName == null ) {
+                    // Records without a gene name can never be matched:
+                    continue;
+                }
+
+                mutationLists.computeIfAbsent(canonicalize(geneName, canonicalStrings), g -> new ArrayList<>())
+                        .add(createMutation(resultSet.getString(2), resultSet.getString(3), canonicalStrings, genomePositionCache));
+                ++numMutations;
+            }
+        }
+        catch (final SQLException ex) {
+            throw new GATKException("Unable to read COSMIC records from table: " + tableName, ex);
+        }
+
+        final Map<String, Mutation[]> mutationsByGene = new HashMap<>(mutationLists.size() * 2);
+        for ( final Map.Entry<String, List<Mutation>> entry : mutationLists.entrySet() ) {
+            mutationsByGene.put(entry.getKey(), entry.getValue().toArray(NO_MUTATIONS));
+        }
+        return new CosmicMutationIndex(mutationsByGene, numMutations);
+    }
+
+    /**
+     * Creates a {@link Mutation} from the raw values of its genome position and protein change.
+     * @param rawGenomePosition The genome position string in the database (may be {@code null}).
+     * @param rawProteinChange The protein change string in the database (may be {@code null}).
+     * @return A new {@link Mutation} for the given values.
+     */
+    static Mutation createMutation(final String rawGenomePosition, final String rawProteinChange) {
+        return createMutation(rawGenomePosition, rawProteinChange, null, null);
+    }
+
+    private static Mutation createMutation(final String rawGenomePosition,
+                                           final String rawProteinChange,
+                                           final Map<String, String> canonicalStrings,
+                                           final Map<String, SimpleInterval> genomePositionCache) {
+        final SimpleInterval genomePosition;
+        if ( rawGenomePosition == null ) {
+            genomePosition = null;
+        }
+        else if ( genomePositionCache == null ) {
+            genomePosition = CosmicFuncotationFactory.parseGenomePosition(rawGenomePosition);
+        }
+        else {
+            // Many records share a genome position, so we only keep one copy of each:
+            genomePosition = genomePositionCache.computeIfAbsent(rawGenomePosition, CosmicFuncotationFactory::parseGenomePosition);
+        }
+
+        final String proteinChange = (rawProteinChange == null) ? "" : canonicalize(rawProteinChange, canonicalStrings);
+
+        return new Mutation(genomePosition, CosmicFuncotationFactory.parseProteinString(proteinChange), proteinChange);
+    }
+
+    private static String canonicalize(final String s, final Map<String, String> canonicalStrings) {
+        return canonicalStrings == null ? s : canonicalStrings.computeIfAbsent(s, x -> x);
+    }
+
+    /**
+     * @param geneName The name of the gene for which to get mutations.
+     * @return The mutations in the given gene, in the order they occur in the database.  Never {@code null}.
+     */
+    List<Mutation> getMutations(final String geneName) {
+        final Mutation[] mutations = mutationsByGene.get(geneName);
+        return mutations == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(mutations));
+    }
+
+    /**
+     * @return The number of genes in this index.
+     */
+    int getNumGenes() {
+        return mutationsByGene.size();
+    }
+
+    /**
+     * @return The number of mutations in this index.
+     */
+    int getNumMutations() {
+        return numMutations;
+    }
+}
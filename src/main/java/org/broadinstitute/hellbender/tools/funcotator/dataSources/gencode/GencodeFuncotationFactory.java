@@ -17,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.engine.FeatureInput;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.engine.SynchronizedReferenceDataSource;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.copynumber.utils.annotatedinterval.AnnotatedInterval;
@@ -40,6 +41,7 @@ import org.sqlite.util.StringUtils;
 
 import java.io.File;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -72,6 +74,10 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     private static final String LOCAL_GENCODE_TRANSCRIPT_TMP_DIR_PREFIX = "localGencodeTranscriptFastaFolder";
     private static final String LOCAL_GENCODE_TRANSCRIPT_FILE_BASE_NAME = "gencodeTranscriptFastaFile";
 
+    /** Patterns for the UTR and CDS fields in the sequence names of a GENCODE transcript FASTA file. */
+    private static final Pattern UTR_PATTERN = Pattern.compile("UTR[35]:(\\d+)-(\\d+)");
+    private static final Pattern CDS_PATTERN = Pattern.compile("CDS:(\\d+)-(\\d+)");
+
     /**
      * The window around splice sites to mark variants as {@link org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotation.VariantClassification#SPLICE_SITE}.
      */
@@ -187,7 +193,8 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     private final String name;
 
     /**
-     * ReferenceSequenceFile for the transcript reference file.
+     * ReferenceSequenceFile for the transcript reference file (or a view of its compiled {@link GencodeTranscriptIndex}).
+     * Queries are thread-safe so that this factory can annotate variants on several threads at once.
      */
     private final ReferenceDataSource transcriptFastaReferenceDataSource;
 
@@ -215,6 +222,7 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
     /**
      * The {@link Path} from which we will read the sequences for the coding regions in given transcripts.
+     * This is either the transcript FASTA file or its compiled {@link GencodeTranscriptIndex}.
      */
     private final Path gencodeTranscriptFastaFile;
 
@@ -322,14 +330,29 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
 
         super(mainFeatureInput);
 
-        // Set up our local transcript fasta file.
-        // We must localize it (if not on disk) to make read times fast enough to be manageable:
-        gencodeTranscriptFastaFile = localizeGencodeTranscriptFastaFile( gencodeTranscriptFastaFilePath );
         this.flankSettings = flankSettings;
 
-        // Initialize our transcript data source and ID map:
-        transcriptFastaReferenceDataSource = ReferenceDataSource.of(gencodeTranscriptFastaFile);
-        transcriptIdMap = createTranscriptIdMap(transcriptFastaReferenceDataSource);
+        // Initialize our transcript data source and ID map.
+        // If the transcript FASTA file has been compiled into a GencodeTranscriptIndex we map that instead of reading
+        // the FASTA file, which avoids parsing every transcript name up front, unless the FASTA file has changed since.
+        // Either way we must localize the file (if not on disk) to make read times fast enough to be manageable:
+        final Path gencodeTranscriptIndexPath = GencodeTranscriptIndex.getIndexPath(gencodeTranscriptFastaFilePath);
+        Path localGencodeTranscriptIndexPath = null;
+        GencodeTranscriptIndex transcriptIndex = null;
+        if ( Files.exists(gencodeTranscriptIndexPath) ) {
+            localGencodeTranscriptIndexPath = localizeGencodeTranscriptIndexFile( gencodeTranscriptIndexPath );
+            transcriptIndex = GencodeTranscriptIndex.open(localGencodeTranscriptIndexPath, gencodeTranscriptFastaFilePath);
+        }
+        if ( transcriptIndex != null ) {
+            gencodeTranscriptFastaFile = localGencodeTranscriptIndexPath;
+            transcriptFastaReferenceDataSource = transcriptIndex.getReferenceDataSource();
+            transcriptIdMap = transcriptIndex.getTranscriptIdMap();
+        }
+        else {
+            gencodeTranscriptFastaFile = localizeGencodeTranscriptFastaFile( gencodeTranscriptFastaFilePath );
+            transcriptFastaReferenceDataSource = new SynchronizedReferenceDataSource(ReferenceDataSource.of(gencodeTranscriptFastaFile));
+            transcriptIdMap = createTranscriptIdMap(transcriptFastaReferenceDataSource);
+        }
 
         this.transcriptSelectionMode = transcriptSelectionMode;
 
@@ -362,6 +385,25 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
         initializeAnnotationOverrides( annotationOverrides );
     }
 
+    private Path localizeGencodeTranscriptIndexFile( final Path gencodeTranscriptIndexPath ) {
+
+        // Is the path local or in the cloud:
+        if ( gencodeTranscriptIndexPath.getFileSystem().equals(FileSystems.getDefault()) ) {
+            // local path, just return it:
+            return gencodeTranscriptIndexPath;
+        }
+
+        // Not a local path!  We must localize it so that it can be memory-mapped:
+        final File tmpDir = IOUtils.createTempDir(LOCAL_GENCODE_TRANSCRIPT_TMP_DIR_PREFIX);
+        tmpDir.deleteOnExit();
+        final Path localGencodeTranscriptIndexPath = tmpDir.toPath().resolve(LOCAL_GENCODE_TRANSCRIPT_FILE_BASE_NAME + ".fa" + GencodeTranscriptIndex.FILE_EXTENSION);
+
+        logger.info("Localizing Gencode transcript index file for faster lookup times...");
+        NioFileCopierWithProgressMeter.create(gencodeTranscriptIndexPath, localGencodeTranscriptIndexPath, true).initiateCopy();
+
+        return localGencodeTranscriptIndexPath;
+    }
+
     private Path localizeGencodeTranscriptFastaFile( final Path gencodeTranscriptFastaFilePath ) {
 
         // Is the path local or in the cloud:
@@ -634,32 +676,29 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
      * @param sequence The {@link SAMSequenceRecord} from which to create the {@link MappedTranscriptIdInfo}.
      * @return A populated {@link MappedTranscriptIdInfo} object based on the given {@link SAMSequenceRecord}.
      */
-    private static MappedTranscriptIdInfo createMappedTranscriptIdInfo( final SAMSequenceRecord sequence ) {
+    static MappedTranscriptIdInfo createMappedTranscriptIdInfo( final SAMSequenceRecord sequence ) {
 
         final MappedTranscriptIdInfo transcriptIdInfo = new MappedTranscriptIdInfo();
 
-        final Pattern utrPattern = Pattern.compile("UTR[35]:(\\d+)-(\\d+)");
-        final Pattern cdsPattern = Pattern.compile("CDS:(\\d+)-(\\d+)");
-
         boolean has3pUtr = false;
         boolean has5pUtr = false;
 
         // Now let's go through the sequence name and pull out the salient features for each field:
         for (final String field : Utils.split(sequence.getSequenceName(), "|")) {
             if ((field.length() > 4) && (field.substring(0, 5).equals("UTR5:"))) {
-                final Matcher m = utrPattern.matcher(field);
+                final Matcher m = UTR_PATTERN.matcher(field);
                 m.find();
                 transcriptIdInfo.fivePrimeUtrStart = Integer.valueOf(m.group(1));
                 transcriptIdInfo.fivePrimeUtrEnd = Integer.valueOf(m.group(2));
                 has5pUtr = true;
             } else if ((field.length() > 4) && (field.substring(0, 5).equals("UTR3:"))) {
-                final Matcher m = utrPattern.matcher(field);
+                final Matcher m = UTR_PATTERN.matcher(field);
                 m.find();
                 transcriptIdInfo.threePrimeUtrStart = Integer.valueOf(m.group(1));
                 transcriptIdInfo.threePrimeUtrEnd = Integer.valueOf(m.group(2));
                 has3pUtr = true;
             } else if ((field.length() > 3) && (field.substring(0, 4).equals("CDS:"))) {
-                final Matcher m = cdsPattern.matcher(field);
+                final Matcher m = CDS_PATTERN.matcher(field);
                 m.find();
                 transcriptIdInfo.codingSequenceStart = Integer.valueOf(m.group(1));
                 transcriptIdInfo.codingSequenceEnd = Integer.valueOf(m.group(2));
@@ -2848,6 +2887,25 @@ public class GencodeFuncotationFactory extends DataSourceFuncotationFactory {
     }
 
 
+    /**
+     * {@inheritDoc}
+     * All state used for annotation is either immutable after construction or synchronized.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Transcript funcotations depend only on the site and alleles of the variant, the transcripts overlapping it, and
+     * the reference around it.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public boolean isSupportingSegmentFuncotation() {
         return isSegmentFuncotationEnabled;
@@ -0,0 +1,496 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequence;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.reference.ReferenceUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * A compiled, memory-mapped index of a GENCODE transcript FASTA file.
+ *
+ * Opening a transcript FASTA with a {@link ReferenceDataSource} requires reading its whole sequence dictionary, and
+ * {@link GencodeFuncotationFactory#createTranscriptIdMap} then parses every sequence name into a
+ * {@link GencodeFuncotationFactory.MappedTranscriptIdInfo}.  This index is created once from the FASTA file (see
+ * {@link org.broadinstitute.hellbender.tools.funcotator.IndexGencodeTranscriptFasta}) and stores the parsed
+ * transcript metadata, sorted lookup tables, and the transcript bases in a single binary file.  Opening it only maps
+ * the file, and each lookup reads just the pages it needs, so both startup time and heap use are independent of the
+ * size of the data source.
+ *
+ * The file is laid out as follows (all integers are big-endian):
+ * <pre>
+ *     header:         magic, version, sequence count, ID count, string pool offset, bases offset,
+ *                     FASTA file size (long), CRC32 of the FASTA index (.fai) file
+ *     sequence table: for each sequence in FASTA order: name offset, name length, bases offset, length,
+ *                     CDS start, CDS end, 5' UTR start, 5' UTR end, 3' UTR start, 3' UTR end, UTR flags
+ *     ID table:       for each transcript ID in sorted order: ID offset, ID length, sequence index
+ *     name table:     the index of each sequence, sorted by sequence name
+ *     string pool:    sequence names and transcript IDs (ASCII)
+ *     bases:          the bases of every sequence, one byte per base, as returned by {@link ReferenceDataSource}
+ * </pre>
+ * The FASTA file size and FASTA index checksum identify the FASTA file the index was created from, so that an index
+ * left behind when its FASTA file is replaced is not used (see {@link #open}).  Only changes to the sequence names or
+ * lengths are detected this way.  Modification times are not used because they change whenever a data source is
+ * copied or localized.
+ *
+ * Instances are immutable and safe to query from multiple threads.
+ */
+public final class GencodeTranscriptIndex {
+    private static final Logger logger = LogManager.getLogger(GencodeTranscriptIndex.class);
+
+    /**
+     * Extension appended to the transcript FASTA path to get the path of its compiled index.
+     */
+    public static final String FILE_EXTENSION = ".gti";
+
+    private static final int MAGIC_NUMBER = 0x47544958;  // "GTIX"
+    private static final int VERSION = 1;
+
+    private static final int FASTA_SIZE_OFFSET = 6 * Integer.BYTES;
+    private static final int FASTA_INDEX_CHECKSUM_OFFSET = FASTA_SIZE_OFFSET + Long.BYTES;
+    private static final int HEADER_SIZE = FASTA_INDEX_CHECKSUM_OFFSET + Integer.BYTES;
+    private static final int SEQUENCE_ENTRY_SIZE = 11 * Integer.BYTES;
+    private static final int ID_ENTRY_SIZE = 3 * Integer.BYTES;
+
+    private static final int HAS_5P_UTR_FLAG = 1;
+    private static final int HAS_3P_UTR_FLAG = 2;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int numSequences;
+    private final int numIds;
+    private final int sequenceTableOffset;
+    private final int idTableOffset;
+    private final int nameTableOffset;
+
+    // built on first use, since it has an entry for every transcript
+    private SAMSequenceDictionary sequenceDictionary = null;
+
+    private GencodeTranscriptIndex(final Path path, final ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if ( buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC_NUMBER ) {
+            throw new UserException.MalformedFile(path, "not a GENCODE transcript index (bad magic number)");
+        }
+        if ( buffer.getInt(Integer.BYTES) != VERSION ) {
+            throw new UserException.MalformedFile(path, "unsupported GENCODE transcript index version " + buffer.getInt(Integer.BYTES));
+        }
+        numSequences = buffer.getInt(2 * Integer.BYTES);
+        numIds = buffer.getInt(3 * Integer.BYTES);
+        sequenceTableOffset = HEADER_SIZE;
+        idTableOffset = sequenceTableOffset + numSequences * SEQUENCE_ENTRY_SIZE;
+        nameTableOffset = idTableOffset + numIds * ID_ENTRY_SIZE;
+    }
+
+    /**
+     * @param transcriptFastaPath {@link Path} to a GENCODE transcript FASTA file.
+     * @return The {@link Path} at which the compiled index of the given FASTA file is expected.
+     */
+    public static Path getIndexPath(final Path transcriptFastaPath) {
+        Utils.nonNull(transcriptFastaPath);
+        return transcriptFastaPath.resolveSibling(transcriptFastaPath.getFileName().toString() + FILE_EXTENSION);
+    }
+
+    /**
+     * Memory-maps a compiled transcript index, if it was created from the given FASTA file as it is now.
+     * @param indexPath {@link Path} to an index written by {@link #write}.  Must be on a filesystem that supports {@link FileChannel#map}.
+     * @param transcriptFastaPath {@link Path} to the GENCODE transcript FASTA file that the index is expected to match.
+     * @return The opened {@link GencodeTranscriptIndex}, or {@code null} (after logging a warning) if the FASTA file
+     * has changed since the index was created, or cannot be read, and so the FASTA file should be used instead.
+     */
+    public static GencodeTranscriptIndex open(final Path indexPath, final Path transcriptFastaPath) {
+        Utils.nonNull(indexPath);
+        Utils.nonNull(transcriptFastaPath);
+        final GencodeTranscriptIndex index;
+        try ( final FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ) ) {
+            if ( channel.size() > Integer.MAX_VALUE ) {
+                throw new UserException.MalformedFile(indexPath, "GENCODE transcript index is too large to map");
+            }
+            index = new GencodeTranscriptIndex(indexPath, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotReadInputFile(indexPath, "could not memory-map GENCODE transcript index", ex);
+        }
+
+        try {
+            if ( index.buffer.getLong(FASTA_SIZE_OFFSET) != Files.size(transcriptFastaPath) ||
+                    index.buffer.getInt(FASTA_INDEX_CHECKSUM_OFFSET) != computeFastaIndexChecksum(transcriptFastaPath) ) {
+                logger.warn("The GENCODE transcript index for " + transcriptFastaPath.toUri() + " was created from a different " +
+                        "version of that file and will not be used.  Re-create it with IndexGencodeTranscriptFasta for faster loading.");
+                return null;
+            }
+        }
+        catch (final IOException ex) {
+            logger.warn("Could not check that the GENCODE transcript index for " + transcriptFastaPath.toUri() +
+                    " matches that file, so it will not be used: " + ex.getMessage());
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * @return A CRC32 checksum of the FASTA index (.fai) file of the given FASTA file.
+     */
+    private static int computeFastaIndexChecksum(final Path fastaPath) throws IOException {
+        final CRC32 checksum = new CRC32();
+        checksum.update(Files.readAllBytes(IOUtils.getPath(ReferenceUtils.getFastaIndexFileName(fastaPath.toUri().toString()))));
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * Compiles the given GENCODE transcript FASTA file into an index.
+     * @param transcriptFastaPath {@link Path} to a GENCODE transcript FASTA file with a FASTA index and a sequence dictionary.  Must not be {@code null}.
+     * @param indexPath {@link Path} to which to write the index.  Must not be {@code null}.
+     */
+    public static void write(final Path transcriptFastaPath, final Path indexPath) {
+        Utils.nonNull(transcriptFastaPath);
+        Utils.nonNull(indexPath);
+
+        final long fastaSize;
+        final int fastaIndexChecksum;
+        try {
+            fastaSize = Files.size(transcriptFastaPath);
+            fastaIndexChecksum = computeFastaIndexChecksum(transcriptFastaPath);
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotReadInputFile(transcriptFastaPath, "could not read GENCODE transcript FASTA file or its index", ex);
+        }
+
+        try ( final ReferenceDataSource transcriptFasta = ReferenceDataSource.of(transcriptFastaPath) ) {
+            write(transcriptFasta, fastaSize, fastaIndexChecksum, indexPath);
+        }
+    }
+
+    private static void write(final ReferenceDataSource transcriptFasta, final long fastaSize, final int fastaIndexChecksum, final Path indexPath) {
+        final List<SAMSequenceRecord> sequences = transcriptFasta.getSequenceDictionary().getSequences();
+        final int numSequences = sequences.size();
+
+        // Later sequences replace earlier ones with the same transcript ID, as in createTranscriptIdMap:
+        final SortedMap<String, Integer> sequenceIndexById = new TreeMap<>(GencodeTranscriptIndex::compareAscii);
+        final Integer[] sequencesByName = new Integer[numSequences];
+        for ( int i = 0; i < numSequences; i++ ) {
+            for ( final String transcriptId : Utils.split(sequences.get(i).getSequenceName(), "|") ) {
+                sequenceIndexById.put(transcriptId, i);
+            }
+            sequencesByName[i] = i;
+        }
+        Arrays.sort(sequencesByName, (a, b) -> compareAscii(sequences.get(a).getSequenceName(), sequences.get(b).getSequenceName()));
+
+        // Lay out the string pool:
+        final int stringPoolOffset = HEADER_SIZE + numSequences * SEQUENCE_ENTRY_SIZE + sequenceIndexById.size() * ID_ENTRY_SIZE + numSequences * Integer.BYTES;
+        long stringPoolSize = 0;
+        for ( final SAMSequenceRecord sequence : sequences ) {
+            stringPoolSize += sequence.getSequenceName().length();
+        }
+        for ( final String transcriptId : sequenceIndexById.keySet() ) {
+            stringPoolSize += transcriptId.length();
+        }
+        long basesSize = 0;
+        for ( final SAMSequenceRecord sequence : sequences ) {
+            basesSize += sequence.getSequenceLength();
+        }
+        final long basesOffset = stringPoolOffset + stringPoolSize;
+        if ( basesOffset + basesSize > Integer.MAX_VALUE ) {
+            throw new UserException.BadInput("GENCODE transcript FASTA is too large to index: " + (basesOffset + basesSize) + " bytes");
+        }
+
+        try ( final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath))) ) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(VERSION);
+            out.writeInt(numSequences);
+            out.writeInt(sequenceIndexById.size());
+            out.writeInt(stringPoolOffset);
+            out.writeInt((int) basesOffset);
+            out.writeLong(fastaSize);
+            out.writeInt(fastaIndexChecksum);
+
+            // Sequence table:
+            int nameOffset = stringPoolOffset;
+            int sequenceBasesOffset = (int) basesOffset;
+            for ( final SAMSequenceRecord sequence : sequences ) {
+                final GencodeFuncotationFactory.MappedTranscriptIdInfo info = GencodeFuncotationFactory.createMappedTranscriptIdInfo(sequence);
+                out.writeInt(nameOffset);
+                out.writeInt(sequence.getSequenceName().length());
+                out.writeInt(sequenceBasesOffset);
+                out.writeInt(sequence.getSequenceLength());
+                out.writeInt(info.codingSequenceStart);
+                out.writeInt(info.codingSequenceEnd);
+                out.writeInt(info.fivePrimeUtrStart);
+                out.writeInt(info.fivePrimeUtrEnd);
+                out.writeInt(info.threePrimeUtrStart);
+                out.writeInt(info.threePrimeUtrEnd);
+                out.writeInt((info.has5pUtr ? HAS_5P_UTR_FLAG : 0) | (info.has3pUtr ? HAS_3P_UTR_FLAG : 0));
+                nameOffset += sequence.getSequenceName().length();
+                sequenceBasesOffset += sequence.getSequenceLength();
+            }
+
+            // ID table:
+            int idOffset = nameOffset;
+            for ( final Map.Entry<String, Integer> entry : sequenceIndexById.entrySet() ) {
+                out.writeInt(idOffset);
+                out.writeInt(entry.getKey().length());
+                out.writeInt(entry.getValue());
+                idOffset += entry.getKey().length();
+            }
+
+            // Name table:
+            for ( final Integer sequenceIndex : sequencesByName ) {
+                out.writeInt(sequenceIndex);
+            }
+
+            // String pool:
+            for ( final SAMSequenceRecord sequence : sequences ) {
+                writeAscii(out, sequence.getSequenceName());
+            }
+            for ( final String transcriptId : sequenceIndexById.keySet() ) {
+                writeAscii(out, transcriptId);
+            }
+
+            // Bases:
+            for ( final SAMSequenceRecord sequence : sequences ) {
+                out.write(transcriptFasta.queryAndPrefetch(sequence.getSequenceName(), 1, sequence.getSequenceLength()).getBases());
+            }
+        }
+        catch (final IOException ex) {
+            throw new UserException.CouldNotCreateOutputFile(indexPath.toUri().toString(), "could not write GENCODE transcript index", ex);
+        }
+    }
+
+    private static void writeAscii(final OutputStream out, final String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Compares two strings by their (ASCII) bytes, which is the order of the tables in the index.
+     */
+    private static int compareAscii(final String a, final String b) {
+        final int length = Math.min(a.length(), b.length());
+        for ( int i = 0; i < length; i++ ) {
+            final int diff = (a.charAt(i) & 0xFF) - (b.charAt(i) & 0xFF);
+            if ( diff != 0 ) {
+                return diff;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Compares the string at the given offset in the index with the given string.
+     */
+    private int compareAt(final int offset, final int length, final String s) {
+        final int minLength = Math.min(length, s.length());
+        for ( int i = 0; i < minLength; i++ ) {
+            final int diff = (buffer.get(offset + i) & 0xFF) - (s.charAt(i) & 0xFF);
+            if ( diff != 0 ) {
+                return diff;
+            }
+        }
+        return length - s.length();
+    }
+
+    private String readAscii(final int offset, final int length) {
+        final byte[] bytes = new byte[length];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private int sequenceField(final int sequenceIndex, final int field) {
+        return buffer.getInt(sequenceTableOffset + sequenceIndex * SEQUENCE_ENTRY_SIZE + field * Integer.BYTES);
+    }
+
+    private String getSequenceName(final int sequenceIndex) {
+        return readAscii(sequenceField(sequenceIndex, 0), sequenceField(sequenceIndex, 1));
+    }
+
+    private int getSequenceLength(final int sequenceIndex) {
+        return sequenceField(sequenceIndex, 3);
+    }
+
+    /**
+     * @return The index of the sequence for the given transcript ID, or -1 if it is not in this index.
+     */
+    private int findSequenceForTranscriptId(final String transcriptId) {
+        int low = 0;
+        int high = numIds - 1;
+        while ( low <= high ) {
+            final int mid = (low + high) >>> 1;
+            final int entryOffset = idTableOffset + mid * ID_ENTRY_SIZE;
+            final int cmp = compareAt(buffer.getInt(entryOffset), buffer.getInt(entryOffset + Integer.BYTES), transcriptId);
+            if ( cmp < 0 ) {
+                low = mid + 1;
+            }
+            else if ( cmp > 0 ) {
+                high = mid - 1;
+            }
+            else {
+                return buffer.getInt(entryOffset + 2 * Integer.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index of the sequence with the given name, or -1 if it is not in this index.
+     */
+    private int findSequenceByName(final String sequenceName) {
+        int low = 0;
+        int high = numSequences - 1;
+        while ( low <= high ) {
+            final int mid = (low + high) >>> 1;
+            final int sequenceIndex = buffer.getInt(nameTableOffset + mid * Integer.BYTES);
+            final int cmp = compareAt(sequenceField(sequenceIndex, 0), sequenceField(sequenceIndex, 1), sequenceName);
+            if ( cmp < 0 ) {
+                low = mid + 1;
+            }
+            else if ( cmp > 0 ) {
+                high = mid - 1;
+            }
+            else {
+                return sequenceIndex;
+            }
+        }
+        return -1;
+    }
+
+    private GencodeFuncotationFactory.MappedTranscriptIdInfo createMappedTranscriptIdInfo(final int sequenceIndex) {
+        final GencodeFuncotationFactory.MappedTranscriptIdInfo info = new GencodeFuncotationFactory.MappedTranscriptIdInfo();
+        info.mapKey = getSequenceName(sequenceIndex);
+        info.codingSequenceStart = sequenceField(sequenceIndex, 4);
+        info.codingSequenceEnd = sequenceField(sequenceIndex, 5);
+        info.fivePrimeUtrStart = sequenceField(sequenceIndex, 6);
+        info.fivePrimeUtrEnd = sequenceField(sequenceIndex, 7);
+        info.threePrimeUtrStart = sequenceField(sequenceIndex, 8);
+        info.threePrimeUtrEnd = sequenceField(sequenceIndex, 9);
+        final int flags = sequenceField(sequenceIndex, 10);
+        info.has5pUtr = (flags & HAS_5P_UTR_FLAG) != 0;
+        info.has3pUtr = (flags & HAS_3P_UTR_FLAG) != 0;
+        return info;
+    }
+
+    /**
+     * @return A read-only {@link Map} from transcript ID to {@link GencodeFuncotationFactory.MappedTranscriptIdInfo}
+     * with the same contents as {@link GencodeFuncotationFactory#createTranscriptIdMap} would create for the indexed
+     * FASTA file.  Values are decoded from the index on each lookup.
+     */
+    Map<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> getTranscriptIdMap() {
+        return new AbstractMap<String, GencodeFuncotationFactory.MappedTranscriptIdInfo>() {
+            @Override
+            public GencodeFuncotationFactory.MappedTranscriptIdInfo get(final Object key) {
+                if ( !(key instanceof String) ) {
+                    return null;
+                }
+                final int sequenceIndex = findSequenceForTranscriptId((String) key);
+                return sequenceIndex < 0 ? null : createMappedTranscriptIdInfo(sequenceIndex);
+            }
+
+            @Override
+            public boolean containsKey(final Object key) {
+                return (key instanceof String) && findSequenceForTranscriptId((String) key) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return numIds;
+            }
+
+            @Override
+            public Set<Entry<String, GencodeFuncotationFactory.MappedTranscriptIdInfo>> entrySet() {
+                return new AbstractSet<Entry<String, GencodeFuncotationFactory.MappedTranscriptIdInfo>>() {
+                    @Override
+                    public Iterator<Entry<String, GencodeFuncotationFactory.MappedTranscriptIdInfo>> iterator() {
+                        return new Iterator<Entry<String, GencodeFuncotationFactory.MappedTranscriptIdInfo>>() {
+                            private int next = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < numIds;
+                            }
+
+                            @Override
+                            public Entry<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> next() {
+                                if ( !hasNext() ) {
+                                    throw new NoSuchElementException();
+                                }
+                                final int entryOffset = idTableOffset + (next++) * ID_ENTRY_SIZE;
+                                return new SimpleImmutableEntry<>(
+                                        readAscii(buffer.getInt(entryOffset), buffer.getInt(entryOffset + Integer.BYTES)),
+                                        createMappedTranscriptIdInfo(buffer.getInt(entryOffset + 2 * Integer.BYTES)));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return numIds;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return A {@link ReferenceDataSource} over the transcript sequences in this index, in which each contig is named
+     * by its full FASTA sequence name (i.e. the {@link GencodeFuncotationFactory.MappedTranscriptIdInfo#mapKey}).
+     */
+    ReferenceDataSource getReferenceDataSource() {
+        return new ReferenceDataSource() {
+            @Override
+            public ReferenceSequence queryAndPrefetch(final String contig, final long start, final long stop) {
+                final int sequenceIndex = findSequenceByName(contig);
+                if ( sequenceIndex < 0 ) {
+                    throw new UserException.MissingContigInSequenceDictionary(contig, getSequenceDictionary());
+                }
+                if ( start < 1 || stop < start - 1 || stop > getSequenceLength(sequenceIndex) ) {
+                    throw new UserException.BadInput("Query " + contig + ":" + start + "-" + stop +
+                            " is outside of the transcript (length " + getSequenceLength(sequenceIndex) + ") in " + path.toUri());
+                }
+                final byte[] bases = new byte[(int) (stop - start + 1)];
+                final ByteBuffer view = buffer.duplicate();
+                view.position(sequenceField(sequenceIndex, 2) + (int) (start - 1));
+                view.get(bases);
+                return new ReferenceSequence(contig, sequenceIndex, bases);
+            }
+
+            @Override
+            public Iterator<Byte> iterator() {
+                throw new UnsupportedOperationException("Iteration over entire GENCODE transcript index is not supported");
+            }
+
+            @Override
+            public SAMSequenceDictionary getSequenceDictionary() {
+                return GencodeTranscriptIndex.this.getSequenceDictionary();
+            }
+        };
+    }
+
+    private synchronized SAMSequenceDictionary getSequenceDictionary() {
+        if ( sequenceDictionary == null ) {
+            final List<SAMSequenceRecord> records = new ArrayList<>(numSequences);
+            for ( int i = 0; i < numSequences; i++ ) {
+                records.add(new SAMSequenceRecord(getSequenceName(i), getSequenceLength(i)));
+            }
+            sequenceDictionary = new SAMSequenceDictionary(records);
+        }
+        return sequenceDictionary;
+    }
+}
@@ -5,7 +5,6 @@ import htsjdk.tribble.Feature;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.*;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
@@ -73,11 +72,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
      */
     private final FuncotationMetadata supportedFieldMetadata;
 
-    /**
-     * Cache for speed.  Please note that the cache is done on the reference.
-     */
-    private final LRUCache<Triple<VariantContext, ReferenceContext, List<Feature>>, List<Funcotation>> cache = new LRUCache<>();
-
     /**
      * If the VCF has multiple lines with the same position, ref, and alt.
      */
@@ -95,11 +89,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
      */
     private static final String FILTER_FIELD_NAME = "FILTER";
 
-    @VisibleForTesting
-    int cacheHits = 0;
-    @VisibleForTesting
-    int cacheMisses = 0;
-
     //==================================================================================================================
     // Constructors:
 
@@ -235,6 +224,11 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
         return FuncotatorArgumentDefinitions.DataSourceType.VCF;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public LinkedHashSet<String> getSupportedFuncotationFields() {
         return supportedFieldNames;
@@ -262,14 +256,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
 
         final List<Funcotation> outputFuncotations = new ArrayList<>();
 
-        // TODO: Caching logic can be refactored and shared in other funcotation factories:  https://github.com/broadinstitute/gatk/issues/4974
-        final Triple<VariantContext, ReferenceContext, List<Feature>> cacheKey = createCacheKey(variant, referenceContext, featureList);
-        final List<Funcotation> cacheResult = cache.get(cacheKey);
-        if (cacheResult != null) {
-            cacheHits++;
-            return cacheResult;
-        }
-
         // Only create annotations if we have data to annotate:
         if ( supportedFieldNames.size() != 0 ) {
 
@@ -315,9 +301,6 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
             }
             variant.getAlternateAlleles().forEach(a -> outputFuncotations.add(outputOrderedMap.computeIfAbsent(a, allele -> createDefaultFuncotation(allele))));
         }
-        cacheMisses++;
-        cache.put(cacheKey, outputFuncotations);
-
         // The output number of funcotations should equal to the variant.getAlternateAlleles().size()
         return outputFuncotations;
     }
@@ -511,31 +494,4 @@ public class VcfFuncotationFactory extends DataSourceFuncotationFactory {
     static String createFinalFieldName(final String funcotationFactoryName, final String fieldName) {
         return funcotationFactoryName + "_" + fieldName;
     }
-
-    private Triple<VariantContext, ReferenceContext, List<Feature>> createCacheKey(final VariantContext variant, final ReferenceContext referenceContext, final List<Feature> featureList) {
-        return Triple.of(variant, referenceContext, featureList);
-    }
-
-    @Override
-    public void close() {
-        logger.info(getName() + " " + getVersion() + " cache hits/total: " + cacheHits + "/" + (cacheMisses + cacheHits));
-    }
-
-    //==================================================================================================================
-    // Helper Data Types:
-
-    // Modifed from https://docs.oracle.com/javase/7/docs/api/java/util/LinkedHashMap.html#removeEldestEntry(java.util.Map.Entry)
-    class LRUCache<K, V> extends LinkedHashMap<K, V> {
-        static final long serialVersionUID = 55337L;
-        @VisibleForTesting
-        static final int MAX_ENTRIES = 20;
-        public LRUCache() {
-            super(MAX_ENTRIES);
-        }
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-            return size() > MAX_ENTRIES;
-        }
-    }
 }
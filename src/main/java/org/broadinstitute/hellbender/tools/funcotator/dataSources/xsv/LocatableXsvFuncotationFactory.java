@@ -190,6 +190,11 @@ public class LocatableXsvFuncotationFactory extends DataSourceFuncotationFactory
         return FuncotatorArgumentDefinitions.DataSourceType.LOCATABLE_XSV;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     //==================================================================================================================
     // Static Methods:
 
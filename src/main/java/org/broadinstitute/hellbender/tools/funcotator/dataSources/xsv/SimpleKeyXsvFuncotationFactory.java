@@ -187,6 +187,13 @@ public class SimpleKeyXsvFuncotationFactory extends DataSourceFuncotationFactory
     @VisibleForTesting
     public boolean requiresFeatures() { return false; }
 
+    /**
+     * {@inheritDoc}
+     * The annotation table is read into memory at construction and is never modified afterwards.
+     */
+    @Override
+    public boolean isThreadSafe() { return true; }
+
     @Override
     public LinkedHashSet<String> getSupportedFuncotationFields() {
         return new LinkedHashSet<>(annotationColumnNames);
@@ -0,0 +1,118 @@
+package org.broadinstitute.hellbender.tools.spark.pathseq;
+
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Read-only copy of a {@link PSTree} flattened into primitive arrays for scoring.
+ * <p>
+ * Each node is assigned an index in [0, size()), in ascending order of taxonomic ID. Parent pointers, depths, and
+ * reference lengths are stored in arrays indexed by node, so that paths to the root and lowest common ancestors can
+ * be found without boxing or hash lookups. Node names and ranks are not copied; use the original tree for output.
+ */
+public final class PSFlatTree {
+
+    public static final int NO_NODE = -1;
+
+    private final int[] taxIds; //Sorted ascending
+    private final int[] parents; //Index of each node's parent, or NO_NODE for a root
+    private final int[] depths; //Number of edges from each node to its root
+    private final long[] lengths; //Reference length of each node
+
+    public PSFlatTree(final PSTree tree) {
+        Utils.nonNull(tree, "Cannot flatten null tree");
+        taxIds = tree.getNodeIDs().stream().mapToInt(Integer::intValue).sorted().toArray();
+        parents = new int[taxIds.length];
+        lengths = new long[taxIds.length];
+        for (int i = 0; i < taxIds.length; i++) {
+            final int parentId = tree.getParentOf(taxIds[i]);
+            if (parentId == PSTree.NULL_NODE) {
+                parents[i] = NO_NODE;
+            } else {
+                parents[i] = indexOf(parentId);
+                if (parents[i] == NO_NODE) {
+                    throw new UserException.BadInput("Parent node " + parentId + " not found in tree while flattening");
+                }
+            }
+            lengths[i] = tree.getLengthOf(taxIds[i]);
+        }
+        depths = computeDepths(taxIds, parents);
+    }
+
+    /**
+     * Depths are computed iteratively from the nearest node with a known depth, so each node is visited a constant
+     * number of times. Throws if the tree contains a cycle.
+     */
+    private static int[] computeDepths(final int[] taxIds, final int[] parents) {
+        final int[] depths = new int[parents.length];
+        Arrays.fill(depths, NO_NODE);
+        final int[] stack = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            int stackSize = 0;
+            int node = i;
+            while (node != NO_NODE && depths[node] == NO_NODE) {
+                if (stackSize == stack.length) {
+                    throw new UserException.BadInput("The tree contains a cycle at node " + taxIds[node]);
+                }
+                stack[stackSize++] = node;
+                node = parents[node];
+            }
+            int depth = node == NO_NODE ? -1 : depths[node];
+            while (stackSize > 0) {
+                depths[stack[--stackSize]] = ++depth;
+            }
+        }
+        return depths;
+    }
+
+    public int size() {
+        return taxIds.length;
+    }
+
+    /**
+     * Returns the index of the node with the given taxonomic ID, or {@link #NO_NODE} if it is not in the tree
+     */
+    public int indexOf(final int taxId) {
+        final int index = Arrays.binarySearch(taxIds, taxId);
+        return index < 0 ? NO_NODE : index;
+    }
+
+    public int getTaxIdAt(final int index) {
+        return taxIds[index];
+    }
+
+    /**
+     * Returns the index of the parent of the node at the given index, or {@link #NO_NODE} if it is a root
+     */
+    public int getParentAt(final int index) {
+        return parents[index];
+    }
+
+    public long getLengthAt(final int index) {
+        return lengths[index];
+    }
+
+    /**
+     * Returns the index of the lowest common ancestor of the nodes at the two given indices
+     */
+    public int getLCA(final int first, final int second) {
+        int a = first;
+        int b = second;
+        while (depths[a] > depths[b]) {
+            a = parents[a];
+        }
+        while (depths[b] > depths[a]) {
+            b = parents[b];
+        }
+        while (a != b) {
+            a = parents[a];
+            b = parents[b];
+            if (a == NO_NODE || b == NO_NODE) {
+                throw new UserException.BadInput("Nodes " + taxIds[first] + " and " + taxIds[second] + " do not have a common ancestor");
+            }
+        }
+        return a;
+    }
+}
@@ -5,12 +5,10 @@ import com.esotericsoftware.kryo.io.Input;
 import htsjdk.samtools.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.broadcast.Broadcast;
 import org.broadinstitute.hellbender.exceptions.UserException;
-import org.broadinstitute.hellbender.tools.spark.sv.utils.SVUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -61,14 +59,18 @@ public final class PSScorer {
         //Get the original reads, now with their pathseq hit tags set
         final JavaRDD<GATKRead> readsFinal = flattenIterableKeys(readHits);
 
-        //Compute taxonomic scores from the alignment hits
+        //Compute taxonomic scores from the alignment hits into one array-based accumulator per partition
         final JavaRDD<PSPathogenAlignmentHit> alignmentHits = readHits.map(Tuple2::_2);
         final boolean divideByGenomeLength = scoreArgs.divideByGenomeLength; //To prevent serialization of PSScorer
-        final JavaPairRDD<Integer, PSPathogenTaxonScore> taxScoresRdd = alignmentHits
-                .mapPartitionsToPair(iter -> computeTaxScores(iter, taxonomyDatabaseBroadcast.value(), divideByGenomeLength));
-
-        //Reduce scores by taxon and compute normalized scores
-        Map<Integer, PSPathogenTaxonScore> taxScoresMap = new HashMap<>(taxScoresRdd.reduceByKey(PSPathogenTaxonScore::add).collectAsMap());
+        final PSFlatTree flatTree = new PSFlatTree(taxDB.tree);
+        final Broadcast<PSFlatTree> flatTreeBroadcast = ctx.broadcast(flatTree);
+        final PSTaxonScoreAccumulator taxScores = alignmentHits
+                .mapPartitions(iter -> Collections.singletonList(computeTaxScores(iter, flatTreeBroadcast.value(), divideByGenomeLength)).iterator())
+                .treeReduce(PSTaxonScoreAccumulator::merge);
+        flatTreeBroadcast.destroy();
+
+        //Compute normalized scores
+        Map<Integer, PSPathogenTaxonScore> taxScoresMap = taxScores.toScoreMap(flatTree);
         taxScoresMap = computeNormalizedScores(taxScoresMap, taxDB.tree, scoreArgs.notNormalizedByKingdom);
 
         //Write scores to file
@@ -283,58 +285,30 @@ public final class PSScorer {
     public static Iterator<Tuple2<Integer, PSPathogenTaxonScore>> computeTaxScores(final Iterator<PSPathogenAlignmentHit> taxonHits,
                                                                                   final PSTaxonomyDatabase taxonomyDatabase,
                                                                                   final boolean divideByGenomeLength) {
-        final PSTree tree = taxonomyDatabase.tree;
-        final Map<Integer, PSPathogenTaxonScore> taxIdsToScores = new HashMap<>();
+        final PSFlatTree tree = new PSFlatTree(taxonomyDatabase.tree);
+        return computeTaxScores(taxonHits, tree, divideByGenomeLength).toScoreMap(tree).entrySet().stream()
+                .map(entry -> new Tuple2<>(entry.getKey(), entry.getValue())).iterator();
+    }
+
+    /**
+     * Computes abundance scores of every node in the tree. Each read (pair) assigns an "unambiguous" count to the
+     * lowest common ancestor of its hits and that node's ancestors. It also assigns a score, divided by the number of
+     * hits and optionally by genome length, to each hit, which is added to the descendent scores of the hit's
+     * ancestors. The "reads" count of each node on the path of any hit is the upper bound on the number of reads that
+     * could belong to it.
+     */
+    static PSTaxonScoreAccumulator computeTaxScores(final Iterator<PSPathogenAlignmentHit> taxonHits,
+                                                    final PSFlatTree tree,
+                                                    final boolean divideByGenomeLength) {
+        final PSTaxonScoreAccumulator scores = new PSTaxonScoreAccumulator(tree.size());
         final Set<Integer> invalidIds = new HashSet<>();
         while (taxonHits.hasNext()) {
-            final PSPathogenAlignmentHit hit = taxonHits.next();
-            final Set<Integer> hitTaxIds = new HashSet<>(hit.taxIDs);
-            final Set<Integer> hitInvalidTaxIds = new HashSet<>(SVUtils.hashMapCapacity(hitTaxIds.size()));
-            for (final int taxId : hitTaxIds) {
-                if (!tree.hasNode(taxId) || tree.getLengthOf(taxId) == 0) hitInvalidTaxIds.add(taxId);
-            }
-            hitTaxIds.removeAll(hitInvalidTaxIds);
-            invalidIds.addAll(hitInvalidTaxIds);
-
-            //Number of genomes hit by this read and number of mates in the tuple (1 for single, 2 for pair)
-            final int numHits = hitTaxIds.size();
-            if (numHits == 0) continue;
-
-            //Unambiguous read scores for the lowest common ancestor and its ancestors
-            final int lowestCommonAncestor = tree.getLCA(hitTaxIds);
-            final List<Integer> lcaPath = tree.getPathOf(lowestCommonAncestor);
-            for (final int taxId : lcaPath) {
-                getOrAddScoreInfo(taxId, taxIdsToScores, tree).addUnambiguousReads(hit.numMates);
-            }
-
-            //Scores normalized by genome length and degree of ambiguity (number of hits)
-            final Set<Integer> hitPathNodes = new HashSet<>(); //Set of all unique hits and ancestors
-            for (final int taxId : hitTaxIds) {
-                double score = hit.numMates / (double) numHits;
-                if (divideByGenomeLength) score *= SCORE_GENOME_LENGTH_UNITS / tree.getLengthOf(taxId);
-                //Get list containing this node and its ancestors
-                final List<Integer> path = tree.getPathOf(taxId);
-                hitPathNodes.addAll(path);
-                for (final int pathTaxId : path) {
-                    final PSPathogenTaxonScore info = getOrAddScoreInfo(pathTaxId, taxIdsToScores, tree);
-                    if (pathTaxId == taxId) {
-                        info.addSelfScore(score);
-                    } else {
-                        info.addDescendentScore(score);
-                    }
-                    taxIdsToScores.put(pathTaxId, info);
-                }
-            }
-
-            //"reads" score is the number of reads that COULD belong to each node i.e. an upper-bound
-            for (final int taxId : hitPathNodes) {
-                getOrAddScoreInfo(taxId, taxIdsToScores, tree).addTotalReads(hit.numMates);
-            }
+            scores.addHit(taxonHits.next(), tree, divideByGenomeLength, invalidIds);
         }
         PSUtils.logItemizedWarning(logger, invalidIds, "The following taxonomic ID hits were ignored because " +
                 "they either could not be found in the tree or had a reference length of 0 (this may happen when " +
                 "the catalog file, taxdump file, and/or pathogen reference are inconsistent)");
-        return taxIdsToScores.entrySet().stream().map(entry -> new Tuple2<>(entry.getKey(), entry.getValue())).iterator();
+        return scores;
     }
 
     /**
@@ -398,23 +372,6 @@ public final class PSScorer {
         }
     }
 
-    /**
-     * Helper function for handling PSPathogenTaxonScore retrieval from the taxScores map
-     */
-    private static PSPathogenTaxonScore getOrAddScoreInfo(final int taxId,
-                                                          final Map<Integer, PSPathogenTaxonScore> taxScores,
-                                                          final PSTree tree) {
-        final PSPathogenTaxonScore score;
-        if (taxScores.containsKey(taxId)) {
-            score = taxScores.get(taxId);
-        } else {
-            score = new PSPathogenTaxonScore();
-            score.setReferenceLength(tree.getLengthOf(taxId));
-            taxScores.put(taxId, score);
-        }
-        return score;
-    }
-
     /**
      * Reads taxonomy database that has been serialized to a file
      */
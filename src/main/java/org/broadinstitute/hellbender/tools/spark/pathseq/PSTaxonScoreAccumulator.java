@@ -0,0 +1,142 @@
+package org.broadinstitute.hellbender.tools.spark.pathseq;
+
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accumulates the abundance scores of every node of a {@link PSFlatTree} in primitive arrays indexed by node.
+ * <p>
+ * One accumulator is filled per partition of alignment hits and the partitions are then combined with
+ * {@link #merge(PSTaxonScoreAccumulator)}, which avoids creating a {@link PSPathogenTaxonScore} and boxed key for
+ * every node touched by every partition. See {@link PSScorer#computeTaxScores} for the scoring scheme.
+ */
+public final class PSTaxonScoreAccumulator {
+
+    private final double[] selfScores;
+    private final double[] descendentScores;
+    private final int[] totalReads;
+    private final int[] unambiguousReads;
+
+    //Scratch space for de-duplicating nodes within a hit, not needed after scoring
+    private transient int[] visitStamps;
+    private transient int[] hitNodes;
+    private transient int stamp;
+
+    public PSTaxonScoreAccumulator(final int numNodes) {
+        Utils.validateArg(numNodes >= 0, "Number of nodes must be non-negative");
+        selfScores = new double[numNodes];
+        descendentScores = new double[numNodes];
+        totalReads = new int[numNodes];
+        unambiguousReads = new int[numNodes];
+    }
+
+    /**
+     * Adds the scores for a read or read pair. Tax IDs that are not in the tree or that have a reference length of 0
+     * are ignored and added to invalidIds.
+     */
+    public void addHit(final PSPathogenAlignmentHit hit, final PSFlatTree tree, final boolean divideByGenomeLength,
+                       final Set<Integer> invalidIds) {
+        Utils.validateArg(tree.size() == selfScores.length, "Tree does not match the size of the accumulator");
+        if (visitStamps == null) {
+            visitStamps = new int[selfScores.length];
+            hitNodes = new int[16];
+        }
+
+        //Find the unique valid hits
+        final int hitStamp = nextStamp();
+        int numHits = 0;
+        for (final int taxId : hit.taxIDs) {
+            final int node = tree.indexOf(taxId);
+            if (node == PSFlatTree.NO_NODE || tree.getLengthAt(node) == 0) {
+                invalidIds.add(taxId);
+            } else if (visitStamps[node] != hitStamp) {
+                visitStamps[node] = hitStamp;
+                if (numHits == hitNodes.length) {
+                    hitNodes = Arrays.copyOf(hitNodes, 2 * numHits);
+                }
+                hitNodes[numHits++] = node;
+            }
+        }
+
+        //Number of genomes hit by this read
+        if (numHits == 0) return;
+
+        //Unambiguous read scores for the lowest common ancestor and its ancestors
+        int lowestCommonAncestor = hitNodes[0];
+        for (int i = 1; i < numHits; i++) {
+            lowestCommonAncestor = tree.getLCA(lowestCommonAncestor, hitNodes[i]);
+        }
+        for (int node = lowestCommonAncestor; node != PSFlatTree.NO_NODE; node = tree.getParentAt(node)) {
+            unambiguousReads[node] += hit.numMates;
+        }
+
+        //Scores normalized by genome length and degree of ambiguity (number of hits). The "reads" score is the number
+        // of reads that COULD belong to each node, so it is added once to each unique node on the hits' paths.
+        final int pathStamp = nextStamp();
+        for (int i = 0; i < numHits; i++) {
+            final int hitNode = hitNodes[i];
+            double score = hit.numMates / (double) numHits;
+            if (divideByGenomeLength) score *= PSScorer.SCORE_GENOME_LENGTH_UNITS / tree.getLengthAt(hitNode);
+            selfScores[hitNode] += score;
+            for (int node = hitNode; node != PSFlatTree.NO_NODE; node = tree.getParentAt(node)) {
+                if (node != hitNode) {
+                    descendentScores[node] += score;
+                }
+                if (visitStamps[node] != pathStamp) {
+                    visitStamps[node] = pathStamp;
+                    totalReads[node] += hit.numMates;
+                }
+            }
+        }
+    }
+
+    private int nextStamp() {
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamps, 0);
+            stamp = 0;
+        }
+        return ++stamp;
+    }
+
+    /**
+     * Adds the scores of another accumulator to this one and returns this accumulator
+     */
+    public PSTaxonScoreAccumulator merge(final PSTaxonScoreAccumulator other) {
+        Utils.nonNull(other, "Cannot merge null accumulator");
+        if (other.selfScores.length != selfScores.length) {
+            throw new GATKException("Cannot merge score accumulators for trees of different sizes.");
+        }
+        for (int i = 0; i < selfScores.length; i++) {
+            selfScores[i] += other.selfScores[i];
+            descendentScores[i] += other.descendentScores[i];
+            totalReads[i] += other.totalReads[i];
+            unambiguousReads[i] += other.unambiguousReads[i];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the scores of every node that was on the path of at least one hit, keyed by taxonomic ID
+     */
+    public Map<Integer, PSPathogenTaxonScore> toScoreMap(final PSFlatTree tree) {
+        Utils.validateArg(tree.size() == selfScores.length, "Tree does not match the size of the accumulator");
+        final Map<Integer, PSPathogenTaxonScore> scores = new HashMap<>();
+        for (int i = 0; i < selfScores.length; i++) {
+            if (totalReads[i] > 0) {
+                final PSPathogenTaxonScore score = new PSPathogenTaxonScore();
+                score.setReferenceLength(tree.getLengthAt(i));
+                score.addSelfScore(selfScores[i]);
+                score.addDescendentScore(descendentScores[i]);
+                score.addTotalReads(totalReads[i]);
+                score.addUnambiguousReads(unambiguousReads[i]);
+                scores.put(tree.getTaxIdAt(i), score);
+            }
+        }
+        return scores;
+    }
+}
@@ -392,31 +392,49 @@ public final class AlignmentInterval {
 
     AlignmentInterval(final Kryo kryo, final Input input) {
         final String chr = input.readString();
-        final int refStart = input.readInt(),
-                refEnd = input.readInt();
+        final int refStart = input.readInt(true),
+                refEnd = input.readInt(true);
         referenceSpan = new SimpleInterval(chr, refStart, refEnd);
-        startInAssembledContig = input.readInt();
-        endInAssembledContig = input.readInt();
-        cigarAlong5to3DirectionOfContig = TextCigarCodec.decode(input.readString());
+        startInAssembledContig = input.readInt(true);
+        endInAssembledContig = input.readInt(true);
+        cigarAlong5to3DirectionOfContig = readCigar(input);
         forwardStrand = input.readBoolean();
-        mapQual = input.readInt();
-        mismatches = input.readInt();
-        alnScore = input.readInt();
-        alnModType = ContigAlignmentsModifier.AlnModType.values()[input.readInt()];
+        mapQual = input.readInt(false);
+        mismatches = input.readInt(false);
+        alnScore = input.readInt(false);
+        alnModType = ContigAlignmentsModifier.AlnModType.values()[input.readInt(true)];
     }
 
     void serialize(final Kryo kryo, final Output output) {
         output.writeString(referenceSpan.getContig());
-        output.writeInt(referenceSpan.getStart());
-        output.writeInt(referenceSpan.getEnd());
-        output.writeInt(startInAssembledContig);
-        output.writeInt(endInAssembledContig);
-        output.writeString(TextCigarCodec.encode(cigarAlong5to3DirectionOfContig));
+        output.writeInt(referenceSpan.getStart(), true);
+        output.writeInt(referenceSpan.getEnd(), true);
+        output.writeInt(startInAssembledContig, true);
+        output.writeInt(endInAssembledContig, true);
+        writeCigar(cigarAlong5to3DirectionOfContig, output);
         output.writeBoolean(forwardStrand);
-        output.writeInt(mapQual);
-        output.writeInt(mismatches);
-        output.writeInt(alnScore);
-        output.writeInt(alnModType.ordinal());
+        output.writeInt(mapQual, false);
+        output.writeInt(mismatches, false);
+        output.writeInt(alnScore, false);
+        output.writeInt(alnModType.ordinal(), true);
+    }
+
+    // cigars are written in the BAM binary encoding (length << 4 | op) as variable-length ints, rather than as text
+    private static void writeCigar(final Cigar cigar, final Output output) {
+        output.writeInt(cigar.numCigarElements(), true);
+        for (final CigarElement element : cigar.getCigarElements()) {
+            output.writeInt(element.getLength() << 4 | CigarOperator.enumToBinary(element.getOperator()), true);
+        }
+    }
+
+    private static Cigar readCigar(final Input input) {
+        final int numElements = input.readInt(true);
+        final List<CigarElement> elements = new ArrayList<>(numElements);
+        for (int i = 0; i < numElements; i++) {
+            final int encoded = input.readInt(true);
+            elements.add(new CigarElement(encoded >>> 4, CigarOperator.binaryToEnum(encoded & 0xf)));
+        }
+        return new Cigar(elements);
     }
 
     /**
@@ -7,8 +7,11 @@ import picard.cmdline.programgroups.VariantEvaluationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.VariantFieldSelection;
 import org.broadinstitute.hellbender.engine.VariantWalker;
 
+import java.util.Collections;
+
 /**
  *
  * Count variant records in a VCF file, regardless of filter status. The tool gives the count at end of the standard out.
@@ -38,6 +41,11 @@ public final class CountVariants extends VariantWalker {
             "Because it counts the number of rows in the VCF, it does not necessarily reflect the number of variant " +
             "alleles. The count is returned at the end of the standard out.";
 
+    @Override
+    protected VariantFieldSelection getDrivingVariantFieldSelection() {
+        return new VariantFieldSelection(Collections.emptySet(), null, Collections.emptySet());
+    }
+
     @Override
     public void apply( final VariantContext variant, final ReadsContext readsContext, final ReferenceContext referenceContext, final FeatureContext featureContext ) {
         count++;
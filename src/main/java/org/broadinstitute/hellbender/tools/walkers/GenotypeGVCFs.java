@@ -1,9 +1,13 @@
 package org.broadinstitute.hellbender.tools.walkers;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.util.Locatable;
 import htsjdk.samtools.util.OverlapDetector;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
@@ -13,8 +17,11 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.DbsnpArgumentCollection;
 import org.broadinstitute.hellbender.cmdline.programgroups.ShortVariantDiscoveryProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.engine.FeatureManager;
 import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
 import org.broadinstitute.hellbender.engine.VariantLocusWalker;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBImport;
 import org.broadinstitute.hellbender.tools.walkers.annotator.Annotation;
@@ -27,6 +34,10 @@ import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Perform joint genotyping on one or more samples pre-called with HaplotypeCaller
@@ -95,6 +106,9 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
     public static final String KEEP_COMBINED_LONG_NAME = "keep-combined-raw-annotations";
     public static final String KEEP_COMBINED_SHORT_NAME = "keep-combined";
     public static final String FORCE_OUTPUT_INTERVALS_NAME = "force-output-intervals";
+    public static final String THREADS_LONG_NAME = "threads";
+
+    private static final int PENDING_CHUNKS_PER_THREAD = 4;
 
     @Argument(fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME, shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME,
             doc="File to which variants should be written", optional=false)
@@ -165,6 +179,20 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
     @ArgumentCollection
     private final DbsnpArgumentCollection dbsnp = new DbsnpArgumentCollection();
 
+    /**
+     * Sites are read and written on the main thread and genotyped on this many threads.  Consecutive sites are
+     * genotyped together in chunks, and each thread has its own reference, dbSNP reader and genotyping engine.
+     * The output is the same for any number of threads, except that QD values above the cap that are randomly
+     * jittered (see {@link org.broadinstitute.hellbender.tools.walkers.annotator.QualByDepth}) may be assigned
+     * to different sites.
+     */
+    @Argument(fullName = THREADS_LONG_NAME, doc = "Number of threads on which to genotype sites", optional = true, minValue = 1)
+    private int threads = 1;
+
+    @Hidden
+    @Argument(fullName = "sites-per-chunk", doc = "Minimum number of consecutive sites genotyped together when using more than one thread", optional = true, minValue = 1)
+    private int sitesPerChunk = 1000;
+
     // the annotation engine
     private VariantAnnotatorEngine annotationEngine;
 
@@ -181,6 +209,20 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
 
     private GenotypeGVCFsEngine gvcfEngine;
 
+    // workers genotyping chunks of sites, or null if sites are genotyped on the engine thread
+    private List<GenotypingWorker> workers = null;
+    private List<Site> currentChunk = new ArrayList<>();
+    private int nChunksSubmitted = 0;
+    private final OrderedResultQueue<List<VariantContext>> pendingChunks = new OrderedResultQueue<>();
+
+    // the contig of the last site read, and the last reference position covered by a variant at any site so far on it
+    private String lastContig = null;
+    private int lastReferenceEnd = 0;
+
+    // copies of the variants in the current chunk that started before it, and so may also be used by other threads
+    private Locatable currentChunkStart = null;
+    private final Map<VariantContext, VariantContext> copiesOfEarlierVariants = new IdentityHashMap<>();
+
     /**
      * Get the largest interval per contig that contains the intervals specified on the command line.
      * @param getIntervals intervals to be transformed
@@ -258,26 +300,165 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
         //call initialize method in engine class that creates VCFWriter object and writes a header to it
         vcfWriter = gvcfEngine.setupVCFWriter(defaultToolVCFHeaderLines, keepCombined, dbsnp, vcfWriter);
 
+        if (threads > 1) {
+            final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("genotype-gvcfs-thread-%d").setDaemon(true).build();
+            workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(new GenotypingWorker(threadFactory, defaultToolVCFHeaderLines));
+            }
+        }
     }
 
     @Override
     public void apply(final Locatable loc, List<VariantContext> variants, ReadsContext reads, ReferenceContext ref, FeatureContext features) {
+        if (workers != null) {
+            submitSite(loc, variants);
+            return;
+        }
+
+        final VariantContext regenotypedVC = genotypeSite(loc, variants, ref, features, gvcfEngine, merger);
+        if (regenotypedVC != null) {
+            vcfWriter.add(regenotypedVC);
+        }
+    }
 
+    /**
+     * @return the call to output at a site, or null if there is none
+     */
+    private VariantContext genotypeSite(final Locatable loc, final List<VariantContext> variants, final ReferenceContext ref, final FeatureContext features,
+                                        final GenotypeGVCFsEngine engine, final ReferenceConfidenceVariantContextMerger merger) {
         final boolean inForceOutputIntervals = forceOutputIntervalsPresent && forceOutputIntervals.overlapsAny(loc);
         final boolean forceOutput = includeNonVariants || inForceOutputIntervals;
-        final VariantContext regenotypedVC = gvcfEngine.callRegion(loc, variants, ref, features, merger, somaticInput, tlodThreshold, afTolerance, forceOutput);
+        final VariantContext regenotypedVC = engine.callRegion(loc, variants, ref, features, merger, somaticInput, tlodThreshold, afTolerance, forceOutput);
 
         if (regenotypedVC != null) {
             final SimpleInterval variantStart = new SimpleInterval(regenotypedVC.getContig(), regenotypedVC.getStart(), regenotypedVC.getStart());
             if ((inForceOutputIntervals || !GATKVariantContextUtils.isSpanningDeletionOnly(regenotypedVC)) &&
                     (!onlyOutputCallsStartingInIntervals || intervals.stream().anyMatch(interval -> interval.contains (variantStart)))) {
-                vcfWriter.add(regenotypedVC);
+                return regenotypedVC;
             }
         }
+        return null;
+    }
+
+    private static final class Site {
+        private final Locatable loc;
+        private final List<VariantContext> variants;
+
+        private Site(final Locatable loc, final List<VariantContext> variants) {
+            this.loc = loc;
+            this.variants = variants;
+        }
+    }
+
+    private final class GenotypingWorker implements AutoCloseable {
+        private final ExecutorService executor;
+        private final FeatureManager features;
+        private final ReferenceDataSource reference;
+        private final GenotypeGVCFsEngine engine;
+        private final ReferenceConfidenceVariantContextMerger merger;
+
+        private GenotypingWorker(final ThreadFactory threadFactory, final Set<VCFHeaderLine> defaultToolVCFHeaderLines) {
+            executor = Executors.newSingleThreadExecutor(threadFactory);
+            features = new FeatureManager(GenotypeGVCFs.this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer,
+                    cloudIndexPrefetchBuffer, getGenomicsDBOptions());
+            reference = ReferenceDataSource.of(referenceArguments.getReferencePath());
+            engine = new GenotypeGVCFsEngine(annotationEngine, genotypeArgs, includeNonVariants, getHeaderForVariants());
+            engine.createOutputHeader(defaultToolVCFHeaderLines, keepCombined, dbsnp);
+            merger = new ReferenceConfidenceVariantContextMerger(annotationEngine, getHeaderForVariants(), somaticInput);
+        }
+
+        private Future<List<VariantContext>> submit(final List<Site> sites) {
+            return executor.submit(() -> {
+                final List<VariantContext> calls = new ArrayList<>(sites.size());
+                for (final Site site : sites) {
+                    final SimpleInterval interval = new SimpleInterval(site.loc);
+                    final VariantContext call = genotypeSite(site.loc, site.variants, new ReferenceContext(reference, interval),
+                            new FeatureContext(features, interval), engine, merger);
+                    if (call != null) {
+                        calls.add(call);
+                    }
+                }
+                return calls;
+            });
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            features.close();
+            reference.close();
+        }
+    }
+
+    private void submitSite(final Locatable loc, final List<VariantContext> variants) {
+        // Whether a spanning deletion allele is kept depends on the deletions called at earlier sites, which the
+        // genotyping engine keeps track of, so a new chunk only starts at a site that no earlier variant overlaps.
+        final boolean isOverlappedByEarlierSite = loc.getContig().equals(lastContig) && loc.getStart() <= lastReferenceEnd;
+        if (currentChunk.size() >= sitesPerChunk && !isOverlappedByEarlierSite) {
+            submitCurrentChunk();
+        }
+        if (!loc.getContig().equals(lastContig)) {
+            lastContig = loc.getContig();
+            lastReferenceEnd = 0;
+        }
+
+        if (currentChunk.isEmpty()) {
+            currentChunkStart = loc;
+        }
+
+        final List<VariantContext> siteVariants = new ArrayList<>(variants.size());
+        for (final VariantContext vc : variants) {
+            lastReferenceEnd = Math.max(lastReferenceEnd, vc.getStart() + vc.getReference().length() - 1);
+            // genotypes are decoded lazily by the codec that read them, which is not thread-safe
+            if (vc.getGenotypes() instanceof LazyGenotypesContext) {
+                ((LazyGenotypesContext) vc.getGenotypes()).decode();
+            }
+            // a variant spanning several sites (e.g. a reference block) may also be in the previous chunk, and
+            // genotypes cache some of their lookups without synchronization, so each chunk gets its own copy
+            final boolean mayBeInEarlierChunk = vc.getContig().equals(currentChunkStart.getContig()) && vc.getStart() < currentChunkStart.getStart();
+            siteVariants.add(mayBeInEarlierChunk ? copiesOfEarlierVariants.computeIfAbsent(vc, GenotypeGVCFs::copyGenotypes) : vc);
+        }
+        currentChunk.add(new Site(loc, siteVariants));
+    }
+
+    private static VariantContext copyGenotypes(final VariantContext vc) {
+        return new VariantContextBuilder(vc).genotypes(GenotypesContext.copy(vc.getGenotypes())).make();
+    }
+
+    private void submitCurrentChunk() {
+        if (!currentChunk.isEmpty()) {
+            final Locatable chunkStart = currentChunkStart;
+            pendingChunks.add(workers.get(nChunksSubmitted++ % workers.size()).submit(currentChunk),
+                    () -> "genotyping sites starting at " + chunkStart.getContig() + ":" + chunkStart.getStart());
+            currentChunk = new ArrayList<>(sitesPerChunk);
+            copiesOfEarlierVariants.clear();
+            writePendingChunks(workers.size() * PENDING_CHUNKS_PER_THREAD);
+        }
+    }
+
+    /**
+     * Write the calls of the oldest chunks, in order, until no more than {@code maxPending} chunks are pending
+     */
+    private void writePendingChunks(final int maxPending) {
+        pendingChunks.consume(maxPending, calls -> calls.forEach(vcfWriter::add));
+    }
+
+    @Override
+    public Object onTraversalSuccess() {
+        if (workers != null) {
+            submitCurrentChunk();
+            writePendingChunks(0);
+        }
+        return null;
     }
 
     @Override
     public void closeTool() {
+        if (workers != null) {
+            workers.forEach(GenotypingWorker::close);
+            workers = null;
+        }
         if ( vcfWriter != null) {
             vcfWriter.close();
         }
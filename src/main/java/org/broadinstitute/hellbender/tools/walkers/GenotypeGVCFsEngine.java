@@ -400,6 +400,17 @@ public class GenotypeGVCFsEngine
 
      */
     public VariantContextWriter setupVCFWriter(Set<VCFHeaderLine> defaultToolVCFHeaderLines, boolean keepCombined, DbsnpArgumentCollection dbsnp, VariantContextWriter vcfWriter) {
+        vcfWriter.writeHeader(createOutputHeader(defaultToolVCFHeaderLines, keepCombined, dbsnp));
+        return vcfWriter;
+    }
+
+    /**
+     * Create the header for the output VCF, which is also used when genotyping.  Engines whose calls are written by
+     * another engine's writer must call this instead of {@link #setupVCFWriter} before calling {@link #callRegion}.
+     *
+     * @return the output header
+     */
+    public VCFHeader createOutputHeader(Set<VCFHeaderLine> defaultToolVCFHeaderLines, boolean keepCombined, DbsnpArgumentCollection dbsnp) {
         final Set<VCFHeaderLine> headerLines = new LinkedHashSet<>(inputVCFHeader.getMetaDataInInputOrder());
         headerLines.addAll(defaultToolVCFHeaderLines);
 
@@ -424,9 +435,7 @@ public class GenotypeGVCFsEngine
 
         final Set<String> sampleNameSet = samples.asSetOfSamples();
         outputHeader = new VCFHeader(headerLines, new TreeSet<>(sampleNameSet));
-        vcfWriter.writeHeader(outputHeader);
-
-        return vcfWriter;
+        return outputHeader;
     }
 
 
@@ -522,6 +522,9 @@ public final class ReferenceConfidenceVariantContextMerger {
         // the map is different depending on the ploidy, so in order to keep this method flexible (mixed ploidies)
         // we need to get a map done (lazily inside the loop) for each ploidy, up to the maximum possible.
         final int[][] genotypeIndexMapsByPloidy = new int[maximumPloidy + 1][];
+        // the allele mapping each of those maps was made for, which only differs between samples when there is
+        // more than one spanning deletion allele
+        final int[][] indexesOfRelevantAllelesByPloidy = new int[maximumPloidy + 1][];
         final int maximumAlleleCount = Math.max(remappedAlleles.size(),targetAlleles.size());
 
         for ( final Genotype g : vc.getGenotypes() ) {
@@ -537,10 +540,11 @@ public final class ReferenceConfidenceVariantContextMerger {
                 if (g.hasPL()) {
                     // lazy initialization of the genotype index map by ploidy.
                     int[]  perSampleIndexesOfRelevantAlleles = getIndexesOfRelevantAlleles(remappedAlleles, targetAlleles, vc.getStart(), g);
-                    final int[] genotypeIndexMapByPloidy = genotypeIndexMapsByPloidy[ploidy] == null
-                            ? calculators.getInstance(ploidy, maximumAlleleCount).genotypeIndexMap(perSampleIndexesOfRelevantAlleles, calculators) //probably horribly slow
-                            : genotypeIndexMapsByPloidy[ploidy];
-                    final int[] PLs = generatePL(g, genotypeIndexMapByPloidy);
+                    if (genotypeIndexMapsByPloidy[ploidy] == null || !Arrays.equals(perSampleIndexesOfRelevantAlleles, indexesOfRelevantAllelesByPloidy[ploidy])) {
+                        genotypeIndexMapsByPloidy[ploidy] = calculators.getInstance(ploidy, maximumAlleleCount).genotypeIndexMap(perSampleIndexesOfRelevantAlleles, calculators);
+                        indexesOfRelevantAllelesByPloidy[ploidy] = perSampleIndexesOfRelevantAlleles;
+                    }
+                    final int[] PLs = generatePL(g, genotypeIndexMapsByPloidy[ploidy]);
                     final int[] AD = g.hasAD() ? generateAD(g.getAD(), perSampleIndexesOfRelevantAlleles) : null;
                     genotypeBuilder.PL(PLs).AD(AD);
                 }
@@ -18,7 +18,6 @@ import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Allele-specific call confidence normalized by depth of sample reads supporting the allele
@@ -131,8 +130,11 @@ public class AS_QualByDepth extends InfoFieldAnnotation implements ReducibleAnno
 
         final List<Integer> standardDepth;
         if (originalVC.hasAttribute(GATKVCFConstants.AS_VARIANT_DEPTH_KEY)) {
-            standardDepth = Arrays.stream(originalVC.getAttributeAsString(GATKVCFConstants.AS_VARIANT_DEPTH_KEY, "")
-                    .split(AnnotationUtils.ALLELE_SPECIFIC_SPLIT_REGEX)).mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
+            standardDepth = new ArrayList<>();
+            final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(originalVC.getAttributeAsString(GATKVCFConstants.AS_VARIANT_DEPTH_KEY, ""));
+            while (tokenizer.nextAllele() && tokenizer.nextValue()) {
+                standardDepth.add(tokenizer.intValue());
+            }
         } else {
             standardDepth = getAlleleDepths(genotypes);
         }
@@ -206,14 +208,25 @@ public class AS_QualByDepth extends InfoFieldAnnotation implements ReducibleAnno
         if (rawAnnotationListWithNonRef == null) {
             return null;
         }
-        List<String> dpValues = Arrays.asList(rawAnnotationListWithNonRef.split(AnnotationUtils.ALLELE_SPECIFIC_SPLIT_REGEX));
-        if (dpValues.size() != expectedFinalAlleleCount + 1) {  //we expect a nonRef allele
-            return null;
+        final StringBuilder result = new StringBuilder();
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(rawAnnotationListWithNonRef);
+        int lengthWithoutLastEntry = 0;
+        while (tokenizer.nextAllele()) {
+            //skip the ref counts
+            if (tokenizer.getAlleleIndex() > 0) {
+                lengthWithoutLastEntry = result.length();
+                if (tokenizer.getAlleleIndex() > 1) {
+                    result.append(AnnotationUtils.LIST_DELIMITER);
+                }
+                tokenizer.appendAllele(result);
+            }
         }
-        else {
-            return String.join(AnnotationUtils.LIST_DELIMITER, dpValues.subList(1, dpValues.size()-1));
-            //start with 1 to skip ref counts; end at size-1 to trim non-ref
+        if (tokenizer.getAlleleIndex() + 1 != expectedFinalAlleleCount + 1) {  //we expect a nonRef allele
+            return null;
         }
+        //trim the non-ref
+        result.setLength(lengthWithoutLastEntry);
+        return result.toString();
     }
 
     public static List<Integer> parseQualList(final VariantContext vc) {
@@ -229,13 +242,14 @@ public class AS_QualByDepth extends InfoFieldAnnotation implements ReducibleAnno
             }
         }
         else if (vc.hasAttribute(GATKVCFConstants.AS_RAW_QUAL_APPROX_KEY)) {
-            String asQuals = vc.getAttributeAsString(GATKVCFConstants.AS_RAW_QUAL_APPROX_KEY, "").replaceAll("\\[\\]\\s","");
-            String[] values = asQuals.split(AnnotationUtils.ALLELE_SPECIFIC_SPLIT_REGEX);
-            if (values.length != vc.getNAlleles()) {
-                throw new IllegalStateException("Number of AS_QUALapprox values doesn't match the number of alleles in the variant context.");
+            final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(vc.getAttributeAsString(GATKVCFConstants.AS_RAW_QUAL_APPROX_KEY, ""));
+            while (tokenizer.nextAllele()) {
+                if (tokenizer.getAlleleIndex() > 0 && tokenizer.nextValue()) {
+                    alleleQualList.add(tokenizer.intValue());
+                }
             }
-            for (int i = 1; i < vc.getNAlleles(); i++) {
-                alleleQualList.add(Integer.parseInt(values[i]));
+            if (tokenizer.getAlleleIndex() + 1 != vc.getNAlleles()) {
+                throw new IllegalStateException("Number of AS_QUALapprox values doesn't match the number of alleles in the variant context.");
             }
         }
         return alleleQualList;
@@ -159,12 +159,9 @@ public final class AS_RMSMappingQuality extends InfoFieldAnnotation implements A
     }
 
     protected void parseRawDataString(final ReducibleAnnotationData<Double> myData) {
-        final String rawDataString = myData.getRawData();
-        //get per-allele data by splitting on allele delimiter
-        final String[] rawDataPerAllele = rawDataString.split(AnnotationUtils.ALLELE_SPECIFIC_SPLIT_REGEX);
-        for (int i=0; i<rawDataPerAllele.length; i++) {
-            final String alleleData = rawDataPerAllele[i];
-            myData.putAttribute(myData.getAlleles().get(i), Double.parseDouble(alleleData));
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(myData.getRawData());
+        while (tokenizer.nextAllele() && tokenizer.nextValue()) {
+            myData.putAttribute(myData.getAlleles().get(tokenizer.getAlleleIndex()), tokenizer.doubleValue());
         }
     }
 
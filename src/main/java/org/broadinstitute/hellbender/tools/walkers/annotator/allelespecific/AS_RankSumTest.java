@@ -233,34 +233,22 @@ public abstract class AS_RankSumTest extends RankSumTest implements ReducibleAnn
 
     // Parses the raw data string into a Histogram and sets the inputs attribute map accordingly
     protected void parseRawDataString(final ReducibleAnnotationData<Histogram> myData) {
-        final String rawDataString = myData.getRawData();
-        String rawDataNoBrackets;
         final Map<Allele, Histogram> perAlleleValues = new HashMap<>();
         //Initialize maps
         for (final Allele current : myData.getAlleles()) {
             perAlleleValues.put(current, new Histogram());
         }
-        //Map gives back list with []
-        if (rawDataString.charAt(0) == '[') {
-            rawDataNoBrackets = rawDataString.substring(1, rawDataString.length() - 1);
-        }
-        else {
-            rawDataNoBrackets = rawDataString;
-        }
         //TODO handle misformatted annotation field more gracefully
-        //rawDataPerAllele is a per-sample list of the rank sum statistic for each allele
-        final String[] rawDataPerAllele = rawDataNoBrackets.split(AnnotationUtils.ALLELE_SPECIFIC_SPLIT_REGEX);
-        for (int i=0; i<rawDataPerAllele.length; i++) {
-            final String alleleData = rawDataPerAllele[i];
-            final Histogram alleleList = perAlleleValues.get(myData.getAlleles().get(i));
-            final String[] rawListEntriesAsStringVector = alleleData.split(RAW_DELIM);
-            for (int j=0; j<rawListEntriesAsStringVector.length; j+=2) {
-                if (!rawListEntriesAsStringVector[j].isEmpty()) {
-                    Double value = Double.parseDouble(rawListEntriesAsStringVector[j].trim());
-                    if (!value.isNaN() && (!rawListEntriesAsStringVector[j + 1].isEmpty())) {
-                        int count = Integer.parseInt(rawListEntriesAsStringVector[j + 1].trim());
-                        alleleList.add(value, count);
-                    }
+        //each allele's entry is a list of values of the rank sum statistic, each followed by its count
+        //(Map gives back list with [], which the tokenizer ignores)
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(myData.getRawData());
+        while (tokenizer.nextAllele()) {
+            final Histogram alleleList = perAlleleValues.get(myData.getAlleles().get(tokenizer.getAlleleIndex()));
+            while (tokenizer.nextValue()) {
+                final boolean hasValue = !tokenizer.isEmptyValue();
+                final double value = hasValue ? tokenizer.doubleValue() : Double.NaN;
+                if (tokenizer.nextValue() && hasValue && !Double.isNaN(value) && !tokenizer.isEmptyValue()) {
+                    alleleList.add(value, tokenizer.intValue());
                 }
             }
         }
@@ -6,7 +6,6 @@ import htsjdk.variant.variantcontext.VariantContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
-import org.broadinstitute.hellbender.tools.walkers.annotator.AnnotationUtils;
 import org.broadinstitute.hellbender.tools.walkers.annotator.StrandBiasTest;
 import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -187,23 +186,23 @@ public abstract class AS_StrandBiasTest extends StrandBiasTest implements Reduci
     }
 
     protected void parseRawDataString(ReducibleAnnotationData<List<Integer>> myData) {
-        List<String> values = AnnotationUtils.getAlleleLengthListOfString(myData.getRawData());
-        if (values.size() != myData.getAlleles().size()) {
-            throw new IllegalStateException("Number of alleles and number of allele-specific entries do not match.  " +
-                    "Allele-specific annotations should have an entry for each allele including the reference.");
-        }
-
-        Map<Allele, List<Integer>> perAlleleValues = new HashMap<>();
-        for (int i = 0; i < values.size(); i++) {
-            List<Integer> perAlleleList = new ArrayList<>();
-            String[] rawListEntriesAsStringVector = values.get(i).split(",");
+        final Map<Allele, List<Integer>> perAlleleValues = new HashMap<>();
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(myData.getRawData());
+        while (tokenizer.nextAllele()) {
+            final List<Integer> perAlleleList = new ArrayList<>();
             //Read counts will only ever be integers
-            for (String s : rawListEntriesAsStringVector) {
-                if (!s.isEmpty()) {
-                    perAlleleList.add(Integer.parseInt(s.trim()));
+            while (tokenizer.nextValue()) {
+                if (!tokenizer.isEmptyValue()) {
+                    perAlleleList.add(tokenizer.intValue());
                 }
             }
-            perAlleleValues.put(myData.getAlleles().get(i), perAlleleList);
+            if (tokenizer.getAlleleIndex() < myData.getAlleles().size()) {
+                perAlleleValues.put(myData.getAlleles().get(tokenizer.getAlleleIndex()), perAlleleList);
+            }
+        }
+        if (tokenizer.getAlleleIndex() + 1 != myData.getAlleles().size()) {
+            throw new IllegalStateException("Number of alleles and number of allele-specific entries do not match.  " +
+                    "Allele-specific annotations should have an entry for each allele including the reference.");
         }
 
         myData.setAttributeMap(perAlleleValues);
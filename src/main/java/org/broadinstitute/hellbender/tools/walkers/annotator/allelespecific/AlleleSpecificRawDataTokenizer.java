@@ -0,0 +1,182 @@
+package org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific;
+
+import org.broadinstitute.hellbender.tools.walkers.annotator.AnnotationUtils;
+import org.broadinstitute.hellbender.utils.Utils;
+
+/**
+ * Reads the values in a raw allele-specific annotation string, such as {@code "0,0|3,4|1,2"}, without splitting it
+ * into substrings.  The entries for each allele are separated by {@link AnnotationUtils#ALLELE_SPECIFIC_PRINT_DELIM}
+ * and the values within an entry by {@link AnnotationUtils#LIST_DELIMITER}; values are trimmed as by {@link String#trim}.
+ * Brackets around the whole string (as in the string form of a list attribute) are ignored, as are empty entries at
+ * the end, as with {@link String#split}.
+ *
+ * Typical use:
+ * <pre>
+ *     final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(rawData);
+ *     while (tokenizer.nextAllele()) {
+ *         while (tokenizer.nextValue()) {
+ *             final int value = tokenizer.intValue();
+ *             ...
+ *         }
+ *     }
+ * </pre>
+ *
+ * Numbers are parsed directly from the string when that gives the same result as {@link Integer#parseInt} and
+ * {@link Double#parseDouble}, and by those methods (including their exceptions) otherwise.
+ */
+public final class AlleleSpecificRawDataTokenizer {
+    private static final char ALLELE_DELIMITER = AnnotationUtils.ALLELE_SPECIFIC_PRINT_DELIM.charAt(0);
+    private static final char VALUE_DELIMITER = AnnotationUtils.LIST_DELIMITER.charAt(0);
+
+    // up to this many decimal digits always fit in a double's 53-bit significand
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    // powers of ten up to 10^15 are exact, so dividing by one of them gives a correctly rounded decimal
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+    // any int with at most this many digits can't overflow
+    private static final int MAX_SAFE_INT_DIGITS = 9;
+
+    private final String data;
+    private final int end;
+
+    // the current allele entry is [alleleStart, alleleEnd)
+    private int alleleStart;
+    private int alleleEnd;
+    private int alleleIndex = -1;
+
+    // the current value is [valueStart, valueEnd), and the next one starts at nextValueStart
+    private int valueStart;
+    private int valueEnd;
+    private int nextValueStart;
+
+    public AlleleSpecificRawDataTokenizer(final String data) {
+        this.data = Utils.nonNull(data);
+        int start = 0;
+        int end = data.length();
+        if (end > 0 && data.charAt(0) == '[') {
+            start++;
+            if (end > start && data.charAt(end - 1) == ']') {
+                end--;
+            }
+        }
+        while (end > start && data.charAt(end - 1) == ALLELE_DELIMITER) {
+            end--;
+        }
+        this.end = end;
+        alleleEnd = start - 1;
+    }
+
+    /**
+     * Advance to the entry for the next allele
+     * @return false if there are no more alleles
+     */
+    public boolean nextAllele() {
+        if (alleleEnd >= end) {
+            return false;
+        }
+        alleleStart = alleleEnd + 1;
+        final int delimiter = data.indexOf(ALLELE_DELIMITER, alleleStart);
+        alleleEnd = delimiter < 0 || delimiter > end ? end : delimiter;
+        nextValueStart = alleleStart;
+        alleleIndex++;
+        return true;
+    }
+
+    /**
+     * @return the index of the current allele's entry, starting from 0
+     */
+    public int getAlleleIndex() {
+        return alleleIndex;
+    }
+
+    /**
+     * Advance to the next value in the current allele's entry.  An empty entry has a single empty value.
+     * @return false if there are no more values for this allele
+     */
+    public boolean nextValue() {
+        if (nextValueStart > alleleEnd) {
+            return false;
+        }
+        final int delimiter = data.indexOf(VALUE_DELIMITER, nextValueStart);
+        final int limit = delimiter < 0 || delimiter > alleleEnd ? alleleEnd : delimiter;
+        valueStart = nextValueStart;
+        valueEnd = limit;
+        while (valueStart < valueEnd && data.charAt(valueStart) <= ' ') {
+            valueStart++;
+        }
+        while (valueEnd > valueStart && data.charAt(valueEnd - 1) <= ' ') {
+            valueEnd--;
+        }
+        nextValueStart = limit + 1;
+        return true;
+    }
+
+    public boolean isEmptyValue() {
+        return valueStart == valueEnd;
+    }
+
+    /**
+     * @return the current value as a String, which is the only method here that copies it
+     */
+    public String stringValue() {
+        return data.substring(valueStart, valueEnd);
+    }
+
+    public int intValue() {
+        int position = valueStart;
+        final boolean negative = position < valueEnd && data.charAt(position) == '-';
+        if (negative || (position < valueEnd && data.charAt(position) == '+')) {
+            position++;
+        }
+        if (position == valueEnd || valueEnd - position > MAX_SAFE_INT_DIGITS) {
+            return Integer.parseInt(stringValue());
+        }
+        int result = 0;
+        for (; position < valueEnd; position++) {
+            final int digit = data.charAt(position) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(stringValue());
+            }
+            result = 10 * result + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    public double doubleValue() {
+        int position = valueStart;
+        final boolean negative = position < valueEnd && data.charAt(position) == '-';
+        if (negative || (position < valueEnd && data.charAt(position) == '+')) {
+            position++;
+        }
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigitCount = 0;
+        boolean seenPoint = false;
+        for (; position < valueEnd; position++) {
+            final char c = data.charAt(position);
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+                continue;
+            }
+            final int digit = c - '0';
+            if (digit < 0 || digit > 9 || ++digitCount > MAX_EXACT_DOUBLE_DIGITS) {
+                return Double.parseDouble(stringValue());
+            }
+            digits = 10 * digits + digit;
+            if (seenPoint) {
+                fractionDigitCount++;
+            }
+        }
+        if (digitCount == 0) {
+            return Double.parseDouble(stringValue());
+        }
+        final double result = digits / POWERS_OF_TEN[fractionDigitCount];
+        return negative ? -result : result;
+    }
+
+    /**
+     * Append the whole entry of the current allele, as it appears in the raw data
+     */
+    public StringBuilder appendAllele(final StringBuilder builder) {
+        return builder.append(data, alleleStart, alleleEnd);
+    }
+}
@@ -16,6 +16,7 @@ import org.broadinstitute.hellbender.engine.*;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
+import org.broadinstitute.hellbender.utils.variant.JexlVariantMatcher;
 
 import java.io.File;
 import java.util.*;
@@ -233,8 +234,8 @@ public final class VariantFiltration extends VariantWalker {
     public boolean setFilteredGenotypesToNocall = false;
 
     // JEXL expressions for the filters
-    private List<JexlVCMatchExp> filterExps;
-    private List<JexlVCMatchExp> genotypeFilterExps;
+    private List<JexlVariantMatcher> filterExps;
+    private List<JexlVariantMatcher> genotypeFilterExps;
 
     private JexlMissingValueTreatment howToTreatMissingValues;
 
@@ -288,10 +289,12 @@ public final class VariantFiltration extends VariantWalker {
         }
 
         try {
-            for ( final JexlVCMatchExp exp : filterExps ) {
+            for ( final JexlVariantMatcher matcher : filterExps ) {
+                final JexlVCMatchExp exp = matcher.getMatchExp();
                 hInfo.add(new VCFFilterHeaderLine(exp.name, possiblyInvertFilterExpression(exp.exp.toString())));
             }
-            for ( final JexlVCMatchExp exp : genotypeFilterExps ) {
+            for ( final JexlVariantMatcher matcher : genotypeFilterExps ) {
+                final JexlVCMatchExp exp = matcher.getMatchExp();
                 hInfo.add(new VCFFilterHeaderLine(exp.name, possiblyInvertFilterExpression(exp.exp.toString())));
             }
 
@@ -322,8 +325,8 @@ public final class VariantFiltration extends VariantWalker {
         if (filterRecordsNotInMask && mask == null) {
             throw new CommandLineException.BadArgumentValue(FILTER_NOT_IN_MASK_LONG_NAME, "argument not allowed if mask argument is not provided");
         }
-        filterExps = VariantContextUtils.initializeMatchExps(filterNames, filterExpressions);
-        genotypeFilterExps = VariantContextUtils.initializeMatchExps(genotypeFilterNames, genotypeFilterExpressions);
+        filterExps = JexlVariantMatcher.compile(VariantContextUtils.initializeMatchExps(filterNames, filterExpressions));
+        genotypeFilterExps = JexlVariantMatcher.compile(VariantContextUtils.initializeMatchExps(genotypeFilterNames, genotypeFilterExpressions));
         howToTreatMissingValues = failMissingValues ? JexlMissingValueTreatment.TREAT_AS_MATCH : JexlMissingValueTreatment.TREAT_AS_MISMATCH;
 
         VariantContextUtils.engine.get().setSilent(true);
@@ -376,9 +379,9 @@ public final class VariantFiltration extends VariantWalker {
             filters.add(CLUSTERED_SNP_FILTER_NAME);
         }
 
-        for ( final JexlVCMatchExp exp : filterExps ) {
+        for ( final JexlVariantMatcher exp : filterExps ) {
             if ( matchesFilter(vc, null, exp, invertFilterExpression) ) {
-                filters.add(exp.name);
+                filters.add(exp.getMatchExp().name);
             }
         }
 
@@ -405,9 +408,9 @@ public final class VariantFiltration extends VariantWalker {
         }
 
         // Add if expression filters the variant context
-        for (final JexlVCMatchExp exp : genotypeFilterExps) {
+        for (final JexlVariantMatcher exp : genotypeFilterExps) {
             if (matchesFilter(vc, g, exp, invertGenotypeFilterExpression)) {
-                filters.add(exp.name);
+                filters.add(exp.getMatchExp().name);
             }
         }
 
@@ -417,8 +420,8 @@ public final class VariantFiltration extends VariantWalker {
     /**
      * Return true if matches the filter expression
      */
-    private boolean matchesFilter(final VariantContext vc, final Genotype g, final VariantContextUtils.JexlVCMatchExp exp, final boolean invertVCfilterExpression) {
-        return invertLogic(VariantContextUtils.match(vc, g, exp, howToTreatMissingValues), invertVCfilterExpression);
+    private boolean matchesFilter(final VariantContext vc, final Genotype g, final JexlVariantMatcher exp, final boolean invertVCfilterExpression) {
+        return invertLogic(exp.match(vc, g, howToTreatMissingValues), invertVCfilterExpression);
     }
 
     /**
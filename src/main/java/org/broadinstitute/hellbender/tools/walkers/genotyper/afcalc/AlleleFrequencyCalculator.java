@@ -3,8 +3,9 @@ package org.broadinstitute.hellbender.tools.walkers.genotyper.afcalc;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
-import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenCustomHashMap;
 import org.apache.commons.math3.special.Gamma;
 import org.apache.commons.math3.util.MathArrays;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeAlleleCounts;
@@ -17,6 +18,7 @@ import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -71,12 +73,14 @@ public final class AlleleFrequencyCalculator {
         final double[] priorPseudocounts = alleles.stream()
                 .mapToDouble(a -> a.isReference() ? refPseudocount : (a.length() > 1 ? snpPseudocount : indelPseudocount)).toArray();
 
+        final Collection<SiteLikelihoods> likelihoodsByPloidy = collectLikelihoodsByPloidy(vc, defaultPloidy);
+
         double[] alleleCounts = new double[numAlleles];
         final double flatLog10AlleleFrequency = -MathUtils.log10(numAlleles); // log10(1/numAlleles)
         double[] log10AlleleFrequencies = new IndexRange(0, numAlleles).mapToDouble(n -> flatLog10AlleleFrequency);
 
         for (double alleleCountsMaximumDifference = Double.POSITIVE_INFINITY; alleleCountsMaximumDifference > THRESHOLD_FOR_ALLELE_COUNT_CONVERGENCE; ) {
-            final double[] newAlleleCounts = effectiveAlleleCounts(vc, log10AlleleFrequencies);
+            final double[] newAlleleCounts = effectiveAlleleCounts(likelihoodsByPloidy, log10AlleleFrequencies);
             alleleCountsMaximumDifference = Arrays.stream(MathArrays.ebeSubtract(alleleCounts, newAlleleCounts)).map(Math::abs).max().getAsDouble();
             alleleCounts = newAlleleCounts;
             final double[] posteriorPseudocounts = MathArrays.ebeAdd(priorPseudocounts, alleleCounts);
@@ -91,51 +95,40 @@ public final class AlleleFrequencyCalculator {
         double log10PNoVariant = 0;
 
         final boolean spanningDeletionPresent = alleles.contains(Allele.SPAN_DEL);
-        final Map<Integer, int[]> nonVariantIndicesByPloidy = new Int2ObjectArrayMap<>();
-
-        // re-usable buffers of the log10 genotype posteriors of genotypes missing each allele
-        final List<DoubleArrayList> log10AbsentPosteriors = IntStream.range(0,numAlleles).mapToObj(n -> new DoubleArrayList()).collect(Collectors.toList());
-        for (final Genotype g : vc.getGenotypes()) {
-            if (!g.hasLikelihoods()) {
-                continue;
-            }
-            final int ploidy = g.getPloidy() == 0 ? defaultPloidy : g.getPloidy();
-            final GenotypeLikelihoodCalculator glCalc = GL_CALCS.getInstance(ploidy, numAlleles);
 
-            final double[] log10GenotypePosteriors = log10NormalizedGenotypePosteriors(g, glCalc, log10AlleleFrequencies);
-
-            //the total probability
-            if (!spanningDeletionPresent) {
-                log10PNoVariant += log10GenotypePosteriors[HOM_REF_GENOTYPE_INDEX];
-            } else {
-                nonVariantIndicesByPloidy.computeIfAbsent(ploidy, p -> genotypeIndicesWithOnlyRefAndSpanDel(p, alleles));
-                final int[] nonVariantIndices = nonVariantIndicesByPloidy.get(ploidy);
-                final double[] nonVariantLog10Posteriors = MathUtils.applyToArray(nonVariantIndices, n -> log10GenotypePosteriors[n]);
-                // when the only alt allele is the spanning deletion the probability that the site is non-variant
-                // may be so close to 1 that finite precision error in log10SumLog10 yields a positive value,
-                // which is bogus.  Thus we cap it at 0.
-                log10PNoVariant += Math.min(0,MathUtils.log10SumLog10(nonVariantLog10Posteriors));
+        for (final SiteLikelihoods likelihoods : likelihoodsByPloidy) {
+            likelihoods.computeLog10Posteriors(log10AlleleFrequencies);
+            final int[] nonVariantIndices = spanningDeletionPresent ? genotypeIndicesWithOnlyRefAndSpanDel(likelihoods.ploidy, alleles) : null;
+            final int[][] genotypesWithoutAllele = numAlleles == 2 ? null :
+                    IntStream.range(0, numAlleles).mapToObj(likelihoods::genotypesWithoutAllele).toArray(int[][]::new);
+
+            for (int row = 0; row < likelihoods.rowCount; row++) {
+                final int offset = row * likelihoods.genotypeCount;
+                final int sampleCount = likelihoods.sampleCounts[row];
+
+                //the total probability
+                if (!spanningDeletionPresent) {
+                    log10PNoVariant += sampleCount * likelihoods.log10Posteriors[offset + HOM_REF_GENOTYPE_INDEX];
+                } else {
+                    // when the only alt allele is the spanning deletion the probability that the site is non-variant
+                    // may be so close to 1 that finite precision error in log10SumLog10 yields a positive value,
+                    // which is bogus.  Thus we cap it at 0.
+                    log10PNoVariant += sampleCount * Math.min(0, log10SumLog10(likelihoods.log10Posteriors, offset, nonVariantIndices));
+                }
+
+                // if the VC is biallelic the allele-specific qual equals the variant qual
+                if (numAlleles == 2) {
+                    continue;
+                }
+
+                // for each allele, we add (in log space) the log10 probabilities of genotypes in which the allele is absent
+                // to get the log10 probability that the allele is absent in this sample, then multiply the cumulative
+                // probabilities of alleles being absent, which is addition of logs.  If prob of non hom ref > 1 due to
+                // finite precision, short-circuit to avoid NaN.
+                for (int allele = 1; allele < numAlleles; allele++) {
+                    log10POfZeroCountsByAllele[allele] += sampleCount * Math.min(0, log10SumLog10(likelihoods.log10Posteriors, offset, genotypesWithoutAllele[allele]));
+                }
             }
-
-            // if the VC is biallelic the allele-specific qual equals the variant qual
-            if (numAlleles == 2) {
-                continue;
-            }
-
-            // for each allele, we collect the log10 probabilities of genotypes in which the allele is absent, then add (in log space)
-            // to get the log10 probability that the allele is absent in this sample
-            log10AbsentPosteriors.forEach(DoubleArrayList::clear);  // clear the buffers.  Note that this is O(1) due to the primitive backing array
-            for (int genotype = 0; genotype < glCalc.genotypeCount(); genotype++) {
-                final double log10GenotypePosterior = log10GenotypePosteriors[genotype];
-                glCalc.genotypeAlleleCountsAt(genotype).forEachAbsentAlleleIndex(a -> log10AbsentPosteriors.get(a).add(log10GenotypePosterior), numAlleles);
-            }
-
-            final double[] log10PNoAllele = log10AbsentPosteriors.stream()
-                    .mapToDouble(buffer -> MathUtils.log10SumLog10(buffer.toDoubleArray()))
-                    .map(x -> Math.min(0, x)).toArray();    // if prob of non hom ref > 1 due to finite precision, short-circuit to avoid NaN
-
-            // multiply the cumulative probabilities of alleles being absent, which is addition of logs
-            MathUtils.addToArrayInPlace(log10POfZeroCountsByAllele, log10PNoAllele);
         }
 
         // for biallelic the allele-specific qual equals the variant qual, and we short-circuited the calculation above
@@ -180,37 +173,185 @@ public final class AlleleFrequencyCalculator {
     }
 
     // effectiveAlleleCounts[allele a] = SUM_{genotypes g} (posterior_probability(g) * num_copies of a in g), which we denote as SUM [n_g p_g]
-    // for numerical stability we will do this in log space:
-    // count = SUM 10^(log (n_g p_g)) = SUM 10^(log n_g + log p_g)
-    // thanks to the log-sum-exp trick this lets us work with log posteriors alone
-    private double[] effectiveAlleleCounts(final VariantContext vc, final double[] log10AlleleFrequencies) {
+    // the posteriors are normalized, so we first sum them over samples for each genotype and then weight the sums by allele copies
+    private static double[] effectiveAlleleCounts(final Collection<SiteLikelihoods> likelihoodsByPloidy, final double[] log10AlleleFrequencies) {
+        final int numAlleles = log10AlleleFrequencies.length;
+        final double[] result = new double[numAlleles];
+        for (final SiteLikelihoods likelihoods : likelihoodsByPloidy) {
+            // samples without a ploidy carry no allele copies
+            if (!likelihoods.countsAlleles) {
+                continue;
+            }
+            likelihoods.computeLog10Posteriors(log10AlleleFrequencies);
+            final double[] genotypePosteriorSums = likelihoods.sumPosteriorsOverSamples();
+            for (int genotype = 0; genotype < likelihoods.genotypeCount; genotype++) {
+                final int offset = genotype * numAlleles;
+                for (int allele = 0; allele < numAlleles; allele++) {
+                    result[allele] += genotypePosteriorSums[genotype] * likelihoods.alleleCounts[offset + allele];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Group the samples with likelihoods by ploidy, and each group's samples by their PLs.
+     */
+    private static Collection<SiteLikelihoods> collectLikelihoodsByPloidy(final VariantContext vc, final int defaultPloidy) {
         final int numAlleles = vc.getNAlleles();
-        Utils.validateArg(numAlleles == log10AlleleFrequencies.length, "number of alleles inconsistent");
-        final double[] log10Result = new double[numAlleles];
-        Arrays.fill(log10Result, Double.NEGATIVE_INFINITY);
+        final Map<Integer, SiteLikelihoods> likelihoodsByPloidy = new Int2ObjectArrayMap<>();
         for (final Genotype g : vc.getGenotypes()) {
             if (!g.hasLikelihoods()) {
                 continue;
             }
-            final GenotypeLikelihoodCalculator glCalc = GL_CALCS.getInstance(g.getPloidy(), numAlleles);
-
-            final double[] log10GenotypePosteriors = log10NormalizedGenotypePosteriors(g, glCalc, log10AlleleFrequencies);
+            // the EM only counts alleles in samples with a ploidy, but all samples contribute to the posteriors of absent alleles
+            final boolean hasPloidy = g.getPloidy() > 0;
+            final int ploidy = hasPloidy ? g.getPloidy() : defaultPloidy;
+            likelihoodsByPloidy.computeIfAbsent(hasPloidy ? ploidy : -ploidy - 1, key -> new SiteLikelihoods(ploidy, numAlleles, hasPloidy))
+                    .add(g.getPL());
+        }
+        return likelihoodsByPloidy.values();
+    }
 
-            new IndexRange(0, glCalc.genotypeCount()).forEach(genotypeIndex ->
-                glCalc.genotypeAlleleCountsAt(genotypeIndex).forEachAlleleIndexAndCount((alleleIndex, count) ->
-                        log10Result[alleleIndex] = MathUtils.log10SumLog10(log10Result[alleleIndex], log10GenotypePosteriors[genotypeIndex] + MathUtils.log10(count))));
+    /**
+     * log10 of the sum of the values at {@code indices} relative to {@code offset} in {@code log10Values}
+     */
+    private static double log10SumLog10(final double[] log10Values, final int offset, final int[] indices) {
+        double maxValue = Double.NEGATIVE_INFINITY;
+        for (final int index : indices) {
+            maxValue = Math.max(maxValue, log10Values[offset + index]);
+        }
+        if (maxValue == Double.NEGATIVE_INFINITY) {
+            return maxValue;
+        }
+        double sum = 0;
+        for (final int index : indices) {
+            sum += Math.pow(10.0, log10Values[offset + index] - maxValue);
         }
-        return MathUtils.applyToArrayInPlace(log10Result, x -> Math.pow(10.0, x));
+        return maxValue + Math.log10(sum);
     }
 
-    private static double[] log10NormalizedGenotypePosteriors(final Genotype g, final GenotypeLikelihoodCalculator glCalc, final double[] log10AlleleFrequencies) {
-        final double[] log10Likelihoods = g.getLikelihoods().getAsVector();
-        final double[] log10Posteriors = new IndexRange(0, glCalc.genotypeCount()).mapToDouble(genotypeIndex -> {
-            final GenotypeAlleleCounts gac = glCalc.genotypeAlleleCountsAt(genotypeIndex);
-            return gac.log10CombinationCount() + log10Likelihoods[genotypeIndex]
-                    + gac.sumOverAlleleIndicesAndCounts((index, count) -> count * log10AlleleFrequencies[index]);
-        });
-        return MathUtils.normalizeLog10(log10Posteriors);
+    /**
+     * The genotype likelihoods of the samples with a given ploidy at a site, as a flat matrix with a row for each distinct
+     * vector of PLs.  In large cohorts most samples share a handful of PLs (for example those from reference blocks),
+     * so genotype posteriors are calculated once for each distinct row and weighted by the number of samples with it.
+     */
+    private static final class SiteLikelihoods {
+        private final int ploidy;
+        private final int genotypeCount;
+        private final int numAlleles;
+        private final boolean countsAlleles;
+
+        // the number of copies of each allele in each genotype, genotype-major
+        private final int[] alleleCounts;
+        private final double[] log10CombinationCounts;
+
+        private final Object2IntOpenCustomHashMap<int[]> rowsByPLs = new Object2IntOpenCustomHashMap<>(IntArrays.HASH_STRATEGY);
+        private int rowCount = 0;
+        private int[] sampleCounts = new int[1];
+        private double[] log10Likelihoods;
+
+        // scratch space, reused across iterations
+        private double[] log10Posteriors;
+        private final double[] log10GenotypePriors;
+        private final double[] genotypePosteriorSums;
+
+        /**
+         * @param countsAlleles whether these samples contribute allele counts to the EM
+         */
+        SiteLikelihoods(final int ploidy, final int numAlleles, final boolean countsAlleles) {
+            final GenotypeLikelihoodCalculator glCalc = GL_CALCS.getInstance(ploidy, numAlleles);
+            this.ploidy = ploidy;
+            this.genotypeCount = glCalc.genotypeCount();
+            this.numAlleles = numAlleles;
+            this.countsAlleles = countsAlleles;
+            alleleCounts = new int[genotypeCount * numAlleles];
+            log10CombinationCounts = new double[genotypeCount];
+            for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                final GenotypeAlleleCounts gac = glCalc.genotypeAlleleCountsAt(genotype);
+                log10CombinationCounts[genotype] = gac.log10CombinationCount();
+                final int offset = genotype * numAlleles;
+                gac.forEachAlleleIndexAndCount((alleleIndex, count) -> alleleCounts[offset + alleleIndex] = count);
+            }
+            log10Likelihoods = new double[genotypeCount];
+            rowsByPLs.defaultReturnValue(-1);
+            log10GenotypePriors = new double[genotypeCount];
+            genotypePosteriorSums = new double[genotypeCount];
+        }
+
+        void add(final int[] pls) {
+            final int existingRow = rowsByPLs.getInt(pls);
+            if (existingRow >= 0) {
+                sampleCounts[existingRow]++;
+                return;
+            }
+            if (rowCount == sampleCounts.length) {
+                sampleCounts = Arrays.copyOf(sampleCounts, 2 * rowCount);
+                log10Likelihoods = Arrays.copyOf(log10Likelihoods, 2 * rowCount * genotypeCount);
+            }
+            // the same conversion as GenotypeLikelihoods.getAsVector()
+            final int offset = rowCount * genotypeCount;
+            for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                log10Likelihoods[offset + genotype] = pls[genotype] / -10.0;
+            }
+            sampleCounts[rowCount] = 1;
+            rowsByPLs.put(pls, rowCount++);
+        }
+
+        int[] genotypesWithoutAllele(final int allele) {
+            return IntStream.range(0, genotypeCount).filter(genotype -> alleleCounts[genotype * numAlleles + allele] == 0).toArray();
+        }
+
+        /**
+         * Fill {@link #log10Posteriors} with the normalized log10 genotype posteriors of each row
+         */
+        void computeLog10Posteriors(final double[] log10AlleleFrequencies) {
+            // the genotype priors are the same for every sample
+            for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                final int offset = genotype * numAlleles;
+                double log10Prior = log10CombinationCounts[genotype];
+                for (int allele = 0; allele < numAlleles; allele++) {
+                    log10Prior += alleleCounts[offset + allele] * log10AlleleFrequencies[allele];
+                }
+                log10GenotypePriors[genotype] = log10Prior;
+            }
+
+            if (log10Posteriors == null) {
+                log10Posteriors = new double[rowCount * genotypeCount];
+            }
+            for (int row = 0; row < rowCount; row++) {
+                final int offset = row * genotypeCount;
+                double maxValue = Double.NEGATIVE_INFINITY;
+                for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                    final double log10Posterior = log10Likelihoods[offset + genotype] + log10GenotypePriors[genotype];
+                    log10Posteriors[offset + genotype] = log10Posterior;
+                    maxValue = Math.max(maxValue, log10Posterior);
+                }
+                double sum = 0;
+                for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                    sum += Math.pow(10.0, log10Posteriors[offset + genotype] - maxValue);
+                }
+                final double log10Sum = maxValue + Math.log10(sum);
+                for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                    log10Posteriors[offset + genotype] -= log10Sum;
+                }
+            }
+        }
+
+        /**
+         * @return for each genotype, the sum over samples of its posterior probability given {@link #log10Posteriors}
+         */
+        double[] sumPosteriorsOverSamples() {
+            Arrays.fill(genotypePosteriorSums, 0);
+            for (int row = 0; row < rowCount; row++) {
+                final int offset = row * genotypeCount;
+                final int sampleCount = sampleCounts[row];
+                for (int genotype = 0; genotype < genotypeCount; genotype++) {
+                    genotypePosteriorSums[genotype] += sampleCount * Math.pow(10.0, log10Posteriors[offset + genotype]);
+                }
+            }
+            return genotypePosteriorSums;
+        }
     }
 
     private static int[] genotypeIndicesWithOnlyRefAndSpanDel(final int ploidy, final List<Allele> alleles) {
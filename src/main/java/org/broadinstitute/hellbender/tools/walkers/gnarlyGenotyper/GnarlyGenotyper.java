@@ -1,6 +1,8 @@
 package org.broadinstitute.hellbender.tools.walkers.gnarlyGenotyper;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
@@ -28,6 +30,7 @@ import org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific.AS_R
 import org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific.AS_StrandBiasTest;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeCalculationArgumentCollection;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.OrderedResultQueue;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
 import org.broadinstitute.hellbender.utils.genotyper.SampleList;
@@ -40,6 +43,11 @@ import org.reflections.Reflections;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 
 /**
  * Perform "quick and dirty" joint genotyping on one or more samples pre-called with HaplotypeCaller
@@ -89,6 +97,10 @@ import java.util.*;
 public final class GnarlyGenotyper extends VariantWalker {
 
     public static final int PIPELINE_MAX_ALT_COUNT = GenotypeCalculationArgumentCollection.DEFAULT_MAX_ALTERNATE_ALLELES;
+    public static final String THREADS_LONG_NAME = "threads";
+
+    // how many chunks per thread may be genotyped ahead of the one being written
+    private static final int PENDING_CHUNKS_PER_THREAD = 4;
 
     private static final OneShotLogger warning = new OneShotLogger(GnarlyGenotyper.class);
 
@@ -137,6 +149,18 @@ public final class GnarlyGenotyper extends VariantWalker {
     @ArgumentCollection
     private final DbsnpArgumentCollection dbsnp = new DbsnpArgumentCollection();
 
+    /**
+     * Variants are read and written on the main thread and genotyped on this many threads, each with its own
+     * genotyping engine.  Consecutive variants are genotyped together in chunks, and the output is the same for any
+     * number of threads.
+     */
+    @Argument(fullName = THREADS_LONG_NAME, doc = "Number of threads on which to genotype variants", optional = true, minValue = 1)
+    private int threads = 1;
+
+    @Hidden
+    @Argument(fullName = "variants-per-chunk", doc = "Number of consecutive variants genotyped together when using more than one thread", optional = true, minValue = 1)
+    private int variantsPerChunk = 1000;
+
     private VariantContextWriter vcfWriter;
     private VariantContextWriter annotationDatabaseWriter = null;
     private GnarlyGenotyperEngine genotyperEngine;
@@ -146,6 +170,12 @@ public final class GnarlyGenotyper extends VariantWalker {
     /** these are used when {@link #onlyOutputCallsStartingInIntervals) is true */
     private List<SimpleInterval> intervals;
 
+    // used when genotyping on more than one thread
+    private List<GenotypingWorker> workers = null;
+    private List<VariantContext> currentChunk = new ArrayList<>();
+    private int nChunksSubmitted = 0;
+    private final OrderedResultQueue<GenotypedChunk> pendingChunks = new OrderedResultQueue<>();
+
     @Override
     public boolean requiresReference() {
         return true;
@@ -198,6 +228,14 @@ public final class GnarlyGenotyper extends VariantWalker {
         allAlleleSpecificAnnotations.addAll(reflections.getSubTypesOf(AS_RankSumTest.class));
         allAlleleSpecificAnnotations.add(AS_RMSMappingQuality.class);
         allAlleleSpecificAnnotations.add(AS_QualByDepth.class);
+
+        if (threads > 1) {
+            final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("gnarly-genotyper-thread-%d").setDaemon(true).build();
+            workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(new GenotypingWorker(threadFactory));
+            }
+        }
     }
 
     private void setupVCFWriter(VCFHeader inputVCFHeader, SampleList samples) {
@@ -258,9 +296,21 @@ public final class GnarlyGenotyper extends VariantWalker {
         }
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public void apply(VariantContext variant, ReadsContext reads, ReferenceContext ref, FeatureContext features) {
+        if (workers != null) {
+            submitVariant(variant);
+        } else {
+            genotypeVariant(variant, genotyperEngine, vcfWriter::add, annotationDatabaseWriter == null ? null : annotationDatabaseWriter::add);
+        }
+    }
+
+    /**
+     * @param calls receives the call for the variant, if there is one
+     * @param annotationDatabaseRecords receives the record for the annotation database, if it is being written
+     */
+    private void genotypeVariant(final VariantContext variant, final GnarlyGenotyperEngine genotyperEngine,
+                                 final Consumer<VariantContext> calls, final Consumer<VariantContext> annotationDatabaseRecords) {
         SimpleInterval variantStart = new SimpleInterval(variant.getContig(), variant.getStart(), variant.getStart());
         //return early if there's no non-symbolic ALT since GDB already did the merging
         if ( !variant.isVariant() || !GATKVariantContextUtils.isProperlyPolymorphic(variant)
@@ -270,7 +320,7 @@ public final class GnarlyGenotyper extends VariantWalker {
                 VariantContextBuilder builder = new VariantContextBuilder(mqCalculator.finalizeRawMQ(variant));  //don't fill in QUAL here because there's no alt data
                 builder.filter(GATKVCFConstants.LOW_QUAL_FILTER_NAME);
                 builder.attribute(GATKVCFConstants.AC_ADJUSTED_KEY, 0);
-                vcfWriter.add(builder.make());
+                calls.accept(builder.make());
             }
             return;
         }
@@ -284,21 +334,97 @@ public final class GnarlyGenotyper extends VariantWalker {
 
         final VariantContext finalizedVC;
         final VariantContextBuilder annotationDBBuilder;
-        if (annotationDatabaseWriter != null) {
+        if (annotationDatabaseRecords != null) {
             annotationDBBuilder = new VariantContextBuilder(variant);
             finalizedVC = genotyperEngine.finalizeGenotype(variant, annotationDBBuilder);
-            annotationDatabaseWriter.add(annotationDBBuilder.make());
+            annotationDatabaseRecords.accept(annotationDBBuilder.make());
         } else {
             finalizedVC = genotyperEngine.finalizeGenotype(variant);
         }
         //could return null if the variant didn't pass the genotyping arg calling/emission threshold
         if (finalizedVC != null && (!onlyOutputCallsStartingInIntervals || intervals.stream().anyMatch(interval -> interval.contains(variantStart)))) {
-            vcfWriter.add(finalizedVC);
+            calls.accept(finalizedVC);
+        }
+    }
+
+    private static final class GenotypedChunk {
+        private final List<VariantContext> calls = new ArrayList<>();
+        private final List<VariantContext> annotationDatabaseRecords = new ArrayList<>();
+    }
+
+    private final class GenotypingWorker implements AutoCloseable {
+        private final ExecutorService executor;
+        private final GnarlyGenotyperEngine engine;
+
+        private GenotypingWorker(final ThreadFactory threadFactory) {
+            executor = Executors.newSingleThreadExecutor(threadFactory);
+            engine = new GnarlyGenotyperEngine(keepAllSites, genotypeArgs.MAX_ALTERNATE_ALLELES, SUMMARIZE_PLs, stripASAnnotations);
+        }
+
+        private Future<GenotypedChunk> submit(final List<VariantContext> variants) {
+            return executor.submit(() -> {
+                final GenotypedChunk chunk = new GenotypedChunk();
+                for (final VariantContext variant : variants) {
+                    genotypeVariant(variant, engine, chunk.calls::add, annotationDatabaseWriter == null ? null : chunk.annotationDatabaseRecords::add);
+                }
+                return chunk;
+            });
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submitVariant(final VariantContext variant) {
+        // genotypes are decoded lazily by the codec that read them, which is not thread-safe
+        if (variant.getGenotypes() instanceof LazyGenotypesContext) {
+            ((LazyGenotypesContext) variant.getGenotypes()).decode();
+        }
+        currentChunk.add(variant);
+        if (currentChunk.size() >= variantsPerChunk) {
+            submitCurrentChunk();
+        }
+    }
+
+    private void submitCurrentChunk() {
+        if (!currentChunk.isEmpty()) {
+            final VariantContext chunkStart = currentChunk.get(0);
+            pendingChunks.add(workers.get(nChunksSubmitted++ % workers.size()).submit(currentChunk),
+                    () -> "genotyping variants starting at " + chunkStart.getContig() + ":" + chunkStart.getStart());
+            currentChunk = new ArrayList<>(variantsPerChunk);
+            writePendingChunks(workers.size() * PENDING_CHUNKS_PER_THREAD);
         }
     }
 
+    /**
+     * Write the output of the oldest chunks, in order, until no more than {@code maxPending} chunks are pending
+     */
+    private void writePendingChunks(final int maxPending) {
+        pendingChunks.consume(maxPending, chunk -> {
+            chunk.calls.forEach(vcfWriter::add);
+            if (annotationDatabaseWriter != null) {
+                chunk.annotationDatabaseRecords.forEach(annotationDatabaseWriter::add);
+            }
+        });
+    }
+
+    @Override
+    public Object onTraversalSuccess() {
+        if (workers != null) {
+            submitCurrentChunk();
+            writePendingChunks(0);
+        }
+        return null;
+    }
+
     @Override
     public void closeTool() {
+        if (workers != null) {
+            workers.forEach(GenotypingWorker::close);
+            workers = null;
+        }
         if ( vcfWriter != null) {
             vcfWriter.close();
         }
@@ -40,6 +40,8 @@ public final class GnarlyGenotyperEngine {
     private int[] likelihoodSizeCache;
     private final ArrayList<GenotypeLikelihoodCalculator> glcCache = new ArrayList<>();
     private Set<Class<? extends InfoFieldAnnotation>> allASAnnotations;
+    // instances of the allele-specific annotations in allASAnnotations that GenomicsDB reduces, in the same order
+    private final List<InfoFieldAnnotation> reducibleASAnnotations = new ArrayList<>();
 
     private final int maxAltAllelesToOutput;
     private final boolean summarizePls;  //for very large numbers of samples, save on space and hail import time by summarizing PLs with genotype quality metrics
@@ -71,6 +73,17 @@ public final class GnarlyGenotyperEngine {
         allASAnnotations = reflections.getSubTypesOf(InfoFieldAnnotation.class);
         allASAnnotations.addAll(reflections.getSubTypesOf(AS_StrandBiasTest.class));
         allASAnnotations.addAll(reflections.getSubTypesOf(AS_RankSumTest.class));
+        for (final Class<? extends InfoFieldAnnotation> c : allASAnnotations) {
+            try {
+                final InfoFieldAnnotation annotation = c.getDeclaredConstructor().newInstance();
+                if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
+                    reducibleASAnnotations.add(annotation);
+                }
+            }
+            catch (final Exception e) {
+                throw new IllegalStateException("Something went wrong: ", e);
+            }
+        }
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -112,19 +125,16 @@ public final class GnarlyGenotyperEngine {
 
         //Because AS_StrandBias annotations both use and return the raw key
         final Map<String, Object> annotationsToBeModified = new HashMap<>(vcWithMQ.getAttributes());
-        for (final Class c : allASAnnotations) {
+        for (final InfoFieldAnnotation annotation : reducibleASAnnotations) {
             try {
-                final InfoFieldAnnotation annotation = (InfoFieldAnnotation) c.getDeclaredConstructor().newInstance();
-                if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
-                    final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
-                    if (variant.hasAttribute(ann.getPrimaryRawKey())) {
-                        if (!stripASAnnotations) {
-                            //here we still have the non-ref
-                            final Map<String, Object> finalValue = ann.finalizeRawData(vcfBuilder.make(), variant);
-                            finalValue.forEach((key, value) -> annotationsToBeModified.put(key, value));
-                            if (annotationDBBuilder != null) {
-                                annotationDBBuilder.attribute(ann.getPrimaryRawKey(), variant.getAttribute(ann.getPrimaryRawKey()));
-                            }
+                final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
+                if (variant.hasAttribute(ann.getPrimaryRawKey())) {
+                    if (!stripASAnnotations) {
+                        //here we still have the non-ref
+                        final Map<String, Object> finalValue = ann.finalizeRawData(vcfBuilder.make(), variant);
+                        finalValue.forEach((key, value) -> annotationsToBeModified.put(key, value));
+                        if (annotationDBBuilder != null) {
+                            annotationDBBuilder.attribute(ann.getPrimaryRawKey(), variant.getAttribute(ann.getPrimaryRawKey()));
                         }
                     }
                 }
@@ -225,19 +235,15 @@ public final class GnarlyGenotyperEngine {
             annotationDBBuilder.noGenotypes();
         }
 
-        for (final Class c : allASAnnotations) {
+        for (final InfoFieldAnnotation annotation : reducibleASAnnotations) {
             try {
-                final InfoFieldAnnotation annotation = (InfoFieldAnnotation) c.getDeclaredConstructor().newInstance();
-                if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
-                    final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
-                    //trim NON_REF out of AS values
-                    //trim NON_REF out of AS values
-                    if (variant.hasAttribute(ann.getRawKeyNames().get(0))) {
-                        vcfBuilder.attribute(annotation.getKeyNames().get(0), trimASAnnotation(vcfBuilder.make(), targetAlleles, annotation.getKeyNames().get(0)));
-                    }
-                    if (!keepAllSites && variant.hasAttribute(ann.getRawKeyNames().get(0))) {
-                        vcfBuilder.rmAttribute(ann.getRawKeyNames().get(0));
-                    }
+                final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
+                //trim NON_REF out of AS values
+                if (variant.hasAttribute(ann.getRawKeyNames().get(0))) {
+                    vcfBuilder.attribute(annotation.getKeyNames().get(0), trimASAnnotation(vcfBuilder.make(), targetAlleles, annotation.getKeyNames().get(0)));
+                }
+                if (!keepAllSites && variant.hasAttribute(ann.getRawKeyNames().get(0))) {
+                    vcfBuilder.rmAttribute(ann.getRawKeyNames().get(0));
                 }
             }
             catch (final Exception e) {
@@ -246,19 +252,11 @@ public final class GnarlyGenotyperEngine {
         }
         //since AS_FS and AS_SOR share the same raw key, we have to wait to remove raw keys until all the finalized values are added
         if (!keepAllSites) {
-            for (final Class c : allASAnnotations) {
-                try {
-                    final InfoFieldAnnotation annotation = (InfoFieldAnnotation) c.getDeclaredConstructor().newInstance();
-                    if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
-                        final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
-                        for (final String rawKey : ann.getRawKeyNames()) {
-                            if (variant.hasAttribute(rawKey)) {
-                                vcfBuilder.rmAttribute(rawKey);
-                            }
-                        }
+            for (final InfoFieldAnnotation annotation : reducibleASAnnotations) {
+                for (final String rawKey : ((ReducibleAnnotation) annotation).getRawKeyNames()) {
+                    if (variant.hasAttribute(rawKey)) {
+                        vcfBuilder.rmAttribute(rawKey);
                     }
-                } catch (final Exception e) {
-                    throw new IllegalStateException("Something went wrong: ", e);
                 }
             }
         }
@@ -286,7 +286,9 @@ public class SomaticClusteringModel {
         return peaksAndMasses;
     }
 
-    private double getLogPriorOfSomaticVariant(final int indelLength) {
+    // synchronized because priors of indel lengths outside the prior map are added lazily, possibly from several
+    // threads calculating error probabilities
+    private synchronized double getLogPriorOfSomaticVariant(final int indelLength) {
         if (!logVariantPriors.containsKey(indelLength)) {
             logVariantPriors.put(indelLength, logVariantPriors.values().stream().mapToDouble(d -> d).min().getAsDouble());
         }
@@ -1,5 +1,7 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect.filtering;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.vcf.VCFHeader;
@@ -13,10 +15,13 @@ import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.MultiplePassVariantWalker;
 import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.engine.SynchronizedReferenceDataSource;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.contamination.CalculateContamination;
 import org.broadinstitute.hellbender.tools.walkers.mutect.Mutect2;
+import org.broadinstitute.hellbender.utils.OrderedResultQueue;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
@@ -24,10 +29,13 @@ import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFHeaderLines;
 import picard.cmdline.programgroups.VariantFilteringProgramGroup;
 import org.broadinstitute.hellbender.tools.walkers.readorientation.LearnReadOrientationModel;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -102,6 +110,26 @@ public final class FilterMutectCalls extends MultiplePassVariantWalker {
 
     private Mutect2FilteringEngine filteringEngine;
 
+    /**
+     * Worker threads for calculating error probabilities, or {@code null} if they are calculated on the engine thread.
+     */
+    private ExecutorService filteringExecutor;
+
+    /**
+     * Reference shared by the {@link ReferenceContext}s handed to {@link #filteringExecutor}.
+     */
+    private ReferenceDataSource filteringReference;
+
+    /**
+     * Variants submitted to {@link #filteringExecutor} that have not yet been processed by the engine, in input order.
+     */
+    private final OrderedResultQueue<Pair<VariantContext, ErrorProbabilities>> pendingErrorProbabilities = new OrderedResultQueue<>();
+
+    /**
+     * Maximum number of variants per thread whose error probabilities may be pending at once.
+     */
+    private static final int PENDING_VARIANTS_PER_THREAD = 1000;
+
     private static final int NUMBER_OF_LEARNING_PASSES = 2;
 
     @Override
@@ -135,6 +163,14 @@ public final class FilterMutectCalls extends MultiplePassVariantWalker {
                     " a calls.vcf" + Mutect2.DEFAULT_STATS_EXTENSION + " file.  Perhaps this file was not moved along with the vcf, or perhaps it was not delocalized from a" +
                     " virtual machine while running in the cloud." );
         }
+
+        if (MTFAC.filteringThreads > 1) {
+            logger.info("Calculating error probabilities on " + MTFAC.filteringThreads + " threads...");
+            // The engine's reference data source is not thread-safe, so the workers share their own copy:
+            filteringReference = new SynchronizedReferenceDataSource(ReferenceDataSource.of(referenceArguments.getReferencePath()));
+            filteringExecutor = Executors.newFixedThreadPool(MTFAC.filteringThreads,
+                    new ThreadFactoryBuilder().setNameFormat("filter-mutect-calls-thread-%d").setDaemon(true).build());
+        }
     }
 
     @Override
@@ -144,17 +180,54 @@ public final class FilterMutectCalls extends MultiplePassVariantWalker {
                                 final FeatureContext featureContext,
                                 final int n) {
         ParamUtils.isPositiveOrZero(n, "Passes must start at the 0th pass.");
-        if (n <= NUMBER_OF_LEARNING_PASSES) {
+        if (n > NUMBER_OF_LEARNING_PASSES + 1) {
+            throw new GATKException.ShouldNeverReachHereException("This walker should never reach (zero-indexed) pass " + n);
+        } else if (filteringExecutor != null) {
+            if (n > NUMBER_OF_LEARNING_PASSES || Mutect2FilteringEngine.isUsedForLearning(variant)) {
+                // Genotypes are decoded lazily by the codec of the driving variants, which is not thread-safe:
+                if (variant.getGenotypes() instanceof LazyGenotypesContext) {
+                    ((LazyGenotypesContext) variant.getGenotypes()).decode();
+                }
+                // Reference bases will be queried from the worker threads, so they must come from a thread-safe source:
+                final ReferenceContext sharedReferenceContext = new ReferenceContext(filteringReference, referenceContext.getInterval(), referenceContext.getWindow());
+                pendingErrorProbabilities.add(filteringExecutor.submit(
+                        () -> Pair.of(variant, filteringEngine.calculateErrorProbabilities(variant, sharedReferenceContext))),
+                        () -> "filtering variant at " + variant.getContig() + ":" + variant.getStart());
+                processPendingVariants(MTFAC.filteringThreads * PENDING_VARIANTS_PER_THREAD - 1, n);
+            }
+        } else if (n <= NUMBER_OF_LEARNING_PASSES) {
             filteringEngine.accumulateData(variant, referenceContext);
-        } else if (n == NUMBER_OF_LEARNING_PASSES + 1) {
+        } else {
             vcfWriter.add(filteringEngine.applyFiltersAndAccumulateOutputStats(variant, referenceContext));
+        }
+    }
+
+    /**
+     * Records data from, or filters and writes, a variant whose error probabilities have been calculated on a worker thread
+     */
+    private void processVariant(final VariantContext variant, final ErrorProbabilities errorProbabilities, final int n) {
+        if (n <= NUMBER_OF_LEARNING_PASSES) {
+            filteringEngine.accumulateData(variant, errorProbabilities);
         } else {
-            throw new GATKException.ShouldNeverReachHereException("This walker should never reach (zero-indexed) pass " + n);
+            vcfWriter.add(filteringEngine.applyFiltersAndAccumulateOutputStats(variant, errorProbabilities));
         }
     }
 
+    /**
+     * Processes the pending variants in input order, waiting for their error probabilities as necessary, until no more
+     * than {@code maxPending} variants remain.  Variants whose error probabilities are already done are also processed.
+     * @param maxPending The maximum number of variants that may still be pending when this method returns.
+     * @param n Which pass it is (zero-indexed)
+     */
+    private void processPendingVariants(final int maxPending, final int n) {
+        pendingErrorProbabilities.consume(maxPending, processed -> processVariant(processed.getLeft(), processed.getRight(), n));
+    }
+
     @Override
     protected void afterNthPass(final int n) {
+        // the parameters learned below must account for every variant in this pass
+        processPendingVariants(0, n);
+
         if (n < NUMBER_OF_LEARNING_PASSES) {
             filteringEngine.learnParameters();
         } else if (n == NUMBER_OF_LEARNING_PASSES) {
@@ -171,6 +244,14 @@ public final class FilterMutectCalls extends MultiplePassVariantWalker {
 
     @Override
     public void closeTool() {
+        if ( filteringExecutor != null ) {
+            filteringExecutor.shutdownNow();
+        }
+
+        if ( filteringReference != null ) {
+            filteringReference.close();
+        }
+
         if ( vcfWriter != null ) {
             vcfWriter.close();
         }
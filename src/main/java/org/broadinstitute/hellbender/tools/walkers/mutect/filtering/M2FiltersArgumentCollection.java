@@ -191,4 +191,13 @@ public class M2FiltersArgumentCollection {
 
     @Argument(fullName = LONG_INDEL_LENGTH_LONG_NAME, optional = true, doc = "Indels of this length or greater are treated specially by the mapping quality filter.")
     public int longIndelLength = DEFAULT_LONG_INDEL_SIZE;
+
+    /**
+     * Parallelism
+     */
+    public static final String FILTERING_THREADS_LONG_NAME = "filtering-threads";
+    private static final int DEFAULT_FILTERING_THREADS = 1;
+
+    @Argument(fullName = FILTERING_THREADS_LONG_NAME, optional = true, minValue = 1, doc = "Number of threads on which to compute the error probabilities of variants.  Output does not depend on the number of threads.")
+    public int filteringThreads = DEFAULT_FILTERING_THREADS;
 }
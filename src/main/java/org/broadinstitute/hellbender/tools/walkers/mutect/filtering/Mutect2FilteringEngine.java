@@ -132,16 +132,38 @@ public class Mutect2FilteringEngine {
     }
     // END HELPER METHODS
 
+    /**
+     * Calculate the error probabilities of a potential variant given the parameters learned so far.  This does not modify
+     * the state of the engine, so it may be called concurrently for different variants, provided that the
+     * {@link ReferenceContext}s may be queried from the calling threads.
+     */
+    public ErrorProbabilities calculateErrorProbabilities(final VariantContext vc, final ReferenceContext referenceContext) {
+        return new ErrorProbabilities(filters, vc, this, referenceContext);
+    }
+
+    /**
+     * @return whether {@link #accumulateData} records data from a potential variant.  GVCF mode sites where the only alt is NON-REF are ignored.
+     */
+    public static boolean isUsedForLearning(final VariantContext vc) {
+        return vc.getAlleles().stream().anyMatch(a -> a.isNonReference() && !a.isNonRefAllele());
+    }
+
     /**
      * record data from a potential variant in a non-final pass of {@link FilterMutectCalls}
      */
     public void accumulateData(final VariantContext vc, final ReferenceContext referenceContext) {
-        // ignore GVCF mode sites where the only alt is NON-REF
-        if (vc.getAlleles().stream().noneMatch(a -> a.isNonReference() && !a.isNonRefAllele())) {
+        if (!isUsedForLearning(vc)) {
             return;
         }
 
-        final ErrorProbabilities errorProbabilities = new ErrorProbabilities(filters, vc, this, referenceContext);
+        accumulateData(vc, calculateErrorProbabilities(vc, referenceContext));
+    }
+
+    /**
+     * record data from a potential variant in a non-final pass of {@link FilterMutectCalls}, given its error probabilities
+     * from {@link #calculateErrorProbabilities}.  Variants must be recorded in the order of the input.
+     */
+    public void accumulateData(final VariantContext vc, final ErrorProbabilities errorProbabilities) {
         filters.forEach(f -> f.accumulateDataForLearning(vc, errorProbabilities, this));
         final int[] tumorADs = sumADsOverSamples(vc, true, false);
         final double[] tumorLogOdds = Mutect2FilteringEngine.getTumorLogOdds(vc);
@@ -171,9 +193,16 @@ public class Mutect2FilteringEngine {
      * Create a filtered variant and record statistics for the final pass of {@link FilterMutectCalls}
      */
     public VariantContext applyFiltersAndAccumulateOutputStats(final VariantContext vc, final ReferenceContext referenceContext) {
+        return applyFiltersAndAccumulateOutputStats(vc, calculateErrorProbabilities(vc, referenceContext));
+    }
+
+    /**
+     * Create a filtered variant and record statistics for the final pass of {@link FilterMutectCalls}, given its error
+     * probabilities from {@link #calculateErrorProbabilities}.  Variants must be filtered in the order of the input.
+     */
+    public VariantContext applyFiltersAndAccumulateOutputStats(final VariantContext vc, final ErrorProbabilities errorProbabilities) {
         final VariantContextBuilder vcb = new VariantContextBuilder(vc).filters(new HashSet<>());
 
-        final ErrorProbabilities errorProbabilities = new ErrorProbabilities(filters, vc, this, referenceContext);
         filteringOutputStats.recordCall(errorProbabilities, getThreshold() - EPSILON);
 
         final boolean variantFailsFilters = errorProbabilities.getErrorProbability() > Math.min(1 - EPSILON, Math.max(EPSILON, getThreshold()));
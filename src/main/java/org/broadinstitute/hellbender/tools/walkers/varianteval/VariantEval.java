@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.varianteval;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
@@ -26,6 +27,7 @@ import org.broadinstitute.hellbender.tools.walkers.varianteval.stratifications.m
 import org.broadinstitute.hellbender.tools.walkers.varianteval.util.EvaluationContext;
 import org.broadinstitute.hellbender.tools.walkers.varianteval.util.SortableJexlVCMatchExp;
 import org.broadinstitute.hellbender.tools.walkers.varianteval.util.VariantEvalUtils;
+import org.broadinstitute.hellbender.utils.OrderedResultQueue;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
@@ -40,6 +42,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -128,6 +134,7 @@ import java.util.stream.Stream;
 @BetaFeature
 public class VariantEval extends MultiVariantWalker {
     public static final String IS_SINGLETON_KEY = "ISSINGLETON";
+    public static final String THREADS_LONG_NAME = "threads";
 
     @Argument(fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
             shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME,
@@ -246,6 +253,18 @@ public class VariantEval extends MultiVariantWalker {
     @Argument(fullName="known-cnvs", shortName="known-cnvs", doc="File containing tribble-readable features describing a known list of copy number variants", optional=true)
     public FeatureInput<Feature> knownCNVsFile = null;
 
+    /**
+     * Sites are divided into chunks of consecutive sites, which are evaluated on this many threads.  Each thread reads
+     * its own copy of the inputs and keeps its own copy of every evaluator, and the evaluators are combined when the
+     * traversal is complete.  Every evaluator must support combining its results.
+     */
+    @Argument(fullName = THREADS_LONG_NAME, doc="Number of threads on which to evaluate variants", optional=true, minValue = 1)
+    public int threads = 1;
+
+    @Hidden
+    @Argument(fullName = "sites-per-chunk", doc="Number of consecutive sites evaluated together when using more than one thread", optional=true, minValue = 1)
+    public int sitesPerChunk = 1000;
+
     protected StratifyingScale AFScale = StratifyingScale.LINEAR;
     protected boolean useCompAFStratifier = false;
 
@@ -306,6 +325,14 @@ public class VariantEval extends MultiVariantWalker {
     // maintain the mapping of FeatureInput to name used in output file
     Map<FeatureInput<VariantContext>, String> inputToNameMap = new HashMap<>();
 
+    private static final int PENDING_CHUNKS_PER_THREAD = 4;
+
+    // workers evaluating chunks of sites, or null if sites are evaluated on the engine thread
+    private List<EvaluationWorker> workers = null;
+    private List<SimpleInterval> currentChunk = new ArrayList<>();
+    private int nChunksSubmitted = 0;
+    private final OrderedResultQueue<Void> pendingChunks = new OrderedResultQueue<>();
+
     /**
      * Initialize the stratifications, evaluations, evaluation contexts, and reporting object
      */
@@ -404,6 +431,10 @@ public class VariantEval extends MultiVariantWalker {
         // Initialize the evaluation contexts
         createStratificationStates(stratificationObjects, evaluationClasses);
 
+        if ( threads > 1 ) {
+            initializeWorkers(evaluationClasses);
+        }
+
         // Load ancestral alignments
         if (ancestralAlignmentsFile != null) {
             try {
@@ -456,6 +487,23 @@ public class VariantEval extends MultiVariantWalker {
         }
     }
 
+    private void initializeWorkers(final Set<Class<? extends VariantEvaluator>> evaluationClasses) {
+        final String evaluatorsWithoutCombine = stratManager.get(0).getVariantEvaluators().stream()
+                .filter(ve -> ! ve.supportsCombine())
+                .map(VariantEvaluator::getSimpleName)
+                .collect(Collectors.joining(", "));
+        if ( ! evaluatorsWithoutCombine.isEmpty() )
+            throw new CommandLineException.BadArgumentValue(THREADS_LONG_NAME,
+                    "The following evaluators cannot be run on multiple threads because they don't support combining results: " + evaluatorsWithoutCombine);
+
+        logger.info("Evaluating variants on " + threads + " threads");
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("variant-eval-thread-%d").setDaemon(true).build();
+        workers = new ArrayList<>(threads);
+        for ( int i = 0; i < threads; i++ ) {
+            workers.add(new EvaluationWorker(threadFactory, evaluationClasses));
+        }
+    }
+
     /**
      * Create the EvaluationContext (new instance) for the provided set of VariantEvaluators.
      *
@@ -494,7 +542,11 @@ public class VariantEval extends MultiVariantWalker {
 
         public void callDoApply(){
             if (i != null) {
-                doApply(this.readsContext, this.referenceContext, this.featureContext);
+                if (workers == null) {
+                    doApply(this.readsContext, this.referenceContext, this.featureContext);
+                } else {
+                    submitSite(i);
+                }
                 i = null;
             }
         }
@@ -515,10 +567,80 @@ public class VariantEval extends MultiVariantWalker {
         return inputToNameMap.get(input);
     }
 
+    /**
+     * Evaluates chunks of sites on its own thread, with its own data sources, and updates its own copy of every
+     * {@link EvaluationContext}.  These are combined into {@link #stratManager} when the traversal is complete.
+     */
+    private final class EvaluationWorker implements AutoCloseable {
+        private final ExecutorService executor;
+        private final FeatureManager features;
+        private final ReferenceDataSource reference;
+
+        // indexed by stratification key, like stratManager
+        private final List<EvaluationContext> evaluationContexts;
+
+        private EvaluationWorker(final ThreadFactory threadFactory, final Set<Class<? extends VariantEvaluator>> evaluationClasses) {
+            executor = Executors.newSingleThreadExecutor(threadFactory);
+            features = new FeatureManager(VariantEval.this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer,
+                    cloudIndexPrefetchBuffer, getGenomicsDBOptions());
+            reference = hasReference() ? ReferenceDataSource.of(referenceArguments.getReferencePath()) : null;
+            evaluationContexts = new ArrayList<>(stratManager.size());
+            for ( int key = 0; key < stratManager.size(); key++ ) {
+                evaluationContexts.add(createEvaluationContext(evaluationClasses));
+            }
+        }
+
+        private Future<Void> submit(final List<SimpleInterval> sites) {
+            return executor.submit(() -> {
+                for ( final SimpleInterval site : sites ) {
+                    doApply(new ReadsContext(), new ReferenceContext(reference, site), new FeatureContext(features, site), evaluationContexts);
+                }
+            }, null);
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            features.close();
+            if ( reference != null ) {
+                reference.close();
+            }
+        }
+    }
+
+    private void submitSite(final SimpleInterval site) {
+        currentChunk.add(site);
+        if ( currentChunk.size() == sitesPerChunk ) {
+            submitCurrentChunk();
+        }
+    }
+
+    private void submitCurrentChunk() {
+        if ( ! currentChunk.isEmpty() ) {
+            // chunks are assigned in turn, so that the results don't depend on how long each chunk takes
+            final SimpleInterval chunkStart = currentChunk.get(0);
+            pendingChunks.add(workers.get(nChunksSubmitted++ % workers.size()).submit(currentChunk),
+                    () -> "evaluating variants starting at " + chunkStart.getContig() + ":" + chunkStart.getStart());
+            currentChunk = new ArrayList<>(sitesPerChunk);
+            waitForPendingChunks(workers.size() * PENDING_CHUNKS_PER_THREAD);
+        }
+    }
+
+    private void waitForPendingChunks(final int maxPending) {
+        pendingChunks.consume(maxPending, done -> {});
+    }
+
     /**
      * This will get called once per site where a variant is present in any input
      */
     public void doApply(ReadsContext readsContext, ReferenceContext referenceContext, FeatureContext featureContext) {
+        doApply(readsContext, referenceContext, featureContext, stratManager.values());
+    }
+
+    /**
+     * @param evaluationContexts the evaluation contexts to update, indexed by stratification key
+     */
+    private void doApply(ReadsContext readsContext, ReferenceContext referenceContext, FeatureContext featureContext, List<EvaluationContext> evaluationContexts) {
         HashMap<FeatureInput<VariantContext>, HashMap<String, Collection<VariantContext>>> evalVCs = variantEvalUtils.bindVariantContexts(referenceContext, featureContext, evals, byFilterIsEnabled, true, perSampleIsEnabled, perFamilyIsEnabled, mergeEvals);
         HashMap<FeatureInput<VariantContext>, HashMap<String, Collection<VariantContext>>> compVCs = variantEvalUtils.bindVariantContexts(referenceContext, featureContext, comps, byFilterIsEnabled, false, false, false, false);
 
@@ -544,7 +666,7 @@ public class VariantEval extends MultiVariantWalker {
 
                 // for each eval in the track
                 for ( VariantContext eval : evalSetBySample ) {
-                    String aastr = (ancestralAlignments == null) ? null : new String(ancestralAlignments.getSubsequenceAt(eval.getContig(), eval.getStart(), eval.getEnd()).getBases());
+                    String aastr = (ancestralAlignments == null) ? null : getAncestralBases(eval);
 
                     // deal with ancestral alleles if requested
                     if ( eval != null && aastr != null ) {
@@ -555,11 +677,11 @@ public class VariantEval extends MultiVariantWalker {
 
                     // for each comp track
                     for ( final FeatureInput<VariantContext> compInput : comps ) {
-                        processComp(referenceContext, readsContext, featureContext, eval, evalName, compInput, stratLevelName, compVCs, evalSetBySample);
+                        processComp(referenceContext, readsContext, featureContext, eval, evalName, compInput, stratLevelName, compVCs, evalSetBySample, evaluationContexts);
                     }
 
                     if (comps.isEmpty()) {
-                        processComp(referenceContext, readsContext, featureContext, eval, evalName, null, stratLevelName, compVCs, evalSetBySample);
+                        processComp(referenceContext, readsContext, featureContext, eval, evalName, null, stratLevelName, compVCs, evalSetBySample, evaluationContexts);
                     }
                 }
             }
@@ -568,7 +690,14 @@ public class VariantEval extends MultiVariantWalker {
         }
     }
 
-    private void processComp(ReferenceContext referenceContext, ReadsContext readsContext, FeatureContext featureContext, VariantContext eval, String evalName, FeatureInput<VariantContext> compInput, String stratLevelName, HashMap<FeatureInput<VariantContext>, HashMap<String, Collection<VariantContext>>> compVCs, Collection<VariantContext> evalSetBySample) {
+    private String getAncestralBases(final VariantContext eval) {
+        // the ancestral alignments are shared by all threads
+        synchronized (ancestralAlignments) {
+            return new String(ancestralAlignments.getSubsequenceAt(eval.getContig(), eval.getStart(), eval.getEnd()).getBases());
+        }
+    }
+
+    private void processComp(ReferenceContext referenceContext, ReadsContext readsContext, FeatureContext featureContext, VariantContext eval, String evalName, FeatureInput<VariantContext> compInput, String stratLevelName, HashMap<FeatureInput<VariantContext>, HashMap<String, Collection<VariantContext>>> compVCs, Collection<VariantContext> evalSetBySample, List<EvaluationContext> evaluationContexts) {
         String compName = getNameForInput(compInput);
 
         // no sample stratification for comps
@@ -580,14 +709,14 @@ public class VariantEval extends MultiVariantWalker {
 
         Collection<EvaluationContext> contextsForStratification;
         if (perFamilyIsEnabled)
-            contextsForStratification = getEvaluationContexts(referenceContext, readsContext, featureContext, eval, evalName, comp, compName, null, stratLevelName);
+            contextsForStratification = getEvaluationContexts(referenceContext, readsContext, featureContext, eval, evalName, comp, compName, null, stratLevelName, evaluationContexts);
         else {
             String familyID;
             if (stratLevelName.equals("all"))
                 familyID = "all";
             else
                 familyID = sampleDB.getSample(stratLevelName).getFamilyID();
-            contextsForStratification = getEvaluationContexts(referenceContext, readsContext, featureContext, eval, evalName, comp, compName, stratLevelName, familyID);
+            contextsForStratification = getEvaluationContexts(referenceContext, readsContext, featureContext, eval, evalName, comp, compName, stratLevelName, familyID, evaluationContexts);
         }
         for ( EvaluationContext nec : contextsForStratification ) {
 
@@ -630,7 +759,7 @@ public class VariantEval extends MultiVariantWalker {
      *
      *   K = [0, 1] where EVAL x COMP x ALL = 0 and EVAL x COMP x NOVEL = 1
      *
-     * It's clear that a better
+     * The keys are computed directly from the index of each state within its stratification, without walking the tree.
      *
      *
      * @param referenceContext
@@ -652,11 +781,30 @@ public class VariantEval extends MultiVariantWalker {
                                                                   final String compName,
                                                                   final String sampleName,
                                                                   final String familyName) {
-        final List<List<Object>> states = new LinkedList<List<Object>>();
-        for ( final VariantStratifier vs : stratManager.getStratifiers() ) {
+        return getEvaluationContexts(referenceContext, readsContext, featureContext, eval, evalName, comp, compName, sampleName, familyName, stratManager.values());
+    }
+
+    private Collection<EvaluationContext> getEvaluationContexts(final ReferenceContext referenceContext,
+                                                                final ReadsContext readsContext,
+                                                                final FeatureContext featureContext,
+                                                                final VariantContext eval,
+                                                                final String evalName,
+                                                                final VariantContext comp,
+                                                                final String compName,
+                                                                final String sampleName,
+                                                                final String familyName,
+                                                                final List<EvaluationContext> evaluationContexts) {
+        final List<VariantStratifier> stratifiers = stratManager.getStratifiers();
+        final List<List<Object>> states = new ArrayList<>(stratifiers.size());
+        for ( final VariantStratifier vs : stratifiers ) {
             states.add(vs.getRelevantStates(referenceContext, readsContext, featureContext, comp, compName, eval, evalName, sampleName, familyName));
         }
-        return stratManager.values(states);
+        final int[] keys = stratManager.getKeyArray(states);
+        final List<EvaluationContext> contexts = new ArrayList<>(keys.length);
+        for ( final int key : keys ) {
+            contexts.add(evaluationContexts.get(key));
+        }
+        return contexts;
     }
 
 
@@ -721,6 +869,19 @@ public class VariantEval extends MultiVariantWalker {
     public Object onTraversalSuccess() {
         aggr.onComplete();
 
+        if ( workers != null ) {
+            submitCurrentChunk();
+            waitForPendingChunks(0);
+
+            // combine in a fixed order so that the results are reproducible
+            for ( int key = 0; key < stratManager.size(); key++ ) {
+                for ( final EvaluationWorker worker : workers ) {
+                    stratManager.get(key).combine(worker.evaluationContexts.get(key));
+                }
+            }
+            closeWorkers();
+        }
+
         logger.info("Finalizing variant report");
         
         // go through the evaluations and finalize them
@@ -765,6 +926,18 @@ public class VariantEval extends MultiVariantWalker {
         return null;
     }
 
+    @Override
+    public void closeTool() {
+        closeWorkers();
+    }
+
+    private void closeWorkers() {
+        if ( workers != null ) {
+            workers.forEach(EvaluationWorker::close);
+            workers = null;
+        }
+    }
+
     // Accessors
     public Logger getLogger() { return logger; }
 
@@ -81,4 +81,17 @@ public class CompOverlap extends VariantEvaluator implements StandardEval {
             }
         }
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final CompOverlap that = (CompOverlap) other;
+        nEvalVariants += that.nEvalVariants;
+        nVariantsAtComp += that.nVariantsAtComp;
+        nConcordant += that.nConcordant;
+    }
 }
@@ -196,4 +196,30 @@ public class CountVariants extends VariantEvaluator implements StandardEval {
     public boolean requiresTerritoryToBeSpecified() {
         return true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final CountVariants that = (CountVariants) other;
+        nCalledLoci += that.nCalledLoci;
+        nRefLoci += that.nRefLoci;
+        nVariantLoci += that.nVariantLoci;
+        nSNPs += that.nSNPs;
+        nMNPs += that.nMNPs;
+        nInsertions += that.nInsertions;
+        nDeletions += that.nDeletions;
+        nComplex += that.nComplex;
+        nSymbolic += that.nSymbolic;
+        nMixed += that.nMixed;
+        nNoCalls += that.nNoCalls;
+        nHets += that.nHets;
+        nHomRef += that.nHomRef;
+        nHomVar += that.nHomVar;
+        nSingletons += that.nSingletons;
+        nHomDerived += that.nHomDerived;
+    }
+}
@@ -39,4 +39,16 @@ public class GenotypeFilterSummary extends VariantEvaluator {
             }
         }
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final GenotypeFilterSummary that = (GenotypeFilterSummary) other;
+        nCalledNotFiltered += that.nCalledNotFiltered;
+        nNoCallOrFiltered += that.nNoCallOrFiltered;
+    }
 }
@@ -97,4 +97,16 @@ public class IndelLengthHistogram extends VariantEvaluator implements StandardEv
         nIndels++;
         counts.put(len, counts.get(len) + 1);
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final IndelLengthHistogram that = (IndelLengthHistogram) other;
+        nIndels += that.nIndels;
+        that.counts.forEach((len, count) -> counts.merge(len, count, Integer::sum));
+    }
 }
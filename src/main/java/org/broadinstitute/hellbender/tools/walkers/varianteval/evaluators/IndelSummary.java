@@ -237,4 +237,36 @@ public class IndelSummary extends VariantEvaluator implements StandardEval {
         insertion_to_deletion_ratio_for_large_indels = Utils.formattedRatio(n_large_insertions, n_large_deletions);
 
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final IndelSummary that = (IndelSummary) other;
+        n_SNPs += that.n_SNPs;
+        n_singleton_SNPs += that.n_singleton_SNPs;
+        n_indels += that.n_indels;
+        n_singleton_indels += that.n_singleton_indels;
+        n_indels_matching_gold_standard += that.n_indels_matching_gold_standard;
+        nIndelSites += that.nIndelSites;
+        n_multiallelic_indel_sites += that.n_multiallelic_indel_sites;
+        n_novel_indels += that.n_novel_indels;
+        n_insertions += that.n_insertions;
+        n_deletions += that.n_deletions;
+        n_large_deletions += that.n_large_deletions;
+        n_large_insertions += that.n_large_insertions;
+        n_coding_indels_frameshifting += that.n_coding_indels_frameshifting;
+        n_coding_indels_in_frame += that.n_coding_indels_in_frame;
+        nSNPHets += that.nSNPHets;
+        nSNPHoms += that.nSNPHoms;
+        nIndelHets += that.nIndelHets;
+        nIndelHoms += that.nIndelHoms;
+        for ( int i = 0; i < insertionCountByLength.length; i++ ) {
+            insertionCountByLength[i] += that.insertionCountByLength[i];
+            deletionCountByLength[i] += that.deletionCountByLength[i];
+        }
+    }
 }
@@ -39,4 +39,14 @@ public class MetricsCollection extends VariantEvaluator {
         this.indelRatioLociBased = indelRatioLociBased;
         this.tiTvRatio = tiTvRatio;
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        // nothing to do: the data are set from the other evaluators after they are combined and finalized
+    }
 }
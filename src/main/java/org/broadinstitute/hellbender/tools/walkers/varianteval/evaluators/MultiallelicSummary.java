@@ -147,4 +147,24 @@ public class MultiallelicSummary extends VariantEvaluator implements StandardEva
     public boolean requiresTerritoryToBeSpecified() {
         return true;
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final MultiallelicSummary that = (MultiallelicSummary) other;
+        nSNPs += that.nSNPs;
+        nMultiSNPs += that.nMultiSNPs;
+        nIndels += that.nIndels;
+        nMultiIndels += that.nMultiIndels;
+        nTi += that.nTi;
+        nTv += that.nTv;
+        knownSNPsPartial += that.knownSNPsPartial;
+        knownSNPsComplete += that.knownSNPsComplete;
+        knownIndelsPartial += that.knownIndelsPartial;
+        knownIndelsComplete += that.knownIndelsComplete;
+    }
 }
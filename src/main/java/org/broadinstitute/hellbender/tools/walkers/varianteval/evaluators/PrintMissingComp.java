@@ -28,4 +28,15 @@ public class PrintMissingComp extends VariantEvaluator {
             nMissing++;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final PrintMissingComp that = (PrintMissingComp) other;
+        nMissing += that.nMissing;
+    }
+}
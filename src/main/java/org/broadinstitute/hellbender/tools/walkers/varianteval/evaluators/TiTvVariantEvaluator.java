@@ -72,4 +72,20 @@ public class TiTvVariantEvaluator extends VariantEvaluator implements StandardEv
         this.tiTvDerivedRatio = rate(nTiDerived,nTvDerived);
         this.TiTvRatioStandard = rate(nTiInComp, nTvInComp);
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final TiTvVariantEvaluator that = (TiTvVariantEvaluator) other;
+        nTi += that.nTi;
+        nTv += that.nTv;
+        nTiInComp += that.nTiInComp;
+        nTvInComp += that.nTvInComp;
+        nTiDerived += that.nTiDerived;
+        nTvDerived += that.nTvDerived;
+    }
 }
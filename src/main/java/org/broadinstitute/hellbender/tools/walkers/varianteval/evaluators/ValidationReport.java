@@ -146,4 +146,18 @@ public class ValidationReport extends VariantEvaluator implements StandardEval {
             return false;
         }
     }
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final ValidationReport that = (ValidationReport) other;
+        nDifferentAlleleSites += that.nDifferentAlleleSites;
+        for ( int i = 0; i < counts.length; i++ )
+            for ( int j = 0; j < counts[i].length; j++ )
+                counts[i][j] += that.counts[i][j];
+    }
 }
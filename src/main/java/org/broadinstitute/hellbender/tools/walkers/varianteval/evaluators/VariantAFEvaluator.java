@@ -73,5 +73,19 @@ public class VariantAFEvaluator extends VariantEvaluator {
     public void finalizeEvaluation() {
         this.avgVarAF = this.totalCalledSites == 0 ? 0 : this.sumVariantAFs / this.totalCalledSites;
     }
-}
 
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final VariantAFEvaluator that = (VariantAFEvaluator) other;
+        totalCalledSites += that.totalCalledSites;
+        totalHetSites += that.totalHetSites;
+        totalHomVarSites += that.totalHomVarSites;
+        totalHomRefSites += that.totalHomRefSites;
+        sumVariantAFs += that.sumVariantAFs;
+    }
+}
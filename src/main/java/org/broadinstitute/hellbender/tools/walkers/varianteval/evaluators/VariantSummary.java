@@ -97,6 +97,12 @@ public class VariantSummary extends VariantEvaluator implements StandardEval {
             get(type).put(sample, count + 1);
         }
 
+        public final void add(final TypeSampleMap other) {
+            for ( final Map.Entry<Type, Map<String, Integer>> bySample : other.entrySet() ) {
+                bySample.getValue().forEach((sample, count) -> get(bySample.getKey()).merge(sample, count, Integer::sum));
+            }
+        }
+
         public final int all(Type type) {
             return get(type).get(ALL);
         }
@@ -253,4 +259,20 @@ public class VariantSummary extends VariantEvaluator implements StandardEval {
     public boolean requiresTerritoryToBeSpecified() {
         return true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean supportsCombine() {
+        return true;
+    }
+
+    @Override
+    public void combine(final VariantEvaluator other) {
+        final VariantSummary that = (VariantSummary) other;
+        allVariantCounts.add(that.allVariantCounts);
+        knownVariantCounts.add(that.knownVariantCounts);
+        countsPerSample.add(that.countsPerSample);
+        transitionsPerSample.add(that.transitionsPerSample);
+        transversionsPerSample.add(that.transversionsPerSample);
+        depthPerSample.add(that.depthPerSample);
+    }
+}
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -34,6 +35,11 @@ public class StratificationManager<K extends Stratifier<Object>, V> implements M
     private final ArrayList<List<Object>> stratifierValuesByKey;
     private final ArrayList<String> keyStrings;
 
+    // for each stratifier, the index of each of its states in getAllStates()
+    private final List<Map<Object, Integer>> stateIndices;
+    // the key for each combination of state indices, indexed as a mixed-radix number with the first stratifier most significant
+    private final int[] keysByStateIndices;
+
     // -------------------------------------------------------------------------------------
     //
     // creating the manager
@@ -70,6 +76,32 @@ public class StratificationManager<K extends Stratifier<Object>, V> implements M
         }
 
         assignStratifierValuesByKey(root);
+
+        this.stateIndices = new ArrayList<>(stratifiers.size());
+        for ( final K stratifier : stratifiers ) {
+            final Map<Object, Integer> indices = new HashMap<>();
+            for ( final Object state : stratifier.getAllStates() )
+                indices.putIfAbsent(state, indices.size());
+            stateIndices.add(indices);
+        }
+        this.keysByStateIndices = new int[size()];
+        for ( int key = 0; key < size(); key++ )
+            keysByStateIndices[getStateIndex(stratifierValuesByKey.get(key))] = key;
+    }
+
+    /**
+     * @return the index into keysByStateIndices of a single combination of states, or -1 if any state is unknown
+     */
+    private int getStateIndex(final List<Object> states) {
+        int index = 0;
+        for ( int i = 0; i < stratifiers.size(); i++ ) {
+            final Map<Object, Integer> indices = stateIndices.get(i);
+            final Integer stateIndex = indices.get(states.get(i));
+            if ( stateIndex == null )
+                return -1;
+            index = index * indices.size() + stateIndex;
+        }
+        return index;
     }
 
     /**
@@ -175,15 +207,65 @@ public class StratificationManager<K extends Stratifier<Object>, V> implements M
     // -------------------------------------------------------------------------------------
 
     public int getKey(final List<Object> states) {
-        return root.find(states, 0);
+        final int index = getStateIndex(states);
+        return index == -1 ? -1 : keysByStateIndices[index];
     }
 
     public Set<Integer> getKeys(final List<List<Object>> allStates) {
         final HashSet<Integer> keys = new HashSet<Integer>();
-        root.find(allStates, 0, keys);
+        for ( final int key : getKeyArray(allStates) )
+            keys.add(key);
         return keys;
     }
 
+    /**
+     * Get the keys of all combinations of states, taking one state from each of allStates, without walking the
+     * stratification tree.
+     *
+     * @param allStates for each stratifier, the states to combine.  Repeated states are only counted once.
+     * @return the distinct keys of all of the combinations
+     */
+    public int[] getKeyArray(final List<List<Object>> allStates) {
+        if ( allStates.size() != stratifiers.size() )
+            throw new GATKException("Expected states for " + stratifiers.size() + " stratifications but got " + allStates.size());
+
+        // expand the mixed-radix index one stratifier at a time
+        int[] indices = new int[]{0};
+        int nIndices = 1;
+        for ( int i = 0; i < stratifiers.size(); i++ ) {
+            final Map<Object, Integer> stateIndicesForStrat = stateIndices.get(i);
+            final List<Object> states = allStates.get(i);
+            final int[] stateIndicesHere = new int[states.size()];
+            int nStates = 0;
+            for ( final Object state : states ) {
+                final Integer stateIndex = stateIndicesForStrat.get(state);
+                if ( stateIndex == null )
+                    throw new GATKException("Couldn't find state for " + state + " in stratification " + stratifiers.get(i));
+                if ( ! contains(stateIndicesHere, nStates, stateIndex) )
+                    stateIndicesHere[nStates++] = stateIndex;
+            }
+
+            final int[] expanded = new int[nIndices * nStates];
+            int n = 0;
+            for ( int j = 0; j < nIndices; j++ )
+                for ( int k = 0; k < nStates; k++ )
+                    expanded[n++] = indices[j] * stateIndicesForStrat.size() + stateIndicesHere[k];
+            indices = expanded;
+            nIndices = n;
+        }
+
+        for ( int j = 0; j < nIndices; j++ )
+            indices[j] = keysByStateIndices[indices[j]];
+        return indices;
+    }
+
+    private static boolean contains(final int[] values, final int n, final int value) {
+        for ( int i = 0; i < n; i++ )
+            if ( values[i] == value )
+                return true;
+        return false;
+    }
+
     public List<Object> getStatesForKey(final int key) {
         final List<Object> states = new ArrayList<Object>(stratifiers.size());
         for ( int i = 0; i < stratifiers.size(); i++ ) {
@@ -229,9 +311,9 @@ public class StratificationManager<K extends Stratifier<Object>, V> implements M
     }
     
     public Collection<V> values(List<List<Object>> states) {
-        // TODO -- SHOULD BE INLINE TO AVOID CREATING LIST OF KEYS JUST TO ITERATE OVER IT
-        Collection<V> vals = new LinkedList<V>();
-        for ( int key : getKeys(states) ) 
+        final int[] keys = getKeyArray(states);
+        final List<V> vals = new ArrayList<V>(keys.length);
+        for ( final int key : keys )
             vals.add(get(key));
         return vals;
     }
@@ -433,7 +433,7 @@ public final class SelectVariants extends VariantWalker {
 
     private Set<VariantContext.Type> selectedTypes = new LinkedHashSet<>();
     private final ArrayList<String> selectNames = new ArrayList<>();
-    private List<VariantContextUtils.JexlVCMatchExp> jexls = null;
+    private List<JexlVariantMatcher> jexls = null;
 
     private boolean discordanceOnly = false;
     private boolean concordanceOnly = false;
@@ -468,7 +468,7 @@ public final class SelectVariants extends VariantWalker {
             selectNames.add(String.format("select-%d", i));
         }
 
-        jexls = VariantContextUtils.initializeMatchExps(selectNames, selectExpressions);
+        jexls = JexlVariantMatcher.compile(VariantContextUtils.initializeMatchExps(selectNames, selectExpressions));
 
         // Prepare the sample names and types to be used by the corresponding filters
         samples = createSampleNameInclusionList(vcfHeaders);
@@ -600,8 +600,8 @@ public final class SelectVariants extends VariantWalker {
             boolean failedJexlMatch = false;
 
             try {
-                for (VariantContextUtils.JexlVCMatchExp jexl : jexls) {
-                    if (invertLogic(!VariantContextUtils.match(filteredGenotypeToNocall, jexl), invertSelect)){
+                for (JexlVariantMatcher jexl : jexls) {
+                    if (invertLogic(!jexl.match(filteredGenotypeToNocall), invertSelect)){
                         failedJexlMatch = true;
                         break;
                     }
@@ -17,6 +17,7 @@ import picard.cmdline.programgroups.VariantEvaluationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.VariantFieldSelection;
 import org.broadinstitute.hellbender.engine.VariantWalker;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.Utils;
@@ -207,6 +208,28 @@ public final class VariantsToTable extends VariantWalker {
     private PrintStream outputStream = null;
     private VCFHeader inputHeader;
 
+    /**
+     * Standard fields that are computed from the genotypes of all samples.
+     */
+    private static final Set<String> GENOTYPE_COUNT_FIELDS = new HashSet<>(Arrays.asList(
+            "HET", "HOM-REF", "HOM-VAR", "NO-CALL", "VAR", "NSAMPLES", "NCALLED"));
+
+    /**
+     * Only decode the requested INFO and FORMAT fields, and only decode samples if a requested field needs them.
+     */
+    @Override
+    protected VariantFieldSelection getDrivingVariantFieldSelection() {
+        final List<String> infoFields = new ArrayList<>(fieldsToTake);
+        infoFields.addAll(asFieldsToTake);
+        final List<String> formatFields = new ArrayList<>(genotypeFieldsToTake);
+        formatFields.addAll(asGenotypeFieldsToTake);
+        final boolean needsSamples = !formatFields.isEmpty() || fieldsToTake.stream().anyMatch(GENOTYPE_COUNT_FIELDS::contains);
+        return new VariantFieldSelection(
+                infoFields.stream().anyMatch(VariantsToTable::isWildCard) ? null : infoFields,
+                formatFields,
+                needsSamples ? null : Collections.emptySet());
+    }
+
     @Override
     public void onTraversalStart() {
         inputHeader = getHeaderForVariants();
@@ -10,6 +10,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import Jama.Matrix;
 
@@ -59,7 +61,10 @@ class GaussianMixtureModel {
 
     }
 
-    public void initializeRandomModel( final List<VariantDatum> data, final int numKMeansIterations ) {
+    /**
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     */
+    public void initializeRandomModel( final double[] annotations, final int numKMeansIterations ) {
 
         // initialize random Gaussian means // BUGBUG: this is broken up this way to match the order of calls to rand.nextDouble() in the old code
         for( final MultivariateGaussian gaussian : gaussians ) {
@@ -68,7 +73,7 @@ class GaussianMixtureModel {
 
         // initialize means using K-means algorithm
         logger.info( "Initializing model with " + numKMeansIterations + " k-means iterations..." );
-        initializeMeansUsingKMeans( data, numKMeansIterations );
+        initializeMeansUsingKMeans( annotations, numKMeansIterations );
 
         // initialize uniform mixture coefficients, random covariance matrices, and initial hyperparameters
         for( final MultivariateGaussian gaussian : gaussians ) {
@@ -81,34 +86,37 @@ class GaussianMixtureModel {
         }
     }
 
-    private void initializeMeansUsingKMeans( final List<VariantDatum> data, final int numIterations ) {
+    private void initializeMeansUsingKMeans( final double[] annotations, final int numIterations ) {
 
+        final int numAnnotations = getNumAnnotations();
+        final int numData = annotations.length / numAnnotations;
+        final int[] assignments = new int[numData]; // index of the Gaussian assigned to each datum, or -1 if none
         int ttt = 0;
         while( ttt++ < numIterations ) {
             // E step: assign each variant to the nearest cluster
-            for( final VariantDatum datum : data ) {
+            for( int datumIndex = 0; datumIndex < numData; datumIndex++ ) {
                 double minDistance = Double.MAX_VALUE;
-                MultivariateGaussian minGaussian = null;
-                datum.assignment = minGaussian;
-                for( final MultivariateGaussian gaussian : gaussians ) {
-                    final double dist = gaussian.calculateDistanceFromMeanSquared( datum );
+                int minGaussianIndex = -1;
+                for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                    final double dist = gaussians.get(gaussianIndex).calculateDistanceFromMeanSquared( annotations, datumIndex * numAnnotations );
                     if( dist < minDistance ) {
                         minDistance = dist;
-                        minGaussian = gaussian;
+                        minGaussianIndex = gaussianIndex;
                     }
                 }
-                datum.assignment = minGaussian;
+                assignments[datumIndex] = minGaussianIndex;
             }
 
             // M step: update gaussian means based on assigned variants
-            for( final MultivariateGaussian gaussian : gaussians ) {
+            for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                final MultivariateGaussian gaussian = gaussians.get(gaussianIndex);
                 gaussian.zeroOutMu();
                 int numAssigned = 0;
 
-                for( final VariantDatum datum : data ) {
-                    if( datum.assignment.equals(gaussian) ) {
+                for( int datumIndex = 0; datumIndex < numData; datumIndex++ ) {
+                    if( assignments[datumIndex] == gaussianIndex ) {
                         numAssigned++;
-                        gaussian.incrementMu( datum );
+                        gaussian.incrementMu( annotations, datumIndex * numAnnotations );
                     }
                 }
                 if( numAssigned != 0 ) {
@@ -120,32 +128,52 @@ class GaussianMixtureModel {
         }
     }
 
-    public void expectationStep( final List<VariantDatum> data ) {
+    /**
+     * Computes the responsibility of each Gaussian for each datum.  Data are processed in parallel on the given pool;
+     * since the responsibilities for each datum are computed independently, results do not depend on the number of threads.
+     *
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     */
+    public void expectationStep( final double[] annotations, final ForkJoinPool pool ) {
 
         for( final MultivariateGaussian gaussian : gaussians ) {
             gaussian.precomputeDenominatorForVariationalBayes( getSumHyperParameterLambda() );
         }
 
-        for( final VariantDatum datum : data ) {
-            final double[] pVarInGaussianLog10 = gaussians.stream().mapToDouble(g -> g.evaluateDatumLog10(datum)).toArray();
+        final int numAnnotations = getNumAnnotations();
+        pool.submit(() -> IntStream.range(0, annotations.length / numAnnotations).parallel().forEach(datumIndex -> {
+            final double[] pVarInGaussianLog10 = new double[gaussians.size()];
+            for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                pVarInGaussianLog10[gaussianIndex] = gaussians.get(gaussianIndex).evaluateDatumLog10( annotations, datumIndex * numAnnotations );
+            }
             final double[] pVarInGaussianNormalized = MathUtils.normalizeLog10DeleteMePlease( pVarInGaussianLog10, false);
-            int gaussianIndex = 0;
-            for( final MultivariateGaussian gaussian : gaussians ) {
-                gaussian.assignPVarInGaussian( pVarInGaussianNormalized[gaussianIndex++] );
+            for( int gaussianIndex = 0; gaussianIndex < gaussians.size(); gaussianIndex++ ) {
+                gaussians.get(gaussianIndex).assignPVarInGaussian( datumIndex, pVarInGaussianNormalized[gaussianIndex] );
             }
-        }
+        })).join();
     }
 
-    public void maximizationStep( final List<VariantDatum> data ) {
-        gaussians.forEach(g -> g.maximizeGaussian( data, empiricalMu, empiricalSigma, shrinkage, dirichletParameter, priorCounts));
+    /**
+     * Updates the parameters of each Gaussian.  Gaussians are processed in parallel on the given pool, with the sufficient
+     * statistics for each accumulated over data in order, so that results do not depend on the number of threads.
+     *
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     */
+    public void maximizationStep( final double[] annotations, final ForkJoinPool pool ) {
+        pool.submit(() -> gaussians.parallelStream()
+                .forEach(g -> g.maximizeGaussian( annotations, empiricalMu, empiricalSigma, shrinkage, dirichletParameter, priorCounts)))
+                .join();
     }
 
     private double getSumHyperParameterLambda() {
         return gaussians.stream().mapToDouble(g -> g.hyperParameter_lambda).sum();
     }
 
-    public void evaluateFinalModelParameters( final List<VariantDatum> data ) {
-        gaussians.forEach(g -> g.evaluateFinalModelParameters(data));
+    /**
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     */
+    public void evaluateFinalModelParameters( final double[] annotations, final ForkJoinPool pool ) {
+        pool.submit(() -> gaussians.parallelStream().forEach(g -> g.evaluateFinalModelParameters(annotations))).join();
         normalizePMixtureLog10();
     }
 
@@ -190,49 +218,51 @@ class GaussianMixtureModel {
         return MathUtils.log10sumLog10(values);
     }
 
-    public double evaluateDatum( final VariantDatum datum ) {
-        for( final boolean isNull : datum.isNull ) {
-            if( isNull ) {
-                return evaluateDatumMarginalized( datum );
-            }
+    public double evaluateDatum( final VariantDataTable data, final int datum ) {
+        if( data.hasMissingAnnotations(datum) ) {
+            return evaluateDatumMarginalized( data, datum );
         }
         // Fill an array with the log10 probability coming from each Gaussian and then use MathUtils to sum them up correctly
+        final double[] annotations = data.getAnnotationMatrix();
+        final int offset = data.getAnnotationOffset(datum);
         final double[] pVarInGaussianLog10 = new double[gaussians.size()];
         int gaussianIndex = 0;
         for( final MultivariateGaussian gaussian : gaussians ) {
-            pVarInGaussianLog10[gaussianIndex++] = gaussian.pMixtureLog10 + gaussian.evaluateDatumLog10( datum );
+            pVarInGaussianLog10[gaussianIndex++] = gaussian.pMixtureLog10 + gaussian.evaluateDatumLog10( annotations, offset );
         }
         return nanTolerantLog10SumLog10(pVarInGaussianLog10); // Sum(pi_k * p(v|n,k))
     }
 
     // Used only to decide which covariate dimension is most divergent in order to report in the culprit info field annotation
-    public Double evaluateDatumInOneDimension( final VariantDatum datum, final int iii ) {
-        if(datum.isNull[iii]) { return null; }
+    public Double evaluateDatumInOneDimension( final VariantDataTable data, final int datum, final int iii ) {
+        if(data.isNull(datum, iii)) { return null; }
 
         final double[] pVarInGaussianLog10 = new double[gaussians.size()];
         int gaussianIndex = 0;
         for( final MultivariateGaussian gaussian : gaussians ) {
-            pVarInGaussianLog10[gaussianIndex++] = gaussian.pMixtureLog10 + MathUtils.normalDistributionLog10(gaussian.mu[iii], gaussian.sigma.get(iii, iii), datum.annotations[iii]);
+            pVarInGaussianLog10[gaussianIndex++] = gaussian.pMixtureLog10 + MathUtils.normalDistributionLog10(gaussian.mu[iii], gaussian.sigma.get(iii, iii), data.getAnnotation(datum, iii));
         }
         return nanTolerantLog10SumLog10(pVarInGaussianLog10); // Sum(pi_k * p(v|n,k))
     }
 
-    public double evaluateDatumMarginalized( final VariantDatum datum ) {
+    public double evaluateDatumMarginalized( final VariantDataTable data, final int datum ) {
         int numRandomDraws = 0;
         double sumPVarInGaussian = 0.0;
         final int numIterPerMissingAnnotation = 20; // Trade off here between speed of computation and accuracy of the marginalization
         final double[] pVarInGaussianLog10 = new double[gaussians.size()];
+        final double[] annotations = data.getAnnotationMatrix();
+        final int offset = data.getAnnotationOffset(datum);
         // for each dimension
-        for( int iii = 0; iii < datum.annotations.length; iii++ ) {
+        for( int iii = 0; iii < data.getNumAnnotations(); iii++ ) {
             // if it is missing marginalize over the missing dimension by drawing X random values for the missing annotation and averaging the lod
-            if( datum.isNull[iii] ) {
+            if( data.isNull(datum, iii) ) {
                 for( int ttt = 0; ttt < numIterPerMissingAnnotation; ttt++ ) {
-                    datum.annotations[iii] = Utils.getRandomGenerator().nextGaussian(); // draw a random sample from the standard normal distribution
+                    annotations[offset + iii] = Utils.getRandomGenerator().nextGaussian(); // draw a random sample from the standard normal distribution
 
                     // evaluate this random data point
                     int gaussianIndex = 0;
                     for( final MultivariateGaussian gaussian : gaussians ) {
-                        pVarInGaussianLog10[gaussianIndex++] = gaussian.pMixtureLog10 + gaussian.evaluateDatumLog10( datum );
+                        pVarInGaussianLog10[gaussianIndex++] = gaussian.pMixtureLog10 + gaussian.evaluateDatumLog10( annotations, offset );
                     }
 
                     // add this sample's probability to the pile in order to take an average in the end
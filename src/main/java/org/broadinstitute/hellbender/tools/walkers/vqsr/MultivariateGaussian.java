@@ -7,7 +7,6 @@ import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.MathUtils;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
 
 import Jama.Matrix;
@@ -23,13 +22,11 @@ class MultivariateGaussian {
     private double cachedDenomLog10;
     private Matrix cachedSigmaInverse;
     final private double[] pVarInGaussian;
-    int pVarInGaussianIndex;
 
     public MultivariateGaussian( final int numVariants, final int numAnnotations  ) {
         mu = new double[numAnnotations];
         sigma = new Matrix(numAnnotations, numAnnotations);
         pVarInGaussian = new double[numVariants];
-        pVarInGaussianIndex = 0;
     }
 
     public void zeroOutMu() {
@@ -67,17 +64,25 @@ class MultivariateGaussian {
         sigma.setMatrix(0, mu.length - 1, 0, mu.length - 1, tmp);
     }
 
-    public double calculateDistanceFromMeanSquared( final VariantDatum datum ) {
-        return MathUtils.distanceSquared( datum.annotations, mu );
-    }
-
-    public void incrementMu( final VariantDatum datum ) {
-        incrementMu( datum, 1.0 );
+    /**
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     * @param offset      index in {@code annotations} of the first annotation of the datum
+     */
+    public double calculateDistanceFromMeanSquared( final double[] annotations, final int offset ) {
+        double sum = 0.0;
+        for( int jjj = 0; jjj < mu.length; jjj++ ) {
+            sum += MathUtils.square( annotations[offset + jjj] - mu[jjj] );
+        }
+        return sum;
     }
 
-    public void incrementMu( final VariantDatum datum, final double prob ) {
+    /**
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     * @param offset      index in {@code annotations} of the first annotation of the datum
+     */
+    public void incrementMu( final double[] annotations, final int offset ) {
         for( int jjj = 0; jjj < mu.length; jjj++ ) {
-            mu[jjj] += prob * datum.annotations[jjj];
+            mu[jjj] += annotations[offset + jjj];
         }
     }
 
@@ -126,44 +131,90 @@ class MultivariateGaussian {
         cachedDenomLog10 = (pi / Math.log(10.0)) + (lambda / Math.log(10.0)) + (beta / Math.log(10.0));
     }
 
-    public double evaluateDatumLog10( final VariantDatum datum ) {
+    /**
+     * Evaluates a single datum stored in a flat, row-major annotation matrix (see {@link VariantDataTable#copyAnnotations}).
+     * Only reads the state of this Gaussian, so it is safe to call concurrently once denominators have been precomputed.
+     *
+     * @param annotations flat annotation matrix
+     * @param offset      index in {@code annotations} of the first annotation of the datum
+     */
+    public double evaluateDatumLog10( final double[] annotations, final int offset ) {
+        final double[][] sigmaInverse = cachedSigmaInverse.getArray();
         double sumKernel = 0.0;
         final double[] crossProdTmp = new double[mu.length];
-        Arrays.fill(crossProdTmp, 0.0);
         for( int iii = 0; iii < mu.length; iii++ ) {
             for( int jjj = 0; jjj < mu.length; jjj++ ) {
-                crossProdTmp[iii] += (datum.annotations[jjj] - mu[jjj]) * cachedSigmaInverse.get(jjj, iii);
+                crossProdTmp[iii] += (annotations[offset + jjj] - mu[jjj]) * sigmaInverse[jjj][iii];
             }
         }
         for( int iii = 0; iii < mu.length; iii++ ) {
-            sumKernel += crossProdTmp[iii] * (datum.annotations[iii] - mu[iii]);
+            sumKernel += crossProdTmp[iii] * (annotations[offset + iii] - mu[iii]);
         }
 
         return (( -0.5 * sumKernel ) / Math.log(10.0)) + cachedDenomLog10; // This is the definition of a Gaussian PDF Log10
     }
 
-    public void assignPVarInGaussian( final double pVar ) {
-        pVarInGaussian[pVarInGaussianIndex++] = pVar;
+    /**
+     * Sets the responsibility of this Gaussian for a single datum.  Distinct data may be assigned concurrently.
+     */
+    public void assignPVarInGaussian( final int datumIndex, final double pVar ) {
+        pVarInGaussian[datumIndex] = pVar;
     }
 
     public void resetPVarInGaussian() {
         Arrays.fill(pVarInGaussian, 0.0);
-        pVarInGaussianIndex = 0;
     }
 
-    public void maximizeGaussian(final List<VariantDatum> data, final double[] empiricalMu, final Matrix empiricalSigma,
+    /**
+     * Sums the responsibility-weighted annotations into {@link #mu} and returns the sum of the responsibilities plus
+     * {@code initialSumProb}, accumulating over data in order.
+     */
+    private double accumulateMu( final double[] annotations, final double initialSumProb ) {
+        double sumProbability = initialSumProb;
+        final int numData = annotations.length / mu.length;
+        for( int datumIndex = 0; datumIndex < numData; datumIndex++ ) {
+            final double prob = pVarInGaussian[datumIndex];
+            final int offset = datumIndex * mu.length;
+            sumProbability += prob;
+            for( int jjj = 0; jjj < mu.length; jjj++ ) {
+                mu[jjj] += prob * annotations[offset + jjj];
+            }
+        }
+        return sumProbability;
+    }
+
+    /**
+     * Sums the responsibility-weighted scatter matrices of the data about {@link #mu} into {@link #sigma},
+     * accumulating over data in order.
+     */
+    private void accumulateSigma( final double[] annotations ) {
+        final double[][] sigmaArray = sigma.getArray();
+        final int numData = annotations.length / mu.length;
+        for( int datumIndex = 0; datumIndex < numData; datumIndex++ ) {
+            final double prob = pVarInGaussian[datumIndex];
+            final int offset = datumIndex * mu.length;
+            for( int iii = 0; iii < mu.length; iii++ ) {
+                final double deltaMu = prob * (annotations[offset + iii] - mu[iii]);
+                for( int jjj = 0; jjj < mu.length; jjj++ ) {
+                    sigmaArray[iii][jjj] += deltaMu * (annotations[offset + jjj] - mu[jjj]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the parameters of this Gaussian given the responsibilities assigned during the expectation step.
+     * Only modifies the state of this Gaussian, so distinct Gaussians may be maximized concurrently.
+     *
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     */
+    public void maximizeGaussian(final double[] annotations, final double[] empiricalMu, final Matrix empiricalSigma,
                                  final double SHRINKAGE, final double DIRICHLET_PARAMETER, final double DEGREES_OF_FREEDOM ) {
-        sumProb = 1E-10;
         final Matrix wishart = new Matrix(mu.length, mu.length);
         zeroOutMu();
         zeroOutSigma();
 
-        int datumIndex = 0;
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
-            sumProb += prob;
-            incrementMu( datum, prob );
-        }
+        sumProb = accumulateMu( annotations, 1E-10 );
         divideEqualsMu( sumProb );
 
         final double shrinkageFactor = (SHRINKAGE * sumProb) / (SHRINKAGE + sumProb);
@@ -174,18 +225,7 @@ class MultivariateGaussian {
             }
         }
 
-        datumIndex = 0;
-        final Matrix pVarSigma = new Matrix(mu.length, mu.length);
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
-            for( int iii = 0; iii < mu.length; iii++ ) {
-                double deltaMu = prob * (datum.annotations[iii]-mu[iii]);
-                for( int jjj = 0; jjj < mu.length; jjj++ ) {
-                    pVarSigma.set(iii, jjj, deltaMu * (datum.annotations[jjj]-mu[jjj]));
-                }
-            }
-            sigma.plusEquals( pVarSigma );
-        }
+        accumulateSigma( annotations );
 
         sigma.plusEquals( empiricalSigma );
         sigma.plusEquals( wishart );
@@ -201,32 +241,19 @@ class MultivariateGaussian {
         resetPVarInGaussian(); // clean up some memory
     }
 
-    public void evaluateFinalModelParameters( final List<VariantDatum> data ) {
-        sumProb = 0.0;
+    /**
+     * @param annotations flat annotation matrix (see {@link VariantDataTable#copyAnnotations})
+     */
+    public void evaluateFinalModelParameters( final double[] annotations ) {
         zeroOutMu();
         zeroOutSigma();
 
-        int datumIndex = 0;
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
-            sumProb += prob;
-            incrementMu( datum, prob );
-        }
+        sumProb = accumulateMu( annotations, 0.0 );
         divideEqualsMu( sumProb );
 
-        datumIndex = 0;
-        final Matrix pVarSigma = new Matrix(mu.length, mu.length);
-        for( final VariantDatum datum : data ) {
-            final double prob = pVarInGaussian[datumIndex++];
-            for( int iii = 0; iii < mu.length; iii++ ) {
-                for( int jjj = 0; jjj < mu.length; jjj++ ) {
-                    pVarSigma.set(iii, jjj, prob * (datum.annotations[iii]-mu[iii]) * (datum.annotations[jjj]-mu[jjj]));
-                }
-            }
-            sigma.plusEquals( pVarSigma );
-        }
+        accumulateSigma( annotations );
         sigma.timesEquals( 1.0 / sumProb );
 
         resetPVarInGaussian(); // clean up some memory
     }
-}
\ No newline at end of file
+}
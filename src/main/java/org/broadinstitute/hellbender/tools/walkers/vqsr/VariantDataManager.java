@@ -22,7 +22,7 @@ import java.util.*;
 
 
 public class VariantDataManager {
-    private List<VariantDatum> data = Collections.emptyList();
+    private VariantDataTable data;
     private double[] meanVector;
     private double[] varianceVector; // this is really the standard deviation
     public List<String> annotationKeys;
@@ -33,15 +33,15 @@ public class VariantDataManager {
     private static final double PRECISION = 0.01;         //To use mainly with MathUtils.compareDoubles(a,b,PRECISION)
 
     public VariantDataManager( final List<String> annotationKeys, final VariantRecalibratorArgumentCollection VRAC ) {
-        this.data = Collections.emptyList();
         this.annotationKeys = new ArrayList<>( annotationKeys );
         this.VRAC = VRAC;
         meanVector = new double[this.annotationKeys.size()];
         varianceVector = new double[this.annotationKeys.size()];
+        data = new VariantDataTable(this.annotationKeys.size());
         trainingSets = new ArrayList<>();
     }
 
-    public void setData( final List<VariantDatum> data ) {
+    public void setData( final VariantDataTable data ) {
         this.data = data;
     }
 
@@ -52,7 +52,7 @@ public class VariantDataManager {
         }
     }
 
-    public List<VariantDatum> getData() {
+    public VariantDataTable getData() {
         return data;
     }
 
@@ -84,9 +84,9 @@ public class VariantDataManager {
                 theSTD = varianceVector[iii];
             }
             logger.info(annotationKeys.get(iii) + String.format(": \t mean = %.2f\t standard deviation = %.2f", theMean, theSTD));
-            for( final VariantDatum datum : data ) {
+            for( int datum = 0; datum < data.size(); datum++ ) {
                 // Transform each data point via: (x - mean) / standard deviation
-                datum.annotations[iii] = ( datum.isNull[iii] ? 0.1 * Utils.getRandomGenerator().nextGaussian() : ( datum.annotations[iii] - theMean ) / theSTD );
+                data.setAnnotation(datum, iii, data.isNull(datum, iii) ? 0.1 * Utils.getRandomGenerator().nextGaussian() : ( data.getAnnotation(datum, iii) - theMean ) / theSTD );
             }
         }
         if( foundZeroVarianceAnnotation ) {
@@ -94,12 +94,12 @@ public class VariantDataManager {
         }
 
         // trim data by standard deviation threshold and mark failing data for exclusion later
-        for( final VariantDatum datum : data ) {
+        for( int datum = 0; datum < data.size(); datum++ ) {
             boolean remove = false;
-            for( final double val : datum.annotations ) {
-                remove = remove || (Math.abs(val) > VRAC.STD_THRESHOLD);
+            for( int iii = 0; iii < data.getNumAnnotations(); iii++ ) {
+                remove = remove || (Math.abs(data.getAnnotation(datum, iii)) > VRAC.STD_THRESHOLD);
             }
-            datum.failingSTDThreshold = remove;
+            data.setFailingSTDThreshold(datum, remove);
         }
 
         // re-order the data by increasing standard deviation so that the results don't depend on the order things were specified on the command line
@@ -111,10 +111,7 @@ public class VariantDataManager {
         annotationKeys = reorderList(annotationKeys, theOrder);
         varianceVector = ArrayUtils.toPrimitive(reorderArray(ArrayUtils.toObject(varianceVector), theOrder));
         meanVector = ArrayUtils.toPrimitive(reorderArray(ArrayUtils.toObject(meanVector), theOrder));
-        for( final VariantDatum datum : data ) {
-            datum.annotations = ArrayUtils.toPrimitive(reorderArray(ArrayUtils.toObject(datum.annotations), theOrder));
-            datum.isNull = ArrayUtils.toPrimitive(reorderArray(ArrayUtils.toObject(datum.isNull), theOrder));
-        }
+        data.reorderAnnotations(theOrder);
         logger.info("Annotation order is: " + annotationKeys.toString());
     }
 
@@ -220,13 +217,13 @@ public class VariantDataManager {
         return false;
     }
 
-    public List<VariantDatum> getTrainingData() {
-        final List<VariantDatum> trainingData = new ArrayList<>();
-        for( final VariantDatum datum : data ) {
-            if( datum.atTrainingSite && !datum.failingSTDThreshold ) {
-                trainingData.add( datum );
-            } else if (datum.failingSTDThreshold && VRAC.debugStdevThresholding) {
-                logger.warn("Datum at " + datum.loc + " with ref " + datum.referenceAllele + " and alt " + datum.alternateAllele + " failing std thresholding: " + Arrays.toString(datum.annotations));
+    public VariantDataTable getTrainingData() {
+        final VariantDataTable trainingData = data.filter(datum -> data.isAtTrainingSite(datum) && !data.isFailingSTDThreshold(datum));
+        if (VRAC.debugStdevThresholding) {
+            for( int datum = 0; datum < data.size(); datum++ ) {
+                if (data.isFailingSTDThreshold(datum)) {
+                    logger.warn("Datum at " + data.getLocation(datum) + " with ref " + data.getReferenceAllele(datum) + " and alt " + data.getAlternateAllele(datum) + " failing std thresholding: " + Arrays.toString(data.getAnnotations(datum)));
+                }
             }
         }
         logger.info( "Training with " + trainingData.size() + " variants after standard deviation thresholding." );
@@ -234,20 +231,17 @@ public class VariantDataManager {
             logger.warn( "WARNING: Training with very few variant sites! Please check the model reporting PDF to ensure the quality of the model is reliable." );
         } else if( trainingData.size() > VRAC.MAX_NUM_TRAINING_DATA ) {
             logger.warn( "WARNING: Very large training set detected. Downsampling to " + VRAC.MAX_NUM_TRAINING_DATA + " training variants." );
-            Collections.shuffle(trainingData, Utils.getRandomGenerator());
-            return trainingData.subList(0, VRAC.MAX_NUM_TRAINING_DATA);
+            trainingData.shuffle(Utils.getRandomGenerator());
+            return trainingData.head(VRAC.MAX_NUM_TRAINING_DATA);
         }
         return trainingData;
     }
 
-    public List<VariantDatum> selectWorstVariants() {
-        final List<VariantDatum> trainingData = new ArrayList<>();
-
-        for( final VariantDatum datum : data ) {
-            if( datum != null && !datum.failingSTDThreshold && !Double.isInfinite(datum.lod) && datum.lod < VRAC.BAD_LOD_CUTOFF ) {
-                datum.atAntiTrainingSite = true;
-                trainingData.add( datum );
-            }
+    public VariantDataTable selectWorstVariants() {
+        final VariantDataTable trainingData = data.filter(datum ->
+                !data.isFailingSTDThreshold(datum) && !Double.isInfinite(data.getLod(datum)) && data.getLod(datum) < VRAC.BAD_LOD_CUTOFF);
+        for( int datum = 0; datum < trainingData.size(); datum++ ) {
+            trainingData.setAtAntiTrainingSite(datum, true);
         }
 
         logger.info( "Selected worst " + trainingData.size() + " scoring variants --> variants with LOD <= " + String.format("%.4f", VRAC.BAD_LOD_CUTOFF) + "." );
@@ -255,49 +249,35 @@ public class VariantDataManager {
         return trainingData;
     }
 
-    public List<VariantDatum> getEvaluationData() {
-        final List<VariantDatum> evaluationData = new ArrayList<>();
-
-        for( final VariantDatum datum : data ) {
-            if( datum != null && !datum.failingSTDThreshold && !datum.atTrainingSite && !datum.atAntiTrainingSite ) {
-                evaluationData.add( datum );
-            }
-        }
-
-        return evaluationData;
+    public VariantDataTable getEvaluationData() {
+        return data.filter(datum -> !data.isFailingSTDThreshold(datum) && !data.isAtTrainingSite(datum) && !data.isAtAntiTrainingSite(datum));
     }
 
     /**
-     * Remove all VariantDatum's from the data list which are marked as aggregate data
+     * Remove all data which are marked as aggregate data
      */
     public void dropAggregateData() {
-        final Iterator<VariantDatum> iter = data.iterator();
-        while (iter.hasNext()) {
-            final VariantDatum datum = iter.next();
-            if( datum.isAggregate ) {
-                iter.remove();
-            }
-        }
-    }
-
-    public List<VariantDatum> getRandomDataForPlotting( final int numToAdd, final List<VariantDatum> trainingData, final List<VariantDatum> antiTrainingData, final List<VariantDatum> evaluationData ) {
-        final List<VariantDatum> returnData = new ArrayList<>();
-        Collections.shuffle(trainingData, Utils.getRandomGenerator());
-        Collections.shuffle(antiTrainingData, Utils.getRandomGenerator());
-        Collections.shuffle(evaluationData, Utils.getRandomGenerator());
-        returnData.addAll(trainingData.subList(0, Math.min(numToAdd, trainingData.size())));
-        returnData.addAll(antiTrainingData.subList(0, Math.min(numToAdd, antiTrainingData.size())));
-        returnData.addAll(evaluationData.subList(0, Math.min(numToAdd, evaluationData.size())));
-        Collections.shuffle(returnData, Utils.getRandomGenerator());
+        data.removeIf(data::isAggregate);
+    }
+
+    public VariantDataTable getRandomDataForPlotting( final int numToAdd, final VariantDataTable trainingData, final VariantDataTable antiTrainingData, final VariantDataTable evaluationData ) {
+        trainingData.shuffle(Utils.getRandomGenerator());
+        antiTrainingData.shuffle(Utils.getRandomGenerator());
+        evaluationData.shuffle(Utils.getRandomGenerator());
+        final VariantDataTable returnData = VariantDataTable.concatenate(
+                trainingData.head(Math.min(numToAdd, trainingData.size())),
+                antiTrainingData.head(Math.min(numToAdd, antiTrainingData.size())),
+                evaluationData.head(Math.min(numToAdd, evaluationData.size())));
+        returnData.shuffle(Utils.getRandomGenerator());
         return returnData;
     }
 
     protected double mean( final int index, final boolean trainingData ) {
         double sum = 0.0;
         int numNonNull = 0;
-        for( final VariantDatum datum : data ) {
-            if( (trainingData == datum.atTrainingSite) && !datum.isNull[index] ) {
-                sum += datum.annotations[index];
+        for( int datum = 0; datum < data.size(); datum++ ) {
+            if( (trainingData == data.isAtTrainingSite(datum)) && !data.isNull(datum, index) ) {
+                sum += data.getAnnotation(datum, index);
                 numNonNull++;
             }
         }
@@ -307,31 +287,27 @@ public class VariantDataManager {
     protected double standardDeviation( final double mean, final int index, final boolean trainingData ) {
         double sum = 0.0;
         int numNonNull = 0;
-        for( final VariantDatum datum : data ) {
-            if( (trainingData == datum.atTrainingSite) && !datum.isNull[index] ) { sum += ((datum.annotations[index] - mean)*(datum.annotations[index] - mean)); numNonNull++; }
+        for( int datum = 0; datum < data.size(); datum++ ) {
+            if( (trainingData == data.isAtTrainingSite(datum)) && !data.isNull(datum, index) ) { sum += ((data.getAnnotation(datum, index) - mean)*(data.getAnnotation(datum, index) - mean)); numNonNull++; }
         }
         return Math.sqrt( sum / ((double) numNonNull) );
     }
 
-    public void decodeAnnotations( final VariantDatum datum, final VariantContext vc, final boolean jitter ) {
-        final double[] annotations = new double[annotationKeys.size()];
-        final boolean[] isNull = new boolean[annotationKeys.size()];
+    public void decodeAnnotations( final VariantDataTable data, final int datum, final VariantContext vc, final boolean jitter ) {
         int iii = 0;
         for( final String key : annotationKeys ) {
-            isNull[iii] = false;
-            annotations[iii] = decodeAnnotation( key, vc, jitter, VRAC, datum );
-            if( Double.isNaN(annotations[iii]) ) { isNull[iii] = true; }
+            final double value = decodeAnnotation( key, vc, jitter, VRAC, data.getAlternateAllele(datum) );
+            data.setAnnotation(datum, iii, value);
+            data.setNull(datum, iii, Double.isNaN(value));
             iii++;
         }
-        datum.annotations = annotations;
-        datum.isNull = isNull;
     }
     /** Transforms an interval [xmin, xmax] to (-inf, +inf) **/
     private static double logitTransform( final double x, final double xmin, final double xmax) {
         return Math.log((x - xmin)/(xmax - x));
     }
 
-    private static double decodeAnnotation( final String annotationKey, final VariantContext vc, final boolean jitter, final VariantRecalibratorArgumentCollection vrac, final VariantDatum datum ) {
+    private static double decodeAnnotation( final String annotationKey, final VariantContext vc, final boolean jitter, final VariantRecalibratorArgumentCollection vrac, final Allele alternateAllele ) {
         double value;
 
         final double LOG_OF_TWO = 0.6931472;
@@ -340,13 +316,13 @@ public class VariantDataManager {
             //if we're in allele-specific mode and an allele-specific annotation has been requested, parse the appropriate value from the list
             if(vrac.useASannotations && annotationKey.startsWith(GATKVCFConstants.ALLELE_SPECIFIC_PREFIX)) {
                 final List<Object> valueList = vc.getAttributeAsList(annotationKey);
-                if (vc.hasAllele(datum.alternateAllele)) {
-                    final int altIndex = vc.getAlleleIndex(datum.alternateAllele)-1; //-1 is to convert the index from all alleles (including reference) to just alternate alleles
+                if (vc.hasAllele(alternateAllele)) {
+                    final int altIndex = vc.getAlleleIndex(alternateAllele)-1; //-1 is to convert the index from all alleles (including reference) to just alternate alleles
                     value = Double.parseDouble((String)valueList.get(altIndex));
                 }
                 //if somehow our alleles got mixed up
                 else
-                    throw new IllegalStateException("VariantDatum allele " + datum.alternateAllele + " is not contained in the input VariantContext.");
+                    throw new IllegalStateException("Datum allele " + alternateAllele + " is not contained in the input VariantContext.");
             }
             else
                 value = vc.getAttributeAsDouble( annotationKey, Double.NaN );
@@ -378,27 +354,28 @@ public class VariantDataManager {
     public void parseTrainingSets(
             final FeatureContext featureContext,
             final VariantContext evalVC,
-            final VariantDatum datum,
+            final VariantDataTable data,
+            final int datum,
             final boolean TRUST_ALL_POLYMORPHIC ) {
-        datum.isKnown = false;
-        datum.atTruthSite = false;
-        datum.atTrainingSite = false;
-        datum.atAntiTrainingSite = false;
-        datum.prior = 2.0;
+        data.setKnown(datum, false);
+        data.setAtTruthSite(datum, false);
+        data.setAtTrainingSite(datum, false);
+        data.setAtAntiTrainingSite(datum, false);
+        data.setPrior(datum, 2.0);
 
         for( final TrainingSet trainingSet : trainingSets ) {
             List<VariantContext> vcs = featureContext.getValues(trainingSet.variantSource, featureContext.getInterval().getStart());
             for( final VariantContext trainVC : vcs ) {
-                if (VRAC.useASannotations && !doAllelesMatch(trainVC, datum))
+                if (VRAC.useASannotations && !doAllelesMatch(trainVC, data.getAlternateAllele(datum)))
                     continue;
                 if( isValidVariant( evalVC, trainVC, TRUST_ALL_POLYMORPHIC ) ) {
-                    datum.isKnown = datum.isKnown || trainingSet.isKnown;
-                    datum.atTruthSite = datum.atTruthSite || trainingSet.isTruth;
-                    datum.atTrainingSite = datum.atTrainingSite || trainingSet.isTraining;
-                    datum.prior = Math.max( datum.prior, trainingSet.prior );
+                    data.setKnown(datum, data.isKnown(datum) || trainingSet.isKnown);
+                    data.setAtTruthSite(datum, data.isAtTruthSite(datum) || trainingSet.isTruth);
+                    data.setAtTrainingSite(datum, data.isAtTrainingSite(datum) || trainingSet.isTraining);
+                    data.setPrior(datum, Math.max( data.getPrior(datum), trainingSet.prior ));
                 }
                 if( trainVC != null ) {
-                    datum.atAntiTrainingSite = datum.atAntiTrainingSite || trainingSet.isAntiTraining;
+                    data.setAtAntiTrainingSite(datum, data.isAtAntiTrainingSite(datum) || trainingSet.isAntiTraining);
                 }
             }
         }
@@ -409,9 +386,9 @@ public class VariantDataManager {
                 (TRUST_ALL_POLYMORPHIC || !trainVC.hasGenotypes() || trainVC.isPolymorphicInSamples());
     }
 
-    private boolean doAllelesMatch(final VariantContext trainVC, final VariantDatum datum) {
+    private boolean doAllelesMatch(final VariantContext trainVC, final Allele alternateAllele) {
         //only do this check in the allele-specific case, where each datum represents one allele
-        return datum.alternateAllele == null || trainVC.getAlternateAlleles().contains(datum.alternateAllele);
+        return alternateAllele == null || trainVC.getAlternateAlleles().contains(alternateAllele);
     }
 
     protected static boolean checkVariationClass( final VariantContext evalVC, final VariantContext trainVC ) {
@@ -457,21 +434,22 @@ public class VariantDataManager {
 
     public void writeOutRecalibrationTable(final VariantContextWriter recalWriter, final SAMSequenceDictionary seqDictionary) {
         // we need to sort in coordinate order in order to produce a valid VCF
-        Collections.sort( data, VariantDatum.getComparator(seqDictionary) );
+        data.sortByCoordinate(seqDictionary);
 
         // create dummy alleles to be used
         List<Allele> alleles = Arrays.asList(Allele.create("N", true), Allele.create("<VQSR>", false));
 
-        for( final VariantDatum datum : data ) {
+        for( int datum = 0; datum < data.size(); datum++ ) {
             if (VRAC.useASannotations)
-                alleles = Arrays.asList(datum.referenceAllele, datum.alternateAllele); //use the alleles to distinguish between multiallelics in AS mode
-            VariantContextBuilder builder = new VariantContextBuilder("VQSR", datum.loc.getContig(), datum.loc.getStart(), datum.loc.getEnd(), alleles);
-            builder.attribute(VCFConstants.END_KEY, datum.loc.getEnd());
-            builder.attribute(GATKVCFConstants.VQS_LOD_KEY, String.format("%.4f", datum.lod));
-            builder.attribute(GATKVCFConstants.CULPRIT_KEY, (datum.worstAnnotation != -1 ? annotationKeys.get(datum.worstAnnotation) : "NULL"));
-
-            if ( datum.atTrainingSite ) builder.attribute(GATKVCFConstants.POSITIVE_LABEL_KEY, true);
-            if ( datum.atAntiTrainingSite ) builder.attribute(GATKVCFConstants.NEGATIVE_LABEL_KEY, true);
+                alleles = Arrays.asList(data.getReferenceAllele(datum), data.getAlternateAllele(datum)); //use the alleles to distinguish between multiallelics in AS mode
+            final SimpleInterval loc = data.getLocation(datum);
+            VariantContextBuilder builder = new VariantContextBuilder("VQSR", loc.getContig(), loc.getStart(), loc.getEnd(), alleles);
+            builder.attribute(VCFConstants.END_KEY, loc.getEnd());
+            builder.attribute(GATKVCFConstants.VQS_LOD_KEY, String.format("%.4f", data.getLod(datum)));
+            builder.attribute(GATKVCFConstants.CULPRIT_KEY, (data.getWorstAnnotation(datum) != -1 ? annotationKeys.get(data.getWorstAnnotation(datum)) : "NULL"));
+
+            if ( data.isAtTrainingSite(datum) ) builder.attribute(GATKVCFConstants.POSITIVE_LABEL_KEY, true);
+            if ( data.isAtAntiTrainingSite(datum) ) builder.attribute(GATKVCFConstants.NEGATIVE_LABEL_KEY, true);
 
             recalWriter.add(builder.make());
         }
@@ -0,0 +1,430 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.Locatable;
+import htsjdk.variant.variantcontext.Allele;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/*
+ * Represents the data items for VQSR (sites or alleles) in columnar form.  The annotations of all data are held in a
+ * single row-major (data x annotations) matrix and all other fields in primitive arrays, so that no objects are
+ * created per datum.
+ *
+ * A table is a list of rows in storage that may be shared with other tables.  Tables derived from another table by
+ * filter(), head() or concatenate() share its storage, so that changes to the fields of a datum (e.g., its LOD) are
+ * seen by all tables containing that datum, while sorting, shuffling or removing data only affect the table itself.
+ * Data are identified by their index in the table.
+ *
+ * Package private because it's not usable outside of VQSR.
+ */
+final class VariantDataTable {
+
+    private static final int INITIAL_CAPACITY = 2000;
+
+    private static final int KNOWN = 1;
+    private static final int AT_TRUTH_SITE = 1 << 1;
+    private static final int AT_TRAINING_SITE = 1 << 2;
+    private static final int AT_ANTI_TRAINING_SITE = 1 << 3;
+    private static final int TRANSITION = 1 << 4;
+    private static final int SNP = 1 << 5;
+    private static final int FAILING_STD_THRESHOLD = 1 << 6;
+    private static final int AGGREGATE = 1 << 7; // this datum was provided to aid in modeling but isn't part of the input callset
+
+    private static final int NO_CONTIG = -1;
+
+    private static final class Storage {
+        private final int numAnnotations;
+        private int numRows = 0;
+        private double[] annotations;
+        private boolean[] isNull;
+        private byte[] flags;
+        private double[] lod;
+        private double[] prior;
+        private int[] worstAnnotation;
+        private double[] worstValue;
+        private int[] contigIndices;
+        private int[] starts;
+        private int[] ends;
+        private final List<String> contigs = new ArrayList<>();
+        private final Map<String, Integer> contigIndicesByName = new HashMap<>();
+        // only allocated if alleles are added (i.e., in allele-specific mode)
+        private Allele[] referenceAlleles;
+        private Allele[] alternateAlleles;
+
+        private Storage(final int numAnnotations, final int capacity) {
+            this.numAnnotations = numAnnotations;
+            annotations = new double[capacity * numAnnotations];
+            isNull = new boolean[capacity * numAnnotations];
+            flags = new byte[capacity];
+            lod = new double[capacity];
+            prior = new double[capacity];
+            worstAnnotation = new int[capacity];
+            worstValue = new double[capacity];
+            contigIndices = new int[capacity];
+            starts = new int[capacity];
+            ends = new int[capacity];
+        }
+
+        private int addRow(final Locatable loc, final Allele referenceAllele, final Allele alternateAllele) {
+            if (numRows == flags.length) {
+                grow(Math.max(INITIAL_CAPACITY, 2 * numRows));
+            }
+            final int row = numRows++;
+            if (loc == null) {
+                contigIndices[row] = NO_CONTIG;
+            } else {
+                contigIndices[row] = contigIndicesByName.computeIfAbsent(loc.getContig(), contig -> {
+                    contigs.add(contig);
+                    return contigs.size() - 1;
+                });
+                starts[row] = loc.getStart();
+                ends[row] = loc.getEnd();
+            }
+            if ((referenceAllele != null || alternateAllele != null) && referenceAlleles == null) {
+                referenceAlleles = new Allele[flags.length];
+                alternateAlleles = new Allele[flags.length];
+            }
+            if (referenceAlleles != null) {
+                referenceAlleles[row] = referenceAllele;
+                alternateAlleles[row] = alternateAllele;
+            }
+            return row;
+        }
+
+        private void grow(final int capacity) {
+            annotations = Arrays.copyOf(annotations, capacity * numAnnotations);
+            isNull = Arrays.copyOf(isNull, capacity * numAnnotations);
+            flags = Arrays.copyOf(flags, capacity);
+            lod = Arrays.copyOf(lod, capacity);
+            prior = Arrays.copyOf(prior, capacity);
+            worstAnnotation = Arrays.copyOf(worstAnnotation, capacity);
+            worstValue = Arrays.copyOf(worstValue, capacity);
+            contigIndices = Arrays.copyOf(contigIndices, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            if (referenceAlleles != null) {
+                referenceAlleles = Arrays.copyOf(referenceAlleles, capacity);
+                alternateAlleles = Arrays.copyOf(alternateAlleles, capacity);
+            }
+        }
+    }
+
+    private final Storage storage;
+    private int[] rows;
+    private int size;
+
+    /**
+     * Creates an empty table with its own storage.
+     */
+    public VariantDataTable(final int numAnnotations) {
+        Utils.validateArg(numAnnotations >= 0, "Number of annotations must be non-negative.");
+        storage = new Storage(numAnnotations, INITIAL_CAPACITY);
+        rows = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private VariantDataTable(final Storage storage, final int[] rows, final int size) {
+        this.storage = storage;
+        this.rows = rows;
+        this.size = size;
+    }
+
+    /**
+     * Adds a datum with all annotations set to zero, all flags unset and all other fields set to zero.
+     * @param loc location of the datum, or null for data without a location (i.e., aggregate data)
+     * @param referenceAllele reference allele of the datum, or null if data do not represent single alleles
+     * @param alternateAllele alternate allele of the datum, or null if data do not represent single alleles
+     * @return the index of the new datum in this table
+     */
+    public int add(final Locatable loc, final Allele referenceAllele, final Allele alternateAllele) {
+        final int row = storage.addRow(loc, referenceAllele, alternateAllele);
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(INITIAL_CAPACITY, 2 * size));
+        }
+        rows[size] = row;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getNumAnnotations() {
+        return storage.numAnnotations;
+    }
+
+    public double getAnnotation(final int datum, final int annotation) {
+        return storage.annotations[getAnnotationOffset(datum) + annotation];
+    }
+
+    public void setAnnotation(final int datum, final int annotation, final double value) {
+        storage.annotations[getAnnotationOffset(datum) + annotation] = value;
+    }
+
+    public boolean isNull(final int datum, final int annotation) {
+        return storage.isNull[getAnnotationOffset(datum) + annotation];
+    }
+
+    public void setNull(final int datum, final int annotation, final boolean isNull) {
+        storage.isNull[getAnnotationOffset(datum) + annotation] = isNull;
+    }
+
+    public boolean hasMissingAnnotations(final int datum) {
+        final int offset = getAnnotationOffset(datum);
+        for (int annotation = 0; annotation < storage.numAnnotations; annotation++) {
+            if (storage.isNull[offset + annotation]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the annotations of a datum
+     */
+    public double[] getAnnotations(final int datum) {
+        final int offset = getAnnotationOffset(datum);
+        return Arrays.copyOfRange(storage.annotations, offset, offset + storage.numAnnotations);
+    }
+
+    /**
+     * Returns the annotation matrix backing the storage of this table, which is shared with other tables; the
+     * annotations of a datum start at {@link #getAnnotationOffset}.  Intended for evaluating data without copying.
+     */
+    double[] getAnnotationMatrix() {
+        return storage.annotations;
+    }
+
+    int getAnnotationOffset(final int datum) {
+        return getRow(datum) * storage.numAnnotations;
+    }
+
+    /**
+     * @return a flat, row-major (data x annotations) copy of the annotations of the data in this table, in order
+     */
+    public double[] copyAnnotations() {
+        final int numAnnotations = storage.numAnnotations;
+        final double[] annotations = new double[size * numAnnotations];
+        for (int datum = 0; datum < size; datum++) {
+            System.arraycopy(storage.annotations, rows[datum] * numAnnotations, annotations, datum * numAnnotations, numAnnotations);
+        }
+        return annotations;
+    }
+
+    /**
+     * Reorders the annotations of the data in this table, so that annotation i becomes annotation order.get(i).
+     * Data in the shared storage that are not in this table are left unchanged.
+     */
+    public void reorderAnnotations(final List<Integer> order) {
+        Utils.validateArg(order.size() == storage.numAnnotations, "Order must contain an index for each annotation.");
+        final double[] annotations = new double[storage.numAnnotations];
+        final boolean[] isNull = new boolean[storage.numAnnotations];
+        for (int datum = 0; datum < size; datum++) {
+            final int offset = getAnnotationOffset(datum);
+            for (int annotation = 0; annotation < storage.numAnnotations; annotation++) {
+                annotations[annotation] = storage.annotations[offset + order.get(annotation)];
+                isNull[annotation] = storage.isNull[offset + order.get(annotation)];
+            }
+            System.arraycopy(annotations, 0, storage.annotations, offset, storage.numAnnotations);
+            System.arraycopy(isNull, 0, storage.isNull, offset, storage.numAnnotations);
+        }
+    }
+
+    public boolean isKnown(final int datum) { return getFlag(datum, KNOWN); }
+    public void setKnown(final int datum, final boolean value) { setFlag(datum, KNOWN, value); }
+
+    public boolean isAtTruthSite(final int datum) { return getFlag(datum, AT_TRUTH_SITE); }
+    public void setAtTruthSite(final int datum, final boolean value) { setFlag(datum, AT_TRUTH_SITE, value); }
+
+    public boolean isAtTrainingSite(final int datum) { return getFlag(datum, AT_TRAINING_SITE); }
+    public void setAtTrainingSite(final int datum, final boolean value) { setFlag(datum, AT_TRAINING_SITE, value); }
+
+    public boolean isAtAntiTrainingSite(final int datum) { return getFlag(datum, AT_ANTI_TRAINING_SITE); }
+    public void setAtAntiTrainingSite(final int datum, final boolean value) { setFlag(datum, AT_ANTI_TRAINING_SITE, value); }
+
+    public boolean isTransition(final int datum) { return getFlag(datum, TRANSITION); }
+    public void setTransition(final int datum, final boolean value) { setFlag(datum, TRANSITION, value); }
+
+    public boolean isSNP(final int datum) { return getFlag(datum, SNP); }
+    public void setSNP(final int datum, final boolean value) { setFlag(datum, SNP, value); }
+
+    public boolean isFailingSTDThreshold(final int datum) { return getFlag(datum, FAILING_STD_THRESHOLD); }
+    public void setFailingSTDThreshold(final int datum, final boolean value) { setFlag(datum, FAILING_STD_THRESHOLD, value); }
+
+    public boolean isAggregate(final int datum) { return getFlag(datum, AGGREGATE); }
+    public void setAggregate(final int datum, final boolean value) { setFlag(datum, AGGREGATE, value); }
+
+    public double getLod(final int datum) { return storage.lod[getRow(datum)]; }
+    public void setLod(final int datum, final double lod) { storage.lod[getRow(datum)] = lod; }
+
+    public double getPrior(final int datum) { return storage.prior[getRow(datum)]; }
+    public void setPrior(final int datum, final double prior) { storage.prior[getRow(datum)] = prior; }
+
+    public int getWorstAnnotation(final int datum) { return storage.worstAnnotation[getRow(datum)]; }
+    public void setWorstAnnotation(final int datum, final int worstAnnotation) { storage.worstAnnotation[getRow(datum)] = worstAnnotation; }
+
+    public double getWorstValue(final int datum) { return storage.worstValue[getRow(datum)]; }
+    public void setWorstValue(final int datum, final double worstValue) { storage.worstValue[getRow(datum)] = worstValue; }
+
+    /**
+     * @return the location of a datum, or null if it has no location
+     */
+    public SimpleInterval getLocation(final int datum) {
+        final int row = getRow(datum);
+        return storage.contigIndices[row] == NO_CONTIG ? null
+                : new SimpleInterval(storage.contigs.get(storage.contigIndices[row]), storage.starts[row], storage.ends[row]);
+    }
+
+    public Allele getReferenceAllele(final int datum) {
+        return storage.referenceAlleles == null ? null : storage.referenceAlleles[getRow(datum)];
+    }
+
+    public Allele getAlternateAllele(final int datum) {
+        return storage.alternateAlleles == null ? null : storage.alternateAlleles[getRow(datum)];
+    }
+
+    public int countCallsAtTruth(final double minLOD) {
+        int n = 0;
+        for (int datum = 0; datum < size; datum++) {
+            n += (isAtTruthSite(datum) && getLod(datum) >= minLOD ? 1 : 0);
+        }
+        return n;
+    }
+
+    /**
+     * @return a new table sharing storage with this one and containing the data satisfying the predicate, in order
+     */
+    public VariantDataTable filter(final IntPredicate predicate) {
+        final int[] filteredRows = new int[size];
+        int filteredSize = 0;
+        for (int datum = 0; datum < size; datum++) {
+            if (predicate.test(datum)) {
+                filteredRows[filteredSize++] = rows[datum];
+            }
+        }
+        return new VariantDataTable(storage, filteredRows, filteredSize);
+    }
+
+    /**
+     * @return a new table sharing storage with this one and containing its first {@code n} data
+     */
+    public VariantDataTable head(final int n) {
+        Utils.validateArg(n >= 0 && n <= size, "Number of data must be between zero and the size of the table.");
+        return new VariantDataTable(storage, Arrays.copyOf(rows, n), n);
+    }
+
+    /**
+     * @return a new table containing the data of all tables, in order; all tables must share storage
+     */
+    public static VariantDataTable concatenate(final VariantDataTable... tables) {
+        Utils.validateArg(tables.length > 0, "At least one table must be provided.");
+        final Storage storage = tables[0].storage;
+        final int[] rows = new int[Arrays.stream(tables).mapToInt(VariantDataTable::size).sum()];
+        int size = 0;
+        for (final VariantDataTable table : tables) {
+            Utils.validateArg(table.storage == storage, "Tables must share storage.");
+            System.arraycopy(table.rows, 0, rows, size, table.size);
+            size += table.size;
+        }
+        return new VariantDataTable(storage, rows, size);
+    }
+
+    /**
+     * Removes the data satisfying the predicate from this table, keeping the remaining data in order.
+     */
+    public void removeIf(final IntPredicate predicate) {
+        int newSize = 0;
+        for (int datum = 0; datum < size; datum++) {
+            if (!predicate.test(datum)) {
+                rows[newSize++] = rows[datum];
+            }
+        }
+        size = newSize;
+    }
+
+    /**
+     * Randomly permutes the data in this table, making the same calls to {@code random} and producing the same
+     * permutation as {@link java.util.Collections#shuffle(List, Random)} would for a list of the data.
+     */
+    public void shuffle(final Random random) {
+        for (int i = size; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final int row = rows[i - 1];
+            rows[i - 1] = rows[j];
+            rows[j] = row;
+        }
+    }
+
+    /**
+     * Sorts the data in this table by increasing LOD.  The sort is stable.
+     */
+    public void sortByLod() {
+        final double[] lod = storage.lod;
+        IntArrays.mergeSort(rows, 0, size, new AbstractIntComparator() {
+            @Override
+            public int compare(final int row1, final int row2) {
+                return Double.compare(lod[row1], lod[row2]);
+            }
+        });
+    }
+
+    /**
+     * Sorts the data in this table in coordinate order, as given by the sequence dictionary.  The sort is stable.
+     * All data must have a location on a contig in the dictionary.
+     */
+    public void sortByCoordinate(final SAMSequenceDictionary seqDictionary) {
+        Utils.nonNull(seqDictionary);
+        final int[] sequenceIndices = new int[storage.contigs.size()];
+        for (int contigIndex = 0; contigIndex < sequenceIndices.length; contigIndex++) {
+            sequenceIndices[contigIndex] = seqDictionary.getSequenceIndex(storage.contigs.get(contigIndex));
+        }
+        for (int datum = 0; datum < size; datum++) {
+            final int contigIndex = storage.contigIndices[rows[datum]];
+            if (contigIndex == NO_CONTIG || sequenceIndices[contigIndex] == -1) {
+                throw new IllegalArgumentException("Can't do comparison because data contigs not found in sequence dictionary");
+            }
+        }
+        IntArrays.mergeSort(rows, 0, size, new AbstractIntComparator() {
+            @Override
+            public int compare(final int row1, final int row2) {
+                int result = Integer.compare(sequenceIndices[storage.contigIndices[row1]], sequenceIndices[storage.contigIndices[row2]]);
+                if (result == 0) {
+                    result = Integer.compare(storage.starts[row1], storage.starts[row2]);
+                    if (result == 0) {
+                        result = Integer.compare(storage.ends[row1], storage.ends[row2]);
+                    }
+                }
+                return result;
+            }
+        });
+    }
+
+    private int getRow(final int datum) {
+        Utils.validIndex(datum, size);
+        return rows[datum];
+    }
+
+    private boolean getFlag(final int datum, final int flag) {
+        return (storage.flags[getRow(datum)] & flag) != 0;
+    }
+
+    private void setFlag(final int datum, final int flag, final boolean value) {
+        final int row = getRow(datum);
+        storage.flags[row] = (byte) (value ? storage.flags[row] | flag : storage.flags[row] & ~flag);
+    }
+}
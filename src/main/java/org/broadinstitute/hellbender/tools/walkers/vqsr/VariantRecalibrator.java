@@ -24,7 +24,6 @@ import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.engine.MultiVariantWalker;
 import org.broadinstitute.hellbender.utils.R.RScriptExecutor;
-import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.io.Resource;
 import org.broadinstitute.hellbender.utils.report.GATKReport;
@@ -379,7 +378,7 @@ public class VariantRecalibrator extends MultiVariantWalker {
     final private ArrayList<Double> replicate = new ArrayList<>(REPLICATE * 2);
     private final Set<String> ignoreInputFilterSet = new TreeSet<>();
     private final VariantRecalibratorEngine engine = new VariantRecalibratorEngine( VRAC );
-    final private ArrayList<VariantDatum> reduceSum = new ArrayList<>(2000);
+    private VariantDataTable reduceSum;
     final private List<ImmutablePair<VariantContext, FeatureContext>> variantsAtLocus = new ArrayList<>();
     private long counter = 0;
     private GATKReportTable nmcTable;
@@ -401,6 +400,7 @@ public class VariantRecalibrator extends MultiVariantWalker {
     public void onTraversalStart() {
 
         dataManager = new VariantDataManager( new ArrayList<>(USE_ANNOTATIONS), VRAC );
+        reduceSum = new VariantDataTable(USE_ANNOTATIONS.size());
 
         if (RSCRIPT_FILE != null) {
             rScriptExecutor = new RScriptExecutor();
@@ -548,7 +548,7 @@ public class VariantRecalibrator extends MultiVariantWalker {
     }
 
     /**
-     * Find overlapping variants and pull out the necessary information to create the VariantDatum
+     * Find overlapping variants and pull out the necessary information to create the data
      * @param aggregateInputs the input sources to search within
      * @param isInput   is this the driving variant input (true) or an aggregate input ?
      * @param context   the FeatureContext from the apply call
@@ -582,39 +582,31 @@ public class VariantRecalibrator extends MultiVariantWalker {
 
     /**
      * add a datum representing a variant site (or allele) to the data in {@code variants}, which represents the callset to be recalibrated
-     * @param variants is modified by having a new VariantDatum added to it
+     * @param variants is modified by having a new datum added to it
      */
     private void addDatum(
-            final ArrayList<VariantDatum> variants,
+            final VariantDataTable variants,
             final boolean isInput,
             final FeatureContext featureContext,
             final VariantContext vc,
             final Allele refAllele,
             final Allele altAllele) {
-        final VariantDatum datum = new VariantDatum();
-
         // Populate the datum with lots of fields from the VariantContext, unfortunately the VC is too big so we just
         // pull in only the things we absolutely need.
-        datum.referenceAllele = refAllele;
-        datum.alternateAllele = altAllele;
-        dataManager.decodeAnnotations(datum, vc, true);
-
-        // non-deterministic because order of calls depends on load of machine
-        datum.loc = (isInput ? new SimpleInterval(vc) : null);
+        final int datum = variants.add(isInput ? vc : null, refAllele, altAllele);
+        dataManager.decodeAnnotations(variants, datum, vc, true);
 
-        datum.originalQual = vc.getPhredScaledQual();
-        datum.isSNP = vc.isSNP() && vc.isBiallelic();
-        datum.isTransition = datum.isSNP && GATKVariantContextUtils.isTransition(vc);
-        datum.isAggregate = !isInput;
+        final boolean isSNP = vc.isSNP() && vc.isBiallelic();
+        variants.setSNP(datum, isSNP);
+        variants.setTransition(datum, isSNP && GATKVariantContextUtils.isTransition(vc));
+        variants.setAggregate(datum, !isInput);
 
         // Loop through the training data sets and if they overlap this locus (and allele, if applicable) then update
         // the prior and training status appropriately. The locus used to find training set variants is retrieved
         // by parseTrainingSets from the FeatureContext argument.
-        dataManager.parseTrainingSets(featureContext, vc, datum, TRUST_ALL_POLYMORPHIC);
-        final double priorFactor = QualityUtils.qualToProb(datum.prior);
-        datum.prior = Math.log10(priorFactor) - Math.log10(1.0 - priorFactor);
-
-        variants.add(datum);
+        dataManager.parseTrainingSets(featureContext, vc, variants, datum, TRUST_ALL_POLYMORPHIC);
+        final double priorFactor = QualityUtils.qualToProb(variants.getPrior(datum));
+        variants.setPrior(datum, Math.log10(priorFactor) - Math.log10(1.0 - priorFactor));
     }
 
     //---------------------------------------------------------------------------------------------------------------
@@ -636,8 +628,8 @@ public class VariantRecalibrator extends MultiVariantWalker {
                 final GaussianMixtureModel goodModel;
                 final GaussianMixtureModel badModel;
 
-                final List<VariantDatum> positiveTrainingData = dataManager.getTrainingData();
-                final List<VariantDatum> negativeTrainingData;
+                final VariantDataTable positiveTrainingData = dataManager.getTrainingData();
+                final VariantDataTable negativeTrainingData;
 
                 if (inputModel != null) {  // GMMs were loaded from a file
                     logger.info("Using serialized GMMs from file...");
@@ -1003,7 +995,7 @@ private GATKReportTable makeVectorTable(final String tableName,
 
     //TODO: does this R code have to be embedded here?
     private void createVisualizationScript(
-            final List<VariantDatum> randomData,
+            final VariantDataTable randomData,
             final GaussianMixtureModel goodModel,
             final GaussianMixtureModel badModel,
             final double lodCutoff,
@@ -1031,32 +1023,29 @@ private GATKReportTable makeVectorTable(final String tableName,
             for( int jjj = iii + 1; jjj < annotationKeys.length; jjj++) {
                 logger.info( "Building " + annotationKeys[iii] + " x " + annotationKeys[jjj] + " plot...");
 
-                final List<VariantDatum> fakeData = new ArrayList<>();
+                final VariantDataTable fakeData = new VariantDataTable(randomData.getNumAnnotations());
                 double minAnn1 = 100.0, maxAnn1 = -100.0, minAnn2 = 100.0, maxAnn2 = -100.0;
-                for( final VariantDatum datum : randomData ) {
-                    minAnn1 = Math.min(minAnn1, datum.annotations[iii]);
-                    maxAnn1 = Math.max(maxAnn1, datum.annotations[iii]);
-                    minAnn2 = Math.min(minAnn2, datum.annotations[jjj]);
-                    maxAnn2 = Math.max(maxAnn2, datum.annotations[jjj]);
+                for( int datum = 0; datum < randomData.size(); datum++ ) {
+                    minAnn1 = Math.min(minAnn1, randomData.getAnnotation(datum, iii));
+                    maxAnn1 = Math.max(maxAnn1, randomData.getAnnotation(datum, iii));
+                    minAnn2 = Math.min(minAnn2, randomData.getAnnotation(datum, jjj));
+                    maxAnn2 = Math.max(maxAnn2, randomData.getAnnotation(datum, jjj));
                 }
                 // Create a fake set of data which spans the full extent of these two annotation dimensions in order
                 // to calculate the model PDF projected to 2D
                 final double NUM_STEPS = 60.0;
                 for(double ann1 = minAnn1; ann1 <= maxAnn1; ann1+= (maxAnn1 - minAnn1) / NUM_STEPS) {
                     for(double ann2 = minAnn2; ann2 <= maxAnn2; ann2+= (maxAnn2 - minAnn2) / NUM_STEPS) {
-                        final VariantDatum datum = new VariantDatum();
-                        datum.prior = 0.0;
-                        datum.annotations = new double[randomData.get(0).annotations.length];
-                        datum.isNull = new boolean[randomData.get(0).annotations.length];
-                        for(int ann=0; ann< datum.annotations.length; ann++) {
-                            datum.annotations[ann] = 0.0;
-                            datum.isNull[ann] = true;
+                        final int datum = fakeData.add(null, null, null);
+                        fakeData.setPrior(datum, 0.0);
+                        for(int ann=0; ann< fakeData.getNumAnnotations(); ann++) {
+                            fakeData.setAnnotation(datum, ann, 0.0);
+                            fakeData.setNull(datum, ann, true);
                         }
-                        datum.annotations[iii] = ann1;
-                        datum.annotations[jjj] = ann2;
-                        datum.isNull[iii] = false;
-                        datum.isNull[jjj] = false;
-                        fakeData.add(datum);
+                        fakeData.setAnnotation(datum, iii, ann1);
+                        fakeData.setAnnotation(datum, jjj, ann2);
+                        fakeData.setNull(datum, iii, false);
+                        fakeData.setNull(datum, jjj, false);
                     }
                 }
 
@@ -1064,22 +1053,22 @@ private GATKReportTable makeVectorTable(final String tableName,
                 engine.evaluateData( fakeData, badModel, true );
 
                 stream.print("surface <- c(");
-                for( final VariantDatum datum : fakeData ) {
+                for( int datum = 0; datum < fakeData.size(); datum++ ) {
                     stream.print(String.format("%.4f, %.4f, %.4f, ",
-                            dataManager.denormalizeDatum(datum.annotations[iii], iii),
-                            dataManager.denormalizeDatum(datum.annotations[jjj], jjj),
-                            Math.min(4.0, Math.max(-4.0, datum.lod))));
+                            dataManager.denormalizeDatum(fakeData.getAnnotation(datum, iii), iii),
+                            dataManager.denormalizeDatum(fakeData.getAnnotation(datum, jjj), jjj),
+                            Math.min(4.0, Math.max(-4.0, fakeData.getLod(datum)))));
                 }
                 stream.println("NA,NA,NA)");
                 stream.println("s <- matrix(surface,ncol=3,byrow=T)");
 
                 stream.print("data <- c(");
-                for( final VariantDatum datum : randomData ) {
+                for( int datum = 0; datum < randomData.size(); datum++ ) {
                     stream.print(String.format("%.4f, %.4f, %.4f, %d, %d,",
-                            dataManager.denormalizeDatum(datum.annotations[iii], iii),
-                            dataManager.denormalizeDatum(datum.annotations[jjj], jjj),
-                            (datum.lod < lodCutoff ? -1.0 : 1.0),
-                            (datum.atAntiTrainingSite ? -1 : (datum.atTrainingSite ? 1 : 0)), (datum.isKnown ? 1 : -1)));
+                            dataManager.denormalizeDatum(randomData.getAnnotation(datum, iii), iii),
+                            dataManager.denormalizeDatum(randomData.getAnnotation(datum, jjj), jjj),
+                            (randomData.getLod(datum) < lodCutoff ? -1.0 : 1.0),
+                            (randomData.isAtAntiTrainingSite(datum) ? -1 : (randomData.isAtTrainingSite(datum) ? 1 : 0)), (randomData.isKnown(datum) ? 1 : -1)));
                 }
                 stream.println("NA,NA,NA,NA,1)");
                 stream.println("d <- matrix(data,ncol=5,byrow=T)");
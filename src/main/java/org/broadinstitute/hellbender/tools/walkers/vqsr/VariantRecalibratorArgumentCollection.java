@@ -131,6 +131,14 @@ final class VariantRecalibratorArgumentCollection {
     @Argument(fullName="mq-jitter", doc="Amount of jitter (as a multiplier to a Normal(0,1) distribution) to add to the AS_MQ and transformed MQ values", optional = true)
     public double MQ_JITTER = 0.05;
 
+    /**
+     * This parameter determines the number of threads used for the expectation and maximization steps of the variational
+     * Bayes algorithm and for evaluating the models over all data. Results do not depend on the number of threads.
+     */
+    @Advanced
+    @Argument(fullName = "number-of-threads", doc = "Number of threads used to train and evaluate the Gaussian mixture models", minValue = 1, optional = true)
+    public int NUM_THREADS = 1;
+
     @Advanced
     @Argument(fullName = "debug-stdev-thresholding", doc="Output variants that fail standard deviation thresholding to the log for debugging purposes. Redirection of stdout to a file is recommended.", optional = true)
     public boolean debugStdevThresholding = false;
@@ -6,7 +6,8 @@ import org.apache.logging.log4j.LogManager;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.utils.Utils;
 
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class VariantRecalibratorEngine {
 
@@ -30,7 +31,7 @@ public class VariantRecalibratorEngine {
         this.VRAC = VRAC;
     }
 
-    public GaussianMixtureModel generateModel(final List<VariantDatum> data, final int maxGaussians ) {
+    public GaussianMixtureModel generateModel(final VariantDataTable data, final int maxGaussians ) {
         if( data == null || data.isEmpty() ) {
             throw new IllegalArgumentException("No data found.");
         }
@@ -41,7 +42,7 @@ public class VariantRecalibratorEngine {
         final GaussianMixtureModel model = new GaussianMixtureModel(
                 maxGaussians,
                 data.size(),
-                data.get(0).annotations.length,
+                data.getNumAnnotations(),
                 VRAC.SHRINKAGE,
                 VRAC.DIRICHLET_PARAMETER,
                 VRAC.PRIOR_COUNTS );
@@ -49,7 +50,7 @@ public class VariantRecalibratorEngine {
         return model;
     }
 
-    public void evaluateData( final List<VariantDatum> data, final GaussianMixtureModel model, final boolean evaluateContrastively ) {
+    public void evaluateData( final VariantDataTable data, final GaussianMixtureModel model, final boolean evaluateContrastively ) {
         if( !model.isModelReadyForEvaluation ) {
             try {
                 model.precomputeDenominatorForEvaluation();
@@ -61,37 +62,60 @@ public class VariantRecalibratorEngine {
         }
 
         logger.info("Evaluating full set of " + data.size() + " variants...");
-        for( final VariantDatum datum : data ) {
-            final double thisLod = evaluateDatum( datum, model );
+        // data with missing annotations are marginalized using random draws, so they are evaluated below in order
+        // to keep results reproducible; all other data are evaluated in parallel up front
+        final double[] lods = new double[data.size()];
+        final ForkJoinPool pool = new ForkJoinPool(VRAC.NUM_THREADS);
+        try {
+            pool.submit(() -> IntStream.range(0, data.size()).parallel()
+                    .filter(i -> !data.hasMissingAnnotations(i))
+                    .forEach(i -> lods[i] = evaluateDatum(data, i, model)))
+                    .join();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for( int datum = 0; datum < data.size(); datum++ ) {
+            final double thisLod = data.hasMissingAnnotations(datum) ? evaluateDatum( data, datum, model ) : lods[datum];
             if( Double.isNaN(thisLod) ) {
                 model.failedToConverge = true;
                 return;
             }
 
-            datum.lod = ( evaluateContrastively ?
-                            ( Double.isInfinite(datum.lod) ? // positive model said negative infinity
+            final double lod = data.getLod(datum);
+            data.setLod(datum, evaluateContrastively ?
+                            ( Double.isInfinite(lod) ? // positive model said negative infinity
                                     ( MIN_ACCEPTABLE_LOD_SCORE + Utils.getRandomGenerator().nextDouble() * MIN_ACCEPTABLE_LOD_SCORE ) // Negative infinity lod values are possible when covariates are extremely far away from their tight Gaussians
-                                    : datum.prior + datum.lod - thisLod) // contrastive evaluation: (prior + positive model - negative model)
+                                    : data.getPrior(datum) + lod - thisLod) // contrastive evaluation: (prior + positive model - negative model)
                             : thisLod ); // positive model only so set the lod and return
         }
     }
 
-    public void calculateWorstPerformingAnnotation( final List<VariantDatum> data, final GaussianMixtureModel goodModel, final GaussianMixtureModel badModel ) {
-        for( final VariantDatum datum : data ) {
-            int worstAnnotation = -1;
-            double minProb = Double.MAX_VALUE;
-            double worstValue = -1;
-            for( int iii = 0; iii < datum.annotations.length; iii++ ) {
-                final Double goodProbLog10 = goodModel.evaluateDatumInOneDimension(datum, iii);
-                final Double badProbLog10 = badModel.evaluateDatumInOneDimension(datum, iii);
-                if( goodProbLog10 != null && badProbLog10 != null ) {
-                    final double prob = goodProbLog10 - badProbLog10;
-                    if(prob < minProb) { minProb = prob; worstAnnotation = iii; worstValue = datum.annotations[iii];}
-                }
+    public void calculateWorstPerformingAnnotation( final VariantDataTable data, final GaussianMixtureModel goodModel, final GaussianMixtureModel badModel ) {
+        final ForkJoinPool pool = new ForkJoinPool(VRAC.NUM_THREADS);
+        try {
+            pool.submit(() -> IntStream.range(0, data.size()).parallel()
+                    .forEach(datum -> calculateWorstPerformingAnnotation(data, datum, goodModel, badModel)))
+                    .join();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void calculateWorstPerformingAnnotation( final VariantDataTable data, final int datum, final GaussianMixtureModel goodModel, final GaussianMixtureModel badModel ) {
+        int worstAnnotation = -1;
+        double minProb = Double.MAX_VALUE;
+        double worstValue = -1;
+        for( int iii = 0; iii < data.getNumAnnotations(); iii++ ) {
+            final Double goodProbLog10 = goodModel.evaluateDatumInOneDimension(data, datum, iii);
+            final Double badProbLog10 = badModel.evaluateDatumInOneDimension(data, datum, iii);
+            if( goodProbLog10 != null && badProbLog10 != null ) {
+                final double prob = goodProbLog10 - badProbLog10;
+                if(prob < minProb) { minProb = prob; worstAnnotation = iii; worstValue = data.getAnnotation(datum, iii);}
             }
-            datum.worstAnnotation = worstAnnotation;
-            datum.worstValue = worstValue;
         }
+        data.setWorstAnnotation(datum, worstAnnotation);
+        data.setWorstValue(datum, worstValue);
     }
 
 
@@ -99,38 +123,44 @@ public class VariantRecalibratorEngine {
     // Private Methods used for generating a GaussianMixtureModel
     /////////////////////////////
 
-    private void variationalBayesExpectationMaximization( final GaussianMixtureModel model, final List<VariantDatum> data ) {
-
-        model.initializeRandomModel( data, VRAC.NUM_KMEANS_ITERATIONS );
-
-        // The VBEM loop
-        model.normalizePMixtureLog10();
-        model.expectationStep( data );
-        double currentChangeInMixtureCoefficients;
-        int iteration = 0;
-        logger.info("Finished iteration " + iteration + ".");
-        while( iteration < VRAC.MAX_ITERATIONS ) {
-            iteration++;
-            model.maximizationStep( data );
-            currentChangeInMixtureCoefficients = model.normalizePMixtureLog10();
-            model.expectationStep( data );
-            if( iteration % 5 == 0 ) { // cut down on the number of output lines so that users can read the warning messages
-                logger.info("Finished iteration " + iteration + ". \tCurrent change in mixture coefficients = " + String.format("%.5f", currentChangeInMixtureCoefficients));
-            }
-            if( iteration > 2 && currentChangeInMixtureCoefficients < MIN_PROB_CONVERGENCE ) {
-                logger.info("Convergence after " + iteration + " iterations!");
-                break;
+    private void variationalBayesExpectationMaximization( final GaussianMixtureModel model, final VariantDataTable data ) {
+
+        final double[] annotations = data.copyAnnotations();
+        model.initializeRandomModel( annotations, VRAC.NUM_KMEANS_ITERATIONS );
+
+        final ForkJoinPool pool = new ForkJoinPool(VRAC.NUM_THREADS);
+        try {
+            // The VBEM loop
+            model.normalizePMixtureLog10();
+            model.expectationStep( annotations, pool );
+            double currentChangeInMixtureCoefficients;
+            int iteration = 0;
+            logger.info("Finished iteration " + iteration + ".");
+            while( iteration < VRAC.MAX_ITERATIONS ) {
+                iteration++;
+                model.maximizationStep( annotations, pool );
+                currentChangeInMixtureCoefficients = model.normalizePMixtureLog10();
+                model.expectationStep( annotations, pool );
+                if( iteration % 5 == 0 ) { // cut down on the number of output lines so that users can read the warning messages
+                    logger.info("Finished iteration " + iteration + ". \tCurrent change in mixture coefficients = " + String.format("%.5f", currentChangeInMixtureCoefficients));
+                }
+                if( iteration > 2 && currentChangeInMixtureCoefficients < MIN_PROB_CONVERGENCE ) {
+                    logger.info("Convergence after " + iteration + " iterations!");
+                    break;
+                }
             }
-        }
 
-        model.evaluateFinalModelParameters( data );
+            model.evaluateFinalModelParameters( annotations, pool );
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     /////////////////////////////
     // Private Methods used for evaluating data given a GaussianMixtureModel
     /////////////////////////////
 
-    private double evaluateDatum( final VariantDatum datum, final GaussianMixtureModel model ) {
-        return model.evaluateDatum( datum );
+    private double evaluateDatum( final VariantDataTable data, final int datum, final GaussianMixtureModel model ) {
+        return model.evaluateDatum( data, datum );
     }
 }
@@ -0,0 +1,62 @@
+package org.broadinstitute.hellbender.utils;
+
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Results of tasks running on other threads, which are consumed on the calling thread in the order in which the
+ * tasks were added, regardless of the order in which they finish.  Tools that process their input in chunks on
+ * several threads use this to keep their output in input order, while bounding the number of chunks in memory.
+ *
+ * Exceptions thrown by the tasks are rethrown by {@link #consume} as described in {@link Utils#getResult}.
+ *
+ * @param <T> type of the results
+ */
+public final class OrderedResultQueue<T> {
+    private final Deque<PendingResult<T>> pending = new ArrayDeque<>();
+
+    private static final class PendingResult<T> {
+        private final Future<T> result;
+        private final Supplier<String> description;
+
+        private PendingResult(final Future<T> result, final Supplier<String> description) {
+            this.result = result;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Adds a task whose result is to be consumed after those of all the tasks already added
+     * @param description what the task does, for error messages, e.g. "annotating variant at 1:1000"; only built
+     *                    if the task fails or the calling thread is interrupted while waiting for it
+     */
+    public void add(final Future<T> result, final Supplier<String> description) {
+        pending.add(new PendingResult<>(Utils.nonNull(result), Utils.nonNull(description)));
+    }
+
+    /**
+     * Passes the results of the oldest tasks to {@code consumer}, in order, waiting for them as necessary, until no
+     * more than {@code maxPending} tasks are pending.  Results that are already available are consumed as well.
+     * @param maxPending the maximum number of tasks that may still be pending when this method returns
+     */
+    public void consume(final int maxPending, final Consumer<? super T> consumer) {
+        ParamUtils.isPositiveOrZero(maxPending, "The maximum number of pending tasks must be non-negative.");
+        Utils.nonNull(consumer);
+        while (!pending.isEmpty() && (pending.size() > maxPending || pending.peekFirst().result.isDone())) {
+            final PendingResult<T> oldest = pending.removeFirst();
+            consumer.accept(Utils.getResult(oldest.result, oldest.description));
+        }
+    }
+
+    /**
+     * @return the number of tasks whose results have not been consumed
+     */
+    public int size() {
+        return pending.size();
+    }
+}
@@ -1163,6 +1163,41 @@ public final class Utils {
         };
     }
 
+    /**
+     * Waits for a task running on another thread to finish and returns its result.  An unchecked exception or error
+     * thrown by the task (e.g. a {@link org.broadinstitute.hellbender.exceptions.UserException}) is rethrown as it is,
+     * so that it is reported the same way as if the task had run on the calling thread.
+     *
+     * @param future the task
+     * @param description what the task does, for error messages, e.g. "genotyping sites"
+     * @throws GATKException if the calling thread is interrupted, or the task throws a checked exception
+     */
+    public static <T> T getResult(final Future<T> future, final String description) {
+        return getResult(future, () -> description);
+    }
+
+    /**
+     * Like {@link #getResult(Future, String)}, but the description is only built if an error message needs it.
+     */
+    public static <T> T getResult(final Future<T> future, final Supplier<String> description) {
+        nonNull(future);
+        nonNull(description);
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GATKException("Interrupted while " + description.get(), ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GATKException("Error while " + description.get(), cause);
+        }
+    }
+
     /** Gets duplicated items in the collection. */
     public static <T> Set<T> getDuplicatedItems(final Collection<T> objects) {
         final Set<T> unique = new HashSet<>();
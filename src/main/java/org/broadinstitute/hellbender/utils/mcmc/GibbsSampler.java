@@ -20,9 +20,7 @@ import java.util.stream.Collectors;
  * @author Samuel Lee &lt;slee@broadinstitute.org&gt;
  */
 public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends ParameterizedState<V>, T extends DataCollection> {
-    private static final int RANDOM_SEED = 42;
-    private static final RandomGenerator rng =
-            RandomGeneratorFactory.createRandomGenerator(new Random(RANDOM_SEED));
+    public static final int DEFAULT_RANDOM_SEED = 42;
 
     private static final Logger logger = LogManager.getLogger(GibbsSampler.class);
     private static final int NUMBER_OF_SAMPLES_PER_LOG_ENTRY = 25;
@@ -30,6 +28,9 @@ public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends Par
     private final int numSamples;
     private int numSamplesPerLogEntry;
 
+    private final int randomSeed;
+    private final RandomGenerator rng;
+
     private final ParameterizedModel<V, S, T> model;
 
     private final List<S> samples;
@@ -44,11 +45,25 @@ public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends Par
      * @param model         {@link ParameterizedModel} to be sampled
      */
     public GibbsSampler(final int numSamples, final ParameterizedModel<V, S, T> model) {
+        this(numSamples, model, DEFAULT_RANDOM_SEED);
+    }
+
+    /**
+     * Constructs a GibbsSampler as in {@link #GibbsSampler(int, ParameterizedModel)}, but with the given seed for the
+     * random number generator.  Each GibbsSampler holds its own random number generator, so that chains for different
+     * models (or for different copies of the same model) may be run concurrently on separate threads.
+     * @param numSamples    total number of samples; must be positive
+     * @param model         {@link ParameterizedModel} to be sampled
+     * @param randomSeed    seed for the random number generator, which is reset each time the chain is run
+     */
+    public GibbsSampler(final int numSamples, final ParameterizedModel<V, S, T> model, final int randomSeed) {
         ParamUtils.isPositive(numSamples, "Number of samples must be positive.");
         Utils.validateArg(model.getUpdateMethod() == ParameterizedModel.UpdateMethod.GIBBS, "ParameterizedModel must be constructed to update using Gibbs sampling.");
         this.numSamples = numSamples;
         this.model = model;
         numSamplesPerLogEntry = NUMBER_OF_SAMPLES_PER_LOG_ENTRY;
+        this.randomSeed = randomSeed;
+        rng = RandomGeneratorFactory.createRandomGenerator(new Random(randomSeed));
         samples = new ArrayList<>(numSamples);
         samples.add(model.state());
     }
@@ -67,7 +82,7 @@ public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends Par
      * Progress is logged according to {@code numSamplesPerLogEntry}.
      */
     public void runMCMC() {
-        rng.setSeed(RANDOM_SEED);
+        rng.setSeed(randomSeed);
         logger.info("Starting MCMC sampling.");
         for (int sample = 1; sample < numSamples; sample++) {
             if (sample % numSamplesPerLogEntry == 0) {
@@ -0,0 +1,362 @@
+package org.broadinstitute.hellbender.utils.variant;
+
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.JexlMissingValueTreatment;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextUtils;
+import htsjdk.variant.variantcontext.VariantContextUtils.JexlVCMatchExp;
+import org.apache.commons.jexl2.JexlArithmetic;
+import org.apache.commons.jexl2.JexlEngine;
+import org.apache.commons.jexl2.parser.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates a {@link JexlVCMatchExp} against variants and genotypes without going through the JEXL interpreter.
+ *
+ * <p>
+ *     The common forms of filtering and selection expressions (comparisons of site, genotype, and attribute values
+ *     with literals, {@code &&}, {@code ||}, {@code !}, and zero-argument method calls on {@code vc} and {@code g},
+ *     such as {@code vc.isSNP()}) are compiled once into a tree of evaluators.  Values are looked up directly from the
+ *     {@link VariantContext} or {@link Genotype} as each comparison is reached, so no JEXL context is built per record
+ *     and only the attributes that are actually referenced are fetched.  Comparisons and boolean coercions use the
+ *     {@link JexlArithmetic} of {@link VariantContextUtils#engine}, so results are identical to those of
+ *     {@link VariantContextUtils#match}.
+ * </p>
+ *
+ * <p>
+ *     Expressions using any other JEXL syntax are not compiled, and are always evaluated with
+ *     {@link VariantContextUtils#match}.  Compiled expressions also defer to {@link VariantContextUtils#match}
+ *     for any record whose evaluation would raise an error, so error reporting is unchanged.
+ * </p>
+ */
+public final class JexlVariantMatcher {
+    private static final Logger logger = LogManager.getLogger(JexlVariantMatcher.class);
+
+    private final JexlVCMatchExp exp;
+
+    /**
+     * Compiled form of the expression, or {@code null} if the expression must be evaluated by JEXL.
+     */
+    private final Evaluator evaluator;
+
+    private JexlVariantMatcher(final JexlVCMatchExp exp, final Evaluator evaluator) {
+        this.exp = exp;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Compiles a JEXL match expression.  Never fails: unsupported expressions produce a matcher that
+     * delegates to {@link VariantContextUtils#match}.
+     */
+    public static JexlVariantMatcher compile(final JexlVCMatchExp exp) {
+        Utils.nonNull(exp);
+        Evaluator evaluator;
+        try {
+            final String expression = JexlEngine.cleanExpression(exp.exp.getExpression());
+            final ASTJexlScript script = new Parser(new StringReader(";")).parse(new StringReader(expression), null);
+            // JEXL only evaluates the first statement of an expression
+            evaluator = script.jjtGetNumChildren() == 1 ? compileNode(script.jjtGetChild(0)) : null;
+        } catch (final ParseException | RuntimeException e) {
+            evaluator = null;
+        }
+        if (evaluator == null) {
+            logger.debug(String.format("JEXL expression %s (%s) will be evaluated by the JEXL interpreter", exp.name, exp.exp.getExpression()));
+        }
+        return new JexlVariantMatcher(exp, evaluator);
+    }
+
+    /**
+     * @return compiled matchers for each expression, in the same order
+     */
+    public static List<JexlVariantMatcher> compile(final List<JexlVCMatchExp> exps) {
+        Utils.nonNull(exps);
+        return Collections.unmodifiableList(exps.stream().map(JexlVariantMatcher::compile).collect(Collectors.toList()));
+    }
+
+    public JexlVCMatchExp getMatchExp() {
+        return exp;
+    }
+
+    /**
+     * @return true if the expression is evaluated without the JEXL interpreter
+     */
+    public boolean isCompiled() {
+        return evaluator != null;
+    }
+
+    /**
+     * Equivalent to {@link VariantContextUtils#match(VariantContext, JexlVCMatchExp)}, which treats missing values
+     * as mismatches.
+     */
+    public boolean match(final VariantContext vc) {
+        return match(vc, null, JexlMissingValueTreatment.TREAT_AS_MISMATCH);
+    }
+
+    /**
+     * Equivalent to {@link VariantContextUtils#match(VariantContext, Genotype, JexlVCMatchExp, JexlMissingValueTreatment)}.
+     *
+     * @param vc                      the variant to evaluate.  Not {@code null}
+     * @param g                       the genotype to evaluate, or {@code null} to evaluate only the site
+     * @param howToTreatMissingValues result when a value in the expression is missing
+     */
+    public boolean match(final VariantContext vc, final Genotype g, final JexlMissingValueTreatment howToTreatMissingValues) {
+        Utils.nonNull(vc);
+        if (evaluator != null) {
+            final JexlEngine engine = VariantContextUtils.engine.get();
+            try {
+                final Object result = evaluator.evaluate(vc, g, engine.getArithmetic(), !engine.isLenient());
+                if (result instanceof Boolean) {
+                    return (Boolean) result;
+                } else if (result == null) {
+                    throw MissingValueException.INSTANCE;
+                }
+            } catch (final MissingValueException e) {
+                if (howToTreatMissingValues == JexlMissingValueTreatment.TREAT_AS_MATCH) {
+                    return true;
+                } else if (howToTreatMissingValues == JexlMissingValueTreatment.TREAT_AS_MISMATCH) {
+                    return false;
+                }
+            } catch (final RuntimeException e) {
+                // fall through and let JEXL produce the error, or whatever it does instead
+            }
+        }
+        return VariantContextUtils.match(vc, g, exp, howToTreatMissingValues);
+    }
+
+    @FunctionalInterface
+    private interface Evaluator {
+        /**
+         * @param strict whether the JEXL engine is strict, in which case an undefined variable makes the entire
+         *               expression a missing value, rather than evaluating to {@code null}
+         */
+        Object evaluate(VariantContext vc, Genotype g, JexlArithmetic arithmetic, boolean strict);
+    }
+
+    @FunctionalInterface
+    private interface Comparison {
+        boolean compare(JexlArithmetic arithmetic, Object left, Object right);
+    }
+
+    /**
+     * Thrown when a referenced variable is undefined, which JEXL reports with a {@code JexlException.Variable}.
+     */
+    private static final class MissingValueException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final MissingValueException INSTANCE = new MissingValueException();
+
+        private MissingValueException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * @return an evaluator with the same semantics as the JEXL interpreter for {@code node}, or {@code null} if the
+     * node uses unsupported syntax
+     */
+    private static Evaluator compileNode(final JexlNode node) {
+        if (node instanceof ASTAndNode || node instanceof ASTOrNode) {
+            final Evaluator left = compileNode(node.jjtGetChild(0));
+            final Evaluator right = compileNode(node.jjtGetChild(1));
+            if (left == null || right == null) {
+                return null;
+            }
+            // the right operand is only evaluated if the left one does not already determine the result
+            final boolean shortCircuitValue = node instanceof ASTOrNode;
+            return (vc, g, arithmetic, strict) -> {
+                if (arithmetic.toBoolean(left.evaluate(vc, g, arithmetic, strict)) == shortCircuitValue) {
+                    return shortCircuitValue;
+                }
+                return arithmetic.toBoolean(right.evaluate(vc, g, arithmetic, strict));
+            };
+        } else if (node instanceof ASTNotNode) {
+            final Evaluator operand = compileNode(node.jjtGetChild(0));
+            return operand == null ? null : (vc, g, arithmetic, strict) -> !arithmetic.toBoolean(operand.evaluate(vc, g, arithmetic, strict));
+        } else if (node instanceof ASTEQNode) {
+            return compileComparison(node, JexlArithmetic::equals);
+        } else if (node instanceof ASTNENode) {
+            return compileComparison(node, (arithmetic, left, right) -> !arithmetic.equals(left, right));
+        } else if (node instanceof ASTLTNode) {
+            return compileComparison(node, JexlArithmetic::lessThan);
+        } else if (node instanceof ASTLENode) {
+            return compileComparison(node, JexlArithmetic::lessThanOrEqual);
+        } else if (node instanceof ASTGTNode) {
+            return compileComparison(node, JexlArithmetic::greaterThan);
+        } else if (node instanceof ASTGENode) {
+            return compileComparison(node, JexlArithmetic::greaterThanOrEqual);
+        } else if (node instanceof ASTReference) {
+            return compileReference((ASTReference) node);
+        } else if (node instanceof ASTReferenceExpression) {
+            return node.jjtGetNumChildren() == 1 ? compileNode(node.jjtGetChild(0)) : null;
+        } else if (node instanceof ASTUnaryMinusNode) {
+            return compileNegativeLiteral((ASTUnaryMinusNode) node);
+        } else if (node instanceof ASTNumberLiteral) {
+            return constant(((ASTNumberLiteral) node).getLiteral());
+        } else if (node instanceof ASTStringLiteral) {
+            return constant(((ASTStringLiteral) node).getLiteral());
+        } else if (node instanceof ASTTrueNode) {
+            return constant(Boolean.TRUE);
+        } else if (node instanceof ASTFalseNode) {
+            return constant(Boolean.FALSE);
+        } else if (node instanceof ASTNullLiteral) {
+            return constant(null);
+        }
+        return null;
+    }
+
+    private static Evaluator constant(final Object value) {
+        return (vc, g, arithmetic, strict) -> value;
+    }
+
+    private static Evaluator compileComparison(final JexlNode node, final Comparison comparison) {
+        final Evaluator left = compileNode(node.jjtGetChild(0));
+        final Evaluator right = compileNode(node.jjtGetChild(1));
+        if (left == null || right == null) {
+            return null;
+        }
+        return (vc, g, arithmetic, strict) -> {
+            final Object leftValue = left.evaluate(vc, g, arithmetic, strict);
+            final Object rightValue = right.evaluate(vc, g, arithmetic, strict);
+            return comparison.compare(arithmetic, leftValue, rightValue);
+        };
+    }
+
+    /**
+     * Negative numbers are parsed as a unary minus applied to a literal, which JEXL negates and then narrows back to
+     * the type of the literal.  Since this does not depend on the record, it is folded into a constant.
+     */
+    private static Evaluator compileNegativeLiteral(final ASTUnaryMinusNode node) {
+        if (!(node.jjtGetChild(0) instanceof ASTNumberLiteral)) {
+            return null;
+        }
+        final ASTNumberLiteral literal = (ASTNumberLiteral) node.jjtGetChild(0);
+        final Object negated = VariantContextUtils.engine.get().getArithmetic().negate(literal.getLiteral());
+        // negation preserves the type of all literals, so there is nothing to narrow; bail out if that ever changes
+        return negated != null && negated.getClass() == literal.getLiteralClass() ? constant(negated) : null;
+    }
+
+    /**
+     * Compiles a variable ({@code DP}), a parenthesized expression, a string literal, or a zero-argument method call
+     * on the variant or genotype ({@code vc.isSNP()}).
+     */
+    private static Evaluator compileReference(final ASTReference node) {
+        final JexlNode first = node.jjtGetChild(0);
+        if (node.jjtGetNumChildren() == 1) {
+            if (first instanceof ASTIdentifier) {
+                final String name = first.image;
+                return (vc, g, arithmetic, strict) -> {
+                    final Object value = lookup(name, vc, g);
+                    if (value == null && strict) {
+                        throw MissingValueException.INSTANCE;
+                    }
+                    return value;
+                };
+            }
+            return compileNode(first);
+        } else if (node.jjtGetNumChildren() == 2 && first instanceof ASTIdentifier && node.jjtGetChild(1) instanceof ASTMethodNode) {
+            final JexlNode methodNode = node.jjtGetChild(1);
+            if (methodNode.jjtGetNumChildren() != 1) {
+                return null;
+            }
+            final String methodName = methodNode.jjtGetChild(0).image;
+            if (VARIANT.equals(first.image)) {
+                final Method method = getPublicMethod(VariantContext.class, methodName);
+                return method == null ? null : (vc, g, arithmetic, strict) -> invoke(method, vc);
+            } else if (GENOTYPE.equals(first.image)) {
+                final Method method = getPublicMethod(Genotype.class, methodName);
+                return method == null ? null : (vc, g, arithmetic, strict) -> invoke(method, Utils.nonNull(g));
+            }
+        }
+        return null;
+    }
+
+    private static Method getPublicMethod(final Class<?> clazz, final String name) {
+        try {
+            return clazz.getMethod(name);
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Object invoke(final Method method, final Object target) {
+        try {
+            return method.invoke(target);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final String VARIANT = "vc";
+    private static final String GENOTYPE = "g";
+
+    // the following replicate the variables defined for JEXL expressions by VariantContextUtils
+
+    private static final Map<String, Function<VariantContext, Object>> VARIANT_VALUES = new HashMap<>();
+    static {
+        VARIANT_VALUES.put(VARIANT, vc -> vc);
+        VARIANT_VALUES.put("CHROM", VariantContext::getContig);
+        VARIANT_VALUES.put("POS", VariantContext::getStart);
+        VARIANT_VALUES.put("TYPE", vc -> vc.getType().toString());
+        VARIANT_VALUES.put("QUAL", vc -> -10 * vc.getLog10PError());
+        VARIANT_VALUES.put("ALLELES", VariantContext::getAlleles);
+        VARIANT_VALUES.put("N_ALLELES", VariantContext::getNAlleles);
+        VARIANT_VALUES.put("FILTER", vc -> vc.isFiltered() ? "1" : "0");
+        VARIANT_VALUES.put("homRefCount", VariantContext::getHomRefCount);
+        VARIANT_VALUES.put("hetCount", VariantContext::getHetCount);
+        VARIANT_VALUES.put("homVarCount", VariantContext::getHomVarCount);
+    }
+
+    private static final Map<String, Function<Genotype, Object>> GENOTYPE_VALUES = new HashMap<>();
+    static {
+        GENOTYPE_VALUES.put(GENOTYPE, g -> g);
+        GENOTYPE_VALUES.put("GT", Genotype::getGenotypeString);
+        GENOTYPE_VALUES.put("isHom", g -> g.isHom() ? "1" : "0");
+        GENOTYPE_VALUES.put("isHomRef", g -> g.isHomRef() ? "1" : "0");
+        GENOTYPE_VALUES.put("isHet", g -> g.isHet() ? "1" : "0");
+        GENOTYPE_VALUES.put("isHomVar", g -> g.isHomVar() ? "1" : "0");
+        GENOTYPE_VALUES.put("isCalled", g -> g.isCalled() ? "1" : "0");
+        GENOTYPE_VALUES.put("isNoCall", g -> g.isNoCall() ? "1" : "0");
+        GENOTYPE_VALUES.put("isMixed", g -> g.isMixed() ? "1" : "0");
+        GENOTYPE_VALUES.put("isAvailable", g -> g.isAvailable() ? "1" : "0");
+        GENOTYPE_VALUES.put("isPassFT", g -> g.isFiltered() ? "0" : "1");
+        GENOTYPE_VALUES.put("FT", g -> g.isFiltered() ? g.getFilters() : "PASS");
+        GENOTYPE_VALUES.put("GQ", Genotype::getGQ);
+    }
+
+    /**
+     * @return the value of a variable in the same way as the JEXL contexts of {@link VariantContextUtils},
+     * or {@code null} if it is undefined
+     */
+    private static Object lookup(final String name, final VariantContext vc, final Genotype g) {
+        if (g != null) {
+            final Function<Genotype, Object> genotypeValue = GENOTYPE_VALUES.get(name);
+            if (genotypeValue != null) {
+                return genotypeValue.apply(g);
+            } else if (g.hasAnyAttribute(name)) {
+                return g.getAnyAttribute(name);
+            } else if (g.getFilters() != null && g.getFilters().contains(name)) {
+                return "1";
+            }
+        }
+        final Function<VariantContext, Object> variantValue = VARIANT_VALUES.get(name);
+        if (variantValue != null) {
+            return variantValue.apply(vc);
+        } else if (vc.hasAttribute(name)) {
+            return vc.getAttribute(name);
+        } else if (vc.getFilters().contains(name)) {
+            return "1";
+        }
+        return null;
+    }
+}
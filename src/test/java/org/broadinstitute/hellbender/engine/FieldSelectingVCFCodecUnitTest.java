@@ -0,0 +1,95 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFHeader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBOptions;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public final class FieldSelectingVCFCodecUnitTest extends GATKBaseTest {
+    private static final String MULTI_SAMPLE_VCF = toolsTestDir + "walkers/variantutils/VariantsToTable/vcfexample2.vcf";
+
+    private static List<VariantContext> readVariants(final VariantFieldSelection selection, final List<VCFHeader> header) {
+        try (final FeatureDataSource<VariantContext> source = new FeatureDataSource<>(new FeatureInput<>(MULTI_SAMPLE_VCF), 0,
+                VariantContext.class, 0, 0, new GenomicsDBOptions(), selection)) {
+            header.add((VCFHeader) source.getHeader());
+            final List<VariantContext> variants = new ArrayList<>();
+            source.forEach(variants::add);
+            return variants;
+        }
+    }
+
+    private static String valueAsString(final Object value) {
+        return value instanceof int[] ? Arrays.toString((int[]) value) : String.valueOf(value);
+    }
+
+    @DataProvider(name = "selections")
+    public Object[][] selections() {
+        return new Object[][]{
+                {VariantFieldSelection.ALL},
+                {VariantFieldSelection.SITES_ONLY},
+                {new VariantFieldSelection(Collections.emptySet(), null, Collections.emptySet())},
+                {new VariantFieldSelection(Arrays.asList("AF", "DoC", "NOT_PRESENT"), Collections.singleton("GQ"), Arrays.asList("NA11992", "NA12761", "NOT_PRESENT"))},
+                {new VariantFieldSelection(Collections.singleton("NS"), Collections.emptySet(), null)},
+                {new VariantFieldSelection(null, Collections.singleton("RD"), Collections.singleton("NA11894"))},
+        };
+    }
+
+    @Test(dataProvider = "selections")
+    public void testSelectedFieldsMatchFullDecoding(final VariantFieldSelection selection) {
+        final List<VCFHeader> headers = new ArrayList<>();
+        final List<VariantContext> expectedVariants = readVariants(VariantFieldSelection.ALL, headers);
+        final List<VariantContext> actualVariants = readVariants(selection, headers);
+
+        final List<String> expectedSamples = headers.get(0).getGenotypeSamples().stream()
+                .filter(selection::selectsSample).collect(Collectors.toList());
+        Assert.assertEquals(headers.get(1).getGenotypeSamples(), expectedSamples);
+        Assert.assertEquals(headers.get(1).getInfoHeaderLines(), headers.get(0).getInfoHeaderLines());
+
+        Assert.assertEquals(actualVariants.size(), expectedVariants.size());
+        for (int i = 0; i < expectedVariants.size(); i++) {
+            final VariantContext expected = expectedVariants.get(i);
+            final VariantContext actual = actualVariants.get(i);
+            Assert.assertEquals(actual.getContig(), expected.getContig());
+            Assert.assertEquals(actual.getStart(), expected.getStart());
+            Assert.assertEquals(actual.getID(), expected.getID());
+            Assert.assertEquals(actual.getAlleles(), expected.getAlleles());
+            Assert.assertEquals(actual.getPhredScaledQual(), expected.getPhredScaledQual());
+            Assert.assertEquals(actual.getFilters(), expected.getFilters());
+
+            final Map<String, Object> expectedAttributes = new LinkedHashMap<>(expected.getAttributes());
+            expectedAttributes.keySet().removeIf(key -> !selection.selectsInfoField(key));
+            Assert.assertEquals(actual.getAttributes(), expectedAttributes);
+
+            Assert.assertEquals(actual.getSampleNamesOrderedByName(), expectedSamples.stream().sorted().collect(Collectors.toList()));
+            for (final String sample : expectedSamples) {
+                final Genotype expectedGenotype = expected.getGenotype(sample);
+                final Genotype actualGenotype = actual.getGenotype(sample);
+                Assert.assertEquals(actualGenotype.getAlleles(), expectedGenotype.getAlleles());
+                for (final String key : Arrays.asList("GT", "RD", "GQ")) {
+                    final boolean shouldHave = selection.selectsFormatField(key) && expectedGenotype.hasAnyAttribute(key);
+                    Assert.assertEquals(actualGenotype.hasAnyAttribute(key), shouldHave, key);
+                    if (shouldHave) {
+                        Assert.assertEquals(valueAsString(actualGenotype.getAnyAttribute(key)), valueAsString(expectedGenotype.getAnyAttribute(key)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSitesOnlyRecordsHaveNoGenotypeData() {
+        final FieldSelectingVCFCodec codec = new FieldSelectingVCFCodec(new VariantFieldSelection(Collections.singleton("DP"), null, Collections.emptySet()));
+        Assert.assertEquals(codec.selectFields("1\t100\t.\tA\tC\t30\tPASS\tAC=1;DP=10;FLAG\tGT:DP\t0/1:5\t0/0:5"),
+                "1\t100\t.\tA\tC\t30\tPASS\tDP=10");
+        Assert.assertEquals(codec.selectFields("1\t100\t.\tA\tC\t30\tPASS\tAC=1;FLAG\tGT:DP\t0/1:5\t0/0:5"),
+                "1\t100\t.\tA\tC\t30\tPASS\t.");
+        Assert.assertEquals(codec.selectFields("#CHROM\tPOS"), "#CHROM\tPOS");
+    }
+}
@@ -5,8 +5,12 @@ import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.cmdline.TestProgramGroup;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MultiplePassVariantWalkerUnitTest extends GATKBaseTest {
     @CommandLineProgramProperties(
             summary = "An example subclass of MultiplePassVariantWalker",
@@ -18,10 +22,13 @@ public class MultiplePassVariantWalkerUnitTest extends GATKBaseTest {
         public int firstPass = 0;
         public int secondPass = 0;
         public boolean visitedAfterFirstPass = false;
+        public final List<VariantContext> firstPassVariants = new ArrayList<>();
+        public final List<VariantContext> secondPassVariants = new ArrayList<>();
 
         @Override
         protected void firstPassApply(VariantContext variant, ReadsContext readsContext, ReferenceContext referenceContext, FeatureContext featureContext) {
             firstPass++;
+            firstPassVariants.add(variant);
         }
 
         @Override
@@ -32,6 +39,7 @@ public class MultiplePassVariantWalkerUnitTest extends GATKBaseTest {
         @Override
         protected void secondPassApply(VariantContext variant, ReadsContext readsContext, ReferenceContext referenceContext, FeatureContext featureContext) {
             secondPass++;
+            secondPassVariants.add(variant);
         }
     }
 
@@ -50,4 +58,31 @@ public class MultiplePassVariantWalkerUnitTest extends GATKBaseTest {
         Assert.assertTrue(walker.visitedAfterFirstPass);
     }
 
+    @DataProvider(name = "maxVariantsCached")
+    public Object[][] maxVariantsCached() {
+        return new Object[][]{{0, false}, {51, false}, {52, true}, {1000, true}};
+    }
+
+    @Test(dataProvider = "maxVariantsCached")
+    public void testTwoPassTraversalWithCache(final int maxVariantsCached, final boolean expectReplay) {
+        final DummyMultiplePassVariantWalker walker = new DummyMultiplePassVariantWalker();
+        final String testVcf = "src/test/resources/org/broadinstitute/hellbender/tools/walkers/variantutils/VariantsToTable/multiallelic.vcf";
+
+        final String[] args = { "-V", testVcf,
+                "--" + MultiplePassVariantWalker.MAX_VARIANTS_CACHED_BETWEEN_PASSES_LONG_NAME, String.valueOf(maxVariantsCached) };
+
+        walker.instanceMain(args);
+
+        final int expectedNumberOfVariantContexts = 52;
+        Assert.assertEquals(walker.firstPass, expectedNumberOfVariantContexts);
+        Assert.assertEquals(walker.secondPass, expectedNumberOfVariantContexts);
+        for (int i = 0; i < expectedNumberOfVariantContexts; i++) {
+            final VariantContext first = walker.firstPassVariants.get(i);
+            final VariantContext second = walker.secondPassVariants.get(i);
+            // replayed variants are the very objects decoded during the first pass
+            Assert.assertEquals(first == second, expectReplay);
+            Assert.assertEquals(second.toStringDecodeGenotypes(), first.toStringDecodeGenotypes());
+        }
+    }
+
 }
\ No newline at end of file
@@ -60,6 +60,26 @@ public class ProgressMeterUnitTest extends GATKBaseTest {
         Assert.assertEquals(meter.numLoggerUpdates(), expectedUpdates, "Wrong number of logger updates given secondsBetweenUpdates = " + secondsBetweenUpdates);
     }
 
+    @Test(dataProvider = "UpdateIntervalTestData")
+    public void testUpdateIntervalWithBatches( final double secondsBetweenUpdates, final ListBasedTimeFunction timeFunction, final long numRecords, final int expectedUpdates ) {
+        final ProgressMeter meter = new ProgressMeter(secondsBetweenUpdates, timeFunction);
+        meter.start();
+        // batches that don't divide the number of records between time checks must still check the time once per interval
+        final long batchSize = 300;
+        for ( long processed = 0; processed < numRecords; processed += batchSize ) {
+            meter.update(new SimpleInterval("1", 1, 1), Math.min(batchSize, numRecords - processed));
+        }
+
+        Assert.assertEquals(meter.numLoggerUpdates(), expectedUpdates, "Wrong number of logger updates given secondsBetweenUpdates = " + secondsBetweenUpdates);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeBatchSize() {
+        final ProgressMeter meter = new ProgressMeter(1.0);
+        meter.start();
+        meter.update(new SimpleInterval("1", 1, 1), -1);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testInvalidUpdateInterval() {
         final ProgressMeter meter = new ProgressMeter(0.0);
@@ -0,0 +1,52 @@
+package org.broadinstitute.hellbender.engine;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SynchronizedReferenceDataSourceUnitTest extends GATKBaseTest {
+
+    private static final Path TEST_REFERENCE = IOUtils.getPath(publicTestDir + "hg19mini.fasta");
+
+    @Test
+    public void testMatchesUnderlyingDataSource() {
+        try (final ReferenceDataSource expected = ReferenceDataSource.of(TEST_REFERENCE);
+             final ReferenceDataSource actual = new SynchronizedReferenceDataSource(ReferenceDataSource.of(TEST_REFERENCE))) {
+            Assert.assertEquals(actual.getSequenceDictionary(), expected.getSequenceDictionary());
+            final SimpleInterval interval = new SimpleInterval("1", 100, 200);
+            Assert.assertEquals(actual.queryAndPrefetch(interval).getBases(), expected.queryAndPrefetch(interval).getBases());
+            Assert.assertEquals(actual.queryAndPrefetch("2", 1, 50).getBases(), expected.queryAndPrefetch("2", 1, 50).getBases());
+        }
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        final int numQueries = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final ReferenceDataSource expected = ReferenceDataSource.of(TEST_REFERENCE);
+             final ReferenceDataSource actual = new SynchronizedReferenceDataSource(ReferenceDataSource.of(TEST_REFERENCE))) {
+            final List<SimpleInterval> intervals = new ArrayList<>(numQueries);
+            final List<Future<byte[]>> results = new ArrayList<>(numQueries);
+            for (int i = 0; i < numQueries; i++) {
+                // jump between contigs and positions to defeat the reference cache
+                final SimpleInterval interval = new SimpleInterval(Integer.toString(i % 4 + 1), 1 + (i * 37) % 9000, 1 + (i * 37) % 9000 + i % 100);
+                intervals.add(interval);
+                results.add(executor.submit(() -> actual.queryAndPrefetch(interval).getBases()));
+            }
+            for (int i = 0; i < numQueries; i++) {
+                Assert.assertEquals(results.get(i).get(), expected.queryAndPrefetch(intervals.get(i)).getBases(), "Wrong bases for " + intervals.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
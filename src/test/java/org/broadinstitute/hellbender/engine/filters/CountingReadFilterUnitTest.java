@@ -272,6 +272,32 @@ public final class CountingReadFilterUnitTest {
         Assert.assertEquals(isEgon.getFilteredCount(), 0);
     }
 
+    @Test
+    public void testMergeFilteredCounts() {
+        final CountingReadFilter first = new CountingReadFilter(startOk).and(new CountingReadFilter(endOk)).negate();
+        final CountingReadFilter second = new CountingReadFilter(startOk).and(new CountingReadFilter(endOk)).negate();
+        final CountingReadFilter all = new CountingReadFilter(startOk).and(new CountingReadFilter(endOk)).negate();
+
+        final List<GATKRead> firstReads = Arrays.asList(goodRead, startBad, endBad);
+        final List<GATKRead> secondReads = Arrays.asList(bothBad, goodRead, goodRead);
+        firstReads.stream().filter(first).count(); // force the stream to be consumed
+        secondReads.stream().filter(second).count();
+        firstReads.stream().filter(all).count();
+        secondReads.stream().filter(all).count();
+
+        first.mergeFilteredCounts(second);
+        Assert.assertEquals(first.getFilteredCount(), all.getFilteredCount());
+        Assert.assertEquals(first.getSummaryLine(), all.getSummaryLine());
+        Assert.assertEquals(second.getFilteredCount(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMergeFilteredCountsDifferentFilters() {
+        final CountingReadFilter startAndEnd = new CountingReadFilter(startOk).and(new CountingReadFilter(endOk));
+        final CountingReadFilter startOrEnd = new CountingReadFilter(startOk).or(new CountingReadFilter(endOk));
+        startAndEnd.mergeFilteredCounts(startOrEnd);
+    }
+
     @Test
     public void testFromListNull() {
         CountingReadFilter rf = CountingReadFilter.fromList(null, ArtificialReadUtils.createArtificialSamHeader(1, 1, 10));
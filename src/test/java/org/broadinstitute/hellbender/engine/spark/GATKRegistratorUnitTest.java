@@ -0,0 +1,137 @@
+package org.broadinstitute.hellbender.engine.spark;
+
+import htsjdk.samtools.TextCigarCodec;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.spark.SparkConf;
+import org.apache.spark.serializer.KryoSerializer;
+import org.apache.spark.serializer.SerializerInstance;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.testutils.SparkTestUtils;
+import org.broadinstitute.hellbender.testutils.VariantContextTestUtils;
+import org.broadinstitute.hellbender.tools.spark.sv.discovery.alignment.AlignmentInterval;
+import org.broadinstitute.hellbender.tools.spark.sv.discovery.alignment.ContigAlignmentsModifier;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import scala.reflect.ClassTag;
+import scala.reflect.ClassTag$;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class GATKRegistratorUnitTest extends GATKBaseTest {
+    private static final Logger logger = LogManager.getLogger(GATKRegistratorUnitTest.class);
+
+    private static SparkConf getConf(final boolean useRegistrator) {
+        final SparkConf conf = new SparkConf();
+        if (useRegistrator) {
+            conf.set("spark.kryo.registrator", GATKRegistrator.class.getCanonicalName());
+            conf.set("spark.kryo.registrationRequired", "true");
+        }
+        return conf;
+    }
+
+    private static final String VCF_WITH_GENOTYPES = toolsTestDir + "walkers/variantutils/VariantsToTable/vcfexample2.vcf";
+
+    private static VariantContext createVariantContext() {
+        final Allele ref = Allele.create("A", true);
+        final Allele alt = Allele.create("AT", false);
+        return new VariantContextBuilder("test", "1", 100, 100, Arrays.asList(ref, alt, Allele.NON_REF_ALLELE))
+                .id("rs1")
+                .log10PError(-3.0)
+                .attribute("DP", 20)
+                .genotypes(new GenotypeBuilder("sample1", Arrays.asList(ref, alt)).DP(20).AD(new int[]{10, 10, 0}).GQ(30).PL(new int[]{30, 0, 30, 40, 40, 80}).make(),
+                        new GenotypeBuilder("sample2", Arrays.asList(Allele.NO_CALL, Allele.NO_CALL)).make())
+                .make();
+    }
+
+    @DataProvider(name = "hotTypes")
+    public Object[][] hotTypes() {
+        return new Object[][]{
+                {new SimpleInterval("chr1", 1000, 2000), SimpleInterval.class},
+                {Allele.create("A", true), Allele.class},
+                {Allele.create("ACGTTT", false), Allele.class},
+                {Allele.NON_REF_ALLELE, Allele.class},
+                {Allele.NO_CALL, Allele.class},
+                {Allele.SPAN_DEL, Allele.class},
+                {Allele.create("A[1:1000[", false), Allele.class},
+                {new AlignmentInterval(new SimpleInterval("1", 100, 158), 57, 130, TextCigarCodec.decode("56S27M15I32M21S"),
+                        true, 60, 0, 100, ContigAlignmentsModifier.AlnModType.NONE), AlignmentInterval.class},
+                {new AlignmentInterval(new SimpleInterval("1", 100, 158), 57, 130, TextCigarCodec.decode("56S27M15I32M21S"),
+                        false, -1, -1, -1, ContigAlignmentsModifier.AlnModType.FROM_SPLIT_GAPPED_ALIGNMENT), AlignmentInterval.class},
+        };
+    }
+
+    @Test(dataProvider = "hotTypes")
+    public void testRoundTripWithRegistrationRequired(final Object object, final Class<?> clazz) {
+        Assert.assertEquals(SparkTestUtils.roundTripInKryo(object, clazz, getConf(true)), object);
+    }
+
+    @Test
+    public void testVariantContextRoundTripWithRegistrationRequired() {
+        final VariantContext vc = createVariantContext();
+        final VariantContext roundTripped = SparkTestUtils.roundTripInKryo(vc, VariantContext.class, getConf(true));
+        VariantContextTestUtils.assertVariantContextsAreEqual(roundTripped, vc, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Test
+    public void testVariantContextFromVcfRoundTripWithRegistrationRequired() {
+        try (final FeatureDataSource<VariantContext> variants = new FeatureDataSource<>(VCF_WITH_GENOTYPES)) {
+            int count = 0;
+            for (final VariantContext vc : variants) {
+                Assert.assertTrue(vc.getGenotypes() instanceof LazyGenotypesContext);
+                final VariantContext roundTripped = SparkTestUtils.roundTripInKryo(vc, VariantContext.class, getConf(true));
+                Assert.assertFalse(roundTripped.getGenotypes() instanceof LazyGenotypesContext);
+                VariantContextTestUtils.assertVariantContextsAreEqual(roundTripped, vc, Collections.emptyList(), Collections.emptyList());
+                Assert.assertEquals(roundTripped.getSampleNamesOrderedByName(), vc.getSampleNamesOrderedByName());
+                count++;
+            }
+            Assert.assertTrue(count > 0);
+        }
+    }
+
+    /**
+     * Reports the serialized size and round trip time of each hot type with and without {@link GATKRegistrator}, and
+     * checks that registration never makes the serialized form larger.
+     */
+    @Test
+    public void testSerializedSizes() {
+        final Object[][] objects = Arrays.copyOf(hotTypes(), hotTypes().length + 1);
+        objects[objects.length - 1] = new Object[]{createVariantContext(), VariantContext.class};
+        for (final Object[] objectAndClass : objects) {
+            final Object object = objectAndClass[0];
+            final Class<?> clazz = (Class<?>) objectAndClass[1];
+            final long[] registered = measure(object, clazz, getConf(true));
+            final long[] unregistered = measure(object, clazz, getConf(false));
+            logger.info(String.format("%s (%s): %d bytes, %d ns per round trip registered; %d bytes, %d ns unregistered",
+                    clazz.getSimpleName(), object, registered[0], registered[1], unregistered[0], unregistered[1]));
+            Assert.assertTrue(registered[0] <= unregistered[0], "registration increased the serialized size of " + object);
+        }
+    }
+
+    /**
+     * @return the serialized size in bytes and the mean time of a serialization round trip in nanoseconds
+     */
+    private static long[] measure(final Object object, final Class<?> clazz, final SparkConf conf) {
+        final int iterations = 1000;
+        final SerializerInstance serializer = new KryoSerializer(conf).newInstance();
+        final ClassTag<Object> tag = ClassTag$.MODULE$.apply(clazz);
+        final long bytes = serializer.serialize(object, tag).remaining();
+        for (int i = 0; i < iterations; i++) {  // warm up
+            serializer.deserialize(serializer.serialize(object, tag), tag);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(object, tag), tag);
+        }
+        return new long[]{bytes, (System.nanoTime() - start) / iterations};
+    }
+}
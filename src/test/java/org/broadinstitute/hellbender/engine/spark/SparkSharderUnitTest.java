@@ -8,6 +8,7 @@ import htsjdk.samtools.util.OverlapDetector;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.FlatMapFunction2;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
 import org.broadinstitute.hellbender.engine.Shard;
 import org.broadinstitute.hellbender.engine.ShardBoundary;
@@ -311,6 +312,48 @@ public class SparkSharderUnitTest extends GATKBaseTest implements Serializable {
 
     }
 
+    @Test
+    public void testMapPartitionsWithIntervals() throws IOException {
+        JavaSparkContext ctx = SparkContextFactory.getTestSparkContext();
+
+        // Same reads and intervals as testSingleContig, but the function is given the reads for each partition (and
+        // any subsequent partitions needed) as a single stream, and finds the overlaps itself.
+        JavaRDD<TestRead> reads = ctx.parallelize(ImmutableList.of(
+                new TestRead(1, 3), new TestRead(5, 7), new TestRead(7, 9),
+                new TestRead(7, 9), new TestRead(7, 9), new TestRead(7, 9),
+                new TestRead(7, 9), new TestRead(11, 13), new TestRead(12, 14),
+                new TestRead(17, 19), new TestRead(21, 23), new TestRead(25, 27)
+        ), 4);
+
+        List<SimpleInterval> intervals = ImmutableList.of(
+                new SimpleInterval("1", 2, 4),
+                new SimpleInterval("1", 8, 12),
+                new SimpleInterval("1", 11, 22));
+
+        List<Tuple2<SimpleInterval, Integer>> readsPerInterval = SparkSharder.mapPartitionsWithIntervals(ctx, reads, TestRead.class, sequenceDictionary, intervals, STANDARD_READ_LENGTH,
+                (FlatMapFunction2<Iterator<TestRead>, Iterator<SimpleInterval>, Tuple2<SimpleInterval, Integer>>) (readIterator, intervalIterator) -> {
+                    List<TestRead> partitionReads = Lists.newArrayList(readIterator);
+                    List<Tuple2<SimpleInterval, Integer>> counts = new ArrayList<>();
+                    intervalIterator.forEachRemaining(interval ->
+                            counts.add(new Tuple2<>(interval, (int) partitionReads.stream().filter(interval::overlaps).count())));
+                    return counts.iterator();
+                }).collect();
+
+        // each interval is processed exactly once
+        assertEquals(readsPerInterval, ImmutableList.of(
+                new Tuple2<>(intervals.get(0), 1), new Tuple2<>(intervals.get(1), 7), new Tuple2<>(intervals.get(2), 4)));
+
+        try {
+            int maxReadLength = STANDARD_READ_LENGTH - 1; // max read length less than actual causes exception
+            SparkSharder.mapPartitionsWithIntervals(ctx, reads, TestRead.class, sequenceDictionary, intervals, maxReadLength,
+                    (FlatMapFunction2<Iterator<TestRead>, Iterator<SimpleInterval>, Integer>) (readIterator, intervalIterator) ->
+                            Iterators.singletonIterator(Iterators.size(readIterator))).collect();
+            fail("Should throw UserException");
+        } catch (Exception e) {
+            assertEquals(e.getCause().getClass(), UserException.class);
+        }
+    }
+
     @Test
     public void testPartitionReadExtents() throws IOException {
         JavaSparkContext ctx = SparkContextFactory.getTestSparkContext();
@@ -2,6 +2,8 @@ package org.broadinstitute.hellbender.engine.spark.datasources;
 
 
 import htsjdk.samtools.*;
+import htsjdk.samtools.seekablestream.SeekableFileStream;
+import htsjdk.samtools.seekablestream.SeekableStream;
 import htsjdk.samtools.util.FileExtensions;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -24,7 +26,9 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -193,6 +197,42 @@ public class ReadsSparkSinkUnitTest extends GATKBaseTest {
         Assert.assertEquals(rddParallelReads.count(), rddParallelReads2.count());
     }
 
+    @Test(groups = "spark")
+    public void testPerPartitionIndexesMatchSerialIndexes() throws IOException {
+        final String inputBam = testDataDir + "tools/BQSR/HiSeq.1mb.1RG.2k_lines.bam";
+        final File outputFile = createTempFile("ReadsSparkSinkUnitTest_indexes", ".bam");
+        final JavaSparkContext ctx = SparkContextFactory.getTestSparkContext();
+
+        final ReadsSparkSource readSource = new ReadsSparkSource(ctx);
+        final JavaRDD<GATKRead> reads = readSource.getParallelReads(inputBam, null).repartition(4);
+        final SAMFileHeader header = readSource.getHeader(inputBam, null);
+
+        // the BAI and SBI are built from per-partition fragments computed while each part is written, then merged
+        ReadsSparkSink.writeReads(ctx, outputFile.getAbsolutePath(), null, reads, header, ReadsWriteFormat.SINGLE, 4, null, true, true, true);
+
+        final File serialBai = createTempFile("ReadsSparkSinkUnitTest_serial", FileExtensions.BAI_INDEX);
+        try ( final SamReader reader = SamReaderFactory.makeDefault().enable(SamReaderFactory.Option.INCLUDE_SOURCE_IN_RECORDS).open(outputFile) ) {
+            BAMIndexer.createIndex(reader, serialBai);
+        }
+        Assert.assertEquals(Files.readAllBytes(IOUtils.getPath(outputFile.getAbsolutePath() + FileExtensions.BAI_INDEX)),
+                Files.readAllBytes(serialBai.toPath()));
+
+        final File serialSbi = createTempFile("ReadsSparkSinkUnitTest_serial", FileExtensions.SBI);
+        try ( final SeekableStream in = new SeekableFileStream(outputFile);
+              final OutputStream out = new FileOutputStream(serialSbi) ) {
+            BAMSBIIndexer.createIndex(in, out, SBIIndexWriter.DEFAULT_GRANULARITY);
+        }
+        // the merged SBI also has an entry at the start of each part, so it can be finer-grained than the serial one
+        final SBIIndex mergedIndex = SBIIndex.load(IOUtils.getPath(outputFile.getAbsolutePath() + FileExtensions.SBI));
+        final SBIIndex serialIndex = SBIIndex.load(serialSbi.toPath());
+        Assert.assertEquals(mergedIndex.dataFileLength(), serialIndex.dataFileLength());
+        Assert.assertEquals(mergedIndex.getHeader().getTotalNumberOfRecords(), serialIndex.getHeader().getTotalNumberOfRecords());
+        final long[] mergedOffsets = mergedIndex.getVirtualOffsets();
+        final long[] serialOffsets = serialIndex.getVirtualOffsets();
+        Assert.assertEquals(mergedOffsets[0], serialOffsets[0]);
+        Assert.assertEquals(mergedOffsets[mergedOffsets.length - 1], serialOffsets[serialOffsets.length - 1]);
+    }
+
     private static void assertReadsAreSorted(SAMFileHeader header, List<GATKRead> writtenReads) {
         final SAMRecordCoordinateComparator comparator = new SAMRecordCoordinateComparator();
         // Assert that the reads are sorted.
@@ -0,0 +1,75 @@
+package org.broadinstitute.hellbender.engine.spark.datasources;
+
+import org.apache.spark.SparkConf;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.testutils.SparkTestUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.reference.ReferenceBases;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+public class ReferenceMappedTwoBitSparkSourceUnitTest extends GATKBaseTest {
+    private static final String fastaRefURL = publicTestDir + "human_g1k_v37.chr17_1Mb.fasta";
+    private static final String twoBitRefURL = publicTestDir + "human_g1k_v37.chr17_1Mb.2bit";
+    private static final int chr17End = 1000000;
+
+    @DataProvider(name = "intervals")
+    public Object[][] intervals() {
+        return new Object[][]{
+                {"17:1-1"},
+                {"17:1-10"},
+                {"17:4-5"},
+                {"17:3-7"},
+                {"17:1-100000"},        // includes the leading N block
+                {"17:60000-60100"},
+                {"17:123457-987654"},
+                {"17:" + (chr17End - 3) + "-" + chr17End},
+        };
+    }
+
+    @Test(dataProvider = "intervals")
+    public void testMatchesFastaAndInMemoryTwoBit(final String intervalString) throws IOException {
+        final SimpleInterval interval = new SimpleInterval(intervalString);
+        final ReferenceBases expected = new ReferenceFileSparkSource(fastaRefURL).getReferenceBases(interval);
+        final ReferenceBases actual = new ReferenceMappedTwoBitSparkSource(twoBitRefURL).getReferenceBases(interval);
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(actual, new ReferenceTwoBitSparkSource(twoBitRefURL).getReferenceBases(interval));
+    }
+
+    @Test
+    public void testQueryPastContigEnd() throws IOException {
+        final ReferenceBases bases = new ReferenceMappedTwoBitSparkSource(twoBitRefURL)
+                .getReferenceBases(new SimpleInterval("17", chr17End - 100, chr17End + 100));
+        Assert.assertEquals(bases.getInterval().getEnd(), chr17End, "Interval was not cropped at contig end");
+        Assert.assertEquals(bases.getBases().length, 101, "Wrong number of bases returned from query");
+    }
+
+    @Test
+    public void testSequenceDictionary() throws IOException {
+        Assert.assertEquals(new ReferenceMappedTwoBitSparkSource(twoBitRefURL).getReferenceSequenceDictionary(null),
+                new ReferenceTwoBitSparkSource(twoBitRefURL).getReferenceSequenceDictionary(null));
+    }
+
+    @Test
+    public void testSerializeRoundTrip() throws IOException {
+        final ReferenceMultiSparkSource referenceSource = new ReferenceMultiSparkSource(twoBitRefURL, ReferenceWindowFunctions.IDENTITY_FUNCTION, true);
+        final ReferenceMultiSparkSource roundTripped = SparkTestUtils.roundTripInKryo(referenceSource, ReferenceMultiSparkSource.class, new SparkConf());
+        final SimpleInterval interval = new SimpleInterval("17", 60000, 60100);
+        Assert.assertEquals(roundTripped.getReferenceBases(interval), referenceSource.getReferenceBases(interval));
+        Assert.assertEquals(roundTripped.getReferenceSequenceDictionary(null), referenceSource.getReferenceSequenceDictionary(null));
+    }
+
+    @Test(expectedExceptions = UserException.MissingReference.class)
+    public void testMissingFile() {
+        new ReferenceMappedTwoBitSparkSource(GATKBaseTest.getSafeNonExistentFile("NonExistentReference.2bit").getAbsolutePath());
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testRemoteFile() {
+        new ReferenceMappedTwoBitSparkSource("hdfs://localhost/reference.2bit");
+    }
+}
@@ -124,4 +124,21 @@ public final class CollectAllelicCountsIntegrationTest extends CommandLineProgra
         final AllelicCountCollection countsResult = new AllelicCountCollection(outputFile);
         Assert.assertEquals(countsExpected, countsResult);
     }
+
+    @Test(dataProvider = "testData")
+    public void testReadCentricTraversal(final File inputBAMFile,
+                                         final AllelicCountCollection countsExpected) {
+        final File outputFile = createTempFile("collect-allelic-counts-test-output", ".tsv");
+        final String[] arguments = {
+                "-" + StandardArgumentDefinitions.INPUT_SHORT_NAME, inputBAMFile.getAbsolutePath(),
+                "-L", SITES_FILE.getAbsolutePath(),
+                "-" + StandardArgumentDefinitions.REFERENCE_SHORT_NAME, REFERENCE_FILE.getAbsolutePath(),
+                "-" + StandardArgumentDefinitions.OUTPUT_SHORT_NAME, outputFile.getAbsolutePath(),
+                "--" + CollectAllelicCounts.READ_CENTRIC_TRAVERSAL_LONG_NAME,
+                "--" + CollectAllelicCounts.NUMBER_OF_THREADS_LONG_NAME, "2"
+        };
+        runCommandLine(arguments);
+        final AllelicCountCollection countsResult = new AllelicCountCollection(outputFile);
+        Assert.assertEquals(countsExpected, countsResult);
+    }
 }
@@ -0,0 +1,111 @@
+package org.broadinstitute.hellbender.tools.copynumber;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMReadGroupRecord;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.cmdline.argumentcollections.IntervalArgumentCollection;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
+import org.broadinstitute.hellbender.tools.copynumber.formats.collections.HDF5CohortCountCollection;
+import org.broadinstitute.hellbender.tools.copynumber.formats.collections.SimpleCountCollection;
+import org.broadinstitute.hellbender.utils.IntervalMergingRule;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Integration test for {@link CollectCohortReadCounts}.
+ */
+public final class CollectCohortReadCountsIntegrationTest extends CommandLineProgramTest {
+    private static final File TEST_SUB_DIR = new File(toolsTestDir, "copynumber");
+
+    private static final File NA12878_BAM = new File(TEST_SUB_DIR, "collect-read-counts-NA12878.bam");
+    private static final File NA12878_READ_COUNTS_EXPECTED_OUTPUT = new File(TEST_SUB_DIR, "collect-read-counts-NA12878-expected.tsv");
+    private static final File INTERVALS_FILE = new File(TEST_SUB_DIR, "collect-read-counts-test.interval_list");
+
+    /**
+     * Writes an indexed copy of {@link #NA12878_BAM} containing every other read, with all read groups assigned to
+     * the given sample.
+     */
+    private static File writeSubsampledBAM(final String sampleName) throws IOException {
+        final File outputBAM = new File(createTempDir("collect-cohort-read-counts"), sampleName + ".bam");
+        try (final SamReader reader = SamReaderFactory.makeDefault().open(NA12878_BAM)) {
+            final SAMFileHeader header = reader.getFileHeader().clone();
+            header.getReadGroups().forEach(rg -> rg.setSample(sampleName));
+            try (final SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true)
+                    .makeBAMWriter(header, true, outputBAM)) {
+                int readIndex = 0;
+                for (final SAMRecord read : reader) {
+                    if (readIndex++ % 2 == 0) {
+                        read.setHeader(header);
+                        writer.addAlignment(read);
+                    }
+                }
+            }
+        }
+        return outputBAM;
+    }
+
+    private ArgumentsBuilder buildArguments(final File outputFile, final File... inputBAMs) {
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder()
+                .addArgument(StandardArgumentDefinitions.INTERVALS_LONG_NAME, INTERVALS_FILE.getAbsolutePath())
+                .addArgument(IntervalArgumentCollection.INTERVAL_MERGING_RULE_LONG_NAME, IntervalMergingRule.OVERLAPPING_ONLY.toString())
+                .addOutput(outputFile);
+        for (final File inputBAM : inputBAMs) {
+            argsBuilder.addInput(inputBAM);
+        }
+        return argsBuilder;
+    }
+
+    @Test
+    public void testCohortCounts() throws IOException {
+        final File subsampledBAM = writeSubsampledBAM("NA12878-subsampled");
+
+        //counts for each sample from CollectReadCounts
+        final File subsampledCountsFile = createTempFile("collect-read-counts-test", ".tsv");
+        runCommandLine(new ArgumentsBuilder()
+                .addInput(subsampledBAM)
+                .addArgument(StandardArgumentDefinitions.INTERVALS_LONG_NAME, INTERVALS_FILE.getAbsolutePath())
+                .addArgument(IntervalArgumentCollection.INTERVAL_MERGING_RULE_LONG_NAME, IntervalMergingRule.OVERLAPPING_ONLY.toString())
+                .addArgument(CollectReadCounts.FORMAT_LONG_NAME, CollectReadCounts.Format.TSV.toString())
+                .addOutput(subsampledCountsFile), CollectReadCounts.class.getSimpleName());
+        final SimpleCountCollection expectedNA12878Counts = SimpleCountCollection.read(NA12878_READ_COUNTS_EXPECTED_OUTPUT);
+        final SimpleCountCollection expectedSubsampledCounts = SimpleCountCollection.read(subsampledCountsFile);
+        Assert.assertNotEquals(expectedSubsampledCounts, expectedNA12878Counts);
+
+        final File resultOutputFile = createTempFile("collect-cohort-read-counts-test", ".hdf5");
+        runCommandLine(buildArguments(resultOutputFile, NA12878_BAM, subsampledBAM)
+                .addArgument(CollectCohortReadCounts.NUMBER_OF_THREADS_LONG_NAME, "2"));
+        final List<SimpleCountCollection> resultCounts = HDF5CohortCountCollection.read(resultOutputFile);
+        Assert.assertEquals(resultCounts.size(), 2);
+        Assert.assertEquals(resultCounts.get(0), expectedNA12878Counts);
+        Assert.assertEquals(resultCounts.get(1), expectedSubsampledCounts);
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testDuplicateSampleNames() throws IOException {
+        final File subsampledBAM = writeSubsampledBAM("NA12878");
+        final File resultOutputFile = createTempFile("collect-cohort-read-counts-test", ".hdf5");
+        runCommandLine(buildArguments(resultOutputFile, NA12878_BAM, subsampledBAM));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testIntervalMergingRule() {
+        final File resultOutputFile = createTempFile("collect-cohort-read-counts-test", ".hdf5");
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder()
+                .addInput(NA12878_BAM)
+                .addArgument(StandardArgumentDefinitions.INTERVALS_LONG_NAME, INTERVALS_FILE.getAbsolutePath())
+                .addArgument(IntervalArgumentCollection.INTERVAL_MERGING_RULE_LONG_NAME, IntervalMergingRule.ALL.toString())
+                .addOutput(resultOutputFile);
+        runCommandLine(argsBuilder);
+    }
+}
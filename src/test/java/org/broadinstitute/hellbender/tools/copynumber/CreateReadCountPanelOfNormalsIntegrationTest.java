@@ -248,6 +248,27 @@ public final class CreateReadCountPanelOfNormalsIntegrationTest extends CommandL
         testPanelOfNormals(annotatedIntervalsFile, expectedNumberOfEigenvalues, resultOutputFile);
     }
 
+    @Test(dataProvider = "dataPanelOfNormals")
+    public void testRandomizedSVD(final List<File> inputFiles,
+                                  final File annotatedIntervalsFile,
+                                  final int expectedNumberOfEigenvalues) {
+        final File resultOutputFile = createTempFile("create-read-count-panel-of-normals-test", ".tsv");
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder()
+                .addArgument(CreateReadCountPanelOfNormals.MINIMUM_INTERVAL_MEDIAN_PERCENTILE_LONG_NAME, Double.toString(MINIMUM_INTERVAL_MEDIAN_PERCENTILE))
+                .addArgument(CreateReadCountPanelOfNormals.MAXIMUM_ZEROS_IN_SAMPLE_PERCENTAGE_LONG_NAME, Double.toString(MAXIMUM_ZEROS_IN_SAMPLE_PERCENTAGE))
+                .addArgument(CreateReadCountPanelOfNormals.MAXIMUM_ZEROS_IN_INTERVAL_PERCENTAGE_LONG_NAME, Double.toString(MAXIMUM_ZEROS_IN_INTERVAL_PERCENTAGE))
+                .addArgument(CreateReadCountPanelOfNormals.EXTREME_SAMPLE_MEDIAN_PERCENTILE_LONG_NAME, Double.toString(EXTREME_SAMPLE_MEDIAN_PERCENTILE))
+                .addArgument(CopyNumberStandardArgument.NUMBER_OF_EIGENSAMPLES_LONG_NAME, Integer.toString(NUMBER_OF_EIGENVALUES_REQUESTED))
+                .addArgument(CreateReadCountPanelOfNormals.DO_RANDOMIZED_SVD_LONG_NAME, "true")
+                .addOutput(resultOutputFile);
+        if (annotatedIntervalsFile != null) {
+            argsBuilder.addFileArgument(CopyNumberStandardArgument.ANNOTATED_INTERVALS_FILE_LONG_NAME, annotatedIntervalsFile);
+        }
+        inputFiles.forEach(argsBuilder::addInput);
+        runCommandLine(argsBuilder);
+        testPanelOfNormals(annotatedIntervalsFile, expectedNumberOfEigenvalues, resultOutputFile);
+    }
+
     @Test(dataProvider = "dataPanelOfNormals")
     public void testSingleSample(final List<File> inputFiles,
                                  final File annotatedIntervalsFile,
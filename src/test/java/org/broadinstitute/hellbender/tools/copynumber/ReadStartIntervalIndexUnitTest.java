@@ -0,0 +1,60 @@
+package org.broadinstitute.hellbender.tools.copynumber;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class ReadStartIntervalIndexUnitTest extends GATKBaseTest {
+    //intentionally not sorted, to check that intervals are identified by their input order
+    private static final List<SimpleInterval> INTERVALS = Arrays.asList(
+            new SimpleInterval("1", 101, 200),
+            new SimpleInterval("1", 1, 100),
+            new SimpleInterval("2", 500, 500),
+            new SimpleInterval("1", 301, 400));
+
+    @DataProvider(name = "dataIntervalIndex")
+    public Object[][] dataIntervalIndex() {
+        return new Object[][]{
+                {"1", 1, 1},
+                {"1", 50, 1},
+                {"1", 100, 1},
+                {"1", 101, 0},
+                {"1", 200, 0},
+                {"1", 201, ReadStartIntervalIndex.NO_INTERVAL},
+                {"1", 300, ReadStartIntervalIndex.NO_INTERVAL},
+                {"1", 301, 3},
+                {"1", 400, 3},
+                {"1", 401, ReadStartIntervalIndex.NO_INTERVAL},
+                {"2", 499, ReadStartIntervalIndex.NO_INTERVAL},
+                {"2", 500, 2},
+                {"2", 501, ReadStartIntervalIndex.NO_INTERVAL},
+                {"3", 1, ReadStartIntervalIndex.NO_INTERVAL}
+        };
+    }
+
+    @Test(dataProvider = "dataIntervalIndex")
+    public void testGetIntervalIndex(final String contig,
+                                     final int position,
+                                     final int expectedIntervalIndex) {
+        final ReadStartIntervalIndex intervalIndex = new ReadStartIntervalIndex(INTERVALS);
+        Assert.assertEquals(intervalIndex.getNumIntervals(), INTERVALS.size());
+        Assert.assertEquals(intervalIndex.getIntervalIndex(contig, position), expectedIntervalIndex);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOverlappingIntervals() {
+        new ReadStartIntervalIndex(Arrays.asList(
+                new SimpleInterval("1", 1, 100),
+                new SimpleInterval("1", 100, 200)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNoIntervals() {
+        new ReadStartIntervalIndex(Arrays.asList());
+    }
+}
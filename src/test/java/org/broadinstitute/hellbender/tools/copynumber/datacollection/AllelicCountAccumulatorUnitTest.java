@@ -0,0 +1,69 @@
+package org.broadinstitute.hellbender.tools.copynumber.datacollection;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SimpleSampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.AllelicCount;
+import org.broadinstitute.hellbender.utils.Nucleotide;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class AllelicCountAccumulatorUnitTest extends GATKBaseTest {
+    private static final SAMFileHeader HEADER = ArtificialReadUtils.createArtificialSamHeader(2, 1, 1000);
+    private static final int MIN_BASE_QUALITY = 20;
+
+    private static GATKRead createRead(final String contig, final int start, final String bases, final byte[] quals, final String cigar) {
+        return ArtificialReadUtils.createArtificialRead(HEADER, "read", contig, start, bases.getBytes(), quals, cigar);
+    }
+
+    private static byte[] createQuals(final int length) {
+        final byte[] quals = new byte[length];
+        Arrays.fill(quals, (byte) 30);
+        return quals;
+    }
+
+    @Test
+    public void testAccumulate() {
+        final int[] positions = {11, 12, 13, 14, 15, 16, 17, 18, 20};
+        final Nucleotide[] refBases = {Nucleotide.C, Nucleotide.G, Nucleotide.C, Nucleotide.A, Nucleotide.A,
+                Nucleotide.G, Nucleotide.G, Nucleotide.N, Nucleotide.T};
+        final AllelicCountAccumulator accumulator = new AllelicCountAccumulator("1", positions, refBases, MIN_BASE_QUALITY);
+        Assert.assertEquals(accumulator.getSiteIntervals(), Arrays.asList(
+                new SimpleInterval("1", 11, 18), new SimpleInterval("1", 20, 20)));
+
+        //soft clip, insertion, low-quality base at 14, and deletion at 15
+        final byte[] quals1 = createQuals(10);
+        quals1[7] = 10;
+        accumulator.add(createRead("1", 10, "TTACGTCAGG", quals1, "2S3M1I2M1D2M"));
+        //reference skip over 14-16
+        accumulator.add(createRead("1", 12, "GCTA", createQuals(4), "2M3N2M"));
+        //other contig
+        accumulator.add(createRead("2", 11, "AAAA", createQuals(4), "4M"));
+
+        final AllelicCountCollector collector = new AllelicCountCollector(
+                new SimpleSampleLocatableMetadata("test", HEADER.getSequenceDictionary()));
+        collector.collectFromAccumulator(accumulator);
+        final List<AllelicCount> expected = Arrays.asList(
+                new AllelicCount(new SimpleInterval("1", 11, 11), 1, 0, Nucleotide.C, Nucleotide.N),
+                new AllelicCount(new SimpleInterval("1", 12, 12), 2, 0, Nucleotide.G, Nucleotide.N),
+                new AllelicCount(new SimpleInterval("1", 13, 13), 2, 0, Nucleotide.C, Nucleotide.N),
+                new AllelicCount(new SimpleInterval("1", 14, 14), 0, 0, Nucleotide.A, Nucleotide.N),
+                new AllelicCount(new SimpleInterval("1", 15, 15), 0, 0, Nucleotide.A, Nucleotide.N),
+                new AllelicCount(new SimpleInterval("1", 16, 16), 1, 0, Nucleotide.G, Nucleotide.N),
+                new AllelicCount(new SimpleInterval("1", 17, 17), 1, 1, Nucleotide.G, Nucleotide.T),
+                //site 18 has an unknown reference base and is skipped
+                new AllelicCount(new SimpleInterval("1", 20, 20), 0, 0, Nucleotide.T, Nucleotide.N));
+        Assert.assertEquals(collector.getAllelicCounts().getRecords(), expected);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsortedPositions() {
+        new AllelicCountAccumulator("1", new int[]{2, 1}, new Nucleotide[]{Nucleotide.A, Nucleotide.A}, MIN_BASE_QUALITY);
+    }
+}
@@ -0,0 +1,101 @@
+package org.broadinstitute.hellbender.tools.copynumber.denoising;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class RandomizedTruncatedSVDUnitTest extends GATKBaseTest {
+    private static final int RANDOM_SEED = 13;
+    private static final double EPSILON = 1E-9;
+
+    //simulates a samples x intervals matrix with a few strong factors plus noise;
+    //the number of intervals spans several blocks
+    private static double[][] simulateData(final int numSamples,
+                                           final int numIntervals,
+                                           final int rank,
+                                           final double noiseLevel) {
+        final Random random = new Random(RANDOM_SEED);
+        final double[][] sampleLoadings = new double[numSamples][rank];
+        final double[][] intervalFactors = new double[rank][numIntervals];
+        for (int r = 0; r < rank; r++) {
+            for (int i = 0; i < numSamples; i++) {
+                sampleLoadings[i][r] = (rank - r) * random.nextGaussian();
+            }
+            for (int j = 0; j < numIntervals; j++) {
+                intervalFactors[r][j] = random.nextGaussian();
+            }
+        }
+        final double[][] data = new double[numSamples][numIntervals];
+        for (int i = 0; i < numSamples; i++) {
+            for (int j = 0; j < numIntervals; j++) {
+                double value = noiseLevel * random.nextGaussian();
+                for (int r = 0; r < rank; r++) {
+                    value += sampleLoadings[i][r] * intervalFactors[r][j];
+                }
+                data[i][j] = value;
+            }
+        }
+        return data;
+    }
+
+    @Test
+    public void testAgreementWithExactSVD() {
+        final int numSamples = 30;
+        final int numIntervals = 2500;
+        final int numEigensamples = 4;
+        final double[][] data = simulateData(numSamples, numIntervals, numEigensamples, 0.1);
+        final double[][] dataCopy = Arrays.stream(data).map(double[]::clone).toArray(double[][]::new);
+
+        final RandomizedTruncatedSVD result = RandomizedTruncatedSVD.compute(data, numEigensamples, EPSILON);
+
+        //input is not modified
+        Assert.assertTrue(Arrays.deepEquals(data, dataCopy));
+
+        final RealMatrix transposed = new Array2DRowRealMatrix(data, false).transpose();
+        final SingularValueDecomposition exact = new SingularValueDecomposition(transposed);
+        Assert.assertEquals(result.singularValues.length, numEigensamples);
+        Assert.assertEquals(result.transposedEigensampleVectors.length, numEigensamples);
+        for (int k = 0; k < numEigensamples; k++) {
+            Assert.assertEquals(result.singularValues[k], exact.getSingularValues()[k], 1E-6 * exact.getSingularValues()[k]);
+            //eigensample vectors agree up to sign
+            final double[] expectedVector = exact.getU().getColumn(k);
+            final double[] actualVector = result.transposedEigensampleVectors[k];
+            Assert.assertEquals(actualVector.length, numIntervals);
+            double dot = 0.;
+            for (int j = 0; j < numIntervals; j++) {
+                dot += expectedVector[j] * actualVector[j];
+            }
+            Assert.assertEquals(Math.abs(dot), 1., 1E-6);
+        }
+    }
+
+    @Test
+    public void testDeterminism() {
+        final double[][] data = simulateData(20, 1500, 3, 0.5);
+        final RandomizedTruncatedSVD first = RandomizedTruncatedSVD.compute(data, 5, EPSILON);
+        final RandomizedTruncatedSVD second = RandomizedTruncatedSVD.compute(data, 5, EPSILON);
+        Assert.assertEquals(first.singularValues, second.singularValues);
+        Assert.assertTrue(Arrays.deepEquals(first.transposedEigensampleVectors, second.transposedEigensampleVectors));
+    }
+
+    @Test
+    public void testRankDeficientMatrix() {
+        //without noise, only rank-many singular values are non-negligible
+        final int rank = 2;
+        final double[][] data = simulateData(10, 300, rank, 0.);
+        final RandomizedTruncatedSVD result = RandomizedTruncatedSVD.compute(data, 5, EPSILON);
+        Assert.assertEquals(result.singularValues.length, rank);
+        Assert.assertEquals(result.transposedEigensampleVectors.length, rank);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTooManyEigensamples() {
+        RandomizedTruncatedSVD.compute(simulateData(5, 100, 2, 0.1), 6, EPSILON);
+    }
+}
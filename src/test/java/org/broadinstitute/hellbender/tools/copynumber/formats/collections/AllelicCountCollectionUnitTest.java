@@ -82,4 +82,12 @@ public final class AllelicCountCollectionUnitTest extends GATKBaseTest {
         ALLELIC_COUNTS_EXPECTED.write(outputFile);
         Assert.assertTrue(FileUtils.contentEquals(outputFile, ALLELIC_COUNTS_FILE));
     }
+
+    @Test
+    public void testWriteBinary() {
+        final File outputFile = createTempFile("allelic-count-collection-test-output", ".bin");
+        ALLELIC_COUNTS_EXPECTED.writeBinary(outputFile);
+        Assert.assertEquals(new AllelicCountCollection(outputFile), ALLELIC_COUNTS_EXPECTED);
+        Assert.assertEquals(new AllelicCountCollection(outputFile).getRecords().get(1).getAltNucleotide(), Nucleotide.C);
+    }
 }
@@ -0,0 +1,116 @@
+package org.broadinstitute.hellbender.tools.copynumber.formats.collections;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SimpleSampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.CalledCopyRatioSegment;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.CopyRatio;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.CopyRatioSegment;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link ColumnarRecordCollectionCodec}.
+ */
+public final class ColumnarRecordCollectionCodecUnitTest extends GATKBaseTest {
+    private static final SampleLocatableMetadata METADATA = new SimpleSampleLocatableMetadata(
+            "test-sample",
+            new SAMSequenceDictionary(Arrays.asList(
+                    new SAMSequenceRecord("1", 20000),
+                    new SAMSequenceRecord("chr2", 20000))));
+
+    private static CopyRatioCollection createCopyRatios(final double... log2CopyRatios) {
+        final List<CopyRatio> copyRatios = new ArrayList<>();
+        for (int i = 0; i < log2CopyRatios.length; i++) {
+            final String contig = i % 2 == 0 ? "1" : "chr2";
+            copyRatios.add(new CopyRatio(new SimpleInterval(contig, 100 * i + 1, 100 * i + 100), log2CopyRatios[i]));
+        }
+        return new CopyRatioCollection(METADATA, copyRatios);
+    }
+
+    @DataProvider(name = "dataCopyRatios")
+    public Object[][] dataCopyRatios() {
+        return new Object[][]{
+                //stored as fixed point
+                {createCopyRatios(0., 1.5, -0.25, 123456.1234567, -987654321.5, 1E-7)},
+                //stored as fixed point, but too large to be converted to a double exactly
+                {createCopyRatios(123456789012.123456, -999999999999.999999)},
+                //negative zero after formatting is stored as a string
+                {createCopyRatios(0.1, -1E-9, 2.)},
+                //too many integer digits to be stored as fixed point
+                {createCopyRatios(1E15, -0.5)},
+                {createCopyRatios()}
+        };
+    }
+
+    /**
+     * Collections read from binary files should be identical to those read from the TSV files for the same records,
+     * even though writing to TSV rounds doubles.
+     */
+    @Test(dataProvider = "dataCopyRatios")
+    public void testCopyRatiosRoundTrip(final CopyRatioCollection copyRatios) throws IOException {
+        final File tsvFile = createTempFile("columnar-test", ".tsv");
+        final File binaryFile = createTempFile("columnar-test", ".bin");
+        copyRatios.write(tsvFile);
+        copyRatios.write(binaryFile);
+        Assert.assertTrue(isColumnar(binaryFile));
+        Assert.assertFalse(isColumnar(tsvFile));
+        Assert.assertEquals(new CopyRatioCollection(binaryFile), new CopyRatioCollection(tsvFile));
+    }
+
+    private static boolean isColumnar(final File file) throws IOException {
+        try (final InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            final boolean isColumnar = ColumnarRecordCollectionCodec.isColumnar(inputStream);
+            Assert.assertEquals(inputStream.read(), file.length() == 0 ? -1 : (int) Files.readAllBytes(file.toPath())[0] & 0xFF,
+                    "The stream should be reset to its start.");
+            return isColumnar;
+        }
+    }
+
+    @Test
+    public void testStringColumns() {
+        final CalledCopyRatioSegmentCollection segments = new CalledCopyRatioSegmentCollection(METADATA, Arrays.asList(
+                new CalledCopyRatioSegment(new CopyRatioSegment(new SimpleInterval("1", 1, 100), 10, 0.5), CalledCopyRatioSegment.Call.AMPLIFICATION),
+                new CalledCopyRatioSegment(new CopyRatioSegment(new SimpleInterval("1", 101, 200), 5, 0.), CalledCopyRatioSegment.Call.NEUTRAL),
+                new CalledCopyRatioSegment(new CopyRatioSegment(new SimpleInterval("chr2", 1, 100), 7, -0.5), CalledCopyRatioSegment.Call.DELETION)));
+        final File tsvFile = createTempFile("columnar-test", ".tsv");
+        final File binaryFile = createTempFile("columnar-test", ".bin");
+        segments.write(tsvFile);
+        segments.writeBinary(binaryFile);
+        Assert.assertEquals(new CalledCopyRatioSegmentCollection(binaryFile), new CalledCopyRatioSegmentCollection(tsvFile));
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testMissingMandatoryColumns() {
+        final File binaryFile = createTempFile("columnar-test", ".bin");
+        new SimpleIntervalCollection(METADATA, Collections.singletonList(new SimpleInterval("1", 1, 100))).writeBinary(binaryFile);
+        new CopyRatioCollection(binaryFile);
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testTruncatedFile() throws IOException {
+        final File binaryFile = createTempFile("columnar-test", ".bin");
+        createCopyRatios(0., 1.5, -0.25).writeBinary(binaryFile);
+        try (final RandomAccessFile file = new RandomAccessFile(binaryFile, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        new CopyRatioCollection(binaryFile);
+    }
+}
@@ -6,6 +6,7 @@ import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.tools.copynumber.formats.CopyNumberFormatsUtils;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SimpleSampleLocatableMetadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.records.SimpleCount;
@@ -95,6 +96,13 @@ public final class SimpleCountCollectionUnitTest extends GATKBaseTest {
         assertCountsExpected(counts);
     }
 
+    @Test(dataProvider = "simpleCountCollectionReadTestData")
+    public void testWriteAndReadBinary(final File file) {
+        final File outputFile = createTempFile("simple-count-collection-test-output", CopyNumberFormatsUtils.COLUMNAR_BINARY_EXTENSION);
+        SimpleCountCollection.read(file).write(outputFile);
+        assertCountsExpected(SimpleCountCollection.read(outputFile));
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testReadMissingHeader() {
         SimpleCountCollection.read(INTEGER_COUNTS_MISSING_HEADER_TSV_FILE);
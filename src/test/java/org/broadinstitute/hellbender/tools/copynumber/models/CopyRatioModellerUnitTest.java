@@ -56,6 +56,40 @@ public final class CopyRatioModellerUnitTest extends GATKBaseTest {
         assertCopyRatioPosteriorCenters(modeller, simulatedData);
     }
 
+    @Test
+    public void testMCMCWithMultipleChains() {
+        final double variance = 0.01;
+        final double outlierProbability = 0.05;
+        final int numSegments = 100;
+        final double averageIntervalsPerSegment = 100.;
+        final int numSamples = 100;
+        final int numBurnIn = 50;
+        final int numChains = 3;
+        final RandomGenerator rng = RandomGeneratorFactory.createRandomGenerator(new Random(RANDOM_SEED));
+
+        final SampleLocatableMetadata metadata = new SimpleSampleLocatableMetadata(
+                "test-sample",
+                new SAMSequenceDictionary(IntStream.range(0, numSegments)
+                        .mapToObj(i -> new SAMSequenceRecord("chr" + i + 1, 10000))
+                        .collect(Collectors.toList())));
+        final CopyRatioSimulatedData simulatedData = new CopyRatioSimulatedData(
+                metadata, variance, outlierProbability, numSegments, averageIntervalsPerSegment, rng);
+
+        final CopyRatioModeller modeller = new CopyRatioModeller(simulatedData.getData().getCopyRatios(), simulatedData.getData().getSegments());
+        modeller.fitMCMC(numSamples, numBurnIn, numChains);
+        Assert.assertEquals(modeller.getVarianceSamples().size(), numChains * (numSamples - numBurnIn));
+        Assert.assertEquals(modeller.getSegmentMeansSamples().size(), numChains * (numSamples - numBurnIn));
+
+        assertCopyRatioPosteriorCenters(modeller, simulatedData);
+
+        //samples should not depend on how the chains and segments were scheduled
+        final CopyRatioModeller otherModeller = new CopyRatioModeller(simulatedData.getData().getCopyRatios(), simulatedData.getData().getSegments());
+        otherModeller.fitMCMC(numSamples, numBurnIn, numChains);
+        Assert.assertEquals(otherModeller.getVarianceSamples(), modeller.getVarianceSamples());
+        Assert.assertEquals(otherModeller.getOutlierProbabilitySamples(), modeller.getOutlierProbabilitySamples());
+        Assert.assertEquals(otherModeller.getSegmentMeansSamples(), modeller.getSegmentMeansSamples());
+    }
+
     static void assertCopyRatioPosteriorCenters(final CopyRatioModeller modeller,
                                                 final CopyRatioSimulatedData simulatedData) {
         final CopyRatioState trueState = simulatedData.getTrueState();
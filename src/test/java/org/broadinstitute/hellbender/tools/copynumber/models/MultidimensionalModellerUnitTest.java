@@ -78,7 +78,7 @@ public final class MultidimensionalModellerUnitTest extends GATKBaseTest {
                 oversegmentedSegments,
                 simulatedDataCR.getCopyRatios(),
                 simulatedDataAF.getAllelicCounts(), priorAF,
-                numSamples, numBurnIn, numSamples, numBurnIn);
+                numSamples, numBurnIn, numSamples, numBurnIn, 1);
         modeller.smoothSegments(maxNumSmoothingIterations, numSmoothingIterationsPerFit, smoothingCredibleIntervalThresholdCopyRatio, smoothingCredibleIntervalThresholdAlleleFraction);
 
         CopyRatioModellerUnitTest.assertCopyRatioPosteriorCenters(modeller.getCopyRatioModeller(), simulatedDataCR);
@@ -1,7 +1,9 @@
 package org.broadinstitute.hellbender.tools.copynumber.utils.segmentation;
 
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.tools.copynumber.utils.segmentation.KernelSegmenter.ChangepointSortOrder;
+import org.broadinstitute.hellbender.utils.MathUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -143,6 +145,31 @@ public final class KernelSegmenterUnitTest extends GATKBaseTest {
         Assert.assertEquals(changepoints.subList(0, changepointsExpected.size()), changepointsExpected);
     }
 
+    /**
+     * The diagonal is calculated by summing squares directly, which need not be bit-identical to squaring the norm of
+     * each row as was previously done, but should agree with it to within rounding error.
+     */
+    @Test
+    public void testKernelApproximationDiagonal() {
+        final int numPoints = 1000;
+        final int kernelApproximationDimension = 20;
+        final Random rng = new Random(RANDOM_SEED);
+        final double[][] reducedObservationMatrix = new double[numPoints][kernelApproximationDimension];
+        for (final double[] row : reducedObservationMatrix) {
+            for (int j = 0; j < kernelApproximationDimension; j++) {
+                row[j] = rng.nextGaussian() * Math.pow(10., rng.nextInt(7) - 3);
+            }
+        }
+
+        final double[] diagonal = KernelSegmenter.calculateKernelApproximationDiagonal(reducedObservationMatrix);
+
+        Assert.assertEquals(diagonal.length, numPoints);
+        for (int i = 0; i < numPoints; i++) {
+            final double squaredNorm = MathUtils.square(new ArrayRealVector(reducedObservationMatrix[i]).getNorm());
+            Assert.assertEquals(diagonal[i], squaredNorm, 1E-12 * squaredNorm);
+        }
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testKernelSegmenterEmptyWindowSizes() {
         final int maxNumChangepoints = 25;
@@ -0,0 +1,148 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import htsjdk.tribble.Feature;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.FeatureInput;
+import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.TableFuncotation;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.vcf.VcfFuncotationFactory;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link FuncotationCache} and its use by {@link DataSourceFuncotationFactory}.
+ */
+public class FuncotationCacheUnitTest extends GATKBaseTest {
+
+    private static final String EXAC_SNIPPET = toolsTestDir + "funcotator/test_exac.vcf";
+
+    private static VariantContext createVariant(final String contig, final int start, final String ref, final String alt) {
+        return new VariantContextBuilder("test", contig, start, start + ref.length() - 1,
+                Arrays.asList(Allele.create(ref, true), Allele.create(alt))).make();
+    }
+
+    private static List<Funcotation> createFuncotations(final VariantContext variant, final int numFields) {
+        final List<String> fieldNames = new ArrayList<>();
+        final List<String> fieldValues = new ArrayList<>();
+        for ( int i = 0; i < numFields; i++ ) {
+            fieldNames.add("TEST_field" + i);
+            fieldValues.add(variant.getContig() + ":" + variant.getStart() + "_" + i);
+        }
+        return new ArrayList<>(Collections.singletonList(
+                TableFuncotation.create(fieldNames, fieldValues, variant.getAlternateAllele(0), "TEST", null)));
+    }
+
+    @Test
+    public void testHitOnSameSiteAndAlleles() {
+        final FuncotationCache cache = new FuncotationCache();
+        final VariantContext variant = createVariant("1", 100, "A", "C");
+        Assert.assertNull(cache.get(variant));
+
+        final List<Funcotation> funcotations = createFuncotations(variant, 2);
+        final List<Funcotation> cached = cache.put(variant, funcotations);
+        Assert.assertEquals(cached, funcotations);
+
+        // A different variant object at the same site with the same alleles is a hit:
+        Assert.assertSame(cache.get(createVariant("1", 100, "A", "C")), cached);
+
+        // Different alleles or sites are not:
+        Assert.assertNull(cache.get(createVariant("1", 100, "A", "G")));
+        Assert.assertNull(cache.get(createVariant("1", 100, "AT", "C")));
+        Assert.assertNull(cache.get(createVariant("2", 100, "A", "C")));
+
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 4);
+        Assert.assertTrue(cache.getStatisticsString().contains("1/5"), cache.getStatisticsString());
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testCachedFuncotationsAreUnmodifiable() {
+        final FuncotationCache cache = new FuncotationCache();
+        final VariantContext variant = createVariant("1", 100, "A", "C");
+        cache.put(variant, createFuncotations(variant, 1)).clear();
+    }
+
+    @Test
+    public void testEvictionByPosition() {
+        final FuncotationCache cache = new FuncotationCache();
+        final VariantContext deletion = createVariant("1", 100, "ACGT", "A");
+        final VariantContext snp = createVariant("1", 101, "C", "T");
+        cache.put(deletion, createFuncotations(deletion, 1));
+        cache.put(snp, createFuncotations(snp, 1));
+
+        // Both entries still overlap position 103:
+        Assert.assertNotNull(cache.get(createVariant("1", 101, "C", "T")));
+        Assert.assertNull(cache.get(createVariant("1", 103, "G", "T")));
+        Assert.assertEquals(cache.size(), 2);
+
+        // Moving past the deletion evicts it, which also evicts the entries after it:
+        Assert.assertNull(cache.get(createVariant("1", 104, "T", "G")));
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getTotalWeight(), 0);
+    }
+
+    @Test
+    public void testEvictionOnNewContig() {
+        final FuncotationCache cache = new FuncotationCache();
+        final VariantContext variant = createVariant("1", 100, "A", "C");
+        cache.put(variant, createFuncotations(variant, 1));
+        Assert.assertNull(cache.get(createVariant("2", 1, "A", "C")));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testEvictionBySize() {
+        final FuncotationCache cache = new FuncotationCache(3, Long.MAX_VALUE);
+        for ( final String alt : Arrays.asList("C", "G", "T", "AC", "AG") ) {
+            final VariantContext variant = createVariant("1", 100, "A", alt);
+            cache.put(variant, createFuncotations(variant, 1));
+        }
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertNull(cache.get(createVariant("1", 100, "A", "G")));
+        Assert.assertNotNull(cache.get(createVariant("1", 100, "A", "T")));
+    }
+
+    @Test
+    public void testEvictionByWeight() {
+        // Each entry weighs 1 + 10 fields:
+        final FuncotationCache cache = new FuncotationCache(100, 25);
+        for ( final String alt : Arrays.asList("C", "G", "T") ) {
+            final VariantContext variant = createVariant("1", 100, "A", alt);
+            cache.put(variant, createFuncotations(variant, 10));
+        }
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getTotalWeight(), 22);
+        Assert.assertNull(cache.get(createVariant("1", 100, "A", "C")));
+        Assert.assertNotNull(cache.get(createVariant("1", 100, "A", "T")));
+    }
+
+    @Test
+    public void testFactoryCachesFuncotations() {
+        final Path exacPath = IOUtils.getPath(EXAC_SNIPPET);
+        final DataSourceFuncotationFactory factory = new VcfFuncotationFactory("TEST", "1", exacPath, new LinkedHashMap<>(),
+                new FeatureInput<VariantContext>(exacPath.toString(), "TEST", new HashMap<>()));
+        Assert.assertTrue(factory.isCacheable());
+
+        final VariantContext variant = createVariant("3", 13372, "G", "C");
+        final List<Feature> features;
+        try ( final VCFFileReader reader = new VCFFileReader(exacPath) ) {
+            features = reader.query("3", 13372, 13372).stream().collect(Collectors.toList());
+        }
+
+        final List<Funcotation> first = factory.createFuncotationsFromFeatures(variant, new ReferenceContext(), features, null);
+        final List<Funcotation> second = factory.createFuncotationsFromFeatures(createVariant("3", 13372, "G", "C"), new ReferenceContext(), features, null);
+        Assert.assertSame(second, first);
+        Assert.assertEquals(first, factory.createFuncotationsOnVariant(variant, new ReferenceContext(), features));
+        Assert.assertEquals(factory.getFuncotationCache().getHits(), 1);
+        Assert.assertEquals(factory.getFuncotationCache().getMisses(), 1);
+    }
+}
@@ -756,6 +756,46 @@ public class FuncotatorIntegrationTest extends CommandLineProgramTest {
                 .count(), NUM_CLINVAR_HITS, "Found unexpected number of ClinVar hits!");
     }
 
+    @DataProvider
+    public Object[][] provideOutputFormatTypesForMultiThreadedAnnotation() {
+        return new Object[][] {
+                { FuncotatorArgumentDefinitions.OutputFormatType.VCF },
+                { FuncotatorArgumentDefinitions.OutputFormatType.MAF },
+        };
+    }
+
+    /**
+     * Test that annotating on several threads produces exactly the same output, in the same order, as annotating serially.
+     */
+    @Test(dataProvider = "provideOutputFormatTypesForMultiThreadedAnnotation")
+    public void testMultiThreadedAnnotationMatchesSingleThreaded(final FuncotatorArgumentDefinitions.OutputFormatType outputFormatType) throws IOException {
+        final File serialOutputFile = getOutputFile(outputFormatType);
+        final File parallelOutputFile = getOutputFile(outputFormatType);
+
+        for (final File outputFile : Arrays.asList(serialOutputFile, parallelOutputFile)) {
+            final ArgumentsBuilder arguments = createBaselineArgumentsForFuncotator(
+                    PIK3CA_VCF_HG19,
+                    outputFile,
+                    b37Chr3Ref,
+                    DS_PIK3CA_DIR,
+                    FuncotatorTestConstants.REFERENCE_VERSION_HG19,
+                    outputFormatType,
+                    false);
+            arguments.addBooleanArgument(FuncotatorArgumentDefinitions.FORCE_B37_TO_HG19_REFERENCE_CONTIG_CONVERSION, true);
+            if (outputFile == parallelOutputFile) {
+                arguments.addArgument(FuncotatorArgumentDefinitions.ANNOTATION_THREADS_NAME, "4");
+                arguments.addArgument(FuncotatorArgumentDefinitions.ANNOTATION_BATCH_SIZE_NAME, "3");
+            }
+            runCommandLine(arguments);
+        }
+
+        // Skip the header, which contains the command line and therefore differs between the two runs:
+        final List<String> serialLines = Files.readAllLines(serialOutputFile.toPath()).stream().filter(l -> !l.startsWith("#")).collect(Collectors.toList());
+        final List<String> parallelLines = Files.readAllLines(parallelOutputFile.toPath()).stream().filter(l -> !l.startsWith("#")).collect(Collectors.toList());
+        Assert.assertFalse(serialLines.isEmpty());
+        Assert.assertEquals(parallelLines, serialLines);
+    }
+
     /**
      * Test that the manual annotations and overrides will be correctly rendered on output, and will occur only once each.
      */
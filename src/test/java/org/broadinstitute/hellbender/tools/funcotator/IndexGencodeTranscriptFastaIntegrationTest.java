@@ -0,0 +1,38 @@
+package org.broadinstitute.hellbender.tools.funcotator;
+
+import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeTranscriptIndex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public final class IndexGencodeTranscriptFastaIntegrationTest extends CommandLineProgramTest {
+
+    @Test
+    public void testIndexFasta() throws Exception {
+        final File fasta = new File(publicTestDir + "hg19mini.fasta");
+        final File output = createTempFile("hg19mini.fasta", GencodeTranscriptIndex.FILE_EXTENSION);
+
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addInput(fasta);
+        args.addOutput(output);
+
+        final Object result = runCommandLine(args.getArgsList());
+        Assert.assertEquals(result, output.getAbsolutePath());
+        Assert.assertTrue(Files.size(output.toPath()) > 4 * 16000);
+
+        // The index must be readable:
+        Assert.assertNotNull(GencodeTranscriptIndex.open(output.toPath(), fasta.toPath()));
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testMissingFasta() {
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addInput(new File(publicTestDir, "nonexistent.fasta"));
+        runCommandLine(args.getArgsList());
+    }
+}
@@ -286,6 +286,32 @@ public class CosmicFuncotationFactoryUnitTest extends GATKBaseTest {
         );
     }
 
+    @Test(dataProvider = "provideForTestCreateFuncotations")
+    public void testCreateFuncotationsWithoutInMemoryIndex(final VariantContext variant,
+                                                           final ReferenceContext referenceContext,
+                                                           final List<Feature> featureList,
+                                                           final List<GencodeFuncotation> gencodeFuncotations,
+                                                           final List<Funcotation> expected) {
+
+        try ( final CosmicFuncotationFactory cosmicFuncotationFactory = new CosmicFuncotationFactory(PATH_TO_TEST_DB, new LinkedHashMap<>(), "TEST", false, false) ) {
+            Assert.assertEquals(
+                cosmicFuncotationFactory.createFuncotationsOnVariant(
+                    variant,
+                    referenceContext,
+                    featureList,
+                    gencodeFuncotations
+                ),
+                expected
+            );
+        }
+    }
+
+    @Test
+    public void testIsThreadSafe() {
+        Assert.assertTrue(new CosmicFuncotationFactory(PATH_TO_TEST_DB).isThreadSafe());
+        Assert.assertFalse(new CosmicFuncotationFactory(PATH_TO_TEST_DB, new LinkedHashMap<>(), "TEST", false, false).isThreadSafe());
+    }
+
     @Test
     public void testNoSupportOfSegments() {
         final CosmicFuncotationFactory factory = new CosmicFuncotationFactory(PATH_TO_TEST_DB);
@@ -0,0 +1,160 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.cosmic;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.tools.funcotator.Funcotation;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotation;
+import org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode.GencodeFuncotationBuilder;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Unit tests for {@link CosmicMutationIndex}, using a small database created on the fly.
+ */
+public class CosmicMutationIndexUnitTest extends GATKBaseTest {
+
+    private static final String[][] RECORDS = {
+            // Gene name, Mutation genome position, Mutation AA
+            { "PIK3CA", "3:178936091-178936091", "p.E545K" },
+            { "PIK3CA", "3:178936082-178936082", "p.E542K" },
+            { "PIK3CA", "",                      "p.H1047R" },
+            { "PIK3CA", "3:178936091-178936091", "p.E545K" },
+            { "BRAF",   "7:140453136-140453136", "p.V600E" },
+            { "BRAF",   "7:140453136-1",         null },
+            { null,     "1:1-1",                 "p.A1T" },
+    };
+
+    private File dbFile;
+    private Connection dbConnection;
+
+    @BeforeClass
+    public void createDatabase() throws ClassNotFoundException, SQLException {
+        dbFile = createTempFile("cosmicMutationIndexTest", ".db");
+        Class.forName("org.sqlite.JDBC");
+        dbConnection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+        try ( final Statement statement = dbConnection.createStatement() ) {
+            statement.execute("CREATE TABLE Cosmic (\"Gene name\" TEXT, \"Accession Number\" TEXT, \"Mutation genome position\" TEXT, \"Mutation AA\" TEXT);");
+        }
+        try ( final PreparedStatement insert = dbConnection.prepareStatement("INSERT INTO Cosmic VALUES (?, 'ENST0', ?, ?);") ) {
+            for ( final String[] record : RECORDS ) {
+                insert.setString(1, record[0]);
+                insert.setString(2, record[1]);
+                insert.setString(3, record[2]);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    @AfterClass
+    public void closeDatabase() throws SQLException {
+        dbConnection.close();
+    }
+
+    private CosmicMutationIndex createIndex() {
+        return CosmicMutationIndex.create(dbConnection, "Cosmic", "Gene name", "Mutation genome position", "Mutation AA");
+    }
+
+    @Test
+    public void testCounts() {
+        final CosmicMutationIndex index = createIndex();
+        Assert.assertEquals(index.getNumGenes(), 2);
+        Assert.assertEquals(index.getNumMutations(), 6);
+    }
+
+    @Test
+    public void testGetMutations() {
+        final CosmicMutationIndex index = createIndex();
+
+        final List<CosmicMutationIndex.Mutation> pik3ca = index.getMutations("PIK3CA");
+        Assert.assertEquals(pik3ca.size(), 4);
+        Assert.assertEquals(pik3ca.get(0).genomePosition, new SimpleInterval("chr3", 178936091, 178936091));
+        Assert.assertEquals(pik3ca.get(0).proteinPosition, new SimpleInterval("P", 545, 545));
+        Assert.assertEquals(pik3ca.get(0).proteinChange, "p.E545K");
+        Assert.assertEquals(pik3ca.get(1).proteinChange, "p.E542K");
+        Assert.assertNull(pik3ca.get(2).genomePosition);
+        Assert.assertEquals(pik3ca.get(2).proteinPosition, new SimpleInterval("P", 1047, 1047));
+
+        // Repeated values are shared:
+        Assert.assertSame(pik3ca.get(3).genomePosition, pik3ca.get(0).genomePosition);
+        Assert.assertSame(pik3ca.get(3).proteinChange, pik3ca.get(0).proteinChange);
+
+        final List<CosmicMutationIndex.Mutation> braf = index.getMutations("BRAF");
+        Assert.assertEquals(braf.size(), 2);
+        Assert.assertEquals(braf.get(0).genomePosition, new SimpleInterval("chr7", 140453136, 140453136));
+        // Invalid positions and missing protein changes are tolerated:
+        Assert.assertNull(braf.get(1).genomePosition);
+        Assert.assertNull(braf.get(1).proteinPosition);
+        Assert.assertEquals(braf.get(1).proteinChange, "");
+    }
+
+    @Test
+    public void testGetMutationsForMissingGene() {
+        final CosmicMutationIndex index = createIndex();
+        Assert.assertTrue(index.getMutations("TP53").isEmpty());
+        Assert.assertTrue(index.getMutations(null).isEmpty());
+    }
+
+    @DataProvider
+    public Object[][] provideGeneAndProteinChange() {
+        return new Object[][] {
+                // Genome position match:
+                { "PIK3CA", 178936091, "p.E999K", "p.E545K(2)" },
+                // Protein position match:
+                { "PIK3CA", 1, "p.H1047R", "p.H1047R(1)" },
+                // Protein range match:
+                { "PIK3CA", 1, "p.E1_K3455", "p.E545K(2)|p.E542K(1)|p.H1047R(1)" },
+                { "BRAF", 140453136, "p.V600E", "p.V600E(1)" },
+                { "TP53", 1, "p.R175H", "" },
+        };
+    }
+
+    /**
+     * Tests that annotations made with the in-memory index match those made by querying the database.
+     */
+    @Test(dataProvider = "provideGeneAndProteinChange")
+    public void testFactoryIndexMatchesQueries(final String geneName, final int start, final String proteinChange, final String expected) {
+        final VariantContext variant = new VariantContextBuilder("test", "chr3", start, start,
+                Arrays.asList(Allele.create("G", true), Allele.create("A"))).make();
+        final List<GencodeFuncotation> gencodeFuncotations = Collections.singletonList(
+                new GencodeFuncotationBuilder().setHugoSymbol(geneName).setChromosome("chr3").setStart(start).setEnd(start).setProteinChange(proteinChange).build());
+
+        try ( final CosmicFuncotationFactory indexed = new CosmicFuncotationFactory(dbFile.toPath(), new LinkedHashMap<>(), "TEST", false, true);
+              final CosmicFuncotationFactory queried = new CosmicFuncotationFactory(dbFile.toPath(), new LinkedHashMap<>(), "TEST", false, false) ) {
+            final List<Funcotation> indexedFuncotations = indexed.createFuncotationsOnVariant(variant, new ReferenceContext(), Collections.emptyList(), gencodeFuncotations);
+            final List<Funcotation> queriedFuncotations = queried.createFuncotationsOnVariant(variant, new ReferenceContext(), Collections.emptyList(), gencodeFuncotations);
+            Assert.assertEquals(indexedFuncotations, queriedFuncotations);
+            Assert.assertEquals(indexedFuncotations.get(0).getField("Cosmic_overlapping_mutations"), expected);
+        }
+    }
+
+    @Test
+    public void testCreateMutation() {
+        final CosmicMutationIndex.Mutation mutation = CosmicMutationIndex.createMutation("12:25398284-25398285", "p.G12_G13insG");
+        Assert.assertEquals(mutation.genomePosition, new SimpleInterval("chr12", 25398284, 25398285));
+        Assert.assertEquals(mutation.proteinPosition, new SimpleInterval("P", 12, 13));
+        Assert.assertEquals(mutation.proteinChange, "p.G12_G13insG");
+
+        final CosmicMutationIndex.Mutation empty = CosmicMutationIndex.createMutation(null, null);
+        Assert.assertNull(empty.genomePosition);
+        Assert.assertNull(empty.proteinPosition);
+        Assert.assertEquals(empty.proteinChange, "");
+    }
+}
@@ -0,0 +1,210 @@
+package org.broadinstitute.hellbender.tools.funcotator.dataSources.gencode;
+
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link GencodeTranscriptIndex}, using a small GENCODE-style transcript FASTA file created on the fly.
+ */
+public class GencodeTranscriptIndexUnitTest extends GATKBaseTest {
+
+    private static final String[][] TRANSCRIPTS = {
+            // Sequence name, bases
+            { "ENST00000001.1|ENSG00000001.1|-|-|TX1-001|GENE1|20|UTR5:1-4|CDS:5-16|UTR3:17-20|", "ACGTATGGCCAAATAGTTTT" },
+            { "ENST00000002.1|ENSG00000002.1|-|-|TX2-001|GENE2|12|CDS:1-12|",                    "ATGnnnRCCTAA" },
+            { "ENST00000003.1|ENSG00000003.1|-|-|TX3-001|GENE3|9|",                              "ACGTACGTA" },
+            // Shares its gene ID with the first transcript, so GENE1 should resolve to this sequence:
+            { "ENST00000004.1|ENSG00000001.1|-|-|TX4-001|GENE1|7|UTR3:5-7|",                     "ATGTAAG" },
+    };
+
+    private Path fastaPath;
+    private Path indexPath;
+
+    @BeforeClass
+    public void createTranscriptFasta() throws IOException {
+        fastaPath = writeTranscriptFasta(TRANSCRIPTS);
+        indexPath = GencodeTranscriptIndex.getIndexPath(fastaPath);
+        GencodeTranscriptIndex.write(fastaPath, indexPath);
+    }
+
+    /**
+     * Writes the given transcripts to a FASTA file, with a FASTA index and sequence dictionary, in a new directory.
+     */
+    private static Path writeTranscriptFasta(final String[][] transcripts) throws IOException {
+        final File dir = createTempDir("gencodeTranscriptIndexTest");
+        final Path fastaPath = dir.toPath().resolve("transcripts.fa");
+
+        try ( final PrintWriter fasta = new PrintWriter(Files.newBufferedWriter(fastaPath));
+              final PrintWriter fai = new PrintWriter(Files.newBufferedWriter(fastaPath.resolveSibling("transcripts.fa.fai")));
+              final PrintWriter dict = new PrintWriter(Files.newBufferedWriter(fastaPath.resolveSibling("transcripts.dict"))) ) {
+            dict.print("@HD\tVN:1.0\n");
+            long offset = 0;
+            for ( final String[] transcript : transcripts ) {
+                final String header = ">" + transcript[0] + "\n";
+                fasta.print(header);
+                fasta.print(transcript[1] + "\n");
+                offset += header.length();
+                fai.print(transcript[0] + "\t" + transcript[1].length() + "\t" + offset + "\t" + transcript[1].length() + "\t" + (transcript[1].length() + 1) + "\n");
+                offset += transcript[1].length() + 1;
+                dict.print("@SQ\tSN:" + transcript[0] + "\tLN:" + transcript[1].length() + "\n");
+            }
+        }
+        return fastaPath;
+    }
+
+    private GencodeTranscriptIndex openIndex() {
+        return GencodeTranscriptIndex.open(indexPath, fastaPath);
+    }
+
+    @Test
+    public void testTranscriptIdMapMatchesFasta() {
+        final Map<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> expected;
+        try ( final ReferenceDataSource fasta = ReferenceDataSource.of(fastaPath) ) {
+            expected = GencodeFuncotationFactory.createTranscriptIdMap(fasta);
+        }
+        final Map<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> actual = openIndex().getTranscriptIdMap();
+
+        Assert.assertEquals(actual.size(), expected.size());
+        Assert.assertEquals(actual.keySet(), expected.keySet());
+        for ( final Map.Entry<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> entry : expected.entrySet() ) {
+            Assert.assertTrue(actual.containsKey(entry.getKey()), entry.getKey());
+            assertInfoEquals(actual.get(entry.getKey()), entry.getValue());
+        }
+
+        // Later sequences win for IDs that appear more than once:
+        Assert.assertEquals(actual.get("GENE1").mapKey, TRANSCRIPTS[3][0]);
+        Assert.assertEquals(actual.get("ENST00000001.1").mapKey, TRANSCRIPTS[0][0]);
+    }
+
+    @Test
+    public void testMissingTranscriptId() {
+        final Map<String, GencodeFuncotationFactory.MappedTranscriptIdInfo> transcriptIdMap = openIndex().getTranscriptIdMap();
+        Assert.assertFalse(transcriptIdMap.containsKey("ENST00000005.1"));
+        Assert.assertNull(transcriptIdMap.get("ENST00000005.1"));
+        Assert.assertFalse(transcriptIdMap.containsKey(""));
+        Assert.assertNull(transcriptIdMap.get(5));
+    }
+
+    @DataProvider
+    public Object[][] provideIntervals() {
+        final Object[][] intervals = new Object[TRANSCRIPTS.length * 3][];
+        for ( int i = 0; i < TRANSCRIPTS.length; i++ ) {
+            final int length = TRANSCRIPTS[i][1].length();
+            intervals[3 * i] = new Object[] { new SimpleInterval(TRANSCRIPTS[i][0], 1, length) };
+            intervals[3 * i + 1] = new Object[] { new SimpleInterval(TRANSCRIPTS[i][0], 2, 4) };
+            intervals[3 * i + 2] = new Object[] { new SimpleInterval(TRANSCRIPTS[i][0], length, length) };
+        }
+        return intervals;
+    }
+
+    @Test(dataProvider = "provideIntervals")
+    public void testBasesMatchFasta(final SimpleInterval interval) {
+        final ReferenceDataSource indexed = openIndex().getReferenceDataSource();
+        try ( final ReferenceDataSource fasta = ReferenceDataSource.of(fastaPath) ) {
+            Assert.assertEquals(indexed.queryAndPrefetch(interval).getBaseString(), fasta.queryAndPrefetch(interval).getBaseString());
+        }
+    }
+
+    @Test
+    public void testSequenceDictionary() {
+        final ReferenceDataSource indexed = openIndex().getReferenceDataSource();
+        try ( final ReferenceDataSource fasta = ReferenceDataSource.of(fastaPath) ) {
+            Assert.assertEquals(indexed.getSequenceDictionary().size(), fasta.getSequenceDictionary().size());
+            for ( final SAMSequenceRecord record : fasta.getSequenceDictionary().getSequences() ) {
+                final SAMSequenceRecord indexedRecord = indexed.getSequenceDictionary().getSequence(record.getSequenceName());
+                Assert.assertNotNull(indexedRecord, record.getSequenceName());
+                Assert.assertEquals(indexedRecord.getSequenceLength(), record.getSequenceLength());
+            }
+        }
+    }
+
+    @Test(expectedExceptions = UserException.class)
+    public void testQueryUnknownSequence() {
+        openIndex().getReferenceDataSource().queryAndPrefetch("ENST00000002.1", 1, 2);
+    }
+
+    @Test(expectedExceptions = UserException.class)
+    public void testQueryPastEndOfSequence() {
+        openIndex().getReferenceDataSource().queryAndPrefetch(TRANSCRIPTS[2][0], 5, 10);
+    }
+
+    @Test(expectedExceptions = UserException.MalformedFile.class)
+    public void testOpenNonIndexFile() {
+        GencodeTranscriptIndex.open(fastaPath, fastaPath);
+    }
+
+    @Test
+    public void testSequenceDictionaryIsBuiltOnce() {
+        final ReferenceDataSource indexed = openIndex().getReferenceDataSource();
+        Assert.assertSame(indexed.getSequenceDictionary(), indexed.getSequenceDictionary());
+    }
+
+    @DataProvider
+    public Object[][] provideChangedTranscripts() {
+        final String[][] longerSequence = copyTranscripts();
+        longerSequence[2][1] += "CGT";
+        // Renaming a transcript without changing the length of its name keeps the size of the FASTA file the same:
+        final String[][] renamedTranscript = copyTranscripts();
+        renamedTranscript[1][0] = renamedTranscript[1][0].replace("TX2-001", "TX2-002");
+        return new Object[][] { { longerSequence }, { renamedTranscript } };
+    }
+
+    private static String[][] copyTranscripts() {
+        final String[][] copy = new String[TRANSCRIPTS.length][];
+        for ( int i = 0; i < TRANSCRIPTS.length; i++ ) {
+            copy[i] = TRANSCRIPTS[i].clone();
+        }
+        return copy;
+    }
+
+    @Test(dataProvider = "provideChangedTranscripts")
+    public void testIndexOfChangedFastaIsNotUsed(final String[][] changedTranscripts) throws IOException {
+        final Path changedFastaPath = writeTranscriptFasta(changedTranscripts);
+        final Path staleIndexPath = GencodeTranscriptIndex.getIndexPath(changedFastaPath);
+        Files.copy(indexPath, staleIndexPath);
+        Assert.assertNull(GencodeTranscriptIndex.open(staleIndexPath, changedFastaPath));
+
+        // Re-creating the index makes it usable again:
+        GencodeTranscriptIndex.write(changedFastaPath, staleIndexPath);
+        Assert.assertNotNull(GencodeTranscriptIndex.open(staleIndexPath, changedFastaPath));
+    }
+
+    @Test
+    public void testIndexOfMissingFastaIsNotUsed() {
+        Assert.assertNull(GencodeTranscriptIndex.open(indexPath, fastaPath.resolveSibling("missing.fa")));
+    }
+
+    @Test
+    public void testGetIndexPath() {
+        Assert.assertEquals(GencodeTranscriptIndex.getIndexPath(fastaPath).getFileName().toString(), "transcripts.fa" + GencodeTranscriptIndex.FILE_EXTENSION);
+        Assert.assertEquals(GencodeTranscriptIndex.getIndexPath(fastaPath).getParent(), fastaPath.getParent());
+    }
+
+    private static void assertInfoEquals(final GencodeFuncotationFactory.MappedTranscriptIdInfo actual,
+                                         final GencodeFuncotationFactory.MappedTranscriptIdInfo expected) {
+        Assert.assertEquals(actual.mapKey, expected.mapKey);
+        Assert.assertEquals(actual.codingSequenceStart, expected.codingSequenceStart);
+        Assert.assertEquals(actual.codingSequenceEnd, expected.codingSequenceEnd);
+        Assert.assertEquals(actual.has5pUtr, expected.has5pUtr);
+        Assert.assertEquals(actual.fivePrimeUtrStart, expected.fivePrimeUtrStart);
+        Assert.assertEquals(actual.fivePrimeUtrEnd, expected.fivePrimeUtrEnd);
+        Assert.assertEquals(actual.has3pUtr, expected.has3pUtr);
+        Assert.assertEquals(actual.threePrimeUtrStart, expected.threePrimeUtrStart);
+        Assert.assertEquals(actual.threePrimeUtrEnd, expected.threePrimeUtrEnd);
+    }
+}
@@ -10,7 +10,6 @@ import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.engine.FeatureInput;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
@@ -379,10 +378,7 @@ public class VcfFuncotationFactoryUnitTest extends GATKBaseTest {
             )
         );
 
-        Assert.assertEquals(vcfFuncotationFactory.cacheHits, 0);
-        Assert.assertEquals(vcfFuncotationFactory.cacheMisses, 1);  // Should match the number of times createFuncotationOnVariant was called.
-
-        // Funcotate again, so that we should get a cache hit.
+        // Funcotate again, which should give the same result.
         final List<Funcotation> funcotations2 = vcfFuncotationFactory.createFuncotationsOnVariant(
                 variant,
                 referenceContext,
@@ -390,9 +386,7 @@ public class VcfFuncotationFactoryUnitTest extends GATKBaseTest {
                 Collections.emptyList()
         );
 
-        Assert.assertEquals(vcfFuncotationFactory.cacheHits, 1);
-        Assert.assertEquals(vcfFuncotationFactory.cacheMisses, 1);
-        Assert.assertEquals(funcotations, funcotations2, "Even though there was a cache hit, the funcotations are not equal.");
+        Assert.assertEquals(funcotations, funcotations2, "Funcotating the same variant twice gave different funcotations.");
 
         // Sanity check that we get the same funcotations whether we use the three parameter or the four parameter
         //  version of createFuncotationsOnVariant.
@@ -402,70 +396,6 @@ public class VcfFuncotationFactoryUnitTest extends GATKBaseTest {
                 vcfFeatures), funcotations);
     }
 
-    @Test
-    public void testCacheOnObjectReference(){
-        // This code is a bit complex, since the cache is based exclusively on object references.  That works great in Funcotator,
-        //  but not as great in the general case (incl. autotests)
-        // We do not care so much about the content of each variant context.  We change the position to control whether
-        //  there is a cache hit or not.
-        // Please note that this test does not actually test the content of the funcotations.  Just whether the cache
-        //  was set to the appropriate size and that the hit/miss counters are being maintained properly.
-
-        // Create dummy data.  Remember that since the cache is based on reference, we always have to index into this list.
-        final List<String> alleles = Arrays.asList("G", "C", "T");
-        final List<Triple<VariantContext, ReferenceContext, List<Feature>>> dummyTriples = IntStream.range(0, VcfFuncotationFactory.LRUCache.MAX_ENTRIES + 1)
-                .boxed().map(i -> createDummyCacheTriples(alleles, i)).collect(Collectors.toList());
-
-        // Create our funcotation factory to test
-        final VcfFuncotationFactory vcfFuncotationFactory =
-                createVcfFuncotationFactory(FACTORY_NAME, FACTORY_VERSION, IOUtils.getPath(EXAC_SNIPPET));
-
-        for (int i = 0; i < VcfFuncotationFactory.LRUCache.MAX_ENTRIES; i++) {
-            funcotateForCacheTest(vcfFuncotationFactory, dummyTriples.get(i));
-            Assert.assertEquals(vcfFuncotationFactory.cacheHits, 0);
-            Assert.assertEquals(vcfFuncotationFactory.cacheMisses, i+1);  // Should match the number of times createFuncotationOnVariant was called.
-        }
-        // We will get one more miss in this loop, since [0] will have been purged from the cache.  We will test this below.
-        for (int i = 0; i < (VcfFuncotationFactory.LRUCache.MAX_ENTRIES + 1); i++) {
-            funcotateForCacheTest(vcfFuncotationFactory, dummyTriples.get(i));
-        }
-        Assert.assertEquals(vcfFuncotationFactory.cacheHits, VcfFuncotationFactory.LRUCache.MAX_ENTRIES);
-
-        // This should be another miss, since the variant at index = 0 should no longer be in the cache.
-        funcotateForCacheTest(vcfFuncotationFactory, dummyTriples.get(0));
-        Assert.assertEquals(vcfFuncotationFactory.cacheMisses, (VcfFuncotationFactory.LRUCache.MAX_ENTRIES + 2));
-    }
-
-    // Performs a dummy funcotation with an offset for controlling the cache.
-    private void funcotateForCacheTest(final VcfFuncotationFactory vcfFuncotationFactory, final Triple<VariantContext, ReferenceContext, List<Feature>> cacheTriple) {
-        vcfFuncotationFactory.createFuncotationsOnVariant(
-                cacheTriple.getLeft(),
-                cacheTriple.getMiddle(),
-                cacheTriple.getRight(),
-                Collections.emptyList()
-        );
-    }
-
-    // Creates dummy triples for testing the cache.  If offset is zero, and ref="G" and alt(s) are in {"C", "T"}, there
-    //  will be a hit on the exac snippet.  This is to make sure that one of the dummy triplets was a hit in a VCF
-    //  funcotation factory.
-    private Triple<VariantContext, ReferenceContext, List<Feature>> createDummyCacheTriples(final List<String> alleles, final int offset) {
-
-        // Create an interval for a variant that overlaps an entry in the exac snippet test file when offset = 0.
-        final SimpleInterval variantInterval = new SimpleInterval("3", 13372+offset, 13372+offset);
-        final VariantContext vc =  new VariantContextBuilder()
-                .chr(variantInterval.getContig()).start(variantInterval.getStart()).stop(variantInterval.getEnd())
-                .alleles(alleles)
-                .make();
-        final ReferenceContext referenceContext = new ReferenceContext(ReferenceDataSource.of(Paths.get(FuncotatorReferenceTestUtils.retrieveB37Chr3Ref())), variantInterval);
-        final List<Feature> vcfFeatures;
-        try (final VCFFileReader vcfReader = new VCFFileReader(IOUtils.getPath(EXAC_SNIPPET))) {
-            vcfFeatures = vcfReader.query(variantInterval.getContig(), variantInterval.getStart(), variantInterval.getEnd()).stream().collect(Collectors.toList());
-        }
-
-        return Triple.of(vc, referenceContext, vcfFeatures);
-    }
-
     private VcfFuncotationFactory createVcfFuncotationFactory(final String name,
                                                               final String version,
                                                               final Path sourceFilePath) {
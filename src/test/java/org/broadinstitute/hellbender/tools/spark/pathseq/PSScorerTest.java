@@ -418,6 +418,41 @@ public class PSScorerTest extends CommandLineProgramTest {
         checkComputedScores(resultMap, divideByGenomeLength, notNormalizedByKingdom);
     }
 
+    @Test
+    public void testMergeTaxScores() {
+        final PSTree tree = new PSTree(1);
+        tree.addNode(2, "n2", 1, 0, PSTaxonomyConstants.KINGDOM_RANK_NAME);
+        tree.addNode(3, "n3", 2, 100, "species");
+        tree.addNode(4, "n4", 1, 0, PSTaxonomyConstants.SUPERKINGDOM_RANK_NAME);
+        tree.addNode(5, "n5", 2, 100, "species");
+        tree.addNode(6, "n6", 4, 100, "species");
+        tree.addNode(7, "n7", 4, 100, "species");
+        final PSFlatTree flatTree = new PSFlatTree(tree);
+        final List<PSPathogenAlignmentHit> readTaxHits = Arrays.asList(
+                new PSPathogenAlignmentHit(Arrays.asList(4), 2), //Invalid hit, ref length 0
+                new PSPathogenAlignmentHit(Arrays.asList(3), 2),
+                new PSPathogenAlignmentHit(Arrays.asList(3, 6, 6), 2),
+                new PSPathogenAlignmentHit(Arrays.asList(5), 2),
+                new PSPathogenAlignmentHit(Arrays.asList(6), 1),
+                new PSPathogenAlignmentHit(Arrays.asList(8), 2)); //Invalid hit, not in tree
+
+        //Scores computed over "partitions" and merged should match those computed in a single pass
+        final PSTaxonScoreAccumulator singlePass = PSScorer.computeTaxScores(readTaxHits.iterator(), flatTree, false);
+        final PSTaxonScoreAccumulator merged = PSScorer.computeTaxScores(readTaxHits.subList(0, 3).iterator(), flatTree, false)
+                .merge(PSScorer.computeTaxScores(readTaxHits.subList(3, readTaxHits.size()).iterator(), flatTree, false));
+        final Map<Integer, PSPathogenTaxonScore> expected = singlePass.toScoreMap(flatTree);
+        final Map<Integer, PSPathogenTaxonScore> actual = merged.toScoreMap(flatTree);
+        Assert.assertEquals(actual.keySet(), expected.keySet());
+        for (final int taxId : expected.keySet()) {
+            Assert.assertEquals(actual.get(taxId).getSelfScore(), expected.get(taxId).getSelfScore(), SCORE_ABSOLUTE_ERROR_TOLERANCE);
+            Assert.assertEquals(actual.get(taxId).getDescendentScore(), expected.get(taxId).getDescendentScore(), SCORE_ABSOLUTE_ERROR_TOLERANCE);
+            Assert.assertEquals(actual.get(taxId).getTotalReads(), expected.get(taxId).getTotalReads());
+            Assert.assertEquals(actual.get(taxId).getUnambiguousReads(), expected.get(taxId).getUnambiguousReads());
+            Assert.assertEquals(actual.get(taxId).getReferenceLength(), tree.getLengthOf(taxId));
+        }
+        checkComputedScores(PSScorer.computeNormalizedScores(actual, tree, true), false, true);
+    }
+
     private static void checkComputedScores(final Map<Integer,PSPathogenTaxonScore> resultMap, final boolean divideByGenomeLength,
                                            final boolean notNormalizeByKingdom) {
         double score3 = 0.5 * 2.0 + 2.0;
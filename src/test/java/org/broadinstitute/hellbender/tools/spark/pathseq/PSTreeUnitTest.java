@@ -10,6 +10,7 @@ import org.testng.annotations.Test;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -318,6 +319,44 @@ public class PSTreeUnitTest extends CommandLineProgramTest {
         }
     }
 
+    @Test
+    public void testFlatTree() throws Exception {
+        final PSTree tree = new PSTree(1);
+        tree.addNode(2, "n2", 1, 0, "none");
+        tree.addNode(3, "n3", 1, 10, "none");
+        tree.addNode(4, "n4", 2, 20, "none");
+        tree.addNode(5, "n5", 3, 30, "none");
+        tree.addNode(6, "n6", 3, 40, "none");
+        tree.addNode(7, "n7", 5, 50, "none");
+        final PSFlatTree flatTree = new PSFlatTree(tree);
+
+        Assert.assertEquals(flatTree.size(), 7);
+        Assert.assertEquals(flatTree.indexOf(8), PSFlatTree.NO_NODE);
+        for (final int id : tree.getNodeIDs()) {
+            final int index = flatTree.indexOf(id);
+            Assert.assertEquals(flatTree.getTaxIdAt(index), id);
+            Assert.assertEquals(flatTree.getLengthAt(index), tree.getLengthOf(id));
+            final List<Integer> path = new ArrayList<>();
+            for (int node = index; node != PSFlatTree.NO_NODE; node = flatTree.getParentAt(node)) {
+                path.add(flatTree.getTaxIdAt(node));
+            }
+            Assert.assertEquals(path, tree.getPathOf(id));
+            for (final int otherId : tree.getNodeIDs()) {
+                final int lca = flatTree.getLCA(index, flatTree.indexOf(otherId));
+                Assert.assertEquals(flatTree.getTaxIdAt(lca), tree.getLCA(Arrays.asList(id, otherId)));
+            }
+        }
+
+        //Disconnected node
+        tree.addNode(8, "n8", 9, 0, "none");
+        final PSFlatTree disconnectedTree = new PSFlatTree(tree);
+        try {
+            disconnectedTree.getLCA(disconnectedTree.indexOf(8), disconnectedTree.indexOf(2));
+            Assert.fail("Did not throw exception when asking for LCA a disconnected node");
+        } catch (UserException.BadInput e) {
+        }
+    }
+
     @Test
     public void testRemoveUnreachableNodes() throws Exception {
         PSTree tree = new PSTree(1);
@@ -292,6 +292,24 @@ public class GenotypeGVCFsIntegrationTest extends CommandLineProgramTest {
         assertVariantContextsMatch(input, expected, extraArgs, reference);
     }
 
+    @DataProvider(name = "gvcfsToGenotypeOnMultipleThreads")
+    public Object[][] gvcfsToGenotypeOnMultipleThreads() {
+        final List<String> threadArgs = Arrays.asList("--" + GenotypeGVCFs.THREADS_LONG_NAME, "4", "--sites-per-chunk", "7");
+        final List<String> allSitesThreadArgs = new ArrayList<>(threadArgs);
+        allSitesThreadArgs.add("--" + GenotypeGVCFs.ALL_SITES_LONG_NAME);
+        return new Object[][]{
+                {getTestFile(BASE_PAIR_GVCF), getTestFile(BASE_PAIR_EXPECTED), threadArgs, b37_reference_20_21},
+                {getTestFile(BASE_PAIR_GVCF), getTestFile("expected/gvcf.basepairResolution.includeNonVariantSites.vcf"), allSitesThreadArgs, b37_reference_20_21},
+                {getTestFile("spanningDel.combined.g.vcf"), getTestFile("spanningDel.combined.gatk3.7_30_ga4f720357.expected.vcf"), threadArgs, b37_reference_20_21},
+        };
+    }
+
+    // chunks are small so that reference blocks and deletions span chunk boundaries
+    @Test(dataProvider = "gvcfsToGenotypeOnMultipleThreads")
+    public void testMultipleThreads(File input, File expected, List<String> extraArgs, String reference) throws IOException {
+        assertVariantContextsMatch(input, expected, extraArgs, reference);
+    }
+
     private void assertVariantContextsMatch(File input, File expected, List<String> extraArgs, String reference) throws IOException {
         try {
             final VCFHeader header = VCFHeaderReader.readHeaderFrom(new SeekablePathStream(IOUtils.getPath(expected.getAbsolutePath())));
@@ -5,6 +5,7 @@ import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.tools.walkers.gnarlyGenotyper.GnarlyGenotyper;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
@@ -95,8 +96,17 @@ public class GnarlyGenotyperIntegrationTest extends CommandLineProgramTest {
         runCommandLine(args);
     }
 
-    @Test
-    public void testOnHailOutput() {
+    @DataProvider(name = "hailOutputArgs")
+    public Object[][] getHailOutputArgs() {
+        return new Object[][]{
+                {NO_EXTRA_ARGS},
+                // results must not depend on how the variants are split between threads
+                {Arrays.asList("--" + GnarlyGenotyper.THREADS_LONG_NAME, "4", "--variants-per-chunk", "3")}
+        };
+    }
+
+    @Test(dataProvider = "hailOutputArgs")
+    public void testOnHailOutput(final List<String> additionalArguments) {
         final String input = getToolTestDataDir() + "hailOutput.chr20snippet.sites_only.vcf";
         final File output = createTempFile("GnarlyGenotyper", ".vcf");
         final File expected = new File(getToolTestDataDir() + "expected.hailOutput.chr20snippet.sites_only.vcf");
@@ -109,6 +119,7 @@ public class GnarlyGenotyperIntegrationTest extends CommandLineProgramTest {
                 .addBooleanArgument("keep-all-sites", true)
                 .addOutput(output)
                 .addArgument(StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false");
+        additionalArguments.forEach(args::add);
         runCommandLine(args);
 
         //should have same variants as input with low QUAL variants marked with a monomorphic filter
@@ -0,0 +1,95 @@
+package org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public final class AlleleSpecificRawDataTokenizerUnitTest extends GATKBaseTest {
+
+    private static List<List<String>> tokenize(final String data) {
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(data);
+        final List<List<String>> result = new ArrayList<>();
+        while (tokenizer.nextAllele()) {
+            Assert.assertEquals(tokenizer.getAlleleIndex(), result.size());
+            final List<String> values = new ArrayList<>();
+            while (tokenizer.nextValue()) {
+                values.add(tokenizer.stringValue());
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    @DataProvider(name = "rawData")
+    public Object[][] rawData() {
+        return new Object[][]{
+                {"0,0|3,4|1,2", Arrays.asList(Arrays.asList("0", "0"), Arrays.asList("3", "4"), Arrays.asList("1", "2"))},
+                {"[0.00|2500.00]", Arrays.asList(Arrays.asList("0.00"), Arrays.asList("2500.00"))},
+                {"[1.5, 3, -0.5, 2|]", Arrays.asList(Arrays.asList("1.5", "3", "-0.5", "2"))},
+                {"|20,1|", Arrays.asList(Arrays.asList(""), Arrays.asList("20", "1"))},
+                {"7||", Arrays.asList(Arrays.asList("7"))},
+                {"1,|", Arrays.asList(Arrays.asList("1", ""))},
+                {"", Arrays.asList(Arrays.asList(""))},
+        };
+    }
+
+    @Test(dataProvider = "rawData")
+    public void testTokenize(final String data, final List<List<String>> expected) {
+        Assert.assertEquals(tokenize(data), expected);
+    }
+
+    @Test
+    public void testAppendAllele() {
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer("[0|12,3|4]");
+        final StringBuilder builder = new StringBuilder();
+        while (tokenizer.nextAllele()) {
+            tokenizer.appendAllele(builder).append(';');
+        }
+        Assert.assertEquals(builder.toString(), "0;12,3;4;");
+    }
+
+    @DataProvider(name = "numbers")
+    public Object[][] numbers() {
+        return new Object[][]{
+                {"0"}, {"-0"}, {"+7"}, {"42"}, {"-42"}, {"2147483647"}, {"-2147483648"}, {"0.1"}, {"-0.30"}, {"1."}, {".5"},
+                {"29160.00"}, {"123456789012345"}, {"1234567890123456789"}, {"0.1234567890123456789"}, {"1e5"}, {"NaN"},
+                {"Infinity"}, {"2.5d"}, {"."}, {"-"}, {"abc"}, {"1.2.3"}, {"--1"}
+        };
+    }
+
+    private static Object parseOrException(final java.util.function.Supplier<?> parser) {
+        try {
+            return parser.get();
+        } catch (final NumberFormatException e) {
+            return e.getClass();
+        }
+    }
+
+    @Test(dataProvider = "numbers")
+    public void testNumbersMatchJavaParsing(final String number) {
+        final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(" " + number + " |");
+        Assert.assertTrue(tokenizer.nextAllele());
+        Assert.assertTrue(tokenizer.nextValue());
+        Assert.assertEquals(parseOrException(tokenizer::intValue), parseOrException(() -> Integer.parseInt(number)));
+        Assert.assertEquals(parseOrException(tokenizer::doubleValue), parseOrException(() -> Double.parseDouble(number)));
+    }
+
+    @Test
+    public void testRandomDecimalsMatchJavaParsing() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            final String number = String.format(Locale.ROOT, "%." + random.nextInt(8) + "f", (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10)));
+            final AlleleSpecificRawDataTokenizer tokenizer = new AlleleSpecificRawDataTokenizer(number);
+            tokenizer.nextAllele();
+            tokenizer.nextValue();
+            Assert.assertEquals(Double.doubleToLongBits(tokenizer.doubleValue()), Double.doubleToLongBits(Double.parseDouble(number)), number);
+        }
+    }
+}
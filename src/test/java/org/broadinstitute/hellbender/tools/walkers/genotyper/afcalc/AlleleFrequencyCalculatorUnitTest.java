@@ -4,9 +4,11 @@ import htsjdk.variant.variantcontext.*;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.util.MathArrays;
+import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeAlleleCounts;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeLikelihoodCalculator;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeLikelihoodCalculators;
 import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.Dirichlet;
 import org.broadinstitute.hellbender.utils.MathUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -323,6 +325,96 @@ public class AlleleFrequencyCalculatorUnitTest extends GATKBaseTest {
 
     }
 
+    // large cohorts in which most samples share a few PLs, as they do at reference blocks
+    @Test
+    public void testLargeCohortMatchesPerSampleCalculation() {
+        final Random random = new Random(13);
+        final double refPseudocount = 10;
+        final double snpPseudocount = 0.01;
+        final double indelPseudocount = 0.001;
+        final AlleleFrequencyCalculator afCalc = new AlleleFrequencyCalculator(refPseudocount, snpPseudocount, indelPseudocount, DEFAULT_PLOIDY);
+        final List<List<Allele>> alleleLists = Arrays.asList(Arrays.asList(A, B), Arrays.asList(A, B, C), Arrays.asList(A, B, Allele.SPAN_DEL));
+        for (final List<Allele> alleles : alleleLists) {
+            for (int n = 0; n < 10; n++) {
+                final List<Genotype> genotypes = new ArrayList<>();
+                for (int sample = 0; sample < 2000; sample++) {
+                    final int ploidy = random.nextInt(10) == 0 ? TRIPLOID : DIPLOID;
+                    final int[] pls = new int[GL_CALCS.genotypeCount(ploidy, alleles.size())];
+                    if (random.nextInt(50) == 0) {
+                        Arrays.setAll(pls, g -> random.nextInt(100));
+                    } else {
+                        Arrays.setAll(pls, g -> g == 0 ? 0 : 30 * (1 + random.nextInt(2)));
+                    }
+                    genotypes.add(makeGenotype(ploidy, pls));
+                }
+                final VariantContext vc = makeVC(alleles, genotypes);
+
+                final AFCalculationResult result = afCalc.calculate(vc);
+                final AFCalculationResult expected = calculatePerSample(vc, refPseudocount, snpPseudocount, indelPseudocount);
+                Assert.assertEquals(result.getAlleleCountsOfMLE(), expected.getAlleleCountsOfMLE());
+                Assert.assertEquals(result.log10ProbOnlyRefAlleleExists(), expected.log10ProbOnlyRefAlleleExists(), 1.0e-8);
+                for (final Allele allele : alleles.subList(1, alleles.size())) {
+                    Assert.assertEquals(result.getLog10PosteriorOfAlleleAbsent(allele), expected.getLog10PosteriorOfAlleleAbsent(allele), 1.0e-8);
+                }
+            }
+        }
+    }
+
+    // the calculation of AlleleFrequencyCalculator done one sample at a time
+    private static AFCalculationResult calculatePerSample(final VariantContext vc, final double refPseudocount, final double snpPseudocount, final double indelPseudocount) {
+        final List<Allele> alleles = vc.getAlleles();
+        final int numAlleles = alleles.size();
+        final double[] priorPseudocounts = alleles.stream()
+                .mapToDouble(a -> a.isReference() ? refPseudocount : (a.length() > 1 ? snpPseudocount : indelPseudocount)).toArray();
+        double[] alleleCounts = new double[numAlleles];
+        double[] log10AlleleFrequencies = new double[numAlleles];
+        Arrays.fill(log10AlleleFrequencies, -Math.log10(numAlleles));
+        for (double difference = Double.POSITIVE_INFINITY; difference > 0.1; ) {
+            final double[] newAlleleCounts = new double[numAlleles];
+            for (final Genotype g : vc.getGenotypes()) {
+                final GenotypeLikelihoodCalculator glCalc = GL_CALCS.getInstance(g.getPloidy(), numAlleles);
+                final double[] posteriors = MathUtils.normalizeFromLog10ToLinearSpace(log10Posteriors(g, glCalc, log10AlleleFrequencies));
+                for (int genotype = 0; genotype < glCalc.genotypeCount(); genotype++) {
+                    final double posterior = posteriors[genotype];
+                    glCalc.genotypeAlleleCountsAt(genotype).forEachAlleleIndexAndCount((a, count) -> newAlleleCounts[a] += count * posterior);
+                }
+            }
+            difference = MathUtils.arrayMax(MathUtils.applyToArray(MathArrays.ebeSubtract(alleleCounts, newAlleleCounts), Math::abs));
+            alleleCounts = newAlleleCounts;
+            log10AlleleFrequencies = new Dirichlet(MathArrays.ebeAdd(priorPseudocounts, alleleCounts)).log10MeanWeights();
+        }
+
+        final int spanDelIndex = alleles.indexOf(Allele.SPAN_DEL);
+        double log10PNoVariant = 0;
+        final double[] log10PNoAllele = new double[numAlleles];
+        for (final Genotype g : vc.getGenotypes()) {
+            final GenotypeLikelihoodCalculator glCalc = GL_CALCS.getInstance(g.getPloidy(), numAlleles);
+            final double[] posteriors = MathUtils.normalizeLog10(log10Posteriors(g, glCalc, log10AlleleFrequencies));
+            // as in AlleleFrequencyCalculator, genotypes with only spanning deletions are not counted as non-variant
+            final double[] nonVariantPosteriors = IntStream.range(0, glCalc.genotypeCount())
+                    .filter(genotype -> glCalc.genotypeAlleleCountsAt(genotype).alleleCountFor(0) > 0)
+                    .filter(genotype -> IntStream.range(1, numAlleles).allMatch(a -> a == spanDelIndex || !glCalc.genotypeAlleleCountsAt(genotype).containsAllele(a)))
+                    .mapToDouble(genotype -> posteriors[genotype]).toArray();
+            log10PNoVariant += Math.min(0, MathUtils.log10SumLog10(nonVariantPosteriors));
+            for (int allele = 1; allele < numAlleles; allele++) {
+                final int a = allele;
+                log10PNoAllele[a] += Math.min(0, MathUtils.log10SumLog10(IntStream.range(0, glCalc.genotypeCount())
+                        .filter(genotype -> !glCalc.genotypeAlleleCountsAt(genotype).containsAllele(a)).mapToDouble(genotype -> posteriors[genotype]).toArray()));
+            }
+        }
+        final int[] integerAltAlleleCounts = Arrays.stream(alleleCounts, 1, numAlleles).mapToInt(x -> (int) Math.round(x)).toArray();
+        final Map<Allele, Double> log10PNoAlleleByAllele = IntStream.range(1, numAlleles).boxed().collect(Collectors.toMap(alleles::get, a -> log10PNoAllele[a]));
+        return new AFCalculationResult(integerAltAlleleCounts, alleles, log10PNoVariant, log10PNoAlleleByAllele);
+    }
+
+    private static double[] log10Posteriors(final Genotype g, final GenotypeLikelihoodCalculator glCalc, final double[] log10AlleleFrequencies) {
+        final double[] log10Likelihoods = g.getLikelihoods().getAsVector();
+        return IntStream.range(0, glCalc.genotypeCount()).mapToDouble(genotype -> {
+            final GenotypeAlleleCounts gac = glCalc.genotypeAlleleCountsAt(genotype);
+            return log10Likelihoods[genotype] + gac.log10CombinationCount() + gac.sumOverAlleleIndicesAndCounts((a, count) -> count * log10AlleleFrequencies[a]);
+        }).toArray();
+    }
+
     // make PLs that correspond to an obvious call i.e. one PL is relatively big and the rest are zero
     // alleleCounts is the GenotypeAlleleCounts format for the obvious genotype, with repeats but in no particular order
     private static int[] PLsForObviousCall(final int ploidy, final int numAlleles, final int[] alleleCounts, final int PL)   {
@@ -187,6 +187,28 @@ public class Mutect2IntegrationTest extends CommandLineProgramTest {
         Assert.assertTrue(numPassVariants < 10);
     }
 
+    @Test
+    public void testMultithreadedFilteringMatchesSingleThreaded() throws IOException {
+        final File unfilteredVcf = new File(FILTERING_DIR, "NA12878.vcf");
+        final File contamination = new File(FILTERING_DIR, "contamination.table");
+        final File segments = new File(FILTERING_DIR, "segments.table");
+
+        final List<List<String>> filteredLines = new ArrayList<>();
+        for (final int threads : new int[] {1, 4}) {
+            Utils.resetRandomGenerator();
+            final File filteredVcf = createTempFile("filtered", ".vcf");
+            runFilterMutectCalls(unfilteredVcf, filteredVcf, b37Reference,
+                    args -> args.addFileArgument(M2FiltersArgumentCollection.TUMOR_SEGMENTATION_LONG_NAME, segments),
+                    args -> args.addFileArgument(M2FiltersArgumentCollection.CONTAMINATION_TABLE_LONG_NAME, contamination),
+                    args -> args.addArgument(M2FiltersArgumentCollection.FILTERING_THREADS_LONG_NAME, Integer.toString(threads)));
+            filteredLines.add(Files.readAllLines(filteredVcf.toPath()).stream()
+                    .filter(line -> !line.startsWith("##GATKCommandLine"))
+                    .collect(Collectors.toList()));
+        }
+
+        Assert.assertEquals(filteredLines.get(1), filteredLines.get(0));
+    }
+
     // tumorBams, normalBam, truthVcf, mask, requiredSensitivity
     @DataProvider(name = "twoTumorData")
     public Object[][] twoTumorData() {
@@ -691,4 +691,32 @@ public class VariantEvalIntegrationTest extends CommandLineProgramTest {
     public void testIncorrectlyLabelledEvaluator(){
         testForCrashWithGivenEvaluator("TestEvaluatorWhichRequiresReferenceButDoesntSayItDoes");
     }
+
+    private File runWithThreads(final int threads, final String... evaluators) {
+        final File output = createTempFile("out" + threads, ".txt");
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addOutput(output)
+                .addArgument("eval", getTestFilePath("/CEU.trio.callsForVE.vcf"))
+                .addArgument("comp", getTestFilePath("/yri.trio.gatk_glftrio.intersection.annotated.filtered.chr1.500.noheader.vcf"))
+                .addArgument("do-not-use-all-standard-modules")
+                .addArgument("ST", "Sample")
+                .addArgument(VariantEval.THREADS_LONG_NAME, String.valueOf(threads))
+                .addArgument("sites-per-chunk", "97");
+        for (final String evaluator : evaluators) {
+            args.addArgument("EV", evaluator);
+        }
+        runCommandLine(args);
+        return output;
+    }
+
+    @Test
+    public void testMultithreadedMatchesSingleThreaded() throws IOException {
+        final String[] evaluators = {"IndelSummary", "TiTvVariantEvaluator", "GenotypeFilterSummary", "IndelLengthHistogram", "CompOverlap", "ValidationReport"};
+        IntegrationTestSpec.assertEqualTextFiles(runWithThreads(4, evaluators), runWithThreads(1, evaluators));
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultithreadedWithEvaluatorThatCannotBeCombined() {
+        runWithThreads(2, "TestEvaluatorWhichRequiresReferenceButDoesntSayItDoes");
+    }
 }
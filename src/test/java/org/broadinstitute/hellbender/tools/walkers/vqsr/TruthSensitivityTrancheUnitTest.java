@@ -10,7 +10,6 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 public final class TruthSensitivityTrancheUnitTest extends GATKBaseTest {
@@ -20,20 +19,19 @@ public final class TruthSensitivityTrancheUnitTest extends GATKBaseTest {
     private final File EXPECTED_TRANCHES_NEW = new File(testDir + "tranches.6.txt");
     private final File EXPECTED_TRANCHES_OLD = new File(testDir + "tranches.4.txt");
 
-    private ArrayList<VariantDatum> readData() throws IOException{
-        ArrayList<VariantDatum> vd = new ArrayList<>();
+    private VariantDataTable readData() throws IOException{
+        VariantDataTable vd = new VariantDataTable(0);
         try (XReadLines xrl = new XReadLines(Utils.nonNull(QUAL_DATA).toPath(), true)){
             for ( String line : xrl ) {
                 String[] parts = line.split("\t");
                 // QUAL,TRANSITION,ID,LOD,FILTER
                 if ( ! parts[0].equals("QUAL") ) {
-                    VariantDatum datum = new VariantDatum();
-                    datum.lod = Double.valueOf(parts[3]);
-                    datum.isTransition = parts[1].equals("1");
-                    datum.isKnown = ! parts[2].equals(".");
-                    datum.isSNP = true;
-                    datum.atTruthSite = datum.isKnown;
-                    vd.add(datum);
+                    final int datum = vd.add(null, null, null);
+                    vd.setLod(datum, Double.valueOf(parts[3]));
+                    vd.setTransition(datum, parts[1].equals("1"));
+                    vd.setKnown(datum, ! parts[2].equals("."));
+                    vd.setSNP(datum, true);
+                    vd.setAtTruthSite(datum, vd.isKnown(datum));
                 }
             }
         }
@@ -73,15 +71,15 @@ public final class TruthSensitivityTrancheUnitTest extends GATKBaseTest {
         }
     }
 
-    private static List<TruthSensitivityTranche> findMyTranches(ArrayList<VariantDatum> vd, double[] tranches) {
-        final int nCallsAtTruth = VariantDatum.countCallsAtTruth( vd, Double.NEGATIVE_INFINITY );
+    private static List<TruthSensitivityTranche> findMyTranches(VariantDataTable vd, double[] tranches) {
+        final int nCallsAtTruth = vd.countCallsAtTruth( Double.NEGATIVE_INFINITY );
         final TruthSensitivityTranche.TruthSensitivityMetric metric = new TruthSensitivityTranche.TruthSensitivityMetric( nCallsAtTruth );
         return TruthSensitivityTranche.findTranches(vd, tranches, metric, VariantRecalibratorArgumentCollection.Mode.SNP);
     }
 
     @Test
     public final void testFindTranches1() throws IOException {
-        ArrayList<VariantDatum> vd = readData();
+        VariantDataTable vd = readData();
         List<TruthSensitivityTranche> tranches = findMyTranches(vd, TRUTH_SENSITIVITY_CUTS);
         tranches.sort(TruthSensitivityTranche.TRUTH_SENSITIVITY_ORDER);
         assertTranchesAreTheSame(read(EXPECTED_TRANCHES_NEW), tranches);
@@ -89,7 +87,7 @@ public final class TruthSensitivityTrancheUnitTest extends GATKBaseTest {
 
     @Test(expectedExceptions = {UserException.class})
     public final void testBadFDR() throws IOException {
-        ArrayList<VariantDatum> vd = readData();
+        VariantDataTable vd = readData();
         findMyTranches(vd, new double[]{-1});
     }
 }
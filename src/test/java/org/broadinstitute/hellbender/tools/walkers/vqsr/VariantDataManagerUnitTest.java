@@ -12,45 +12,25 @@ import java.util.List;
 
 public class VariantDataManagerUnitTest extends GATKBaseTest {
 
+    private static void addDatum(final VariantDataTable data, final boolean atTrainingSite, final double[] annotations) {
+        final int datum = data.add(null, null, null);
+        data.setAtTrainingSite(datum, atTrainingSite);
+        for (int i = 0; i < annotations.length; i++) {
+            data.setAnnotation(datum, i, annotations[i]);
+        }
+    }
+
     @Test
     public final void testCalculateSortOrder() {
-        final double passingQual = 400.0;
         final VariantRecalibratorArgumentCollection VRAC = new VariantRecalibratorArgumentCollection();
 
         VariantDataManager vdm = new VariantDataManager(new ArrayList<String>(), VRAC);
 
-        final List<VariantDatum> theData = new ArrayList<>();
-        final VariantDatum datum1 = new VariantDatum();
-        datum1.atTrainingSite = true;
-        datum1.failingSTDThreshold = false;
-        datum1.originalQual = passingQual;
-        datum1.annotations = new double[]{0.0,-10.0,10.0};
-        datum1.isNull = new boolean[]{false, false, false};
-        theData.add(datum1);
-
-        final VariantDatum datum2 = new VariantDatum();
-        datum2.atTrainingSite = true;
-        datum2.failingSTDThreshold = false;
-        datum2.originalQual = passingQual;
-        datum2.annotations = new double[]{0.0,-9.0,15.0};
-        datum2.isNull = new boolean[]{false, false, false};
-        theData.add(datum2);
-
-        final VariantDatum datum3 = new VariantDatum();
-        datum3.atTrainingSite = false;
-        datum3.failingSTDThreshold = false;
-        datum3.originalQual = passingQual;
-        datum3.annotations = new double[]{0.0,1.0,999.0};
-        datum3.isNull = new boolean[]{false, false, false};
-        theData.add(datum3);
-
-        final VariantDatum datum4 = new VariantDatum();
-        datum4.atTrainingSite = false;
-        datum4.failingSTDThreshold = false;
-        datum4.originalQual = passingQual;
-        datum4.annotations = new double[]{0.015,2.0,1001.11};
-        datum4.isNull = new boolean[]{false, false, false};
-        theData.add(datum4);
+        final VariantDataTable theData = new VariantDataTable(3);
+        addDatum(theData, true, new double[]{0.0,-10.0,10.0});
+        addDatum(theData, true, new double[]{0.0,-9.0,15.0});
+        addDatum(theData, false, new double[]{0.0,1.0,999.0});
+        addDatum(theData, false, new double[]{0.015,2.0,1001.11});
 
         vdm.setData(theData);
 
@@ -65,30 +45,22 @@ public class VariantDataManagerUnitTest extends GATKBaseTest {
     @Test
     public final void testDownSamplingTrainingData() {
         final int MAX_NUM_TRAINING_DATA = 5000;
-        final double passingQual = 400.0;
         final VariantRecalibratorArgumentCollection VRAC = new VariantRecalibratorArgumentCollection();
         VRAC.MAX_NUM_TRAINING_DATA = MAX_NUM_TRAINING_DATA;
 
         VariantDataManager vdm = new VariantDataManager(new ArrayList<String>(), VRAC);
-        final List<VariantDatum> theData = new ArrayList<>();
+        final VariantDataTable theData = new VariantDataTable(0);
         for( int iii = 0; iii < MAX_NUM_TRAINING_DATA * 10; iii++) {
-            final VariantDatum datum = new VariantDatum();
-            datum.atTrainingSite = true;
-            datum.failingSTDThreshold = false;
-            datum.originalQual = passingQual;
-            theData.add(datum);
+            final int datum = theData.add(null, null, null);
+            theData.setAtTrainingSite(datum, true);
         }
 
         for( int iii = 0; iii < MAX_NUM_TRAINING_DATA * 2; iii++) {
-            final VariantDatum datum = new VariantDatum();
-            datum.atTrainingSite = false;
-            datum.failingSTDThreshold = false;
-            datum.originalQual = passingQual;
-            theData.add(datum);
+            theData.add(null, null, null);
         }
 
         vdm.setData(theData);
-        final List<VariantDatum> trainingData = vdm.getTrainingData();
+        final VariantDataTable trainingData = vdm.getTrainingData();
 
         Assert.assertTrue( trainingData.size() == MAX_NUM_TRAINING_DATA );
     }
@@ -96,35 +68,28 @@ public class VariantDataManagerUnitTest extends GATKBaseTest {
     @Test
     public final void testDropAggregateData() {
         final int MAX_NUM_TRAINING_DATA = 5000;
-        final double passingQual = 400.0;
         final VariantRecalibratorArgumentCollection VRAC = new VariantRecalibratorArgumentCollection();
         VRAC.MAX_NUM_TRAINING_DATA = MAX_NUM_TRAINING_DATA;
 
         VariantDataManager vdm = new VariantDataManager(new ArrayList<String>(), VRAC);
-        final List<VariantDatum> theData = new ArrayList<>();
+        final VariantDataTable theData = new VariantDataTable(0);
         for( int iii = 0; iii < MAX_NUM_TRAINING_DATA * 10; iii++) {
-            final VariantDatum datum = new VariantDatum();
-            datum.atTrainingSite = true;
-            datum.isAggregate = false;
-            datum.failingSTDThreshold = false;
-            datum.originalQual = passingQual;
-            theData.add(datum);
+            final int datum = theData.add(null, null, null);
+            theData.setAtTrainingSite(datum, true);
+            theData.setAggregate(datum, false);
         }
 
         for( int iii = 0; iii < MAX_NUM_TRAINING_DATA * 2; iii++) {
-            final VariantDatum datum = new VariantDatum();
-            datum.atTrainingSite = false;
-            datum.isAggregate = true;
-            datum.failingSTDThreshold = false;
-            datum.originalQual = passingQual;
-            theData.add(datum);
+            final int datum = theData.add(null, null, null);
+            theData.setAggregate(datum, true);
         }
 
         vdm.setData(theData);
         vdm.dropAggregateData();
 
-        for( final VariantDatum datum : vdm.getData() ) {
-            Assert.assertFalse( datum.isAggregate );
+        Assert.assertEquals( vdm.getData().size(), MAX_NUM_TRAINING_DATA * 10 );
+        for( int datum = 0; datum < vdm.getData().size(); datum++ ) {
+            Assert.assertFalse( vdm.getData().isAggregate(datum) );
         }
     }
 }
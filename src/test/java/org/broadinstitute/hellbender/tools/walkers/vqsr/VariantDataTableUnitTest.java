@@ -0,0 +1,164 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.variant.variantcontext.Allele;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class VariantDataTableUnitTest extends GATKBaseTest {
+    private static final SAMSequenceDictionary DICTIONARY = new SAMSequenceDictionary(Arrays.asList(
+            new SAMSequenceRecord("1", 10000),
+            new SAMSequenceRecord("2", 10000)));
+
+    /**
+     * Creates a table with a single annotation, with the value of the annotation for each datum equal to its index.
+     */
+    private static VariantDataTable createTable(final double... lods) {
+        final VariantDataTable data = new VariantDataTable(1);
+        for (final double lod : lods) {
+            final int datum = data.add(null, null, null);
+            data.setAnnotation(datum, 0, datum);
+            data.setLod(datum, lod);
+        }
+        return data;
+    }
+
+    private static List<Integer> getIds(final VariantDataTable data) {
+        return IntStream.range(0, data.size()).mapToObj(datum -> (int) data.getAnnotation(datum, 0)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFields() {
+        final VariantDataTable data = new VariantDataTable(2);
+        final Allele ref = Allele.create("A", true);
+        final Allele alt = Allele.create("C", false);
+        final int datum = data.add(new SimpleInterval("2", 100, 101), ref, alt);
+        final int aggregateDatum = data.add(null, null, null);
+        data.setKnown(datum, true);
+        data.setAggregate(aggregateDatum, true);
+        data.setAggregate(aggregateDatum, false);
+        data.setAtAntiTrainingSite(aggregateDatum, true);
+        data.setNull(datum, 1, true);
+
+        Assert.assertEquals(data.size(), 2);
+        Assert.assertEquals(data.getLocation(datum), new SimpleInterval("2", 100, 101));
+        Assert.assertNull(data.getLocation(aggregateDatum));
+        Assert.assertEquals(data.getReferenceAllele(datum), ref);
+        Assert.assertEquals(data.getAlternateAllele(datum), alt);
+        Assert.assertNull(data.getAlternateAllele(aggregateDatum));
+        Assert.assertTrue(data.isKnown(datum));
+        Assert.assertFalse(data.isKnown(aggregateDatum));
+        Assert.assertFalse(data.isAggregate(aggregateDatum));
+        Assert.assertTrue(data.isAtAntiTrainingSite(aggregateDatum));
+        Assert.assertFalse(data.isAtAntiTrainingSite(datum));
+        Assert.assertTrue(data.hasMissingAnnotations(datum));
+        Assert.assertFalse(data.hasMissingAnnotations(aggregateDatum));
+    }
+
+    @Test
+    public void testDerivedTablesShareFields() {
+        final VariantDataTable data = createTable(0., 1., 2., 3., 4.);
+        final VariantDataTable evenData = data.filter(datum -> datum % 2 == 0);
+        Assert.assertEquals(getIds(evenData), Arrays.asList(0, 2, 4));
+
+        evenData.setLod(1, -10.);
+        Assert.assertEquals(data.getLod(2), -10.);
+
+        //removing data from one table does not affect the others
+        evenData.removeIf(datum -> evenData.getLod(datum) < 0.);
+        Assert.assertEquals(getIds(evenData), Arrays.asList(0, 4));
+        Assert.assertEquals(data.size(), 5);
+
+        final VariantDataTable combinedData = VariantDataTable.concatenate(evenData, data.head(2));
+        Assert.assertEquals(getIds(combinedData), Arrays.asList(0, 4, 0, 1));
+    }
+
+    @Test
+    public void testShuffleMatchesCollectionsShuffle() {
+        final VariantDataTable data = createTable(new double[100]);
+        final List<Integer> expectedIds = getIds(data);
+        Collections.shuffle(expectedIds, new Random(13));
+        data.shuffle(new Random(13));
+        Assert.assertEquals(getIds(data), expectedIds);
+    }
+
+    @Test
+    public void testSortByLodIsStable() {
+        final VariantDataTable data = createTable(2., 1., 2., Double.NEGATIVE_INFINITY, 1., 0.);
+        data.sortByLod();
+        Assert.assertEquals(getIds(data), Arrays.asList(3, 5, 1, 4, 0, 2));
+    }
+
+    @Test
+    public void testSortByCoordinateIsStable() {
+        final List<SimpleInterval> locations = Arrays.asList(
+                new SimpleInterval("2", 10, 10),
+                new SimpleInterval("1", 20, 20),
+                new SimpleInterval("1", 10, 12),
+                new SimpleInterval("1", 10, 10),
+                new SimpleInterval("1", 20, 20));
+        final VariantDataTable data = new VariantDataTable(1);
+        for (final SimpleInterval location : locations) {
+            final int datum = data.add(location, null, null);
+            data.setAnnotation(datum, 0, datum);
+        }
+        data.sortByCoordinate(DICTIONARY);
+        Assert.assertEquals(getIds(data), Arrays.asList(3, 2, 1, 4, 0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSortByCoordinateWithoutLocation() {
+        final VariantDataTable data = new VariantDataTable(1);
+        data.add(new SimpleInterval("1", 10, 10), null, null);
+        data.add(null, null, null);
+        data.sortByCoordinate(DICTIONARY);
+    }
+
+    @Test
+    public void testReorderAnnotations() {
+        final VariantDataTable data = new VariantDataTable(3);
+        for (int i = 0; i < 3; i++) {
+            final int datum = data.add(null, null, null);
+            for (int annotation = 0; annotation < 3; annotation++) {
+                data.setAnnotation(datum, annotation, 10 * datum + annotation);
+            }
+            data.setNull(datum, 0, true);
+        }
+        final VariantDataTable subset = data.filter(datum -> datum != 1);
+        subset.reorderAnnotations(Arrays.asList(2, 0, 1));
+
+        Assert.assertEquals(data.getAnnotations(0), new double[]{2., 0., 1.});
+        Assert.assertEquals(data.getAnnotations(1), new double[]{10., 11., 12.});
+        Assert.assertEquals(data.getAnnotations(2), new double[]{22., 20., 21.});
+        Assert.assertEquals(subset.copyAnnotations(), new double[]{2., 0., 1., 22., 20., 21.});
+        Assert.assertTrue(data.isNull(0, 1));
+        Assert.assertFalse(data.isNull(0, 0));
+        Assert.assertTrue(data.isNull(1, 0));
+    }
+
+    @Test
+    public void testGrowth() {
+        final VariantDataTable data = new VariantDataTable(2);
+        final List<Double> lods = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final int datum = data.add(new SimpleInterval("1", i + 1, i + 1), null, null);
+            data.setLod(datum, i);
+            data.setAnnotation(datum, 1, -i);
+            lods.add((double) i);
+        }
+        Assert.assertEquals(IntStream.range(0, data.size()).mapToObj(data::getLod).collect(Collectors.toList()), lods);
+        Assert.assertEquals(data.getAnnotation(9999, 1), -9999.);
+        Assert.assertEquals(data.getLocation(9999), new SimpleInterval("1", 10000, 10000));
+    }
+}
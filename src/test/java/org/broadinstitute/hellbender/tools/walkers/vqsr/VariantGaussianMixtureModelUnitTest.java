@@ -12,9 +12,6 @@ import java.io.File;
 import java.util.*;
 
 public final class VariantGaussianMixtureModelUnitTest extends GATKBaseTest {
-    private static int N_VARIANTS = 100;
-    private VariantDatum[] variantData1 = new VariantDatum[N_VARIANTS];
-
     private String testDir = CommandLineProgramTest.getTestDataDir() + "/walkers/VQSR/TrancheManagerUnitTest/";
 
     private final File QUAL_DATA = new File(testDir + "tranches.raw.dat");
@@ -22,19 +19,18 @@ public final class VariantGaussianMixtureModelUnitTest extends GATKBaseTest {
     private final File EXPECTED_TRANCHES_NEW = new File(testDir + "tranches.6.txt");
     private final File EXPECTED_TRANCHES_OLD = new File(testDir + "tranches.4.txt");
 
-    private ArrayList<VariantDatum> readData() throws java.io.IOException{
-        ArrayList<VariantDatum> vd = new ArrayList<VariantDatum>();
+    private VariantDataTable readData() throws java.io.IOException{
+        VariantDataTable vd = new VariantDataTable(0);
         for ( String line : new XReadLines(Utils.nonNull(QUAL_DATA).toPath(), true) ) {
             String[] parts = line.split("\t");
             // QUAL,TRANSITION,ID,LOD,FILTER
             if ( ! parts[0].equals("QUAL") ) {
-                VariantDatum datum = new VariantDatum();
-                datum.lod = Double.valueOf(parts[3]);
-                datum.isTransition = parts[1].equals("1");
-                datum.isKnown = ! parts[2].equals(".");
-                datum.isSNP = true;
-                datum.atTruthSite = datum.isKnown;
-                vd.add(datum);
+                final int datum = vd.add(null, null, null);
+                vd.setLod(datum, Double.valueOf(parts[3]));
+                vd.setTransition(datum, parts[1].equals("1"));
+                vd.setKnown(datum, ! parts[2].equals("."));
+                vd.setSNP(datum, true);
+                vd.setAtTruthSite(datum, vd.isKnown(datum));
             }
         }
 
@@ -79,7 +75,7 @@ public final class VariantGaussianMixtureModelUnitTest extends GATKBaseTest {
         }
     }
 
-    private static List<TruthSensitivityTranche> findMyTranches(ArrayList<VariantDatum> vd, List<Double> tranches) {
+    private static List<TruthSensitivityTranche> findMyTranches(VariantDataTable vd, List<Double> tranches) {
         final int nCallsAtTruth = TrancheManager.countCallsAtTruth( vd, Double.NEGATIVE_INFINITY );
         final TrancheManager.SelectionMetric metric = new TrancheManager.TruthSensitivityMetric( nCallsAtTruth );
         return TrancheManager.findTranches(vd, tranches, metric, VariantRecalibratorArgumentCollection.Mode.SNP);
@@ -87,7 +83,7 @@ public final class VariantGaussianMixtureModelUnitTest extends GATKBaseTest {
 
     @Test
     public final void testFindTranches1() throws java.io.FileNotFoundException, java.io.IOException {
-        ArrayList<VariantDatum> vd = readData();
+        VariantDataTable vd = readData();
         List<TruthSensitivityTranche> tranches = findMyTranches(vd, TRUTH_SENSITIVITY_CUTS);
 
         assertTranchesAreTheSame(read(EXPECTED_TRANCHES_NEW), tranches, true, false);
@@ -95,7 +91,7 @@ public final class VariantGaussianMixtureModelUnitTest extends GATKBaseTest {
 
     @Test(expectedExceptions = {UserException.class})
     public final void testBadFDR() throws java.io.IOException, java.io.FileNotFoundException {
-        ArrayList<VariantDatum> vd = readData();
+        VariantDataTable vd = readData();
         findMyTranches(vd, new ArrayList<Double>(Arrays.asList(-1.0)));
     }
 }
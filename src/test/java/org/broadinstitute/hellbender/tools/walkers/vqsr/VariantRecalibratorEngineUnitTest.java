@@ -0,0 +1,73 @@
+package org.broadinstitute.hellbender.tools.walkers.vqsr;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public final class VariantRecalibratorEngineUnitTest extends GATKBaseTest {
+    private static final int NUM_DATA = 3000;
+    private static final int NUM_ANNOTATIONS = 4;
+
+    //two clusters, with an annotation missing for some data so that marginalization is exercised during evaluation
+    private static VariantDataTable createData() {
+        final Random random = new Random(7);
+        final VariantDataTable data = new VariantDataTable(NUM_ANNOTATIONS);
+        for (int i = 0; i < NUM_DATA; i++) {
+            final int datum = data.add(null, null, null);
+            for (int j = 0; j < NUM_ANNOTATIONS; j++) {
+                data.setAnnotation(datum, j, random.nextGaussian() + (i % 3 == 0 ? 2. * j : -0.5 * j));
+            }
+            data.setNull(datum, 1, i % 97 == 0);
+        }
+        return data;
+    }
+
+    /**
+     * Trains positive and negative models and evaluates them contrastively, returning the lods.
+     */
+    private static double[] trainAndEvaluate(final int numThreads, final List<List<Double>> gaussianParameters) {
+        Utils.resetRandomGenerator();
+        final VariantRecalibratorArgumentCollection vrac = new VariantRecalibratorArgumentCollection();
+        vrac.NUM_THREADS = numThreads;
+        final VariantRecalibratorEngine engine = new VariantRecalibratorEngine(vrac);
+        final VariantDataTable data = createData();
+
+        final GaussianMixtureModel goodModel = engine.generateModel(data, 2);
+        final GaussianMixtureModel badModel = engine.generateModel(data.filter(datum -> datum >= 1000), 2);
+        engine.evaluateData(data, goodModel, false);
+        engine.evaluateData(data, badModel, true);
+        Assert.assertFalse(goodModel.failedToConverge);
+        Assert.assertFalse(badModel.failedToConverge);
+
+        for (final MultivariateGaussian gaussian : goodModel.getModelGaussians()) {
+            final List<Double> parameters = new ArrayList<>();
+            parameters.add(gaussian.pMixtureLog10);
+            for (int i = 0; i < NUM_ANNOTATIONS; i++) {
+                parameters.add(gaussian.mu[i]);
+                for (int j = 0; j < NUM_ANNOTATIONS; j++) {
+                    parameters.add(gaussian.sigma.get(i, j));
+                }
+            }
+            gaussianParameters.add(parameters);
+        }
+        return IntStream.range(0, data.size()).mapToDouble(data::getLod).toArray();
+    }
+
+    @Test
+    public void testResultsDoNotDependOnNumberOfThreads() {
+        final List<List<Double>> singleThreadedParameters = new ArrayList<>();
+        final double[] singleThreadedLods = trainAndEvaluate(1, singleThreadedParameters);
+        final List<List<Double>> multiThreadedParameters = new ArrayList<>();
+        final double[] multiThreadedLods = trainAndEvaluate(4, multiThreadedParameters);
+
+        //results should be identical, not just close
+        Assert.assertEquals(multiThreadedParameters, singleThreadedParameters);
+        Assert.assertEquals(multiThreadedLods, singleThreadedLods);
+    }
+}
@@ -0,0 +1,76 @@
+package org.broadinstitute.hellbender.utils;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public final class OrderedResultQueueUnitTest extends GATKBaseTest {
+
+    @Test
+    public void testResultsAreConsumedInOrder() {
+        final OrderedResultQueue<Integer> queue = new OrderedResultQueue<>();
+        final List<CompletableFuture<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new CompletableFuture<>());
+            final int taskIndex = i;
+            queue.add(tasks.get(i), () -> "running task " + taskIndex);
+        }
+        final List<Integer> consumed = new ArrayList<>();
+
+        // later tasks finishing first must wait for the earlier ones
+        tasks.get(3).complete(3);
+        tasks.get(1).complete(1);
+        queue.consume(4, consumed::add);
+        Assert.assertTrue(consumed.isEmpty());
+        Assert.assertEquals(queue.size(), 4);
+
+        // finished tasks at the front are consumed even if fewer than the maximum are pending
+        tasks.get(0).complete(0);
+        queue.consume(4, consumed::add);
+        Assert.assertEquals(consumed, Arrays.asList(0, 1));
+        Assert.assertEquals(queue.size(), 2);
+
+        tasks.get(2).complete(2);
+        queue.consume(0, consumed::add);
+        Assert.assertEquals(consumed, Arrays.asList(0, 1, 2, 3));
+        Assert.assertEquals(queue.size(), 0);
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testUncheckedExceptionIsRethrownUnwrapped() {
+        final CompletableFuture<Integer> task = new CompletableFuture<>();
+        task.completeExceptionally(new UserException.BadInput("bad input"));
+        Utils.getResult(task, "testing");
+    }
+
+    @Test(expectedExceptions = OutOfMemoryError.class)
+    public void testErrorIsRethrownUnwrapped() {
+        final CompletableFuture<Integer> task = new CompletableFuture<>();
+        task.completeExceptionally(new OutOfMemoryError());
+        Utils.getResult(task, "testing");
+    }
+
+    @Test
+    public void testCheckedExceptionIsWrapped() {
+        final OrderedResultQueue<Integer> queue = new OrderedResultQueue<>();
+        final CompletableFuture<Integer> task = new CompletableFuture<>();
+        final IOException cause = new IOException("cannot read");
+        task.completeExceptionally(cause);
+        queue.add(task, () -> "reading site 1:1000");
+        try {
+            queue.consume(0, result -> Assert.fail("a failed task has no result"));
+            Assert.fail("the exception should have been rethrown");
+        } catch (final GATKException ex) {
+            Assert.assertSame(ex.getCause(), cause);
+            Assert.assertTrue(ex.getMessage().contains("reading site 1:1000"), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.broadinstitute.hellbender.utils.variant;
+
+import htsjdk.variant.variantcontext.*;
+import htsjdk.variant.variantcontext.VariantContextUtils.JexlVCMatchExp;
+import org.apache.commons.jexl2.JexlEngine;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class JexlVariantMatcherUnitTest extends GATKBaseTest {
+    private static final Allele REF = Allele.create("A", true);
+    private static final Allele ALT = Allele.create("C", false);
+    private static final Allele INSERTION = Allele.create("AT", false);
+
+    private static List<VariantContext> createVariants() {
+        final Genotype homRef = new GenotypeBuilder("homRef", Arrays.asList(REF, REF)).GQ(99).DP(30).AD(new int[]{30, 0}).make();
+        final Genotype het = new GenotypeBuilder("het", Arrays.asList(REF, ALT)).GQ(15).DP(12).attribute("XX", "0.5").make();
+        final Genotype filteredHomVar = new GenotypeBuilder("homVar", Arrays.asList(ALT, ALT)).GQ(40).filter("LowDP;LowGQ").make();
+        final Genotype noCall = new GenotypeBuilder("noCall", Arrays.asList(Allele.NO_CALL, Allele.NO_CALL)).make();
+        final Genotype filteredInsertion = new GenotypeBuilder("homVar", Arrays.asList(REF, INSERTION)).GQ(20).DP(5).filter("LowDP").make();
+
+        final List<VariantContext> variants = new ArrayList<>();
+        variants.add(new VariantContextBuilder("test", "1", 100, 100, Arrays.asList(REF, ALT))
+                .attribute("DP", "35").attribute("QD", 1.5).attribute("set", "Intersection").log10PError(-5.)
+                .genotypes(homRef, het, filteredHomVar, noCall).make());
+        variants.add(new VariantContextBuilder("test", "2", 200, 200, Arrays.asList(REF, ALT))
+                .attribute("DP", 8).filter("LowQual").genotypes(het, noCall).make());
+        variants.add(new VariantContextBuilder("test", "2", 300, 300, Arrays.asList(REF, INSERTION))
+                .attribute("QD", "12.25").attribute("FS", "70.5").passFilters().log10PError(-2.).genotypes(homRef, filteredInsertion).make());
+        variants.add(new VariantContextBuilder("test", "3", 400, 400, Collections.singletonList(REF)).make());
+        return variants;
+    }
+
+    @DataProvider(name = "expressions")
+    public Object[][] expressions() {
+        return new Object[][]{
+                {"QD < 2.0", true},
+                {"QD < 2.0 || DP > 10", true},
+                {"QD >= 2 && DP <= 10.5", true},
+                {"!(FS > 60.0) and DP != 35", true},
+                {"FS > 60 || QD < 2 && DP < 10", true},
+                {"QD < -2", true},
+                {"set == \"Intersection\"", true},
+                {"CHROM == \"2\" && POS > 250", true},
+                {"QUAL > 30.0 || FILTER == 1", true},
+                {"TYPE == \"SNP\" && N_ALLELES == 2", true},
+                {"LowQual == 1", true},
+                {"homRefCount > 0 && hetCount == 1", true},
+                {"vc.isSNP()", true},
+                {"vc.isIndel() || vc.isFiltered()", true},
+                {"!vc.isFiltered()", true},
+                {"isHet == 1", true},
+                {"GQ < 20 || isHomVar == 1", true},
+                {"GT == \"A/C\"", true},
+                {"FT == \"PASS\"", true},
+                {"isPassFT == 0 || LowGQ == 1", true},
+                {"XX > 0.25", true},
+                {"g.isCalled() && g.getGQ() > 20", true},
+                {"DP", true},
+                {"!QD", true},
+                {"true", true},
+                {"null == QD", true},
+                //unsupported forms are evaluated by JEXL
+                {"QD + 1 > 2", false},
+                {"set =~ \"Inter.*\"", false},
+                {"vc.hasAttribute(\"DP\")", false},
+                {"vc.start == 100", false},
+        };
+    }
+
+    private static Object matchWithJexl(final VariantContext vc, final Genotype g, final JexlVCMatchExp exp, final JexlMissingValueTreatment treatment) {
+        try {
+            return VariantContextUtils.match(vc, g, exp, treatment);
+        } catch (final RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static Object matchWithMatcher(final VariantContext vc, final Genotype g, final JexlVariantMatcher matcher, final JexlMissingValueTreatment treatment) {
+        try {
+            return matcher.match(vc, g, treatment);
+        } catch (final RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    @Test(dataProvider = "expressions")
+    public void testMatchesJexl(final String expression, final boolean isCompiled) {
+        final JexlVCMatchExp exp = VariantContextUtils.initializeMatchExps(Collections.singletonList("test"), Collections.singletonList(expression)).get(0);
+        final JexlVariantMatcher matcher = JexlVariantMatcher.compile(exp);
+        Assert.assertEquals(matcher.isCompiled(), isCompiled);
+        Assert.assertSame(matcher.getMatchExp(), exp);
+
+        final JexlEngine engine = VariantContextUtils.engine.get();
+        final boolean wasSilent = engine.isSilent();
+        final boolean wasLenient = engine.isLenient();
+        try {
+            for (final boolean silent : new boolean[]{false, true}) {
+                for (final boolean lenient : new boolean[]{false, true}) {
+                    engine.setSilent(silent);
+                    engine.setLenient(lenient);
+                    for (final VariantContext vc : createVariants()) {
+                        final List<Genotype> genotypes = new ArrayList<>(vc.getGenotypes());
+                        genotypes.add(null);
+                        for (final Genotype g : genotypes) {
+                            for (final JexlMissingValueTreatment treatment : JexlMissingValueTreatment.values()) {
+                                Assert.assertEquals(matchWithMatcher(vc, g, matcher, treatment), matchWithJexl(vc, g, exp, treatment),
+                                        String.format("%s at %s:%d for %s (silent = %b, lenient = %b, %s)", expression, vc.getContig(), vc.getStart(), g, silent, lenient, treatment));
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            engine.setSilent(wasSilent);
+            engine.setLenient(wasLenient);
+        }
+    }
+}